@@ -0,0 +1,139 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.spi.ToolProvider;
+import java.util.stream.Stream;
+
+/**
+ * 起動を速くした配布物を作るツール (faststart プロファイルの package で実行。pom.xml 参照)
+ * <pre>
+ * java src/build/java/FastStart.java target/solvingriddles-0.0.1-SNAPSHOT.jar target/faststart [--no-jlink]
+ * </pre>
+ * 出力先には次のものができる (Dockerfile はこの並びをそのまま /app に置く):
+ * <ul>
+ *   <li>lib/ … 依存ライブラリ (jar を展開したもの。めったに変わらんので Docker のレイヤーを分ける)</li>
+ *   <li>app.jar … アプリ本体 (Spring AOT で作った初期化コード入り)</li>
+ *   <li>jre/ … jdeps で調べて、使うモジュールだけ jlink で入れた JRE</li>
+ *   <li>app.jsa … 試運転で作った AppCDS アーカイブ (読み込んだクラスをそのまま mmap で使い回す)</li>
+ *   <li>snapshot/ … 試運転で書き出した問題データのスナップショット</li>
+ * </ul>
+ * 試運転は本番と同じ JRE・同じパスで、Spring のコンテキストを作り終わったところで止める
+ * (spring.context.exit=onRefresh)。問題データの読み込みも @PostConstruct なので、その分のクラスもアーカイブに入る。
+ * CDS はパスと jar の更新日時が学習時と同じでないと使われないので、出力先は本番で置く場所と同じにしておくこと。
+ */
+public class FastStart {
+
+    // jdeps が見つけられない (リフレクションやサービスで使われる) けど要るモジュール
+    private static final List<String> EXTRA_MODULES = List.of("jdk.crypto.ec", "jdk.zipfs");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: java FastStart.java <boot-jar> <output-dir> [--no-jlink]");
+            System.exit(2);
+        }
+        Path bootJar = Path.of(args[0]).toAbsolutePath();
+        Path out = Path.of(args[1]).toAbsolutePath();
+        // Maven からは --jlink / --no-jlink のどちらかが来る
+        boolean jlink = !List.of(args).contains("--no-jlink");
+
+        delete(out);
+        Path appJar = extract(bootJar, out);
+        Path java = jlink ? jlink(appJar, out.resolve("jre")) : Path.of(System.getProperty("java.home"), "bin", "java");
+        train(java, appJar, out);
+
+        System.out.println("[faststart] できた: " + out);
+        System.out.println("[faststart] 起動: " + String.join(" ", command(java, appJar, out)));
+    }
+
+    // 本番の起動コマンド (Dockerfile の ENTRYPOINT と同じ)
+    static List<String> command(Path java, Path appJar, Path out) {
+        return List.of(java.toString(),
+                "-XX:SharedArchiveFile=" + out.resolve("app.jsa"),
+                "-Dspring.aot.enabled=true",
+                "-Driddles.snapshot-dir=" + out.resolve("snapshot"),
+                "-jar", appJar.toString());
+    }
+
+    // Spring Boot の tools モードで jar を展開して、本体を app.jar にする (lib/ は Class-Path で参照される)
+    private static Path extract(Path bootJar, Path out) throws IOException, InterruptedException {
+        run(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Djarmode=tools", "-jar", bootJar.toString(), "extract", "--destination", out.toString()));
+        Path extracted = out.resolve(bootJar.getFileName());
+        Path appJar = out.resolve("app.jar");
+        Files.move(extracted, appJar);
+        return appJar;
+    }
+
+    // 使っているモジュールだけ入れた JRE を作る
+    private static Path jlink(Path appJar, Path jre) throws IOException {
+        List<String> libs = new ArrayList<>();
+        try (Stream<Path> files = Files.list(appJar.resolveSibling("lib"))) {
+            files.map(Path::toString).sorted().forEach(libs::add);
+        }
+        String modules = tool("jdeps",
+                "--ignore-missing-deps", "-q", "--recursive", "--multi-release", "21", "--print-module-deps",
+                "--class-path", String.join(File.pathSeparator, libs), appJar.toString()).strip();
+        TreeSet<String> all = new TreeSet<>(List.of(modules.split(",")));
+        all.addAll(EXTRA_MODULES);
+        System.out.println("[faststart] jlink modules: " + String.join(",", all));
+
+        tool("jlink", "--add-modules", String.join(",", all),
+                "--strip-debug", "--no-man-pages", "--no-header-files", "--compress=zip-6",
+                // 動的アーカイブ (app.jsa) は JRE 側の基本アーカイブの上に積むので、それも作っておく
+                "--generate-cds-archive",
+                "--output", jre.toString());
+        return jre.resolve("bin").resolve("java");
+    }
+
+    // 本番と同じ JRE・パスで試運転して、AppCDS アーカイブとスナップショットを作る
+    private static void train(Path java, Path appJar, Path out) throws IOException, InterruptedException {
+        List<String> cmd = new ArrayList<>(command(java, appJar, out));
+        cmd.set(1, "-XX:ArchiveClassesAtExit=" + out.resolve("app.jsa"));
+        cmd.add(cmd.size() - 2, "-Dspring.context.exit=onRefresh");
+        // 試運転ではCookieを作らないので、鍵はその場限りのものでええ
+        cmd.add(cmd.size() - 2, "-Dprogress.secret=faststart-training");
+        run(cmd);
+        if (!Files.exists(out.resolve("app.jsa"))) {
+            throw new IllegalStateException("AppCDS アーカイブができませんでした");
+        }
+    }
+
+    private static String tool(String name, String... args) {
+        ToolProvider provider = ToolProvider.findFirst(name)
+                .orElseThrow(() -> new IllegalStateException(name + " がありません (JDK で実行してください)"));
+        StringWriter out = new StringWriter();
+        StringWriter err = new StringWriter();
+        int code = provider.run(new PrintWriter(out), new PrintWriter(err), args);
+        if (code != 0) {
+            throw new IllegalStateException(name + " に失敗 (" + code + "): " + err + out);
+        }
+        return out.toString();
+    }
+
+    private static void run(List<String> cmd) throws IOException, InterruptedException {
+        System.out.println("[faststart] " + String.join(" ", cmd));
+        Process p = new ProcessBuilder(cmd).inheritIO().start();
+        int code = p.waitFor();
+        if (code != 0) {
+            throw new IllegalStateException("失敗 (" + code + "): " + String.join(" ", cmd));
+        }
+    }
+
+    private static void delete(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(dir)) {
+            for (Path p : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 静的ファイルの圧縮版 (.gz / .br) をビルド時に作るツール
+ * Maven の process-resources で、target/classes/static に対して実行する (pom.xml 参照)。
+ * <pre>
+ * java src/build/java/PrecompressAssets.java target/classes/static
+ * </pre>
+ * 作ったファイルは Spring の EncodedResourceResolver が Accept-Encoding を見て返す。
+ * <ul>
+ *   <li>gzip は JDK だけで作る (最大圧縮)</li>
+ *   <li>brotli は JDK に実装がないので、brotli コマンドがある時だけ作る (なければ gzip だけ)</li>
+ *   <li>PNG などの圧縮済み画像は小さくならないので対象外</li>
+ *   <li>元より1割以上小さくならない時は置かない</li>
+ * </ul>
+ */
+public class PrecompressAssets {
+
+    // 圧縮する拡張子 (テキスト系と、ビットマップのままのアイコン)
+    private static final Set<String> COMPRESSIBLE = Set.of("css", "js", "html", "svg", "json", "txt", "ico", "map");
+
+    // これより小さいファイルは圧縮しない (ヘッダーの分で得しない)
+    private static final long MIN_SIZE = 512;
+
+    // 元のサイズに対して、この割合より小さくなった時だけ置く
+    private static final double MAX_RATIO = 0.9;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            System.err.println("usage: java PrecompressAssets.java <static-dir>");
+            System.exit(2);
+        }
+        Path root = Path.of(args[0]);
+        if (!Files.isDirectory(root)) {
+            System.out.println("[assets] " + root + " がないのでスキップ");
+            return;
+        }
+        boolean brotli = brotliAvailable();
+
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile).filter(PrecompressAssets::compressible).toList();
+        }
+        int written = 0;
+        for (Path file : files) {
+            written += gzip(file) ? 1 : 0;
+            written += brotli && brotli(file) ? 1 : 0;
+        }
+        System.out.println("[assets] " + files.size() + " files, " + written + " compressed variants"
+                + (brotli ? "" : " (brotli コマンドがないので gzip のみ)"));
+    }
+
+    private static boolean compressible(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && COMPRESSIBLE.contains(name.substring(dot + 1)) && size(file) >= MIN_SIZE;
+    }
+
+    // file.gz を作る (元のファイルより新しければ作り直さない)
+    private static boolean gzip(Path file) throws IOException {
+        Path gz = sibling(file, ".gz");
+        if (upToDate(file, gz)) {
+            return false;
+        }
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gz)) {
+            { def.setLevel(Deflater.BEST_COMPRESSION); }
+        }) {
+            Files.copy(file, out);
+        }
+        return keepIfSmaller(file, gz);
+    }
+
+    // file.br を作る (brotli コマンドに任せる)
+    private static boolean brotli(Path file) throws IOException, InterruptedException {
+        Path br = sibling(file, ".br");
+        if (upToDate(file, br)) {
+            return false;
+        }
+        Process p = new ProcessBuilder("brotli", "-q", "11", "-f", "-o", br.toString(), file.toString())
+                .inheritIO()
+                .start();
+        if (!p.waitFor(60, TimeUnit.SECONDS) || p.exitValue() != 0) {
+            p.destroyForcibly();
+            Files.deleteIfExists(br);
+            System.err.println("[assets] brotli に失敗: " + file);
+            return false;
+        }
+        return keepIfSmaller(file, br);
+    }
+
+    private static boolean keepIfSmaller(Path original, Path compressed) throws IOException {
+        if (size(compressed) > size(original) * MAX_RATIO) {
+            Files.delete(compressed);
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean upToDate(Path source, Path target) throws IOException {
+        return Files.exists(target)
+                && Files.getLastModifiedTime(target).compareTo(Files.getLastModifiedTime(source)) >= 0;
+    }
+
+    private static boolean brotliAvailable() {
+        try {
+            Process p = new ProcessBuilder("brotli", "--version").redirectErrorStream(true).start();
+            p.getInputStream().transferTo(OutputStream.nullOutputStream());
+            return p.waitFor(10, TimeUnit.SECONDS) && p.exitValue() == 0;
+        } catch (IOException | InterruptedException e) {
+            return false;
+        }
+    }
+
+    private static Path sibling(Path file, String suffix) {
+        return file.resolveSibling(file.getFileName() + suffix);
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 起動の速さを比べるツール (最初のリクエストに答えるまでの時間と、その時点の RSS)
+ * 比べたいものを「docker:イメージ名」か「cmd:起動コマンド」で並べて渡す。
+ * <pre>
+ * # Docker イメージ同士 (Dockerfile.jvm = 今までの fat jar、Dockerfile = faststart)
+ * java src/build/java/StartupBenchmark.java docker:solvingriddles:jvm docker:solvingriddles:faststart
+ *
+ * # ローカルで (./mvnw -Pfaststart exec:exec@startup でも同じ。pom.xml 参照)
+ * java src/build/java/StartupBenchmark.java "cmd:java -jar target/solvingriddles-0.0.1-SNAPSHOT.jar" "cmd:..."
+ * </pre>
+ * 起動コマンドを実行した瞬間から、{@code startup.path} (既定は "/") が 200 を返すまでを測る。
+ * RSS は最初のリクエストに答えた直後の /proc/&lt;pid&gt;/status の VmRSS (Docker はコンテナの PID 1)。
+ * その後 {@code startup.loadSeconds} 秒 (既定 5。0 なら測らない) 同じパスを
+ * {@code startup.clients} 本 (既定 4) で叩き続けて、1秒あたりのリクエスト数も測る
+ * (起動直後の数秒なので、JIT が温まりきる前の値。ネイティブイメージとの比較用)。
+ * 回数は {@code -Dstartup.runs} (既定 5)、結果は {@code -Dstartup.result} の JSON にも書く。
+ */
+public class StartupBenchmark {
+
+    private static final int PORT = Integer.getInteger("startup.port", 18080);
+    private static final int RUNS = Integer.getInteger("startup.runs", 5);
+    private static final String PATH = System.getProperty("startup.path", "/");
+    private static final Duration TIMEOUT = Duration.ofSeconds(Integer.getInteger("startup.timeout", 120));
+    private static final int LOAD_SECONDS = Integer.getInteger("startup.loadSeconds", 5);
+    private static final int CLIENTS = Integer.getInteger("startup.clients", 4);
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    /**
+     * 1回分の結果
+     * @param millis 最初のリクエストに答えるまで (ミリ秒)
+     * @param rssKb その時の RSS (KB)
+     * @param rps その後の1秒あたりのリクエスト数
+     */
+    record Sample(long millis, long rssKb, long rps) {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("usage: java StartupBenchmark.java <docker:image | cmd:command>...");
+            System.exit(2);
+        }
+        StringJoiner json = new StringJoiner(",\n  ", "[\n  ", "\n]\n");
+        System.out.printf(Locale.ROOT, "%-60s %12s %12s %12s %12s%n", "target", "first req ms", "(min)", "RSS MB", "req/s");
+        for (String target : args) {
+            List<Sample> samples = new ArrayList<>();
+            for (int i = 0; i < RUNS; i++) {
+                samples.add(target.startsWith("docker:") ? docker(target.substring(7)) : command(target.substring(4)));
+            }
+            long[] millis = samples.stream().mapToLong(Sample::millis).sorted().toArray();
+            long[] rss = samples.stream().mapToLong(Sample::rssKb).sorted().toArray();
+            long[] rps = samples.stream().mapToLong(Sample::rps).sorted().toArray();
+            System.out.printf(Locale.ROOT, "%-60s %12d %12d %12.1f %12d%n",
+                    abbreviate(target), median(millis), millis[0], median(rss) / 1024.0, median(rps));
+            json.add(String.format(Locale.ROOT,
+                    "{\"target\": \"%s\", \"runs\": %d, \"firstRequestMillis\": %d, \"minMillis\": %d, \"rssKb\": %d, \"requestsPerSecond\": %d, \"samples\": %s}",
+                    target.replace("\\", "\\\\").replace("\"", "\\\""), RUNS, median(millis), millis[0], median(rss), median(rps),
+                    Arrays.toString(samples.stream().mapToLong(Sample::millis).toArray())));
+        }
+        String result = System.getProperty("startup.result");
+        if (result != null) {
+            Files.writeString(Path.of(result), json.toString(), StandardCharsets.UTF_8);
+            System.out.println("[startup] " + result);
+        }
+    }
+
+    // Docker イメージを起動して測る (コンテナを作るところから)
+    private static Sample docker(String image) throws Exception {
+        long start = System.nanoTime();
+        String id = output("docker", "run", "-d", "--rm", "-p", PORT + ":8080", "-e", "PROGRESS_SECRET=startup-benchmark", image).strip();
+        try {
+            long millis = waitForFirstResponse(start, null);
+            long rss = rssKb(output("docker", "exec", id, "cat", "/proc/1/status"));
+            return new Sample(millis, rss, throughput());
+        } finally {
+            output("docker", "stop", "-t", "1", id);
+        }
+    }
+
+    // ローカルのコマンドを起動して測る (ポートは SERVER_PORT で渡す)
+    private static Sample command(String commandLine) throws Exception {
+        ProcessBuilder pb = new ProcessBuilder(commandLine.trim().split("\\s+"))
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        pb.environment().put("SERVER_PORT", String.valueOf(PORT));
+        long start = System.nanoTime();
+        Process p = pb.start();
+        try {
+            long millis = waitForFirstResponse(start, p);
+            long rss = rssKb(Files.readString(Path.of("/proc", String.valueOf(p.pid()), "status")));
+            return new Sample(millis, rss, throughput());
+        } finally {
+            p.destroy();
+            if (!p.waitFor(10, TimeUnit.SECONDS)) {
+                p.destroyForcibly();
+            }
+        }
+    }
+
+    private static long waitForFirstResponse(long start, Process process) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + PATH))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long deadline = start + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (process != null && !process.isAlive()) {
+                throw new IllegalStateException("起動に失敗しました (exit " + process.exitValue() + ")");
+            }
+            try {
+                if (CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+            } catch (IOException e) {
+                // まだ起動中
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException(TIMEOUT + " 以内に起動しませんでした");
+    }
+
+    // CLIENTS 本で LOAD_SECONDS 秒叩き続けて、200 が返った数を秒あたりにする
+    private static long throughput() throws InterruptedException {
+        if (LOAD_SECONDS <= 0) {
+            return 0;
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + PATH)).build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(LOAD_SECONDS);
+        LongAdder ok = new LongAdder();
+        List<Thread> clients = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.add(Thread.ofPlatform().start(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        if (CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                            ok.increment();
+                        }
+                    } catch (IOException e) {
+                        // 数えないだけ
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }));
+        }
+        for (Thread t : clients) {
+            t.join();
+        }
+        return ok.sum() / LOAD_SECONDS;
+    }
+
+    private static long rssKb(String status) {
+        for (String line : status.split("\n")) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return -1;
+    }
+
+    private static String output(String... cmd) throws IOException, InterruptedException {
+        Process p = new ProcessBuilder(cmd).redirectErrorStream(true).start();
+        String out = new String(p.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (p.waitFor() != 0) {
+            throw new IllegalStateException(String.join(" ", cmd) + " に失敗: " + out);
+        }
+        return out;
+    }
+
+    private static long median(long[] sorted) {
+        return sorted[sorted.length / 2];
+    }
+
+    private static String abbreviate(String s) {
+        return s.length() <= 60 ? s : "…" + s.substring(s.length() - 59);
+    }
+}
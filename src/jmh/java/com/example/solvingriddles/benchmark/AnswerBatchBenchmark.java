@@ -0,0 +1,74 @@
+package com.example.solvingriddles.benchmark;
+
+import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.model.AnswerCheck;
+import com.example.solvingriddles.model.AnswerResult;
+import com.example.solvingriddles.service.RankingService;
+import com.example.solvingriddles.service.RiddleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RiddleService.checkAnswers (まとめて判定) のベンチマーク
+ * 件数を変えて、1件ずつ checkAnswer を呼ぶのと比べる。
+ * 256件以上は並列で判定するので、コア数の多いマシンほど差が出る。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnswerBatchBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int size;
+
+    private RiddleService service;
+    private List<AnswerCheck> checks;
+
+    @Setup
+    public void setUp() {
+        service = new RiddleService(BenchmarkCatalogs.bundled(), BenchmarkCatalogs.metrics(), new RankingService(100_000));
+        // 完全一致・正規表現・存在しないIDを混ぜる
+        List<AnswerCheck> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(switch (i % 4) {
+                case 0 -> new AnswerCheck(AppConst.MODE_HACKER, 3, "CUT");
+                case 1 -> new AnswerCheck(AppConst.MODE_HACKER, 3, "copy");
+                case 2 -> new AnswerCheck(AppConst.MODE_CASUAL, 10, "お疲れさまでした");
+                default -> new AnswerCheck(AppConst.MODE_HACKER, 99_999, "anything");
+            });
+        }
+        checks = list;
+    }
+
+    @Benchmark
+    public List<AnswerResult> batch() {
+        return service.checkAnswers(checks);
+    }
+
+    @Benchmark
+    public int oneByOne() {
+        int correct = 0;
+        for (AnswerCheck check : checks) {
+            if (service.checkAnswer(check.mode(), check.id(), check.answer())) {
+                correct++;
+            }
+        }
+        return correct;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.solvingriddles.benchmark;
+
+import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.service.RankingService;
+import com.example.solvingriddles.service.RiddleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RiddleService.checkAnswer のベンチマーク
+ * 完全一致 / 正規表現 (読み込み時に HashSet に書き出し済み) それぞれの正解・不正解と、存在しないIDを計測する。
+ * regexCorrectKatakana は表記ゆれ (カタカナ → ひらがな) をそろえる分も含めた計測。
+ * legacyStringMatches は以前の実装 (毎回 String.matches) との比較用。
+ * (本番と同じくメトリクスの記録も含めて計測する)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnswerCheckBenchmark {
+
+    // CASUAL ID:10 の正解
+    private static final String REGEX_ANSWER = "^(おつかれさまでした|お疲れ様でした|お疲れさまでした)$";
+
+    private RiddleService service;
+
+    @Setup
+    public void setUp() {
+        service = new RiddleService(BenchmarkCatalogs.bundled(), BenchmarkCatalogs.metrics(), new RankingService(100_000));
+    }
+
+    @Benchmark
+    public boolean exactCorrect() {
+        return service.checkAnswer(AppConst.MODE_HACKER, 3, "CUT");
+    }
+
+    @Benchmark
+    public boolean exactWrong() {
+        return service.checkAnswer(AppConst.MODE_HACKER, 3, "copy");
+    }
+
+    @Benchmark
+    public boolean regexCorrect() {
+        return service.checkAnswer(AppConst.MODE_CASUAL, 10, "お疲れさまでした");
+    }
+
+    @Benchmark
+    public boolean regexCorrectKatakana() {
+        return service.checkAnswer(AppConst.MODE_CASUAL, 10, "オツカレサマデシタ");
+    }
+
+    @Benchmark
+    public boolean regexWrong() {
+        return service.checkAnswer(AppConst.MODE_CASUAL, 10, "おはようございます");
+    }
+
+    @Benchmark
+    public boolean unknownId() {
+        return service.checkAnswer(AppConst.MODE_HACKER, 99_999, "anything");
+    }
+
+    @Benchmark
+    public boolean legacyStringMatches() {
+        return "お疲れさまでした".matches(REGEX_ANSWER);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.solvingriddles.benchmark;
+
+import com.example.solvingriddles.metrics.RiddleMetrics;
+import com.example.solvingriddles.repository.RiddleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * ベンチマーク用の問題データを用意するヘルパー
+ * 同梱パックを読み込んだ保管庫と、指定件数の合成パックを作る。
+ */
+final class BenchmarkCatalogs {
+
+    // 合成パックを入れるモード名 (本番のモードとぶつからない名前)
+    static final String MODE_BENCH = "BENCH";
+
+    private BenchmarkCatalogs() {}
+
+    /**
+     * 同梱パック (data/*.json) を読み込んだ保管庫を作る
+     * @return 保管庫
+     */
+    static RiddleRepository bundled() {
+        RiddleRepository repository = new RiddleRepository(new ObjectMapper());
+        repository.init();
+        return repository;
+    }
+
+    /**
+     * メモリ上に記録するだけのメトリクスを作る
+     * @return メトリクス
+     */
+    static RiddleMetrics metrics() {
+        return new RiddleMetrics(new SimpleMeterRegistry());
+    }
+
+    /**
+     * 同梱パックに加えて、BENCH モードに size 件の合成パックを読み込んだ保管庫を作る
+     * ID は 1..size の連番、答えは半分が正規表現、半分が完全一致
+     * @param size 件数
+     * @return 保管庫
+     * @throws IOException 一時ファイルの書き込みに失敗した場合
+     */
+    static RiddleRepository withSynthetic(int size) throws IOException {
+        RiddleRepository repository = bundled();
+        Path file = Files.createTempFile("riddles-bench-", ".json");
+        try {
+            writePack(file, size);
+            repository.reload(MODE_BENCH, file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        return repository;
+    }
+
+    /**
+     * 合成パックをファイルに書き出す
+     * @param file 出力先
+     * @param size 件数
+     * @throws IOException 書き込みに失敗した場合
+     */
+    static void writePack(Path file, int size) throws IOException {
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write('[');
+            for (int i = 1; i <= size; i++) {
+                if (i > 1) {
+                    w.write(',');
+                }
+                String answer = (i % 2 == 0) ? "^(こたえ" + i + "|答え" + i + ")$" : "answer" + i;
+                w.write("{\"id\":" + i
+                        + ",\"question\":\"合成問題 " + i + "\""
+                        + ",\"answer\":\"" + answer + "\""
+                        + ",\"hint\":\"hint\",\"type\":\"text\",\"level\":" + (i % 5 + 1) + "}");
+            }
+            w.write(']');
+        }
+    }
+}
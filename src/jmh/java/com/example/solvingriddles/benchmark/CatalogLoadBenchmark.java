@@ -0,0 +1,74 @@
+package com.example.solvingriddles.benchmark;
+
+import com.example.solvingriddles.repository.RiddleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 起動時の問題データ読み込み (RiddleRepository.init) のベンチマーク
+ * jsonInit はスナップショットなし (毎回 Jackson で JSON を読む)、
+ * snapshotInit は書き出し済みのスナップショットをメモリマップして読む。
+ * どちらも本番の起動と同じく、Riddle をまだ調べていない ObjectMapper から始める
+ * (ObjectMapper 自体は Spring が MVC 用に作るので、copy() で作り直す分は両方同じだけかかる)。
+ * 1回あたりの確保量は -prof gc の gc.alloc.rate.norm を見る。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogLoadBenchmark {
+
+    private Path snapshotDir;
+    private ObjectMapper template;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        template = new ObjectMapper();
+        snapshotDir = Files.createTempDirectory("riddles-snapshot-bench-");
+        // 1回目の起動でスナップショットを書き出しておく
+        new RiddleRepository(new ObjectMapper(), snapshotDir.toString()).init();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(snapshotDir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    @Benchmark
+    public RiddleRepository jsonInit() {
+        RiddleRepository repository = new RiddleRepository(template.copy());
+        repository.init();
+        return repository;
+    }
+
+    @Benchmark
+    public RiddleRepository snapshotInit() {
+        RiddleRepository repository = new RiddleRepository(template.copy(), snapshotDir.toString());
+        repository.init();
+        return repository;
+    }
+}
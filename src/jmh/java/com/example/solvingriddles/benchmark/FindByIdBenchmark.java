@@ -0,0 +1,65 @@
+package com.example.solvingriddles.benchmark;
+
+import com.example.solvingriddles.model.Riddle;
+import com.example.solvingriddles.repository.RiddleRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RiddleRepository.findById / findAll のベンチマーク
+ * 問題数を変えて、件数が増えても1件の検索時間が変わらないことを確認する。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FindByIdBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int catalogSize;
+
+    // 毎回同じIDを引くとキャッシュに乗りっぱなしになるので、ランダムなIDを順に使う
+    private static final int ID_COUNT = 4096;
+
+    private RiddleRepository repository;
+    private int[] ids;
+    private int cursor;
+
+    @Setup
+    public void setUp() throws IOException {
+        repository = BenchmarkCatalogs.withSynthetic(catalogSize);
+        SplittableRandom random = new SplittableRandom(42);
+        ids = new int[ID_COUNT];
+        for (int i = 0; i < ID_COUNT; i++) {
+            ids[i] = random.nextInt(1, catalogSize + 1);
+        }
+    }
+
+    @Benchmark
+    public Optional<Riddle> findById() {
+        int id = ids[cursor++ & (ID_COUNT - 1)];
+        return repository.findById(BenchmarkCatalogs.MODE_BENCH, id);
+    }
+
+    @Benchmark
+    public List<Riddle> findAll() {
+        return repository.findAll(BenchmarkCatalogs.MODE_BENCH);
+    }
+}
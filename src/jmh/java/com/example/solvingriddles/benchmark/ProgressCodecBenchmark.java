@@ -0,0 +1,66 @@
+package com.example.solvingriddles.benchmark;
+
+import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.model.Progress;
+import com.example.solvingriddles.service.ProgressCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 進捗Cookieのエンコード・デコードのベンチマーク
+ * デコードは一覧画面を表示するたびに走るので、時間と1回あたりのメモリ確保量 (-prof gc) を見る。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProgressCodecBenchmark {
+
+    // クリア済みの問題数 (ID 1〜cleared)
+    @Param({"16", "64", "512"})
+    public int cleared;
+
+    private ProgressCodec codec;
+    private Progress progress;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        codec = new ProgressCodec("benchmark-secret");
+        Progress p = Progress.EMPTY;
+        for (int id = 1; id <= cleared; id++) {
+            p = p.with(id);
+        }
+        progress = p;
+        token = codec.encode(AppConst.MODE_HACKER, progress);
+    }
+
+    @Benchmark
+    public String encode() {
+        return codec.encode(AppConst.MODE_HACKER, progress);
+    }
+
+    @Benchmark
+    public Progress decode() {
+        return codec.decode(AppConst.MODE_HACKER, token);
+    }
+
+    // 一覧画面の1問分の判定
+    @Benchmark
+    public boolean isCleared() {
+        return progress.isCleared(cleared / 2);
+    }
+}
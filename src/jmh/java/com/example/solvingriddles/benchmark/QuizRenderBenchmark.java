@@ -0,0 +1,88 @@
+package com.example.solvingriddles.benchmark;
+
+import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.constant.ViewNames;
+import com.example.solvingriddles.model.Riddle;
+import com.example.solvingriddles.repository.RiddleRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * hacker/quiz と casual/quiz の Thymeleaf 描画ベンチマーク
+ * 問題タイプごとに、同梱パックの最初の1問を描画する。
+ * テンプレートエンジンは Spring Boot の設定 (templates/*.html, キャッシュあり) に合わせる。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuizRenderBenchmark {
+
+    // "モード:タイプ"
+    @Param({
+        "HACKER:text", "HACKER:click", "HACKER:image-map", "HACKER:story", "HACKER:select", "HACKER:sort",
+        "CASUAL:text", "CASUAL:select", "CASUAL:moving", "CASUAL:choice", "CASUAL:gojuon", "CASUAL:toggle",
+        "CASUAL:longpress", "CASUAL:duallongpress", "CASUAL:lights", "CASUAL:stairs", "CASUAL:slider"
+    })
+    public String quiz;
+
+    private SpringTemplateEngine engine;
+    private WebContext context;
+    private String view;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+        engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+
+        String[] parts = quiz.split(":");
+        String mode = parts[0];
+        String type = parts[1];
+        RiddleRepository repository = BenchmarkCatalogs.bundled();
+        Riddle riddle = repository.findAll(mode).stream()
+                .filter(r -> type.equals(r.type()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("問題がありません: " + quiz));
+        view = AppConst.MODE_HACKER.equals(mode) ? ViewNames.HACKER_QUIZ : ViewNames.CASUAL_QUIZ;
+
+        // @{/...} のリンクを解決するには Web のコンテキストが要る
+        MockServletContext servletContext = new MockServletContext();
+        JakartaServletWebApplication application = JakartaServletWebApplication.buildApplication(servletContext);
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        context = new WebContext(application.buildExchange(request, new MockHttpServletResponse()));
+        context.setVariable("riddle", riddle);
+    }
+
+    @Benchmark
+    public void render() {
+        engine.process(view, context, Writer.nullWriter());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.solvingriddles.benchmark;
+
+import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.model.Ranking;
+import com.example.solvingriddles.model.RankingPeriod;
+import com.example.solvingriddles.model.Riddle;
+import com.example.solvingriddles.service.RankingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ランキングのベンチマーク
+ * プレイヤー数を変えて、上位10人の取り出しと、複数スレッドからのクリア記録を計測する。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RankingBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int players;
+
+    private RankingService service;
+    private Riddle[] riddles;
+
+    @Setup
+    public void setUp() {
+        service = new RankingService(players * 2);
+        riddles = new Riddle[1000];
+        for (int i = 0; i < riddles.length; i++) {
+            riddles[i] = new Riddle(i + 1, "Q", "A", null, "text", null, i % 5 + 1, null, null, null);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int p = 0; p < players; p++) {
+            int solves = 1 + random.nextInt(20);
+            for (int s = 0; s < solves; s++) {
+                service.recordSolve(AppConst.MODE_HACKER, "p" + p, riddles[random.nextInt(riddles.length)]);
+            }
+        }
+    }
+
+    @Benchmark
+    public Ranking top10() {
+        return service.top(AppConst.MODE_HACKER, RankingPeriod.ALL_TIME, 10);
+    }
+
+    // 既にいるプレイヤーが新しい問題を解く (4スレッド同時)
+    @Benchmark
+    @Threads(4)
+    public void recordSolve() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        service.recordSolve(AppConst.MODE_HACKER, "p" + random.nextInt(players),
+                riddles[random.nextInt(riddles.length)]);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.solvingriddles.benchmark;
+
+import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.model.Riddle;
+import com.example.solvingriddles.model.RiddleOption;
+import com.example.solvingriddles.model.RiddleOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Riddle の画面用メソッドのベンチマーク
+ * 一覧の1行ごとに呼ばれる difficultyIcon と、
+ * 選択肢系の問題を表示するたびに呼ばれる getShuffledOptions を計測する。
+ * legacyShuffledOptions は以前の実装 (毎回 ArrayList にコピーして Collections.shuffle) で、比較用。
+ * 取り合いの影響を見る時は -t 4 など、スレッド数を増やして走らせる。
+ * <pre>
+ * ./mvnw -Pbenchmark -DskipTests test-compile exec:exec@jmh -Djmh.include=RiddleBenchmark -Djmh.extraArgs="-t 4"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RiddleBenchmark {
+
+    private Riddle withOptions;
+    private Riddle level3;
+
+    @Setup
+    public void setUp() {
+        // HACKER ID:4 (click, 選択肢5つ)
+        withOptions = BenchmarkCatalogs.bundled().findById(AppConst.MODE_HACKER, 4).orElseThrow();
+        level3 = new Riddle(1, "Q", "A", "H", "text", null, 3, null, null, null);
+    }
+
+    @Benchmark
+    public List<RiddleOption> shuffledOptions() {
+        return withOptions.getShuffledOptions();
+    }
+
+    @Benchmark
+    public List<RiddleOption> shuffledOptionsForPlayer() {
+        return withOptions.getShuffledOptions(RiddleOptions.variantFor("ALICE", withOptions.id()));
+    }
+
+    @Benchmark
+    public List<RiddleOption> legacyShuffledOptions() {
+        List<RiddleOption> copy = new ArrayList<>(withOptions.options());
+        Collections.shuffle(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public String difficultyIcon() {
+        return level3.difficultyIcon();
+    }
+}
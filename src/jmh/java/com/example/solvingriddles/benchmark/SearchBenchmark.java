@@ -0,0 +1,106 @@
+package com.example.solvingriddles.benchmark;
+
+import com.example.solvingriddles.model.Progress;
+import com.example.solvingriddles.model.RiddleQuery;
+import com.example.solvingriddles.model.RiddleSearchResult;
+import com.example.solvingriddles.repository.RiddleRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RiddleRepository.search のベンチマーク
+ * 種類・レベル・問題文がばらけた合成パックで、絞り込みとキーワード検索が件数に比例して遅くならんことを確認する。
+ * (10万件で1回 1ms 未満が目安)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SearchBenchmark {
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    private static final String[] TYPES = {"text", "click", "gojuon", "slider", "select", "sort", "stairs"};
+    private static final String[] WORDS = {"サーバー", "パスワード", "暗号", "鍵", "扉", "ネットワーク", "ログ", "画像", "ボタン", "時計"};
+
+    private RiddleRepository repository;
+    private Progress progress;
+
+    private final RiddleQuery facets = new RiddleQuery(null, Set.of(2, 3), Set.of("click", "text"), null, 0, 20);
+    private final RiddleQuery keyword = new RiddleQuery("パスワード", null, null, null, 0, 20);
+    private final RiddleQuery everything = new RiddleQuery("暗号", Set.of(4), Set.of("text"), false, 3, 20);
+
+    @Setup
+    public void setUp() throws IOException {
+        repository = BenchmarkCatalogs.bundled();
+        Path file = Files.createTempFile("riddles-search-", ".json");
+        try {
+            writePack(file, catalogSize);
+            repository.reload(BenchmarkCatalogs.MODE_BENCH, file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        Progress p = Progress.EMPTY;
+        for (int id = 1; id <= Progress.MAX_ID; id += 3) {
+            p = p.with(id);
+        }
+        progress = p;
+        // 検索用の索引は最初の検索で作るので、ここで作っておく
+        repository.search(BenchmarkCatalogs.MODE_BENCH, facets, progress);
+    }
+
+    // 問題文は単語を3つ組み合わせる (どの単語も全体の3割くらいに出てくる)
+    private static void writePack(Path file, int size) throws IOException {
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write('[');
+            for (int i = 1; i <= size; i++) {
+                if (i > 1) {
+                    w.write(',');
+                }
+                String question = WORDS[i % WORDS.length] + "と" + WORDS[(i / 7) % WORDS.length] + "の謎 その"
+                        + i + "。" + WORDS[(i / 53) % WORDS.length] + "を探せ";
+                w.write("{\"id\":" + i
+                        + ",\"question\":\"" + question + "\""
+                        + ",\"answer\":\"answer" + i + "\""
+                        + ",\"hint\":\"hint\",\"type\":\"" + TYPES[i % TYPES.length] + "\""
+                        + ",\"level\":" + (i % 5 + 1) + "}");
+            }
+            w.write(']');
+        }
+    }
+
+    @Benchmark
+    public RiddleSearchResult facets() {
+        return repository.search(BenchmarkCatalogs.MODE_BENCH, facets, progress);
+    }
+
+    @Benchmark
+    public RiddleSearchResult keyword() {
+        return repository.search(BenchmarkCatalogs.MODE_BENCH, keyword, progress);
+    }
+
+    @Benchmark
+    public RiddleSearchResult everything() {
+        return repository.search(BenchmarkCatalogs.MODE_BENCH, everything, progress);
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.solvingriddles.benchmark;
+
+import com.example.solvingriddles.SolvingriddlesApplication;
+import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.constant.UrlConst;
+import com.example.solvingriddles.model.Riddle;
+import com.example.solvingriddles.repository.RiddleRepository;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * プラットフォームスレッドと仮想スレッドで、同じ負荷シナリオを流して比べる負荷テスト
+ * <p>
+ * アプリを組み込みTomcatで起動し、「一覧 → 問題 → 回答」を同時接続数ぶんのクライアントで
+ * 一定時間繰り返す。スループット (リクエスト/秒) と p50/p99 のレイテンシを並べて表示し、
+ * target/loadtest-result.json にも出力する。
+ * <p>
+ * 今のアプリはほぼCPUだけで終わるので、DB保存やログ書き込みのようなブロッキング処理を
+ * load.blockMillis ミリ秒の sleep で真似できるようにしてある (0 ならそのまま)。
+ * <pre>
+ * ./mvnw -Pbenchmark -DskipTests test-compile exec:exec@loadtest
+ * ./mvnw -Pbenchmark -DskipTests test-compile exec:exec@loadtest -Dload.clients=400 -Dload.blockMillis=0,20,100
+ * </pre>
+ */
+public final class ThreadModeLoadTest {
+
+    private static final String MODE = AppConst.MODE_HACKER;
+    private static final String BASE = UrlConst.HACKER_BASE;
+
+    private ThreadModeLoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("load.clients", 200);
+        int warmupSeconds = Integer.getInteger("load.warmupSeconds", 5);
+        int seconds = Integer.getInteger("load.seconds", 10);
+        int[] blockMillis = Arrays.stream(System.getProperty("load.blockMillis", "0,20").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Path resultFile = Path.of(System.getProperty("load.result", "target/loadtest-result.json"));
+
+        List<Result> results = new ArrayList<>();
+        for (int block : blockMillis) {
+            for (boolean virtual : new boolean[] {false, true}) {
+                Result result = run(virtual, block, clients, warmupSeconds, seconds);
+                System.out.println(result.line());
+                results.add(result);
+            }
+        }
+
+        System.out.println();
+        System.out.println("threads   block(ms)  clients      req/s    p50(ms)    p99(ms)   errors");
+        for (Result r : results) {
+            System.out.println(r.line());
+        }
+        writeJson(resultFile, results);
+        System.out.println("結果: " + resultFile.toAbsolutePath());
+    }
+
+    /**
+     * アプリを1回起動して、ウォームアップ → 計測 を行う
+     */
+    private static Result run(boolean virtual, int block, int clients, int warmupSeconds, int seconds)
+            throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                SolvingriddlesApplication.class, SimulatedBlocking.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "loadtest.sleep-millis=" + block,
+                        // 同じIPアドレスから回答し続けるので、回数制限は切っておく
+                        "rate-limit.enabled=false")
+                .run();
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<Riddle> riddles = context.getBean(RiddleRepository.class).findAll(MODE).stream()
+                    .filter(r -> "text".equals(r.type()) && r.answer() != null)
+                    .toList();
+            Scenario scenario = new Scenario("http://localhost:" + port + BASE, riddles);
+
+            scenario.drive(clients, Duration.ofSeconds(warmupSeconds));
+            long start = System.nanoTime();
+            long[] latencies = scenario.drive(clients, Duration.ofSeconds(seconds));
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            return new Result(virtual ? "virtual" : "platform", block, clients,
+                    latencies.length / elapsedSeconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99),
+                    scenario.errors.get());
+        } finally {
+            context.close();
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int i = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(i, 0)] / 1e6;
+    }
+
+    private static void writeJson(Path file, List<Result> results) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write("[\n");
+            for (int i = 0; i < results.size(); i++) {
+                Result r = results.get(i);
+                w.write(String.format(Locale.ROOT,
+                        "  {\"threads\": \"%s\", \"blockMillis\": %d, \"clients\": %d, "
+                                + "\"requestsPerSecond\": %.1f, \"p50Millis\": %.3f, \"p99Millis\": %.3f, \"errors\": %d}%s%n",
+                        r.threads, r.blockMillis, r.clients, r.requestsPerSecond,
+                        r.p50Millis, r.p99Millis, r.errors, i < results.size() - 1 ? "," : ""));
+            }
+            w.write("]\n");
+        }
+    }
+
+    /**
+     * 一覧 → 問題 → 回答 を繰り返すクライアント群
+     */
+    private static final class Scenario {
+
+        private final String baseUrl;
+        private final List<Riddle> riddles;
+        private final HttpClient client;
+        private final AtomicLong errors = new AtomicLong();
+
+        Scenario(String baseUrl, List<Riddle> riddles) {
+            this.baseUrl = baseUrl;
+            this.riddles = riddles;
+            // クライアント側がボトルネックにならないよう、送信側は仮想スレッドで待つ
+            this.client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+        }
+
+        /**
+         * 指定時間だけ負荷をかけて、全リクエストのレイテンシ (ナノ秒) を返す
+         */
+        long[] drive(int clients, Duration duration) throws Exception {
+            errors.set(0);
+            long deadline = System.nanoTime() + duration.toNanos();
+            List<Future<long[]>> futures = new ArrayList<>(clients);
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int c = 0; c < clients; c++) {
+                    int offset = c;
+                    futures.add(executor.submit(() -> loop(offset, deadline)));
+                }
+            }
+            int total = 0;
+            List<long[]> perClient = new ArrayList<>(clients);
+            for (Future<long[]> f : futures) {
+                long[] l = f.get();
+                perClient.add(l);
+                total += l.length;
+            }
+            long[] all = new long[total];
+            int pos = 0;
+            for (long[] l : perClient) {
+                System.arraycopy(l, 0, all, pos, l.length);
+                pos += l.length;
+            }
+            return all;
+        }
+
+        private long[] loop(int offset, long deadline) {
+            long[] latencies = new long[1024];
+            int n = 0;
+            for (int i = offset; System.nanoTime() < deadline; i++) {
+                Riddle riddle = riddles.get(i % riddles.size());
+                // 正解と不正解を半々で送る
+                String answer = i % 2 == 0 ? riddle.answer() : "wrong";
+                HttpRequest[] steps = {
+                    HttpRequest.newBuilder(URI.create(baseUrl + UrlConst.HACKER_LIST)).GET().build(),
+                    HttpRequest.newBuilder(URI.create(baseUrl + UrlConst.HACKER_QUIZ + "/" + riddle.id())).GET().build(),
+                    HttpRequest.newBuilder(URI.create(baseUrl + UrlConst.HACKER_QUIZ_CHECK))
+                            .header("Content-Type", "application/x-www-form-urlencoded")
+                            .POST(HttpRequest.BodyPublishers.ofString("id=" + riddle.id() + "&answer="
+                                    + URLEncoder.encode(answer, StandardCharsets.UTF_8)))
+                            .build()
+                };
+                for (HttpRequest step : steps) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(step, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return Arrays.copyOf(latencies, n);
+                    }
+                    if (n == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, n * 2);
+                    }
+                    latencies[n++] = System.nanoTime() - start;
+                }
+            }
+            return Arrays.copyOf(latencies, n);
+        }
+    }
+
+    private record Result(String threads, int blockMillis, int clients, double requestsPerSecond,
+                          double p50Millis, double p99Millis, long errors) {
+
+        String line() {
+            return String.format(Locale.ROOT, "%-8s %10d %8d %10.1f %10.2f %10.2f %8d",
+                    threads, blockMillis, clients, requestsPerSecond, p50Millis, p99Millis, errors);
+        }
+    }
+
+    /**
+     * ブロッキング処理 (DB保存・ログ書き込みなど) の代わりに、リクエストごとに sleep するフィルタ
+     * 負荷テストの時だけ登録する。
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class SimulatedBlocking {
+
+        @Bean
+        OncePerRequestFilter simulatedBlockingFilter(@Value("${loadtest.sleep-millis:0}") long blockMillis) {
+            return new OncePerRequestFilter() {
+                @Override
+                protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                                FilterChain chain) throws ServletException, IOException {
+                    if (blockMillis > 0) {
+                        try {
+                            Thread.sleep(blockMillis);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    chain.doFilter(request, response);
+                }
+            };
+        }
+    }
+}
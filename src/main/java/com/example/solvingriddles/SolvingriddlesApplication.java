@@ -1,9 +1,12 @@
 package com.example.solvingriddles;
 
+import com.example.solvingriddles.config.NativeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeHints.class)
 public class SolvingriddlesApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,86 @@
+package com.example.solvingriddles.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * 描画済みページ (HTMLのバイト列) のキャッシュ
+ * 問題データはリロードするまで変わらないので、一覧画面・問題画面は描画結果を使い回せる。
+ * <p>
+ * 合計サイズ (バイト数) に上限があり、あふれたら Caffeine (W-TinyLFU) がよく使われないページから捨てる。
+ * テンプレートを編集しながら動かす時 (devtools で spring.thymeleaf.cache=false) は作らない。
+ */
+@Component
+@ConditionalOnProperty(name = "spring.thymeleaf.cache", havingValue = "true", matchIfMissing = true)
+public class PageCache {
+
+    // 1ページあたりのキーや入れ物の分 (ざっくり)
+    private static final int ENTRY_OVERHEAD = 128;
+
+    /**
+     * キャッシュしたページ
+     * @param body HTMLのバイト列
+     * @param contentType Content-Type (文字コード付き)
+     * @param etag 強いETag (版番号と中身のハッシュ)
+     */
+    public record Page(byte[] body, String contentType, String etag) {}
+
+    private final Cache<PageKey, Page> cache;
+
+    /**
+     * コンストラクタ
+     * @param maxBytes キャッシュするHTMLの合計サイズの上限
+     * @param registry メトリクスの登録先 (あればヒット率などを記録する)
+     */
+    public PageCache(@Value("${page-cache.max-bytes:16777216}") long maxBytes,
+                     ObjectProvider<MeterRegistry> registry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((PageKey key, Page page) -> page.body().length + ENTRY_OVERHEAD)
+                .recordStats()
+                .build();
+        registry.ifAvailable(r -> CaffeineCacheMetrics.monitor(r, cache, "pages"));
+    }
+
+    /**
+     * キャッシュからページを取り出す
+     * @param key キー
+     * @return ページ (なければ null)
+     */
+    public Page get(PageKey key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * 描画したページを覚えておく
+     * @param key キー
+     * @param body HTMLのバイト列
+     * @param contentType Content-Type
+     * @return 覚えたページ (ETag 付き)
+     */
+    public Page put(PageKey key, byte[] body, String contentType) {
+        Page page = new Page(body, contentType, etag(key.version(), body));
+        cache.put(key, page);
+        return page;
+    }
+
+    /**
+     * キャッシュしているページの数 (おおよそ)
+     * @return 数
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    // "v<版番号>-<中身のMD5>" (同じ中身なら並び番号が違っても同じETagになる)
+    static String etag(long version, byte[] body) {
+        return "\"v" + version + "-" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+}
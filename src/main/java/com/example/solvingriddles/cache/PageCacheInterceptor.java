@@ -0,0 +1,112 @@
+package com.example.solvingriddles.cache;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.util.Map;
+
+/**
+ * 描画済みページのキャッシュを使うインターセプター
+ * モデルに PageKey が入っている GET リクエストだけ、描画 (View) をキャッシュ付きのものに差し替える。
+ * <ul>
+ *   <li>キャッシュにあれば、テンプレートを描画せずにバイト列をそのまま返す</li>
+ *   <li>ブラウザが同じ ETag を持っていれば 304 (本文なし) を返す</li>
+ *   <li>なければ普通に描画して、その結果を覚えておく</li>
+ * </ul>
+ * コントローラの処理 (データの取り出し) は毎回動く。重いのは描画の方なので、そこだけ省く。
+ */
+public class PageCacheInterceptor implements HandlerInterceptor {
+
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private final PageCache cache;
+    private final ViewResolver viewResolver;
+
+    /**
+     * コンストラクタ
+     * @param cache ページのキャッシュ
+     * @param viewResolver テンプレート名から View を探す (Thymeleaf)
+     */
+    public PageCacheInterceptor(PageCache cache, ViewResolver viewResolver) {
+        this.cache = cache;
+        this.viewResolver = viewResolver;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) throws Exception {
+        if (modelAndView == null || !(modelAndView.getModel().get(PageKey.ATTR) instanceof PageKey key)) {
+            return;
+        }
+        String method = request.getMethod();
+        String view = modelAndView.getViewName();
+        if (!(HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method))
+                || view == null || view.startsWith("redirect:")) {
+            return;
+        }
+        View delegate = viewResolver.resolveViewName(view, RequestContextUtils.getLocale(request));
+        if (delegate != null) {
+            modelAndView.setView(new CachedPageView(cache, key, delegate));
+        }
+    }
+
+    /**
+     * キャッシュを見てから、なければ本物の View で描画する View
+     */
+    static final class CachedPageView implements View {
+
+        private final PageCache cache;
+        private final PageKey key;
+        private final View delegate;
+
+        CachedPageView(PageCache cache, PageKey key, View delegate) {
+            this.cache = cache;
+            this.key = key;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getContentType() {
+            return delegate.getContentType();
+        }
+
+        @Override
+        public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response)
+                throws Exception {
+            PageCache.Page page = cache.get(key);
+            if (page == null) {
+                // 描画結果をいったんメモリに受けてから覚える (本文はこの後まとめて書く)
+                ContentCachingResponseWrapper buffer = new ContentCachingResponseWrapper(response);
+                delegate.render(model, request, buffer);
+                if (buffer.getStatus() != HttpServletResponse.SC_OK) {
+                    buffer.copyBodyToResponse();
+                    return;
+                }
+                page = cache.put(key, buffer.getContentAsByteArray(), buffer.getContentType());
+            }
+
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            if (key.perUser()) {
+                // クリア状況のCookieで中身が変わる
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.COOKIE);
+            }
+            // ETag を付けて、ブラウザの持っているものと同じなら 304 にする
+            if (new ServletWebRequest(request, response).checkNotModified(page.etag())) {
+                return;
+            }
+            response.setContentType(page.contentType());
+            response.setContentLength(page.body().length);
+            response.getOutputStream().write(page.body());
+        }
+    }
+}
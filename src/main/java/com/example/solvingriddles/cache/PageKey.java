@@ -0,0 +1,66 @@
+package com.example.solvingriddles.cache;
+
+import com.example.solvingriddles.model.Progress;
+import com.example.solvingriddles.model.Riddle;
+import com.example.solvingriddles.model.RiddleOptions;
+
+/**
+ * 描画済みページのキャッシュのキー
+ * コントローラがモデルに "pageKey" として入れておくと、そのページはキャッシュされる。
+ * 問題データの版番号が入っているので、リロードしたら古いページは自然に使われなくなる。
+ * @param view テンプレート名
+ * @param mode モード
+ * @param id 問題ID (一覧なら null)
+ * @param version 問題データの版番号
+ * @param variant 同じ問題でも中身が変わる部分 (一覧ならクリア状況、シャッフルする問題なら何番目の並びか)
+ */
+public record PageKey(
+    String view,
+    String mode,
+    Integer id,
+    long version,
+    Object variant
+) {
+
+    // モデルに入れる時の名前
+    public static final String ATTR = "pageKey";
+
+    // シャッフルする問題は、この数だけ別々の並びを描画して覚えておく
+    public static final int SHUFFLE_VARIANTS = RiddleOptions.VARIANTS;
+
+    /**
+     * 一覧画面のキー (クリア状況ごとに別のページになる)
+     * @param view テンプレート名
+     * @param mode モード
+     * @param version 問題データの版番号 (データを取り出す前に読んだもの)
+     * @param progress クリア状況
+     * @return キー
+     */
+    public static PageKey list(String view, String mode, long version, Progress progress) {
+        return new PageKey(view, mode, null, version, progress);
+    }
+
+    /**
+     * 問題画面のキー
+     * 選択肢をシャッフルする問題は、並びの番号ごとに別のページになる。
+     * (番号はプレイヤーごとに決まるので、Cookie で中身が変わるページ扱い)
+     * @param view テンプレート名
+     * @param mode モード
+     * @param version 問題データの版番号 (データを取り出す前に読んだもの)
+     * @param riddle 問題
+     * @param shuffle 並びの番号 (RiddleOptions.variantFor で決めたもの)
+     * @return キー
+     */
+    public static PageKey quiz(String view, String mode, long version, Riddle riddle, int shuffle) {
+        boolean shuffled = riddle.options() != null && riddle.options().size() > 1;
+        return new PageKey(view, mode, riddle.id(), version, shuffled ? Integer.valueOf(shuffle) : null);
+    }
+
+    /**
+     * Cookie (クリア状況・プレイヤー名) で中身が変わるページかどうか
+     * @return 一覧画面と、シャッフルする問題なら true
+     */
+    public boolean perUser() {
+        return variant != null;
+    }
+}
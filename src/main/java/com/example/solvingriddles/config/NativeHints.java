@@ -0,0 +1,54 @@
+package com.example.solvingriddles.config;
+
+import com.example.solvingriddles.model.ImageSet;
+import com.example.solvingriddles.model.Progress;
+import com.example.solvingriddles.model.Ranking;
+import com.example.solvingriddles.model.RankingEntry;
+import com.example.solvingriddles.model.RankingPeriod;
+import com.example.solvingriddles.model.Riddle;
+import com.example.solvingriddles.model.RiddleOption;
+import com.example.solvingriddles.model.RiddleQuery;
+import com.example.solvingriddles.model.RiddleSearchResult;
+import com.example.solvingriddles.model.RiddleSummary;
+import com.example.solvingriddles.repository.RiddlePack;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * GraalVM のネイティブイメージ用のヒント (native プロファイル。pom.xml 参照)
+ * ネイティブイメージはビルド時に見つけたクラス・ファイルしか入らんので、
+ * Spring の AOT が自分では見つけられないものをここで教える。
+ * <ul>
+ *   <li>問題データとパックの一覧 (data/*.json) と Thymeleaf のテンプレート、縮小版を作る元の画像</li>
+ *   <li>Jackson で JSON から作る Riddle / RiddleOption (record のコンストラクタとアクセサ)</li>
+ *   <li>テンプレートの ${riddle.type} などで SpEL から呼ぶモデル</li>
+ * </ul>
+ * コントローラの引数・戻り値の JSON (AnswerCheck など) は Spring が自分で登録するのでいらん。
+ * 正規表現の正解は LinearRegex (自前の NFA) で判定するので、java.util.regex 用のヒントもいらん。
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    // テンプレートの中から SpEL でプロパティを読むモデル
+    static final List<Class<?>> TEMPLATE_MODELS = List.of(
+            Riddle.class, RiddleOption.class, RiddleSummary.class, Progress.class,
+            Ranking.class, RankingEntry.class, RankingPeriod.class, ImageSet.class, RiddlePack.class,
+            RiddleQuery.class, RiddleSearchResult.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources()
+                .registerPattern("data/*.json")
+                .registerPattern("templates/**")
+                .registerPattern("static/images/*");
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), Riddle.class, RiddleOption.class);
+
+        for (Class<?> type : TEMPLATE_MODELS) {
+            hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
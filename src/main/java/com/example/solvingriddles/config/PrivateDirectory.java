@@ -0,0 +1,135 @@
+package com.example.solvingriddles.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Set;
+
+/**
+ * このプロセスだけが読み書きするキャッシュ用フォルダ (スナップショット・画像の縮小版)
+ * 中に置いたファイルは次の起動でもそのまま信じて使う (スナップショットは mmap してそのまま問題として出す) ので、
+ * 他のユーザーがファイルを置けるフォルダは使わない。
+ * <ul>
+ *   <li>設定がない時の一時フォルダの下 (java.io.tmpdir/&lt;名前&gt;) は、誰でも同じ名前を先に作れるので、
+ *       自分の持ち物で自分しか読み書きできない (rwx------) 時だけ使う。そうでなければ起動ごとの新しい一時フォルダにする</li>
+ *   <li>フォルダを作る時は rwx------ で作る (POSIX のファイルシステムの時)</li>
+ *   <li>中のファイルを使う前に {@link #isOwned} で自分の持ち物か確かめる</li>
+ * </ul>
+ */
+public final class PrivateDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(PrivateDirectory.class);
+
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+    // このプロセスのユーザー (初めて使う時に調べる)
+    private static volatile UserPrincipal processUser;
+
+    private PrivateDirectory() {
+    }
+
+    /**
+     * キャッシュ用フォルダを決めて作る
+     * @param configured 設定されたフォルダ (空なら一時フォルダの下)
+     * @param name 一時フォルダの下に作るフォルダ名
+     * @return フォルダ
+     */
+    public static Path of(String configured, String name) {
+        return of(configured, Path.of(System.getProperty("java.io.tmpdir")), name);
+    }
+
+    /**
+     * キャッシュ用フォルダを決めて作る (一時フォルダの場所を変えられる。テスト用)
+     * @param configured 設定されたフォルダ (空なら tmpDir の下)
+     * @param tmpDir 一時フォルダ
+     * @param name 一時フォルダの下に作るフォルダ名
+     * @return フォルダ
+     */
+    static Path of(String configured, Path tmpDir, String name) {
+        if (configured != null && !configured.isBlank()) {
+            Path dir = Path.of(configured);
+            try {
+                create(dir);
+            } catch (IOException e) {
+                // 書けないフォルダなら、使う時に失敗してログが出る (アプリは落とさない)
+                log.warn("キャッシュ用のフォルダを作れませんでした: {}, {}", dir, e.getMessage());
+            }
+            return dir;
+        }
+        Path dir = tmpDir.resolve(name);
+        try {
+            create(dir);
+            if (isOwned(dir) && isPosix(dir) && !isPrivate(dir)) {
+                // 前の版が普通の権限で作った自分のフォルダなら絞って使う
+                Files.setPosixFilePermissions(dir, OWNER_ONLY);
+            }
+            if (isOwned(dir) && isPrivate(dir)) {
+                return dir;
+            }
+            log.warn("一時フォルダの {} は他のユーザーが読み書きできるので使いません。起動ごとの一時フォルダを使います", dir);
+        } catch (IOException e) {
+            log.warn("キャッシュ用のフォルダを作れませんでした。起動ごとの一時フォルダを使います: {}, {}", dir, e.getMessage());
+        }
+        try {
+            // createTempDirectory は名前が推測できず、POSIX なら rwx------ で作られる
+            return Files.createTempDirectory(name + "-");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * このプロセスのユーザーの持ち物か (他のユーザーが置いたファイルは使わない)
+     * @param path ファイルかフォルダ
+     * @return 自分の持ち物ならtrue (持ち主を調べられないファイルシステムなら true、ないファイル・読めない時は false)
+     */
+    public static boolean isOwned(Path path) {
+        try {
+            return Files.getOwner(path).equals(processUser());
+        } catch (UnsupportedOperationException e) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // なければフォルダを rwx------ で作る (もうあるフォルダの権限は変えない)
+    private static void create(Path dir) throws IOException {
+        if (isPosix(dir)) {
+            Files.createDirectories(dir, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+        } else {
+            Files.createDirectories(dir);
+        }
+    }
+
+    // 自分以外が読み書きできないか
+    private static boolean isPrivate(Path dir) throws IOException {
+        return !isPosix(dir) || OWNER_ONLY.containsAll(Files.getPosixFilePermissions(dir));
+    }
+
+    private static boolean isPosix(Path path) {
+        return path.getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+
+    // ユーザー名から引くとコンテナ (passwd に載っていないユーザー) で失敗するので、自分で作ったファイルの持ち主を見る
+    private static UserPrincipal processUser() throws IOException {
+        UserPrincipal user = processUser;
+        if (user == null) {
+            Path probe = Files.createTempFile("solvingriddles-owner", ".tmp");
+            try {
+                user = Files.getOwner(probe);
+            } finally {
+                Files.deleteIfExists(probe);
+            }
+            processUser = user;
+        }
+        return user;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.solvingriddles.config;
+
+import com.example.solvingriddles.cache.PageCache;
+import com.example.solvingriddles.cache.PageCacheInterceptor;
+import com.example.solvingriddles.constant.UrlConst;
+import com.example.solvingriddles.metrics.RenderMetricsInterceptor;
+import com.example.solvingriddles.metrics.RiddleMetrics;
+import com.example.solvingriddles.ratelimit.RateLimitInterceptor;
+import com.example.solvingriddles.ratelimit.RateLimiter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+import java.time.Duration;
+
+/**
+ * Spring MVC の設定クラス
+ * インターセプターなど、コントローラの前後に挟む処理を登録する。
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    // 静的ファイルを置いているフォルダ (static 直下と、その下のフォルダ)
+    private static final String[] STATIC_DIRS = { "", "css/", "js/", "images/" };
+
+    // ファイル名に中身のハッシュが入ったもの (style-<MD5>.css)
+    private static final String HASHED_FILE = "{file:.+-[0-9a-f]{32}\\.[A-Za-z0-9]+}";
+
+    // 中身が変わればURLも変わるので、ずっとキャッシュしてええ
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    // @WebMvcTest などメトリクスがない環境でも起動できるように ObjectProvider で受け取る
+    private final ObjectProvider<RiddleMetrics> metrics;
+    private final ObjectProvider<PageCache> pageCache;
+    private final ObjectProvider<ThymeleafViewResolver> viewResolver;
+    private final ObjectProvider<RateLimiter> rateLimiter;
+
+    /**
+     * コンストラクタ
+     * @param metrics メトリクス (なければ計測しない)
+     * @param pageCache 描画済みページのキャッシュ (なければ毎回描画する)
+     * @param viewResolver Thymeleaf のテンプレートを探す
+     * @param rateLimiter 答え合わせの回数制限 (なければ制限しない)
+     */
+    public WebConfig(ObjectProvider<RiddleMetrics> metrics, ObjectProvider<PageCache> pageCache,
+                     ObjectProvider<ThymeleafViewResolver> viewResolver, ObjectProvider<RateLimiter> rateLimiter) {
+        this.metrics = metrics;
+        this.pageCache = pageCache;
+        this.viewResolver = viewResolver;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // 答え合わせの回数制限は一番先に見る (断る時はコントローラを動かさない)
+        // 追加の問題パック (/hacker/packs/{pack}/...) も同じ画面の制限に入れる
+        rateLimiter.ifAvailable(limiter -> {
+            registry.addInterceptor(new RateLimitInterceptor(limiter, RateLimiter.HACKER))
+                    .addPathPatterns(UrlConst.HACKER_BASE + UrlConst.HACKER_QUIZ_CHECK,
+                            UrlConst.HACKER_BASE + UrlConst.HACKER_QUIZ_CHECK_IMAGE,
+                            UrlConst.HACKER_BASE + UrlConst.HACKER_QUIZ_CHECK_API,
+                            UrlConst.HACKER_BASE + UrlConst.PACK + UrlConst.HACKER_QUIZ_CHECK,
+                            UrlConst.HACKER_BASE + UrlConst.PACK + UrlConst.HACKER_QUIZ_CHECK_IMAGE,
+                            UrlConst.HACKER_BASE + UrlConst.PACK + UrlConst.HACKER_QUIZ_CHECK_API);
+            registry.addInterceptor(new RateLimitInterceptor(limiter, RateLimiter.CASUAL))
+                    .addPathPatterns(UrlConst.CASUAL_BASE + UrlConst.CASUAL_QUIZ_CHECK,
+                            UrlConst.CASUAL_BASE + UrlConst.CASUAL_QUIZ_CHECK_API,
+                            UrlConst.CASUAL_BASE + UrlConst.PACK + UrlConst.CASUAL_QUIZ_CHECK,
+                            UrlConst.CASUAL_BASE + UrlConst.PACK + UrlConst.CASUAL_QUIZ_CHECK_API);
+            // まとめて判定API (/api/answers/check) は件数で数えるので AnswerApiController が自分で見る
+        });
+        // postHandle は登録と逆の順に呼ばれる。
+        // 描画時間の計測がテンプレート名を読んだ後で、キャッシュ付きの View に差し替えたいので、キャッシュを先に登録する
+        pageCache.ifAvailable(cache -> viewResolver.ifAvailable(
+                resolver -> registry.addInterceptor(new PageCacheInterceptor(cache, resolver))));
+        metrics.ifAvailable(m -> registry.addInterceptor(new RenderMetricsInterceptor(m)));
+    }
+
+    /**
+     * ハッシュ付きのURLで来た静的ファイルは、1年・immutable でキャッシュさせる
+     * テンプレートの @{/css/style.css} は ResourceUrlEncodingFilter がハッシュ付きの名前に書き換える
+     * (spring.web.resources.chain.* の設定)。
+     * ハッシュなしのURL (/css/style.css) は Spring Boot の "/**" が返す。こっちは毎回確認させる (no-cache)。
+     */
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        for (String dir : STATIC_DIRS) {
+            registry.addResourceHandler("/" + dir + HASHED_FILE)
+                    .addResourceLocations("classpath:/static/" + dir)
+                    .setCacheControl(IMMUTABLE)
+                    .resourceChain(true)
+                    // .gz / .br はビルド時に作ってある (src/build/java/PrecompressAssets.java)
+                    .addResolver(new EncodedResourceResolver())
+                    .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
+    }
+}
@@ -4,6 +4,11 @@ public class AppConst {
     private AppConst() {} // new禁止
 
     // ★static final なのでアノテーションで使える！
+    // 同梱の問題パック (それぞれの画面の既定のパック)。ほかのパックは data/packs.json か riddles.pack-dir で増やせる
     public static final String MODE_HACKER = "HACKER";
     public static final String MODE_CASUAL = "CASUAL";
-}
\ No newline at end of file
+
+    // 問題パックを遊ぶ画面 (パックごとにどっちかを選ぶ)
+    public static final String STYLE_HACKER = "hacker";
+    public static final String STYLE_CASUAL = "casual";
+}
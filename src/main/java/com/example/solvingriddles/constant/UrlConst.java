@@ -18,6 +18,7 @@ public class UrlConst {
     public static final String HACKER_QUIZ = "/quiz";   // → /hacker/quiz/{id}
     public static final String HACKER_QUIZ_CHECK = "/quiz/check";
     public static final String HACKER_QUIZ_CHECK_IMAGE = "/quiz/check-image";
+    public static final String HACKER_QUIZ_CHECK_API = "/api/quiz/check"; // → /hacker/api/quiz/check (fetch 用、JSONを返す)
 
     // 🍰 カジュアルモード用URL
     public static final String CASUAL_BASE = "/casual";
@@ -25,5 +26,25 @@ public class UrlConst {
     public static final String CASUAL_LIST = "/list";
     public static final String CASUAL_QUIZ = "/quiz";
     public static final String CASUAL_QUIZ_CHECK = "/quiz/check";
+    public static final String CASUAL_QUIZ_CHECK_API = "/api/quiz/check"; // → /casual/api/quiz/check (fetch 用、JSONを返す)
     public static final String CASUAL_RESULT = "/result";
-}
\ No newline at end of file
+
+    // 📦 既定以外の問題パック (各モードの BASE の後ろにつける)
+    // → /hacker/packs/{pack}/list, /casual/packs/{pack}/quiz/{id} など。既定のパックは今まで通り /hacker/list
+    public static final String PACK = "/packs/{pack}";
+
+    // 🏆 ランキング
+    public static final String RANKING = "/ranking";
+    public static final String RANKING_NAME = "/ranking/name";
+    public static final String RANKING_API = "/api/ranking";
+
+    // 🔍 問題の検索 (モード共通。条件はクエリパラメータで渡す)
+    public static final String SEARCH = "/search";
+    public static final String SEARCH_API = "/api/riddles/search";
+
+    // 🖼 問題画像の縮小版 (/images/v/{ハッシュ}/{幅}/{ファイル名})
+    public static final String IMAGE_VARIANT = "/images/v";
+
+    // 🤖 回答のまとめて判定API (JSON)
+    public static final String ANSWERS_CHECK_API = "/api/answers/check";
+}
@@ -13,6 +13,12 @@ public class ViewNames {
     // 🏠 ランチャー画面 (ルートにあるのでそのまま)
     public static final String LAUNCHER = "index";
 
+    // 🏆 ランキング画面 (モード共通なのでルートに置く)
+    public static final String RANKING = "ranking";
+
+    // 🔍 検索画面 (これもモード共通なのでルートに置く)
+    public static final String SEARCH = "search";
+
     // 🕵️‍♂️ ハッカーモード (★hackerフォルダの中に移動したから変更！)
     // HTMLファイルの場所を指すパスやから、先頭に "hacker/" をつけるんや
     public static final String HACKER_LIST   = "hacker/list";
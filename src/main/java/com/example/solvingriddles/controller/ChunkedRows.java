@@ -0,0 +1,88 @@
+package com.example.solvingriddles.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 描画しながら少しずつ送り出す一覧の行 (th:each に渡す)
+ * Thymeleaf はレスポンスの Writer に直接書いていくので (spring.thymeleaf.servlet.produce-partial-output-while-processing)、
+ * 行を取り出すついでに flush すれば、描画の途中でもブラウザに届く。
+ * <ul>
+ *   <li>最初の行を取り出す前: ここまでに書いた &lt;head&gt; などをすぐ送る (ブラウザが CSS を先に読み始められる)</li>
+ *   <li>その後は chunkRows 行ごと: 書き溜めるのは1回分だけなので、一覧が長くてもバッファが膨らまない</li>
+ * </ul>
+ * 送り始めたらステータスやヘッダーは変えられんので、描画済みページのキャッシュ (PageKey) とは一緒に使わないこと。
+ * @param <T> 行の型
+ */
+public final class ChunkedRows<T> implements Iterable<T> {
+
+    private final List<T> rows;
+    private final HttpServletResponse response;
+    private final int chunkRows;
+
+    private ChunkedRows(List<T> rows, HttpServletResponse response, int chunkRows) {
+        this.rows = rows;
+        this.response = response;
+        this.chunkRows = Math.max(chunkRows, 1);
+    }
+
+    /**
+     * 行を包む
+     * @param rows 行 (コピーはしない)
+     * @param response 書き込み先のレスポンス
+     * @param chunkRows 何行ごとに送るか
+     * @return 描画しながら送り出す行
+     */
+    public static <T> ChunkedRows<T> of(List<T> rows, HttpServletResponse response, int chunkRows) {
+        return new ChunkedRows<>(rows, response, chunkRows);
+    }
+
+    /**
+     * 行数 (画面から ${riddles.size()} で呼ぶ)
+     * @return 行数
+     */
+    public int size() {
+        return rows.size();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        Iterator<T> it = rows.iterator();
+        return new Iterator<>() {
+
+            private int count;
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!it.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (count % chunkRows == 0) {
+                    // 最初の行の前と、chunkRows 行書くごとに送る
+                    flush();
+                }
+                count++;
+                return it.next();
+            }
+        };
+    }
+
+    private void flush() {
+        try {
+            response.flushBuffer();
+        } catch (IOException e) {
+            // ブラウザが途中で閉じられた時など (描画を止める)
+            throw new UncheckedIOException(e);
+        }
+    }
+}
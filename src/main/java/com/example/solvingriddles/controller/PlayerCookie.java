@@ -0,0 +1,75 @@
+package com.example.solvingriddles.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * プレイヤー名を入れておくCookieの読み書き
+ * ログインなしで遊べる仕様なので、ランキングの名前はCookieで覚えておく (アーケードの名前入力のイメージ)。
+ * 名前がまだない人には "GUEST-xxxxxxxx" (16進8桁) を自動で付ける。
+ * 4桁 (65536通り) やと数百人で同じ名前がかぶってランキングの行が混ざるので、32ビット分にしてある。
+ */
+public final class PlayerCookie {
+
+    // インスタンス化禁止
+    private PlayerCookie() {}
+
+    public static final String NAME = "player";
+    // "GUEST-" + 16進8桁 が入る長さ
+    public static final int MAX_LENGTH = 14;
+
+    // 英数字と - _ だけ (Cookie にそのまま入れられて、画面に出しても安全な文字)
+    private static final Pattern VALID = Pattern.compile("[A-Za-z0-9_-]{1," + MAX_LENGTH + "}");
+    private static final Duration MAX_AGE = Duration.ofDays(365);
+    private static final HexFormat GUEST_HEX = HexFormat.of().withUpperCase();
+
+    /**
+     * Cookieの名前を使う。なければ(おかしければ)ゲスト名を作ってCookieに入れる
+     * @param cookieValue Cookieの値 (なければ null)
+     * @param response Cookieを書き込むレスポンス
+     * @return プレイヤー名
+     */
+    public static String resolve(String cookieValue, HttpServletResponse response) {
+        String name = sanitize(cookieValue);
+        if (name != null) {
+            return name;
+        }
+        String guest = "GUEST-" + GUEST_HEX.toHexDigits(ThreadLocalRandom.current().nextInt());
+        write(guest, response);
+        return guest;
+    }
+
+    /**
+     * プレイヤー名をCookieに書き込む
+     * @param name プレイヤー名 (sanitize 済みのもの)
+     * @param response Cookieを書き込むレスポンス
+     */
+    public static void write(String name, HttpServletResponse response) {
+        ResponseCookie cookie = ResponseCookie.from(NAME, name)
+                .path("/")
+                .maxAge(MAX_AGE)
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    /**
+     * 名前として使えるかチェックする (前後の空白は取る)
+     * @param name 入力された名前
+     * @return 使える名前 (使えなければ null)
+     */
+    public static String sanitize(String name) {
+        if (name == null) {
+            return null;
+        }
+        String trimmed = name.strip();
+        return VALID.matcher(trimmed).matches() ? trimmed : null;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.solvingriddles.controller;
+
+import com.example.solvingriddles.model.Progress;
+import com.example.solvingriddles.service.ProgressCodec;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.util.WebUtils;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * クリア状況 (進捗) を入れておくCookieの読み書き
+ * 中断・再開のために、モードごとに「どの問題をクリアしたか」を署名付きで保存する。
+ * サーバー側には何も持たないので、ブラウザを変えると進捗は引き継がれない。
+ */
+public final class ProgressCookie {
+
+    // インスタンス化禁止
+    private ProgressCookie() {}
+
+    // Cookieの名前は "progress_" + モード名の小文字 (パックが増えても同じ決まり)
+    private static final String PREFIX = "progress_";
+
+    // 同梱のパックのCookieの名前 (nameFor(MODE_HACKER) などと同じ)
+    public static final String HACKER = "progress_hacker";
+    public static final String CASUAL = "progress_casual";
+
+    private static final Duration MAX_AGE = Duration.ofDays(365);
+
+    /**
+     * モードの進捗Cookieの名前
+     * @param mode モード (例: "HACKER")
+     * @return Cookieの名前 (例: "progress_hacker")
+     */
+    public static String nameFor(String mode) {
+        return PREFIX + mode.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * リクエストからモードの進捗Cookieを読む
+     * (モードがURLで決まるので @CookieValue では名前を固定できない)
+     * @param request リクエスト
+     * @param mode モード
+     * @return Cookieの値 (なければ null)
+     */
+    public static String read(HttpServletRequest request, String mode) {
+        Cookie cookie = WebUtils.getCookie(request, nameFor(mode));
+        return cookie == null ? null : cookie.getValue();
+    }
+
+    /**
+     * クリアした問題を進捗に足して、Cookieを書き直す
+     * @param codec 進捗の変換
+     * @param mode モード
+     * @param cookieName Cookieの名前 (nameFor で作ったもの)
+     * @param cookieValue 今のCookieの値 (なければ null)
+     * @param clearedId クリアした問題ID
+     * @param response Cookieを書き込むレスポンス
+     */
+    public static void markCleared(ProgressCodec codec, String mode, String cookieName,
+                                   String cookieValue, Integer clearedId, HttpServletResponse response) {
+        Progress current = codec.decode(mode, cookieValue);
+        Progress next = current.with(clearedId);
+        if (next == current && cookieValue != null) {
+            // 既にクリア済み (Cookieはそのままでええ)
+            return;
+        }
+        ResponseCookie cookie = ResponseCookie.from(cookieName, codec.encode(mode, next))
+                .path("/")
+                .maxAge(MAX_AGE)
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.solvingriddles.controller.api;
+
+import com.example.solvingriddles.constant.UrlConst;
+import com.example.solvingriddles.model.AnswerCheck;
+import com.example.solvingriddles.model.AnswerCheckBatch;
+import com.example.solvingriddles.ratelimit.RateLimiter;
+import com.example.solvingriddles.service.RiddleService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 回答をまとめて判定するAPI (JSON) のコントローラ
+ * 採点ツールや外部クライアントから、たくさんの回答を1リクエストで送ってもらうためのもの。
+ * <pre>
+ * POST /api/answers/check
+ * [{"mode":"HACKER","id":1,"answer":"takoyaki"}, {"mode":"CASUAL","id":3,"answer":"ねこ"}]
+ * → {"total":2,"correct":1,"unknown":0,"results":["correct","incorrect"]}
+ * </pre>
+ * ランキングや進捗Cookieには記録しない (画面から解いた時だけ記録する)。
+ * 回数制限はリクエストではなく件数で数える。1リクエストの件数は max-batch と burst の小さい方まで。
+ * <ul>
+ *   <li>トークンなし: IPアドレスごとに rate-limit.api.* (1件ずつ答え合わせするのとだいたい同じ)</li>
+ *   <li>X-Api-Token ヘッダーに api.answers.tokens のどれかを付けた時: トークンごとに rate-limit.api-client.*
+ *       (採点ツールや店頭端末がパックを丸ごと数リクエストで確かめられるように多めに取ってある)</li>
+ * </ul>
+ * 知らないトークンは 401 で断る (トークンを変えるたびに新しいバケットがもらえてしまわんように)。
+ */
+@RestController
+public class AnswerApiController {
+
+    // 採点ツールなどが付けてくるトークンのヘッダー
+    public static final String TOKEN_HEADER = "X-Api-Token";
+
+    private final RiddleService riddleService;
+    private final ObjectProvider<RateLimiter> rateLimiter;
+    private final int maxBatch;
+    private final Set<String> tokens;
+
+    /**
+     * コンストラクタ
+     * @param riddleService 謎解きのビジネスロジック
+     * @param rateLimiter 答え合わせの回数制限 (rate-limit.enabled=false ならなし)
+     * @param maxBatch 1リクエストで受け付ける最大件数
+     * @param tokens 採点ツールなどに渡したトークン (カンマ区切り。空ならトークンなしだけ)
+     */
+    public AnswerApiController(RiddleService riddleService, ObjectProvider<RateLimiter> rateLimiter,
+                               @Value("${api.answers.max-batch:1000}") int maxBatch,
+                               @Value("${api.answers.tokens:}") List<String> tokens) {
+        this.riddleService = riddleService;
+        this.rateLimiter = rateLimiter;
+        this.maxBatch = maxBatch;
+        this.tokens = tokens.stream().map(String::strip).filter(t -> !t.isEmpty()).collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * 回答をまとめて判定する
+     * 空のリクエストや、件数が多すぎるリクエストは 400 を返す。
+     * 件数分のトークンが貯まっていなければ、1件も判定せずに 429 + Retry-After を返す。
+     * @param checks 判定したい (モード, ID, 回答) の配列
+     * @param token X-Api-Token ヘッダー (なければ null)
+     * @param request クライアント (IPアドレス) を見分ける
+     * @return 判定結果 (results は入力と同じ順番。知らないトークンなら 401)
+     */
+    @PostMapping(UrlConst.ANSWERS_CHECK_API)
+    public ResponseEntity<AnswerCheckBatch> check(@RequestBody List<AnswerCheck> checks,
+                                                  @RequestHeader(name = TOKEN_HEADER, required = false) String token,
+                                                  HttpServletRequest request) {
+        if (token != null && !tokens.contains(token)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        String scope = token == null ? RateLimiter.API : RateLimiter.API_CLIENT;
+        String client = token == null ? request.getRemoteAddr() : token;
+        RateLimiter limiter = rateLimiter.getIfAvailable();
+        int max = limiter == null ? maxBatch : Math.min(maxBatch, limiter.maxPermits(scope));
+        if (checks.isEmpty() || checks.size() > max) {
+            return ResponseEntity.badRequest().build();
+        }
+        long wait = limiter == null ? 0 : limiter.tryAcquire(scope, client, checks.size());
+        if (wait > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RateLimiter.retryAfterSeconds(wait))
+                    .build();
+        }
+        return ResponseEntity.ok(AnswerCheckBatch.of(riddleService.checkAnswers(checks)));
+    }
+}
@@ -1,19 +1,36 @@
 package com.example.solvingriddles.controller.casual;
 
+import com.example.solvingriddles.cache.PageKey;
+import com.example.solvingriddles.constant.AppConst;
 import com.example.solvingriddles.constant.UrlConst;
 import com.example.solvingriddles.constant.ViewNames;
+import com.example.solvingriddles.controller.ChunkedRows;
+import com.example.solvingriddles.controller.PlayerCookie;
+import com.example.solvingriddles.controller.ProgressCookie;
+import com.example.solvingriddles.service.ProgressCodec;
 import com.example.solvingriddles.service.RiddleService;
+import com.example.solvingriddles.model.AnswerOutcome;
+import com.example.solvingriddles.model.Progress;
 import com.example.solvingriddles.model.Riddle;
+import com.example.solvingriddles.model.RiddleOptions;
+import com.example.solvingriddles.model.RiddlePage;
+import com.example.solvingriddles.model.RiddleSummary;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.ui.Model;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -28,15 +45,29 @@ public class CasualController {
 
     // Serviceを使えるように注入！
     private final RiddleService riddleService;
-    private final static String MODE = "CASUAL";
+    private final ProgressCodec progressCodec;
+    // 一覧の1ページの件数 (これより多いパックはページに分けて、描画しながら送る)
+    private final int pageSize;
+    // 描画しながら送る時に、何行ごとに送るか
+    private final int chunkRows;
+    // このコントローラで遊ぶパックの画面 (モードはURLのパック名から RiddleService で決める)
+    private final static String STYLE = AppConst.STYLE_CASUAL;
 
     /**
      * コンストラクタ
      * Springの依存性注入(DI)により、自動的にRiddleServiceが渡される。
      * @param riddleService 謎解きのロジックを担当するサービス
+     * @param progressCodec クリア状況のCookieを読み書きする
+     * @param pageSize 一覧の1ページの件数
+     * @param chunkRows 一覧を描画しながら送る時に、何行ごとに送るか
      */
-    public CasualController(RiddleService riddleService) {
+    public CasualController(RiddleService riddleService, ProgressCodec progressCodec,
+                            @Value("${riddles.list.page-size:200}") int pageSize,
+                            @Value("${riddles.list.chunk-rows:50}") int chunkRows) {
         this.riddleService = riddleService;
+        this.progressCodec = progressCodec;
+        this.pageSize = pageSize;
+        this.chunkRows = chunkRows;
     }
 
     /**
@@ -52,36 +83,84 @@ public class CasualController {
 
     /**
      * カジュアルモードの謎解き一覧画面表示
-     * Service層から全ての謎解きデータを取得し、HTMLに渡す。
+     * Service層から全ての謎解きの要約 (正解などは入っていない) を取得し、HTMLに渡す。
+     * クリア済みの問題はCookieの進捗から判断する (サーバー側では何も調べない)。
+     * 1ページ (pageSize 件) に収まらないパックは、カーソル式のページに分けて、描画しながら少しずつ送る。
+     * @param pack URLのパック名 (/casual/list なら null = 既定のパック)
+     * @param from ページの最初の位置 (登録順で0 始まり。最初のページなら 0)
+     * @param request 進捗のCookieを読む
+     * @param response 描画しながら送る時の書き込み先
      * @param model 画面(HTML)にデータを渡すための入れ物
      * @return 一覧画面のHTMLファイル名 (casual/list.html)
      */
-    @GetMapping(UrlConst.CASUAL_LIST) // "/list"
-    public String list(Model model) {
-        // 全件取得して画面に渡す
-        model.addAttribute("riddles", riddleService.findAll(MODE));
+    @GetMapping({UrlConst.CASUAL_LIST, UrlConst.PACK + UrlConst.CASUAL_LIST}) // "/list"
+    public String list(@PathVariable(required = false) String pack,
+                       @RequestParam(name = "from", defaultValue = "0") int from,
+                       HttpServletRequest request, HttpServletResponse response, Model model) {
+        Optional<String> mode = riddleService.resolveMode(STYLE, pack);
+        if (mode.isEmpty()) {
+            return redirectToList(pack);
+        }
+        // 版番号はデータより先に読む (新しい版のキーで古いデータを覚えないように)
+        long version = riddleService.catalogVersion();
+        Progress cleared = progressCodec.decode(mode.get(), ProgressCookie.read(request, mode.get()));
+        String base = basePath(pack, mode.get());
+
+        // 全件の要約を取得して画面に渡す
+        List<RiddleSummary> riddles = riddleService.findSummaries(mode.get());
+        if (from == 0 && riddles.size() <= pageSize) {
+            model.addAttribute("riddles", riddles);
+            model.addAttribute("total", riddles.size());
+            // 描画結果はクリア状況ごとにキャッシュする
+            model.addAttribute(PageKey.ATTR, PageKey.list(ViewNames.CASUAL_LIST, mode.get(), version, cleared));
+        } else {
+            // 件数の多いパック: 1ページ分だけを、描画しながら送る (キャッシュすると全部溜めてしまうのでしない)
+            RiddlePage page = riddleService.findPage(mode.get(), from, pageSize);
+            model.addAttribute("riddles", ChunkedRows.of(page.riddles(), response, chunkRows));
+            model.addAttribute("total", page.total());
+            model.addAttribute("firstUrl", page.isFirst() ? null : base + UrlConst.CASUAL_LIST);
+            model.addAttribute("nextUrl", page.hasNext() ? base + UrlConst.CASUAL_LIST + "?from=" + page.next() : null);
+        }
+        model.addAttribute("progress", cleared);
+        model.addAttribute("base", base);
         return ViewNames.CASUAL_LIST; // "casual/list"
     }
 
     /**
      * カジュアルモードのクイズ画面表示
      * 指定されたIDの謎解きデータをService層から取得し、HTMLに渡す。
+     * @param pack URLのパック名 (既定のパックなら null)
      * @param id 謎解きのID
+     * @param player Cookieに入っているプレイヤー名 (選択肢の並びを決める)
      * @param model 画面(HTML)にデータを渡すための入れ物
      * @return クイズ画面のHTMLファイル名 (casual/quiz.html)
      */
-    @GetMapping(UrlConst.CASUAL_QUIZ + "/{id}") // "/quiz/{id}"
-    public String quiz(@PathVariable("id") Integer id, Model model) {
+    @GetMapping({UrlConst.CASUAL_QUIZ + "/{id}", UrlConst.PACK + UrlConst.CASUAL_QUIZ + "/{id}"}) // "/quiz/{id}"
+    public String quiz(@PathVariable(name = "pack", required = false) String pack,
+                       @PathVariable("id") Integer id,
+                       @CookieValue(name = PlayerCookie.NAME, required = false) String player,
+                       Model model) {
+        Optional<String> mode = riddleService.resolveMode(STYLE, pack);
+        if (mode.isEmpty()) {
+            return redirectToList(pack);
+        }
         // IDで検索して、あれば埋める、なければ...とりあえず今は考えない(nullになるかも)
-        Optional<Riddle> riddle = riddleService.findById(MODE, id);
+        long version = riddleService.catalogVersion();
+        Optional<Riddle> riddle = riddleService.findById(mode.get(), id);
         
         if(riddle.isEmpty()) {
             // 問題が見つからなかった場合は一覧にリダイレクト
-            return "redirect:" + UrlConst.CASUAL_BASE + UrlConst.CASUAL_LIST;
+            return "redirect:" + basePath(pack, mode.get()) + UrlConst.CASUAL_LIST;
         }
         
         // データがある時だけ画面を表示
         model.addAttribute("riddle", riddle.get());
+        // 選択肢の並び (プレイヤーごとに決まるので、リロードしても同じ並びになる)
+        int shuffle = RiddleOptions.variantFor(PlayerCookie.sanitize(player), id);
+        model.addAttribute("shuffle", shuffle);
+        model.addAttribute("base", basePath(pack, mode.get()));
+        // 描画結果をキャッシュする (選択肢をシャッフルする問題は並びごとに別のページ)
+        model.addAttribute(PageKey.ATTR, PageKey.quiz(ViewNames.CASUAL_QUIZ, mode.get(), version, riddle.get(), shuffle));
         return ViewNames.CASUAL_QUIZ; // "casual/quiz"
     }
 
@@ -89,34 +168,100 @@ public class CasualController {
      * カジュアルモードの答え合わせ処理
      * POSTリクエストで送信された解答をService層で判定し、
      * 結果に応じて結果画面へリダイレクトする。
+     * @param pack URLのパック名 (既定のパックなら null)
      * @param id 謎解きのID
      * @param answer ユーザーが入力した解答
+     * @param player Cookieに入っているプレイヤー名 (ランキング用)
+     * @param request 進捗のCookieを読む (正解したら書き直す)
+     * @param response プレイヤー名・進捗のCookieを書き込む
      * @return 結果画面へのリダイレクトURL
      */
-    @PostMapping(UrlConst.CASUAL_QUIZ_CHECK) // "/quiz/check"
-    public String checkAnswer(@RequestParam("id") Integer id, 
-                              @RequestParam("answer") String answer) {
+    @PostMapping({UrlConst.CASUAL_QUIZ_CHECK, UrlConst.PACK + UrlConst.CASUAL_QUIZ_CHECK}) // "/quiz/check"
+    public String checkAnswer(@PathVariable(name = "pack", required = false) String pack,
+                              @RequestParam("id") Integer id, 
+                              @RequestParam("answer") String answer,
+                              @CookieValue(name = PlayerCookie.NAME, required = false) String player,
+                              HttpServletRequest request, HttpServletResponse response) {
         
-        // Serviceで正誤判定
-        boolean isCorrect = riddleService.checkAnswer(MODE, id, answer);
+        Optional<String> mode = riddleService.resolveMode(STYLE, pack);
+        if (mode.isEmpty()) {
+            return redirectToList(pack);
+        }
+        boolean isCorrect = judge(mode, id, answer, player, request, response);
 
         // 結果画面へリダイレクト（クエリパラメータで結果を渡す単純な実装）
-        return "redirect:" + UrlConst.CASUAL_BASE + "/result?success=" + isCorrect+ "&id=" + id;
+        // JavaScript が動く画面では checkAnswerAsync の方が使われるので、ここは JS なしの時の予備
+        return "redirect:" + basePath(pack, mode.get()) + "/result?success=" + isCorrect+ "&id=" + id;
+    }
+
+    /**
+     * カジュアルモードの答え合わせ処理 (fetch 用)
+     * 判定とCookieの書き込みは checkAnswer と同じ。結果はJSONで返すだけで、画面は描画しない。
+     * 結果の表示は、問題画面に埋め込んである結果のひな形 (template) をJavaScriptが差し込む。
+     * @param pack URLのパック名 (既定のパックなら null)
+     * @param id 謎解きのID
+     * @param answer ユーザーが入力した解答
+     * @param player Cookieに入っているプレイヤー名 (ランキング用)
+     * @param request 進捗のCookieを読む (正解したら書き直す)
+     * @param response プレイヤー名・進捗のCookieを書き込む
+     * @return 判定結果 (例: {"id":1,"result":"correct"})
+     */
+    @PostMapping({UrlConst.CASUAL_QUIZ_CHECK_API, UrlConst.PACK + UrlConst.CASUAL_QUIZ_CHECK_API}) // "/api/quiz/check"
+    @ResponseBody
+    public AnswerOutcome checkAnswerAsync(@PathVariable(name = "pack", required = false) String pack,
+                                         @RequestParam("id") Integer id,
+                                         @RequestParam("answer") String answer,
+                                         @CookieValue(name = PlayerCookie.NAME, required = false) String player,
+                                         HttpServletRequest request, HttpServletResponse response) {
+        return AnswerOutcome.of(id, judge(riddleService.resolveMode(STYLE, pack), id, answer, player, request, response));
+    }
+
+    // Serviceで正誤判定して (正解ならランキングにも記録される)、正解なら進捗のCookieも書き直す
+    // 知らないパックなら不正解 (Cookieも触らない)
+    private boolean judge(Optional<String> mode, Integer id, String answer, String player,
+                          HttpServletRequest request, HttpServletResponse response) {
+        if (mode.isEmpty()) {
+            return false;
+        }
+        String m = mode.get();
+        boolean isCorrect = riddleService.checkAnswer(m, id, answer, PlayerCookie.resolve(player, response));
+        if (isCorrect) {
+            ProgressCookie.markCleared(progressCodec, m, ProgressCookie.nameFor(m),
+                    ProgressCookie.read(request, m), id, response);
+        }
+        return isCorrect;
+    }
+
+    // 画面のリンクの前半 (既定のパックは /casual、ほかのパックは /casual/packs/{モード})
+    private static String basePath(String pack, String mode) {
+        return pack == null ? UrlConst.CASUAL_BASE : UrlConst.CASUAL_BASE + "/packs/" + mode;
+    }
+
+    // 知らないパックの時は既定のパックの一覧へ (既定のパックもない時はトップへ)
+    private static String redirectToList(String pack) {
+        return "redirect:" + (pack == null ? UrlConst.ROOT : UrlConst.CASUAL_BASE + UrlConst.CASUAL_LIST);
     }
 
     /**
      * カジュアルモードの結果画面表示
      * クエリパラメータで受け取った正誤情報をHTMLに渡し、
      * 結果画面を表示する。
+     * @param pack URLのパック名 (既定のパックなら null)
      * @param success 正解ならtrue、不正解ならfalse
      * @param model 画面(HTML)にデータを渡すための入れ物
      * @return 結果画面のHTMLファイル名 (casual/result.html)
      */
-    @GetMapping(UrlConst.CASUAL_RESULT) // "/result"
-    public String result(@RequestParam("success") boolean success,@RequestParam("id") Integer id, Model model) {
+    @GetMapping({UrlConst.CASUAL_RESULT, UrlConst.PACK + UrlConst.CASUAL_RESULT}) // "/result"
+    public String result(@PathVariable(name = "pack", required = false) String pack,
+                         @RequestParam("success") boolean success,@RequestParam("id") Integer id, Model model) {
+        Optional<String> mode = riddleService.resolveMode(STYLE, pack);
+        if (mode.isEmpty()) {
+            return redirectToList(pack);
+        }
         model.addAttribute("isSuccess", success);
         // リトライ時に元の問題に戻れるようにIDを渡す
         model.addAttribute("riddleId", id);
+        model.addAttribute("base", basePath(pack, mode.get()));
         return ViewNames.CASUAL_RESULT; // "casual/result"
     }
 }
\ No newline at end of file
@@ -1,17 +1,35 @@
 package com.example.solvingriddles.controller.hacker;
 
+import com.example.solvingriddles.cache.PageKey;
+import com.example.solvingriddles.model.AnswerOutcome;
+import com.example.solvingriddles.model.Progress;
 import com.example.solvingriddles.model.Riddle;
+import com.example.solvingriddles.model.RiddleOptions;
+import com.example.solvingriddles.model.RiddlePage;
+import com.example.solvingriddles.model.RiddleSummary;
 import com.example.solvingriddles.service.RiddleService;
+import com.example.solvingriddles.constant.AppConst;
 import com.example.solvingriddles.constant.UrlConst;
 import com.example.solvingriddles.constant.ViewNames;
+import com.example.solvingriddles.controller.ChunkedRows;
+import com.example.solvingriddles.controller.PlayerCookie;
+import com.example.solvingriddles.controller.ProgressCookie;
+import com.example.solvingriddles.service.ImageVariantService;
+import com.example.solvingriddles.service.ProgressCodec;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -26,39 +44,93 @@ import java.util.Optional;
 public class HackerController {
 
     private final RiddleService riddleService;
-    private final static String MODE = "HACKER";
+    private final ProgressCodec progressCodec;
+    private final ImageVariantService imageVariantService;
+    // 一覧の1ページの件数 (これより多いパックはページに分けて、描画しながら送る)
+    private final int pageSize;
+    // 描画しながら送る時に、何行ごとに送るか
+    private final int chunkRows;
+    // このコントローラで遊ぶパックの画面 (モードはURLのパック名から RiddleService で決める)
+    private final static String STYLE = AppConst.STYLE_HACKER;
 
     /**
      * コンストラクタ
      * Springの依存性注入(DI)により、自動的にRiddleServiceが渡される。
      * @param riddleService 謎解きのロジックを担当するサービス
+     * @param progressCodec クリア状況のCookieを読み書きする
+     * @param imageVariantService 問題画像の縮小版 (srcset) を用意する
+     * @param pageSize 一覧の1ページの件数
+     * @param chunkRows 一覧を描画しながら送る時に、何行ごとに送るか
      */
-    public HackerController(RiddleService riddleService) {
+    public HackerController(RiddleService riddleService, ProgressCodec progressCodec,
+                            ImageVariantService imageVariantService,
+                            @Value("${riddles.list.page-size:200}") int pageSize,
+                            @Value("${riddles.list.chunk-rows:50}") int chunkRows) {
         this.riddleService = riddleService;
+        this.progressCodec = progressCodec;
+        this.imageVariantService = imageVariantService;
+        this.pageSize = pageSize;
+        this.chunkRows = chunkRows;
     }
 
     /**
      * トップ画面を表示する
+     * 既定のパックのほかに登録されているパックがあれば、そのリンクも並べる。
+     * @param model 画面(HTML)にデータを渡すための入れ物
      * @return トップ画面のHTMLファイル名 (index.html)
      */
     @GetMapping(UrlConst.ROOT)
-    public String index() {
+    public String index(Model model) {
+        model.addAttribute("packs", riddleService.packs().stream()
+                .filter(p -> riddleService.resolveMode(p.style(), p.mode()).isPresent())
+                .toList());
         return ViewNames.LAUNCHER;
     }
 
     /**
      * 謎解き一覧画面を表示する
-     * Service層から全ての謎解きデータを取得し、HTMLに渡す。
+     * Service層から全ての謎解きの要約 (正解などは入っていない) を取得し、HTMLに渡す。
+     * クリア済みの問題はCookieの進捗から判断する (サーバー側では何も調べない)。
+     * 1ページ (pageSize 件) に収まらないパックは、カーソル式のページに分けて、描画しながら少しずつ送る。
+     * @param pack URLのパック名 (/hacker/list なら null = 既定のパック)
+     * @param from ページの最初の位置 (登録順で0 始まり。最初のページなら 0)
+     * @param request 進捗のCookieを読む
+     * @param response 描画しながら送る時の書き込み先
      * @return 一覧画面のHTMLファイル名 (list.html)
      */
-    @GetMapping(UrlConst.HACKER_LIST)
-    public String list(Model model) {
-        // ★ここが大事！Serviceから全データを取ってきて...
+    @GetMapping({UrlConst.HACKER_LIST, UrlConst.PACK + UrlConst.HACKER_LIST})
+    public String list(@PathVariable(required = false) String pack,
+                       @RequestParam(name = "from", defaultValue = "0") int from,
+                       HttpServletRequest request, HttpServletResponse response, Model model) {
+        Optional<String> mode = riddleService.resolveMode(STYLE, pack);
+        if (mode.isEmpty()) {
+            return redirectToList(pack);
+        }
+        // 版番号はデータより先に読む (新しい版のキーで古いデータを覚えないように)
+        long version = riddleService.catalogVersion();
+
+        // ★ここが大事！Serviceから全件の要約を取ってきて...
         // (import java.util.List; を忘れずに！)
-        List<Riddle> riddles = riddleService.findAll(MODE);
-        
-        // ★ "riddles" という名前でHTMLに渡す！
-        model.addAttribute("riddles", riddles);
+        List<RiddleSummary> riddles = riddleService.findSummaries(mode.get());
+        Progress cleared = progressCodec.decode(mode.get(), ProgressCookie.read(request, mode.get()));
+        String base = basePath(pack, mode.get());
+
+        if (from == 0 && riddles.size() <= pageSize) {
+            // ★ "riddles" という名前でHTMLに渡す！
+            model.addAttribute("riddles", riddles);
+            model.addAttribute("total", riddles.size());
+            // 描画結果はクリア状況ごとにキャッシュする
+            model.addAttribute(PageKey.ATTR, PageKey.list(ViewNames.HACKER_LIST, mode.get(), version, cleared));
+        } else {
+            // 件数の多いパック: 1ページ分だけを、描画しながら送る (キャッシュすると全部溜めてしまうのでしない)
+            RiddlePage page = riddleService.findPage(mode.get(), from, pageSize);
+            model.addAttribute("riddles", ChunkedRows.of(page.riddles(), response, chunkRows));
+            model.addAttribute("total", page.total());
+            model.addAttribute("firstUrl", page.isFirst() ? null : base + UrlConst.HACKER_LIST);
+            model.addAttribute("nextUrl", page.hasNext() ? base + UrlConst.HACKER_LIST + "?from=" + page.next() : null);
+        }
+        model.addAttribute("progress", cleared);
+        model.addAttribute("base", base);
         
         return ViewNames.HACKER_LIST;
     }
@@ -68,23 +140,41 @@ public class HackerController {
      * URLの {id} 部分を数値として受け取り、対応する問題データを検索する。
      * データが存在しない場合は一覧画面へリダイレクトする。
      *
+     * @param pack  URLのパック名 (既定のパックなら null)
      * @param id    URLから取得した問題ID (例: /quiz/1 なら 1)
+     * @param player Cookieに入っているプレイヤー名 (選択肢の並びを決める)
      * @param model 画面(HTML)にデータを渡すための入れ物
      * @return 謎解き画面 (quiz.html)、または一覧へのリダイレクトパス
      */
-    @GetMapping(UrlConst.HACKER_QUIZ + "/{id}")
-    public String quiz(@PathVariable Integer id, Model model) {
-        // Serviceを使って問題データを取得
-        Optional<Riddle> riddle = riddleService.findById(MODE,id);
+    @GetMapping({UrlConst.HACKER_QUIZ + "/{id}", UrlConst.PACK + UrlConst.HACKER_QUIZ + "/{id}"})
+    public String quiz(@PathVariable(required = false) String pack,
+                       @PathVariable Integer id,
+                       @CookieValue(name = PlayerCookie.NAME, required = false) String player,
+                       Model model) {
+        Optional<String> mode = riddleService.resolveMode(STYLE, pack);
+        if (mode.isEmpty()) {
+            return redirectToList(pack);
+        }
+        // Serviceを使って問題データを取得 (版番号はデータより先に読む)
+        long version = riddleService.catalogVersion();
+        Optional<Riddle> riddle = riddleService.findById(mode.get(), id);
 
         if (riddle.isEmpty()) {
             // もし存在しないIDなら、一覧画面に強制送還（リダイレクト）
             // UrlConstを使う理由はブラウザに対して明示的に別のURLに移動するよう指示するため
-            return "redirect:" + UrlConst.HACKER_BASE + UrlConst.HACKER_LIST;
+            return "redirect:" + basePath(pack, mode.get()) + UrlConst.HACKER_LIST;
         }
 
         // HTML側で "riddle" という名前でデータを使えるようにする
         model.addAttribute("riddle", riddle.get());
+        // 画像がある問題は、画面の幅に合わせた縮小版も渡す (画像がなければ null)
+        model.addAttribute("image", imageVariantService.describe(riddle.get().imageUrl()));
+        // 選択肢の並び (プレイヤーごとに決まるので、リロードしても同じ並びになる)
+        int shuffle = RiddleOptions.variantFor(PlayerCookie.sanitize(player), id);
+        model.addAttribute("shuffle", shuffle);
+        model.addAttribute("base", basePath(pack, mode.get()));
+        // 描画結果をキャッシュする (選択肢をシャッフルする問題は並びごとに別のページ)
+        model.addAttribute(PageKey.ATTR, PageKey.quiz(ViewNames.HACKER_QUIZ, mode.get(), version, riddle.get(), shuffle));
         return ViewNames.HACKER_QUIZ;
     }
 
@@ -92,15 +182,24 @@ public class HackerController {
      * ユーザーの回答を受け取り、正誤判定を行う
      * 判定ロジックはService層に委譲し、その結果に応じて画面表示用のメッセージを設定する。
      *
+     * @param pack   URLのパック名 (既定のパックなら null)
      * @param id     回答対象の問題ID
      * @param answer フォームから送信された回答文字列
+     * @param player Cookieに入っているプレイヤー名 (ランキング用)
      * @param model  画面に結果を表示するためのデータ受け渡し用
+     * @param request 進捗のCookieを読む (正解したら書き直す)
+     * @param response プレイヤー名・進捗のCookieを書き込む
      * @return 結果画面のHTMLファイル名 (result.html)
      */
-    @PostMapping(UrlConst.HACKER_QUIZ_CHECK)
-    public String check(@RequestParam Integer id, @RequestParam String answer, Model model) {
-        // 判定ロジックはServiceに丸投げ
-        boolean isSuccess = riddleService.checkAnswer(MODE, id, answer);
+    @PostMapping({UrlConst.HACKER_QUIZ_CHECK, UrlConst.PACK + UrlConst.HACKER_QUIZ_CHECK})
+    public String check(@PathVariable(required = false) String pack,
+                        @RequestParam Integer id, @RequestParam String answer,
+                        @CookieValue(name = PlayerCookie.NAME, required = false) String player,
+                        Model model, HttpServletRequest request, HttpServletResponse response) {
+        // 判定ロジックはServiceに丸投げ (正解ならランキングにも記録される)
+        // JavaScript が動く画面では checkAsync の方が使われるので、ここは JS なしの時の予備
+        Optional<String> mode = riddleService.resolveMode(STYLE, pack);
+        boolean isSuccess = judge(mode, id, answer, player, request, response);
 
         if (isSuccess) {
             model.addAttribute("resultTitle", "ACCESS GRANTED");
@@ -114,25 +213,55 @@ public class HackerController {
         
         // リトライ用にIDも渡しておく (result.htmlから戻るため)
         model.addAttribute("riddleId", id);
+        model.addAttribute("base", mode.map(m -> basePath(pack, m)).orElse(UrlConst.HACKER_BASE));
         
         return ViewNames.HACKER_RESULT;
     }
 
+    /**
+     * ユーザーの回答を受け取り、正誤判定を行う (fetch 用)
+     * 判定とCookieの書き込みは check と同じ。結果はJSONで返すだけで、画面は描画しない。
+     * 結果の表示は、問題画面に埋め込んである結果のひな形 (template) をJavaScriptが差し込む。
+     *
+     * @param pack   URLのパック名 (既定のパックなら null)
+     * @param id     回答対象の問題ID
+     * @param answer フォームから送信された回答文字列
+     * @param player Cookieに入っているプレイヤー名 (ランキング用)
+     * @param request 進捗のCookieを読む (正解したら書き直す)
+     * @param response プレイヤー名・進捗のCookieを書き込む
+     * @return 判定結果 (例: {"id":1,"result":"correct"})
+     */
+    @PostMapping({UrlConst.HACKER_QUIZ_CHECK_API, UrlConst.PACK + UrlConst.HACKER_QUIZ_CHECK_API})
+    @ResponseBody
+    public AnswerOutcome checkAsync(@PathVariable(required = false) String pack,
+                                    @RequestParam Integer id, @RequestParam String answer,
+                                    @CookieValue(name = PlayerCookie.NAME, required = false) String player,
+                                    HttpServletRequest request, HttpServletResponse response) {
+        return AnswerOutcome.of(id, judge(riddleService.resolveMode(STYLE, pack), id, answer, player, request, response));
+    }
+
     /**
      * 画像クリック(GET)用の判定メソッド
      * <area href="/quiz/check-image?id=5&answer=..."> から呼ばれる
+     * @param pack   URLのパック名 (既定のパックなら null)
      * @param id     問題ID
      * @param answer クリック座標などの回答データ
+     * @param player Cookieに入っているプレイヤー名 (ランキング用)
      * @param model  画面に結果を表示するためのデータ受け渡し用
+     * @param request 進捗のCookieを読む (正解したら書き直す)
+     * @param response プレイヤー名・進捗のCookieを書き込む
      * @return 結果画面のHTMLファイル名 (result.html)
      */
-    @GetMapping(UrlConst.HACKER_QUIZ_CHECK_IMAGE)
-    public String checkImage(@RequestParam Integer id, 
+    @GetMapping({UrlConst.HACKER_QUIZ_CHECK_IMAGE, UrlConst.PACK + UrlConst.HACKER_QUIZ_CHECK_IMAGE})
+    public String checkImage(@PathVariable(required = false) String pack,
+                             @RequestParam Integer id, 
                              @RequestParam String answer, 
-                             Model model) {
+                             @CookieValue(name = PlayerCookie.NAME, required = false) String player,
+                             Model model, HttpServletRequest request, HttpServletResponse response) {
         
         // ロジックはServiceに丸投げ（既存のメソッドを再利用！）
-        boolean isSuccess = riddleService.checkAnswer(MODE, id, answer);
+        Optional<String> mode = riddleService.resolveMode(STYLE, pack);
+        boolean isSuccess = judge(mode, id, answer, player, request, response);
 
         if (isSuccess) {
             model.addAttribute("resultTitle", "ACCESS GRANTED");
@@ -146,8 +275,35 @@ public class HackerController {
         
         // リトライ時に元の問題に戻れるようにIDを渡す
         model.addAttribute("riddleId", id);
+        model.addAttribute("base", mode.map(m -> basePath(pack, m)).orElse(UrlConst.HACKER_BASE));
         
         // 結果画面は既存のものを使い回す
         return ViewNames.HACKER_RESULT;
     }
-}
\ No newline at end of file
+
+    // Serviceで正誤判定して (正解ならランキングにも記録される)、正解なら進捗のCookieも書き直す
+    // 知らないパックなら不正解 (Cookieも触らない)
+    private boolean judge(Optional<String> mode, Integer id, String answer, String player,
+                          HttpServletRequest request, HttpServletResponse response) {
+        if (mode.isEmpty()) {
+            return false;
+        }
+        String m = mode.get();
+        boolean isSuccess = riddleService.checkAnswer(m, id, answer, PlayerCookie.resolve(player, response));
+        if (isSuccess) {
+            ProgressCookie.markCleared(progressCodec, m, ProgressCookie.nameFor(m),
+                    ProgressCookie.read(request, m), id, response);
+        }
+        return isSuccess;
+    }
+
+    // 画面のリンクの前半 (既定のパックは /hacker、ほかのパックは /hacker/packs/{モード})
+    private static String basePath(String pack, String mode) {
+        return pack == null ? UrlConst.HACKER_BASE : UrlConst.HACKER_BASE + "/packs/" + mode;
+    }
+
+    // 知らないパックの時は既定のパックの一覧へ (既定のパックもない時はトップへ)
+    private static String redirectToList(String pack) {
+        return "redirect:" + (pack == null ? UrlConst.ROOT : UrlConst.HACKER_BASE + UrlConst.HACKER_LIST);
+    }
+}
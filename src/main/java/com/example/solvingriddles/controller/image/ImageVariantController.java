@@ -0,0 +1,71 @@
+package com.example.solvingriddles.controller.image;
+
+import com.example.solvingriddles.constant.UrlConst;
+import com.example.solvingriddles.service.ImageVariantService;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 問題画像の縮小版を返すコントローラ
+ * 画面の img タグの srcset から呼ばれる。どのサイズを頼むかはブラウザが画面の幅を見て決める。
+ */
+@Controller
+public class ImageVariantController {
+
+    // URLに元画像のハッシュが入っているので、ずっとキャッシュしてええ
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final ImageVariantService imageVariantService;
+
+    /**
+     * コンストラクタ
+     * @param imageVariantService 縮小版を作るサービス
+     */
+    public ImageVariantController(ImageVariantService imageVariantService) {
+        this.imageVariantService = imageVariantService;
+    }
+
+    /**
+     * 縮小版を返す (初めて頼まれた時はここで作る)
+     * 形式は Accept ヘッダーで変わるので、Vary: Accept を付ける。
+     * @param hash 元画像のハッシュ
+     * @param width 幅
+     * @param name 元画像のファイル名
+     * @param accept ブラウザが受け取れる形式
+     * @return 画像 (知らない画像・幅なら 404)
+     */
+    @GetMapping(UrlConst.IMAGE_VARIANT + "/{hash}/{width}/{name}")
+    public ResponseEntity<Resource> variant(@PathVariable String hash, @PathVariable int width,
+                                            @PathVariable String name,
+                                            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        return imageVariantService.variant(hash, width, name, parseAccept(accept))
+                .map(v -> ResponseEntity.ok()
+                        .cacheControl(IMMUTABLE)
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .contentType(v.contentType())
+                        .<Resource>body(new FileSystemResource(v.file())))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // 壊れた Accept は「何でもええ」扱いにする
+    private static List<MediaType> parseAccept(String accept) {
+        try {
+            return MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return List.of();
+        }
+    }
+}
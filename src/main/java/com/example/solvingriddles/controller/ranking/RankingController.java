@@ -0,0 +1,102 @@
+package com.example.solvingriddles.controller.ranking;
+
+import com.example.solvingriddles.constant.UrlConst;
+import com.example.solvingriddles.constant.ViewNames;
+import com.example.solvingriddles.controller.PlayerCookie;
+import com.example.solvingriddles.model.Ranking;
+import com.example.solvingriddles.model.RankingPeriod;
+import com.example.solvingriddles.service.RankingService;
+import com.example.solvingriddles.service.RiddleService;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+
+/**
+ * ランキング画面とランキングAPI (JSON) のコントローラ
+ * モード (HACKER / CASUAL と、追加した問題パック) と期間 (all / daily / weekly) はクエリパラメータで切り替える。
+ */
+@Controller
+public class RankingController {
+
+    private final RankingService rankingService;
+    private final RiddleService riddleService;
+
+    /**
+     * コンストラクタ
+     * @param rankingService ランキングを管理するサービス
+     * @param riddleService 登録されている問題パック (モードの一覧) を調べる
+     */
+    public RankingController(RankingService rankingService, RiddleService riddleService) {
+        this.rankingService = rankingService;
+        this.riddleService = riddleService;
+    }
+
+    /**
+     * ランキング画面を表示する
+     * @param mode モード (知らない値なら HACKER)
+     * @param period 期間 (知らない値なら all)
+     * @param player Cookieに入っているプレイヤー名
+     * @param model 画面にデータを渡すための入れ物
+     * @return ランキング画面のHTMLファイル名 (ranking.html)
+     */
+    @GetMapping(UrlConst.RANKING)
+    public String ranking(@RequestParam(name = "mode", required = false) String mode,
+                          @RequestParam(name = "period", required = false) String period,
+                          @CookieValue(name = PlayerCookie.NAME, required = false) String player,
+                          Model model) {
+        List<String> modes = riddleService.modes();
+        String m = riddleService.normalizeMode(mode);
+        RankingPeriod p = RankingPeriod.of(period);
+
+        model.addAttribute("ranking", rankingService.top(m, p, RankingService.DEFAULT_LIMIT));
+        model.addAttribute("modes", modes);
+        model.addAttribute("periods", RankingPeriod.values());
+        model.addAttribute("mode", m);
+        model.addAttribute("period", p);
+        model.addAttribute("player", PlayerCookie.sanitize(player));
+        return ViewNames.RANKING;
+    }
+
+    /**
+     * ランキングをJSONで返す
+     * 例: GET /api/ranking?mode=HACKER&period=daily&limit=10
+     * @param mode モード (知らない値なら HACKER)
+     * @param period 期間 (知らない値なら all)
+     * @param limit 人数 (1〜100)
+     * @return ランキング
+     */
+    @GetMapping(UrlConst.RANKING_API)
+    @ResponseBody
+    public Ranking rankingApi(@RequestParam(name = "mode", required = false) String mode,
+                              @RequestParam(name = "period", required = false) String period,
+                              @RequestParam(name = "limit", defaultValue = "" + RankingService.DEFAULT_LIMIT) int limit) {
+        return rankingService.top(riddleService.normalizeMode(mode), RankingPeriod.of(period), limit);
+    }
+
+    /**
+     * ランキングに載せる名前を登録する (Cookieに保存)
+     * 使えない名前の時は何もしないで戻る。
+     * @param name 入力された名前
+     * @param mode 戻り先のモード
+     * @param response Cookieを書き込むレスポンス
+     * @return ランキング画面へのリダイレクト
+     */
+    @PostMapping(UrlConst.RANKING_NAME)
+    public String registerName(@RequestParam("name") String name,
+                               @RequestParam(name = "mode", required = false) String mode,
+                               HttpServletResponse response) {
+        String sanitized = PlayerCookie.sanitize(name);
+        if (sanitized != null) {
+            PlayerCookie.write(sanitized, response);
+        }
+        return "redirect:" + UrlConst.RANKING + "?mode=" + riddleService.normalizeMode(mode);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.solvingriddles.controller.search;
+
+import com.example.solvingriddles.constant.UrlConst;
+import com.example.solvingriddles.constant.ViewNames;
+import com.example.solvingriddles.controller.ProgressCookie;
+import com.example.solvingriddles.model.Progress;
+import com.example.solvingriddles.model.RiddleQuery;
+import com.example.solvingriddles.model.RiddleSearchResult;
+import com.example.solvingriddles.service.ProgressCodec;
+import com.example.solvingriddles.service.RiddleService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 問題の検索画面と検索API (JSON) のコントローラ
+ * レベル・種類・クリア状況・キーワードで絞り込んで、1ページずつ返す。
+ * 例: GET /api/riddles/search?mode=HACKER&q=パスワード&level=1&level=2&type=text&cleared=uncleared&page=0
+ * クリア状況はそのモードの進捗Cookieで判断する (サーバー側には何も持たない)。
+ * 進捗に記録できない大きいID (Progress.MAX_ID より上) があるパックは、クリア状況では絞り込めない
+ * (画面では項目を出さず、APIで指定されたら 400 を返す)。
+ */
+@Controller
+public class SearchController {
+
+    // cleared パラメータの値 (これ以外なら絞り込まない)
+    static final String CLEARED = "cleared";
+    static final String UNCLEARED = "uncleared";
+
+    private final RiddleService riddleService;
+    private final ProgressCodec progressCodec;
+
+    /**
+     * コンストラクタ
+     * @param riddleService 検索と、登録されている問題パック (モードの一覧) を調べる
+     * @param progressCodec クリア状況のCookieを読む
+     */
+    public SearchController(RiddleService riddleService, ProgressCodec progressCodec) {
+        this.riddleService = riddleService;
+        this.progressCodec = progressCodec;
+    }
+
+    /**
+     * 検索画面を表示する
+     * @param mode モード (知らない値なら HACKER)
+     * @param keyword 問題文に含まれる文字列
+     * @param levels 難易度レベル (複数指定したらどれか)
+     * @param types 問題の種類 (複数指定したらどれか)
+     * @param cleared "cleared" ならクリア済みだけ、"uncleared" なら未クリアだけ
+     * @param page ページ番号 (0 始まり)
+     * @param request 進捗のCookieを読む・ページ送りのURLを作る
+     * @param model 画面にデータを渡すための入れ物
+     * @return 検索画面のHTMLファイル名 (search.html)
+     */
+    @GetMapping(UrlConst.SEARCH)
+    public String search(@RequestParam(name = "mode", required = false) String mode,
+                         @RequestParam(name = "q", required = false) String keyword,
+                         @RequestParam(name = "level", required = false) Set<Integer> levels,
+                         @RequestParam(name = "type", required = false) Set<String> types,
+                         @RequestParam(name = "cleared", required = false) String cleared,
+                         @RequestParam(name = "page", defaultValue = "0") int page,
+                         HttpServletRequest request, Model model) {
+        List<String> modes = riddleService.modes();
+        String m = riddleService.normalizeMode(mode);
+        RiddleQuery query = new RiddleQuery(keyword, levels, types, clearedOf(cleared), page, RiddleQuery.DEFAULT_SIZE);
+        Progress progress = progressCodec.decode(m, ProgressCookie.read(request, m));
+        RiddleSearchResult result = riddleService.search(m, query, progress);
+
+        model.addAttribute("result", result);
+        model.addAttribute("query", query);
+        model.addAttribute("cleared", query.cleared() == null ? "" : query.cleared() ? CLEARED : UNCLEARED);
+        model.addAttribute("modes", modes);
+        model.addAttribute("mode", m);
+        model.addAttribute("progress", progress);
+        // 問題画面へのリンクの前半 (既定のパックかどうかで変わる)
+        model.addAttribute("base", riddleService.basePath(m).orElse(UrlConst.HACKER_BASE));
+        // ページ送りは今の条件のまま page だけ差し替える
+        model.addAttribute("previousUrl", result.hasPrevious() ? pageUrl(request, result.page() - 1) : null);
+        model.addAttribute("nextUrl", result.hasNext() ? pageUrl(request, result.page() + 1) : null);
+        return ViewNames.SEARCH;
+    }
+
+    /**
+     * 検索結果をJSONで返す
+     * @param mode モード (知らない値なら HACKER)
+     * @param keyword 問題文に含まれる文字列
+     * @param levels 難易度レベル (複数指定したらどれか)
+     * @param types 問題の種類 (複数指定したらどれか)
+     * @param cleared "cleared" ならクリア済みだけ、"uncleared" なら未クリアだけ
+     * @param page ページ番号 (0 始まり)
+     * @param size 1ページの件数 (1〜100)
+     * @param request 進捗のCookieを読む
+     * @return 検索結果 (要約と、絞り込みの候補ごとの件数)。クリア状況で絞り込めないパックに cleared を指定したら 400
+     */
+    @GetMapping(UrlConst.SEARCH_API)
+    @ResponseBody
+    public ResponseEntity<RiddleSearchResult> searchApi(@RequestParam(name = "mode", required = false) String mode,
+                                        @RequestParam(name = "q", required = false) String keyword,
+                                        @RequestParam(name = "level", required = false) Set<Integer> levels,
+                                        @RequestParam(name = "type", required = false) Set<String> types,
+                                        @RequestParam(name = "cleared", required = false) String cleared,
+                                        @RequestParam(name = "page", defaultValue = "0") int page,
+                                        @RequestParam(name = "size", defaultValue = "" + RiddleQuery.DEFAULT_SIZE) int size,
+                                        HttpServletRequest request) {
+        String m = riddleService.normalizeMode(mode);
+        RiddleQuery query = new RiddleQuery(keyword, levels, types, clearedOf(cleared), page, size);
+        RiddleSearchResult result = riddleService.search(m, query, progressCodec.decode(m, ProgressCookie.read(request, m)));
+        if (query.cleared() != null && !result.clearedFacet()) {
+            // 絞り込まなかった結果を、絞り込んだように見せて返さない
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(result);
+    }
+
+
+    private static Boolean clearedOf(String cleared) {
+        if (CLEARED.equals(cleared)) {
+            return Boolean.TRUE;
+        }
+        return UNCLEARED.equals(cleared) ? Boolean.FALSE : null;
+    }
+
+    // 今のURLの page だけ差し替えたURL (クエリ文字列はエンコードされたまま使う)
+    private static String pageUrl(HttpServletRequest request, int page) {
+        return UriComponentsBuilder.fromPath(UrlConst.SEARCH)
+                .query(request.getQueryString())
+                .replaceQueryParam("page", page)
+                .build()
+                .toUriString();
+    }
+}
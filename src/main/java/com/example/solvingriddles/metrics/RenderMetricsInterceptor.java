@@ -0,0 +1,57 @@
+package com.example.solvingriddles.metrics;
+
+import com.example.solvingriddles.model.Riddle;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * テンプレートの描画時間を計測するインターセプター
+ * postHandle (コントローラの処理が終わって描画する直前) から
+ * afterCompletion (描画が終わった後) までの時間を記録する。
+ */
+public class RenderMetricsInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTR = RenderMetricsInterceptor.class.getName() + ".start";
+    private static final String VIEW_ATTR = RenderMetricsInterceptor.class.getName() + ".view";
+    private static final String TYPE_ATTR = RenderMetricsInterceptor.class.getName() + ".type";
+
+    private final RiddleMetrics metrics;
+
+    /**
+     * コンストラクタ
+     * @param metrics 記録先のメトリクス
+     */
+    public RenderMetricsInterceptor(RiddleMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView == null) {
+            return;
+        }
+        String view = modelAndView.getViewName();
+        // リダイレクトは描画しないので計測しない
+        if (view == null || view.startsWith("redirect:")) {
+            return;
+        }
+        request.setAttribute(VIEW_ATTR, view);
+        if (modelAndView.getModel().get("riddle") instanceof Riddle riddle) {
+            request.setAttribute(TYPE_ATTR, riddle.type());
+        }
+        request.setAttribute(START_ATTR, System.nanoTime());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(START_ATTR) instanceof Long start) {
+            metrics.recordRender((String) request.getAttribute(VIEW_ATTR),
+                    (String) request.getAttribute(TYPE_ATTR),
+                    System.nanoTime() - start);
+        }
+    }
+}
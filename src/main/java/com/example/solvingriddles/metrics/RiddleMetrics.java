@@ -0,0 +1,198 @@
+package com.example.solvingriddles.metrics;
+
+import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.constant.ViewNames;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 謎解きアプリのメトリクス (Micrometer) をまとめて記録するクラス
+ * 正解判定・検索・画面描画の時間と結果を、モード/問題タイプ/結果のタグ付きで記録する。
+ * <p>
+ * タグの値は必ず決まった候補の中から選ぶ (候補外は "other")。
+ * ボットがでたらめなIDやモードを送ってきても、メトリクスの種類が増え続けないようにするため。
+ * タグの組み合わせは決まった数しかないので、作ったメーターはタグの組ごとに覚えておいて使い回す
+ * (答え合わせや描画のたびに builder を作ってレジストリを引かないように)。
+ */
+@Component
+public class RiddleMetrics {
+
+    // ----- メトリクス名 -----
+    public static final String ANSWER_CHECK = "riddle.answer.check";
+    public static final String ANSWER_ATTEMPTS = "riddle.answer.attempts";
+    public static final String LOOKUP = "riddle.lookup";
+    public static final String RENDER = "riddle.render";
+    public static final String THROTTLED = "riddle.answer.throttled";
+    public static final String BATCH = "riddle.answer.batch";
+
+    // ----- タグの値 -----
+    public static final String OTHER = "other";
+    public static final String UNKNOWN = "unknown";
+    public static final String OUTCOME_CORRECT = "correct";
+    public static final String OUTCOME_INCORRECT = "incorrect";
+    public static final String OUTCOME_FOUND = "found";
+    public static final String PATH_REGEX = "regex";
+    public static final String PATH_EXACT = "exact";
+    public static final String PATH_LOOKUP = "lookup";
+    public static final String NONE = "none";
+    public static final String PATH_PARALLEL = "parallel";
+    public static final String PATH_SEQUENTIAL = "sequential";
+
+    private static final Set<String> KNOWN_MODES = Set.of(AppConst.MODE_HACKER, AppConst.MODE_CASUAL);
+
+    // JSONに出てくる問題タイプ (新しいタイプを足したらここにも追加)
+    private static final Set<String> KNOWN_TYPES = Set.of(
+        "text", "click", "image-map", "story", "select", "sort",
+        "moving", "choice", "gojuon", "toggle", "longpress", "duallongpress",
+        "lights", "stairs", "slider", "keyboard", "shortcut"
+    );
+
+    private static final Set<String> KNOWN_VIEWS = Set.of(
+        ViewNames.LAUNCHER, ViewNames.RANKING,
+        ViewNames.HACKER_LIST, ViewNames.HACKER_QUIZ, ViewNames.HACKER_RESULT,
+        ViewNames.CASUAL_INDEX, ViewNames.CASUAL_LIST, ViewNames.CASUAL_QUIZ, ViewNames.CASUAL_RESULT
+    );
+
+    // タグの組 -> メーター (初めて使う時に登録する)
+    private record CheckKey(String mode, String type, String path, String outcome) {}
+    private record CheckMeters(Timer timer, Counter attempts) {}
+    private record LookupKey(String mode, String operation, String outcome) {}
+    private record RenderKey(String view, String type) {}
+
+    private final MeterRegistry registry;
+    private final Map<CheckKey, CheckMeters> checks = new ConcurrentHashMap<>();
+    private final Map<LookupKey, Timer> lookups = new ConcurrentHashMap<>();
+    private final Map<RenderKey, Timer> renders = new ConcurrentHashMap<>();
+    private final Map<String, Counter> throttled = new ConcurrentHashMap<>();
+    private final Map<Boolean, DistributionSummary> batches = new ConcurrentHashMap<>();
+
+    /**
+     * コンストラクタ
+     * @param registry メトリクスの登録先
+     */
+    public RiddleMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 正解判定の時間と結果を記録する
+     * @param mode モード
+     * @param type 問題タイプ (IDが存在しない時は null)
+     * @param path 判定方法 (lookup / regex / exact / none)
+     * @param outcome 結果 (correct / incorrect / unknown)
+     * @param nanos かかった時間 (ナノ秒)
+     */
+    public void recordCheck(String mode, String type, String path, String outcome, long nanos) {
+        CheckMeters meters = cached(checks, new CheckKey(mode(mode), type(type), path, outcome), k -> new CheckMeters(
+                Timer.builder(ANSWER_CHECK)
+                        .description("正解判定にかかった時間")
+                        .tags("mode", k.mode(), "type", k.type(), "path", k.path(), "outcome", k.outcome())
+                        .register(registry),
+                Counter.builder(ANSWER_ATTEMPTS)
+                        .description("回答の回数 (正解/不正解/存在しないID)")
+                        .tags("mode", k.mode(), "type", k.type(), "outcome", k.outcome())
+                        .register(registry)));
+        meters.timer().record(nanos, TimeUnit.NANOSECONDS);
+        meters.attempts().increment();
+    }
+
+    /**
+     * 問題の検索 (findById / findAll) の時間を記録する
+     * @param mode モード
+     * @param operation 操作名 (findById / findAll)
+     * @param outcome 結果 (found / unknown)
+     * @param nanos かかった時間 (ナノ秒)
+     */
+    public void recordLookup(String mode, String operation, String outcome, long nanos) {
+        cached(lookups, new LookupKey(mode(mode), operation, outcome), k -> Timer.builder(LOOKUP)
+                .description("問題の検索にかかった時間")
+                .tags("mode", k.mode(), "operation", k.operation(), "outcome", k.outcome())
+                .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * テンプレート描画の時間を記録する
+     * @param view View名
+     * @param type 問題タイプ (一覧画面などで問題がない時は null)
+     * @param nanos かかった時間 (ナノ秒)
+     */
+    public void recordRender(String view, String type, long nanos) {
+        cached(renders, new RenderKey(view(view), type == null ? NONE : type(type)), k -> Timer.builder(RENDER)
+                .description("Thymeleafテンプレートの描画にかかった時間")
+                .tags("view", k.view(), "mode", modeOfView(k.view()), "type", k.type())
+                .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 回数制限で断った答え合わせを数える
+     * @param scope 制限の単位 (hacker / casual / api / api-client。RateLimiter の定数だけが来る)
+     */
+    public void recordThrottled(String scope) {
+        cached(throttled, scope, k -> Counter.builder(THROTTLED)
+                .description("回数制限 (429) で断った答え合わせの回数")
+                .tags("scope", k)
+                .register(registry))
+                .increment();
+    }
+
+    /**
+     * まとめて判定した件数を記録する
+     * @param size 件数
+     * @param parallel 並列で判定したか
+     */
+    public void recordBatch(int size, boolean parallel) {
+        cached(batches, parallel, k -> DistributionSummary.builder(BATCH)
+                .description("まとめて判定APIで1回に判定した件数")
+                .tags("path", k ? PATH_PARALLEL : PATH_SEQUENTIAL)
+                .register(registry))
+                .record(size);
+    }
+
+    // 覚えてあるメーターを引く (なければ作って登録する。同時に作っても登録先は同じメーターを返す)
+    private static <K, M> M cached(Map<K, M> meters, K key, Function<K, M> create) {
+        M meter = meters.get(key);
+        return meter != null ? meter : meters.computeIfAbsent(key, create);
+    }
+
+    // ----- タグの値を候補の中に丸める (Set.of は null を渡すと落ちるので先に弾く) -----
+
+    static String mode(String mode) {
+        return mode != null && KNOWN_MODES.contains(mode) ? mode : OTHER;
+    }
+
+    static String type(String type) {
+        if (type == null) {
+            return UNKNOWN;
+        }
+        return KNOWN_TYPES.contains(type) ? type : OTHER;
+    }
+
+    static String view(String view) {
+        return view != null && KNOWN_VIEWS.contains(view) ? view : OTHER;
+    }
+
+    // View名 ("hacker/quiz" など) からモードを決める
+    static String modeOfView(String view) {
+        if (view == null) {
+            return OTHER;
+        }
+        if (view.startsWith("hacker/")) {
+            return AppConst.MODE_HACKER;
+        }
+        if (view.startsWith("casual/")) {
+            return AppConst.MODE_CASUAL;
+        }
+        return OTHER;
+    }
+}
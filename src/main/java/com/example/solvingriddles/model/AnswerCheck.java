@@ -0,0 +1,13 @@
+package com.example.solvingriddles.model;
+
+/**
+ * まとめて正解判定する時の1件分 (JSON の入力)
+ * @param mode モード (HACKER / CASUAL)
+ * @param id 問題ID
+ * @param answer 回答
+ */
+public record AnswerCheck(
+    String mode,
+    Integer id,
+    String answer
+) {}
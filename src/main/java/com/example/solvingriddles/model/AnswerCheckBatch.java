@@ -0,0 +1,37 @@
+package com.example.solvingriddles.model;
+
+import java.util.List;
+
+/**
+ * まとめて正解判定した結果 (JSON の出力)
+ * results は入力と同じ順番に並ぶ。
+ * @param total 判定した件数
+ * @param correct 正解の件数
+ * @param unknown 存在しない問題の件数
+ * @param results 1件ごとの結果
+ */
+public record AnswerCheckBatch(
+    int total,
+    int correct,
+    int unknown,
+    List<AnswerResult> results
+) {
+
+    /**
+     * 1件ごとの結果から件数をまとめる
+     * @param results 判定結果 (入力と同じ順番)
+     * @return まとめた結果
+     */
+    public static AnswerCheckBatch of(List<AnswerResult> results) {
+        int correct = 0;
+        int unknown = 0;
+        for (AnswerResult result : results) {
+            if (result == AnswerResult.CORRECT) {
+                correct++;
+            } else if (result == AnswerResult.UNKNOWN) {
+                unknown++;
+            }
+        }
+        return new AnswerCheckBatch(results.size(), correct, unknown, results);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.solvingriddles.model;
+
+/**
+ * 答え合わせに使う1問分のデータ (問題と、その正解判定器)
+ * 判定とランキングへの記録で同じ版の問題を使うように、索引から1回で2つまとめて引く。
+ * (別々に引くと、間にリロードが挟まった時に古い正解で判定して新しい問題を記録したりする)
+ * @param riddle 問題
+ * @param matcher 正解判定器
+ */
+public record AnswerKey(
+    Riddle riddle,
+    AnswerMatcher matcher
+) {
+
+    /**
+     * 問題から作る (テスト用。判定器はその場で作る)
+     * @param riddle 問題
+     * @return 答え合わせ用のデータ
+     */
+    public static AnswerKey of(Riddle riddle) {
+        return new AnswerKey(riddle, AnswerMatcher.of(riddle.answer()));
+    }
+}
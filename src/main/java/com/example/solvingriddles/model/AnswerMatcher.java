@@ -0,0 +1,114 @@
+package com.example.solvingriddles.model;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 正解判定を行うオブジェクト (不変・スレッドセーフ)
+ * JSON読み込み時に Riddle.answer から一度だけ作っておき、
+ * リクエストのたびに正規表現をコンパイルし直さんで済むようにする。
+ * <ul>
+ *   <li>'^' で始まる正解で、一致する文字列が数えられるもの ("^(でんき|電気)$" など):
+ *       読み込み時に全部書き出して表記ゆれをそろえた HashSet にしておき、1回の検索で判定</li>
+ *   <li>'^' で始まるそれ以外の正解 (* や + があるもの): 文字クラスにそろえた文字も足してコンパイルした LinearRegex で完全一致判定</li>
+ *   <li>それ以外: 表記ゆれをそろえて完全一致判定</li>
+ * </ul>
+ * どの場合も回答の表記ゆれはそろえてから比べるので、"^(でんき|電気)$" には「デンキ」「ﾃﾞﾝｷ」も正解になる
+ * (書き出せるかどうかで判定のルールは変わらない)。
+ * 表記ゆれのそろえ方は {@link AnswerNormalizer} を参照。
+ * 正規表現は必ず線形時間で終わるエンジンで判定するので、どんな回答を送られても
+ * 1リクエストで CPU を使い切られることはない。回答の長さも MAX_ANSWER_LENGTH で切る。
+ */
+public final class AnswerMatcher {
+
+    // 正解が定義されていない問題 (story など) 用。何を渡しても不正解
+    private static final AnswerMatcher NEVER = new AnswerMatcher(false, null, null, null);
+
+    // これより長い回答は見ずに不正解 (一番長い正解でも数十文字)
+    public static final int MAX_ANSWER_LENGTH = 256;
+
+    // 正規表現を書き出す数の上限 (これより多ければ正規表現のまま判定する)
+    static final int MAX_EXPANSION = 256;
+
+    // 正解データが '^' で始まっていたか
+    private final boolean regex;
+    // 書き出せなかった正規表現の時だけ入る (それ以外は null)
+    private final LinearRegex pattern;
+    // 書き出した正解 (表記ゆれをそろえたもの。書き出せた時だけ入る)
+    private final Set<String> accepted;
+    // 完全一致判定用の正解文字列 (表記ゆれをそろえたもの。正規表現の時は null)
+    private final String exact;
+
+    private AnswerMatcher(boolean regex, LinearRegex pattern, Set<String> accepted, String exact) {
+        this.regex = regex;
+        this.pattern = pattern;
+        this.accepted = accepted;
+        this.exact = exact;
+    }
+
+    /**
+     * 正解データから判定オブジェクトを作る
+     * @param correctAnswer JSONの "answer" (nullも可)
+     * @return 判定オブジェクト
+     * @throws PatternSyntaxException 正規表現が不正、または線形時間で判定できない書き方の場合
+     */
+    public static AnswerMatcher of(String correctAnswer) {
+        if (correctAnswer == null) {
+            return NEVER;
+        }
+        // ケース1: 正解データが '^' で始まってたら「正規表現」
+        if (correctAnswer.startsWith("^")) {
+            Set<String> words = LinearRegex.expand(correctAnswer, MAX_EXPANSION);
+            if (words == null) {
+                // * や + があって書き出せないものは、そろえた回答を読めるようにした正規表現で判定
+                return new AnswerMatcher(true, LinearRegex.compile(correctAnswer, AnswerNormalizer::normalize), null, null);
+            }
+            Set<String> accepted = new HashSet<>();
+            for (String word : words) {
+                accepted.add(AnswerNormalizer.normalize(word));
+            }
+            return new AnswerMatcher(true, null, Set.copyOf(accepted), null);
+        }
+        // ケース2: それ以外は表記ゆれをそろえて優しく判定
+        return new AnswerMatcher(false, null, null, AnswerNormalizer.normalize(correctAnswer));
+    }
+
+    /**
+     * ユーザーの回答が正解かどうか
+     * @param answer ユーザーの回答
+     * @return 正解ならtrue (長すぎる回答は不正解)
+     */
+    public boolean matches(String answer) {
+        if (answer == null || answer.length() > MAX_ANSWER_LENGTH) {
+            return false;
+        }
+        if (pattern == null && accepted == null && exact == null) {
+            return false;
+        }
+        String normalized = AnswerNormalizer.normalize(answer);
+        if (pattern != null) {
+            return pattern.matches(normalized);
+        }
+        if (accepted != null) {
+            return accepted.contains(normalized);
+        }
+        return exact.equals(normalized);
+    }
+
+    /**
+     * 正解データが正規表現で書かれているかどうか
+     * @return 正規表現ならtrue
+     */
+    public boolean isRegex() {
+        return regex;
+    }
+
+    /**
+     * 判定が HashSet の検索1回で済むかどうか (正規表現を書き出せた時)
+     * @return 書き出せていればtrue
+     */
+    public boolean isLookup() {
+        return accepted != null;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.solvingriddles.model;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * 回答の表記ゆれをそろえる (正解データとユーザーの回答の両方に同じ処理をかける)
+ * <ol>
+ *   <li>Unicode NFKC (全角英数 → 半角、半角カナ → 全角カナ、濁点の結合など)</li>
+ *   <li>カタカナ → ひらがな</li>
+ *   <li>大文字 → 小文字</li>
+ *   <li>前後の空白を取る</li>
+ * </ol>
+ * これで「でんき / デンキ / ﾃﾞﾝｷ」や「start / START / ＳＴＡＲＴ」を作問者が全部書かんでもよくなる (正規表現の正解でも同じ)。
+ * 漢字の読みまでは面倒見られんので、「電気」は今まで通り正解データに書いておく。
+ */
+public final class AnswerNormalizer {
+
+    // カタカナ (ァ〜ヶ) とひらがな (ぁ〜ゖ) の文字コードの差
+    private static final int KANA_OFFSET = 'ア' - 'あ';
+
+    private AnswerNormalizer() {
+    }
+
+    /**
+     * 表記ゆれをそろえる
+     * @param text 正解データ or ユーザーの回答 (null なら null)
+     * @return そろえた文字列
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        if (isPlainAscii(text)) {
+            // よくある英数字だけの回答は NFKC もカナもいらん
+            return text.toLowerCase(Locale.ROOT).strip();
+        }
+        String nfkc = Normalizer.normalize(text, Normalizer.Form.NFKC);
+        StringBuilder sb = new StringBuilder(nfkc.length());
+        for (int i = 0; i < nfkc.length(); i++) {
+            char c = nfkc.charAt(i);
+            // ァ(30A1)〜ヶ(30F6) と ヽヾ(30FD, 30FE) はひらがなにずらす。ー(30FC) や ・(30FB) はそのまま
+            if ((c >= 'ァ' && c <= 'ヶ') || c == 'ヽ' || c == 'ヾ') {
+                c = (char) (c - KANA_OFFSET);
+            }
+            sb.append(c);
+        }
+        return sb.toString().toLowerCase(Locale.ROOT).strip();
+    }
+
+    // ASCII だけかどうか
+    private static boolean isPlainAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
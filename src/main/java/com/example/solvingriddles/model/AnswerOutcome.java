@@ -0,0 +1,25 @@
+package com.example.solvingriddles.model;
+
+/**
+ * 画面から送った1問分の答え合わせの結果 (fetch に返す JSON)
+ * <pre>
+ * {"id":3,"result":"correct"}
+ * </pre>
+ * @param id 問題ID
+ * @param result 判定結果
+ */
+public record AnswerOutcome(
+    Integer id,
+    AnswerResult result
+) {
+
+    /**
+     * 正解・不正解から結果を作る
+     * @param id 問題ID
+     * @param correct 正解なら true
+     * @return 結果
+     */
+    public static AnswerOutcome of(Integer id, boolean correct) {
+        return new AnswerOutcome(id, correct ? AnswerResult.CORRECT : AnswerResult.INCORRECT);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.solvingriddles.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * 正解判定の結果 (JSON では "correct" / "incorrect" / "unknown" の文字列になる)
+ */
+public enum AnswerResult {
+    /** 正解 */
+    CORRECT,
+    /** 不正解 */
+    INCORRECT,
+    /** 問題が存在しない (モードやIDが間違っている) */
+    UNKNOWN;
+
+    @JsonValue
+    public String toJson() {
+        return name().toLowerCase();
+    }
+}
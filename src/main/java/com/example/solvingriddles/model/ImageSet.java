@@ -0,0 +1,16 @@
+package com.example.solvingriddles.model;
+
+/**
+ * 問題画像の出し分け情報 (画面の img タグに渡す)
+ * 画面の幅に合わせて、ブラウザが srcset の中から一番合うサイズを選ぶ。
+ * @param src srcset に対応していないブラウザ向けの画像URL
+ * @param srcset 縮小版のURLと幅の一覧 (例: "/images/v/1a2b3c4d/300/level5.png 300w, ...")。縮小版がなければ null
+ * @param sizes 表示される幅のヒント (srcset と一緒に使う)
+ * @param baseWidth 画像マップの coords を書いた時の表示幅 (この幅からの比率で座標を拡大・縮小する)
+ */
+public record ImageSet(
+    String src,
+    String srcset,
+    String sizes,
+    int baseWidth
+) {}
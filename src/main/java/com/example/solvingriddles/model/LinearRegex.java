@@ -0,0 +1,741 @@
+package com.example.solvingriddles.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 正解判定用の正規表現エンジン (必ず線形時間で終わる・不変・スレッドセーフ)
+ * java.util.regex はバックトラックするので、"^(a+)+$" のような書き方に長い入力を渡されると
+ * 1リクエストで何秒も CPU を使い切ることがある (ReDoS)。
+ * ここでは正規表現を NFA (Thompson 方式) にコンパイルして、「今いる状態の集合」を1文字ずつ進める。
+ * 状態は1文字につき各1回しか見ないので、かかる時間は 入力の長さ × 状態数 で頭打ちになる。
+ * <p>
+ * 使えるのは、正解の表記ゆれを書くのに要るものだけ:
+ * <ul>
+ *   <li>文字、.、[abc] [^a-z] などの文字クラス、\d \w \s (と大文字の否定)</li>
+ *   <li>( ) と (?: ) のグループ、|、* + ? {n} {n,} {n,m} (最短一致の *? なども可。結果は同じ)</li>
+ *   <li>^ と $ (入力の先頭・末尾)</li>
+ * </ul>
+ * 後方参照・先読み/後読み・独占的な量指定子 (*+)・フラグ (?i) などは線形で判定できないか、
+ * 判定の意味が変わるので、読み込み時に PatternSyntaxException で弾く。
+ * 判定は java.util.regex の {@code Pattern.matches} と同じ (全体一致・大文字小文字を区別)。
+ */
+final class LinearRegex {
+
+    // 状態数の上限 ({n,m} で大きく展開されるパターンを弾く)
+    static final int MAX_STATES = 2_000;
+
+    // {n,m} の数字の上限
+    private static final int MAX_REPEAT = 100;
+
+    // 表記ゆれをそろえる文字クラスの大きさの上限 (. や [^a] のような大きいクラスはもともと何でも読むのでそろえない)
+    private static final int MAX_FOLD = 4_096;
+
+    // ----- 命令 -----
+    private static final int CLASS = 0;  // 1文字読む (arg = 文字クラスの番号)
+    private static final int SPLIT = 1;  // 2つに分かれる (arg, arg2)
+    private static final int JMP = 2;    // arg に飛ぶ
+    private static final int BOL = 3;    // 入力の先頭でだけ進める
+    private static final int EOL = 4;    // 入力の末尾でだけ進める
+    private static final int MATCH = 5;  // ここまで来たら一致
+
+    // . が読まない文字 (java.util.regex と同じ行末文字)
+    private static final int[] LINE_TERMINATORS = { '\n', '\n', '\r', '\r', 0x85, 0x85, 0x2028, 0x2029 };
+    private static final int[] DIGIT = { '0', '9' };
+    private static final int[] WORD = { '0', '9', 'A', 'Z', '_', '_', 'a', 'z' };
+    private static final int[] SPACE = { '\t', '\r', ' ', ' ' };
+
+    private final String pattern;
+    private final int[] op;
+    private final int[] arg;
+    private final int[] arg2;
+    // 文字クラス: [開始, 終了, 開始, 終了, ...] (ソート済み・重なりなし)
+    private final int[][] classes;
+
+    private LinearRegex(String pattern, int[] op, int[] arg, int[] arg2, int[][] classes) {
+        this.pattern = pattern;
+        this.op = op;
+        this.arg = arg;
+        this.arg2 = arg2;
+        this.classes = classes;
+    }
+
+    /**
+     * 正規表現をコンパイルする
+     * @param pattern 正規表現
+     * @return コンパイル済みの判定器
+     * @throws PatternSyntaxException 書き方が間違っている、またはこのエンジンで使えない書き方の場合
+     */
+    static LinearRegex compile(String pattern) {
+        return compile(pattern, null);
+    }
+
+    /**
+     * 表記ゆれをそろえた入力を判定する正規表現をコンパイルする
+     * 文字クラスの1文字ずつに fold をかけた文字も読めるようにしておくので、
+     * fold をかけた入力を渡せば "^デンキ+$" に "でんきき" も一致する。
+     * @param pattern 正規表現
+     * @param fold 1文字をそろえる関数 (null ならそろえない。1文字にならなかった結果は使わない)
+     * @return コンパイル済みの判定器
+     * @throws PatternSyntaxException 書き方が間違っている、またはこのエンジンで使えない書き方の場合
+     */
+    static LinearRegex compile(String pattern, UnaryOperator<String> fold) {
+        Node root = new Parser(pattern).parse();
+        Compiler c = new Compiler(pattern, fold);
+        c.emit(root);
+        c.add(MATCH, 0, 0);
+        return new LinearRegex(pattern,
+                Arrays.copyOf(c.op, c.size), Arrays.copyOf(c.arg, c.size), Arrays.copyOf(c.arg2, c.size),
+                c.classes.toArray(new int[0][]));
+    }
+
+    /**
+     * パターンに一致する文字列を全部書き出す
+     * "^(でんき|電気)$" や "^[Tt]a[ck]oyak[iy]$" のように、一致する文字列が有限個しかない時だけ使える。
+     * ^ と $ は先頭と末尾にある時だけ許す。
+     * @param pattern 正規表現
+     * @param limit 書き出す数の上限
+     * @return 一致する文字列 (* や + がある・上限を超える・途中に ^ $ がある時は null)
+     * @throws PatternSyntaxException 書き方が間違っている、またはこのエンジンで使えない書き方の場合
+     */
+    static Set<String> expand(String pattern, int limit) {
+        Node root = new Parser(pattern).parse();
+        List<Node> nodes = new ArrayList<>(root instanceof Concat cat ? cat.nodes() : List.of(root));
+        if (!nodes.isEmpty() && nodes.get(0) instanceof Begin) {
+            nodes.remove(0);
+        }
+        if (!nodes.isEmpty() && nodes.get(nodes.size() - 1) instanceof End) {
+            nodes.remove(nodes.size() - 1);
+        }
+        return words(new Concat(nodes), limit);
+    }
+
+    // 構文木が表す文字列の集合 (無限・上限超えなら null)
+    private static Set<String> words(Node node, int limit) {
+        Set<String> out = new LinkedHashSet<>();
+        switch (node) {
+            case Chars ch -> {
+                int[] r = ch.ranges();
+                for (int k = 0; k < r.length; k += 2) {
+                    if (r[k + 1] - r[k] >= limit) {
+                        return null;
+                    }
+                    for (int cp = r[k]; cp <= r[k + 1]; cp++) {
+                        out.add(Character.toString(cp));
+                    }
+                }
+            }
+            case Concat cat -> {
+                out.add("");
+                for (Node n : cat.nodes()) {
+                    out = product(out, words(n, limit), limit);
+                    if (out == null) {
+                        return null;
+                    }
+                }
+            }
+            case Alternation alt -> {
+                for (Node n : alt.nodes()) {
+                    Set<String> w = words(n, limit);
+                    if (w == null) {
+                        return null;
+                    }
+                    out.addAll(w);
+                }
+            }
+            case Repeat rep -> {
+                if (rep.max() == -1) {
+                    return null;
+                }
+                Set<String> w = words(rep.node(), limit);
+                Set<String> times = new LinkedHashSet<>(List.of(""));
+                for (int k = 0; k <= rep.max() && times != null; k++) {
+                    if (k >= rep.min()) {
+                        out.addAll(times);
+                    }
+                    times = k < rep.max() ? product(times, w, limit) : times;
+                }
+                if (times == null) {
+                    return null;
+                }
+            }
+            case Begin b -> {
+                return null;
+            }
+            case End e -> {
+                return null;
+            }
+        }
+        return out.size() > limit ? null : out;
+    }
+
+    // 2つの集合の全部の組み合わせをつなげる
+    private static Set<String> product(Set<String> left, Set<String> right, int limit) {
+        if (right == null || (long) left.size() * right.size() > limit) {
+            return null;
+        }
+        Set<String> out = new LinkedHashSet<>();
+        for (String l : left) {
+            for (String r : right) {
+                out.add(l + r);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * 入力全体がパターンに一致するか
+     * @param input 入力
+     * @return 一致すれば true
+     */
+    boolean matches(CharSequence input) {
+        int n = op.length;
+        int len = input.length();
+        StateSet current = new StateSet(n);
+        StateSet next = new StateSet(n);
+        int[] stack = new int[2 * n + 2];
+
+        follow(current, 0, 0, len, stack);
+        int pos = 0;
+        while (pos < len) {
+            if (current.size == 0) {
+                return false;
+            }
+            int cp = Character.codePointAt(input, pos);
+            int nextPos = pos + Character.charCount(cp);
+            for (int k = 0; k < current.size; k++) {
+                int pc = current.dense[k];
+                if (op[pc] == CLASS && contains(classes[arg[pc]], cp)) {
+                    follow(next, pc + 1, nextPos, len, stack);
+                }
+            }
+            StateSet tmp = current;
+            current = next;
+            next = tmp;
+            next.clear();
+            pos = nextPos;
+        }
+        for (int k = 0; k < current.size; k++) {
+            if (op[current.dense[k]] == MATCH) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 状態数
+     * @return 命令の数
+     */
+    int size() {
+        return op.length;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    // 文字を読まずに進める命令 (SPLIT / JMP / ^ / $) をたどって、文字を読む状態を集める
+    private void follow(StateSet set, int start, int pos, int len, int[] stack) {
+        int top = 0;
+        stack[top++] = start;
+        while (top > 0) {
+            int pc = stack[--top];
+            if (!set.add(pc)) {
+                continue;
+            }
+            switch (op[pc]) {
+                case JMP -> stack[top++] = arg[pc];
+                case SPLIT -> {
+                    stack[top++] = arg2[pc];
+                    stack[top++] = arg[pc];
+                }
+                case BOL -> {
+                    if (pos == 0) {
+                        stack[top++] = pc + 1;
+                    }
+                }
+                case EOL -> {
+                    if (pos == len) {
+                        stack[top++] = pc + 1;
+                    }
+                }
+                default -> {
+                    // CLASS と MATCH はここで止まる
+                }
+            }
+        }
+    }
+
+    private static boolean contains(int[] ranges, int cp) {
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (cp < ranges[i]) {
+                return false;
+            }
+            if (cp <= ranges[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 状態の集合 (追加とクリアが O(1) の疎集合)
+     */
+    private static final class StateSet {
+        final int[] dense;
+        final int[] sparse;
+        int size;
+
+        StateSet(int capacity) {
+            dense = new int[capacity];
+            sparse = new int[capacity];
+        }
+
+        boolean add(int pc) {
+            int i = sparse[pc];
+            if (i < size && dense[i] == pc) {
+                return false;
+            }
+            sparse[pc] = size;
+            dense[size++] = pc;
+            return true;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    // ========== 構文木 ==========
+
+    private sealed interface Node permits Chars, Concat, Alternation, Repeat, Begin, End {}
+
+    private record Chars(int[] ranges) implements Node {}
+
+    private record Concat(List<Node> nodes) implements Node {}
+
+    private record Alternation(List<Node> nodes) implements Node {}
+
+    private record Repeat(Node node, int min, int max) implements Node {}  // max = -1 は上限なし
+
+    private record Begin() implements Node {}
+
+    private record End() implements Node {}
+
+    /**
+     * 正規表現を構文木にする (再帰下降)
+     */
+    private static final class Parser {
+
+        private final String p;
+        private int i;
+
+        Parser(String pattern) {
+            this.p = pattern;
+        }
+
+        Node parse() {
+            Node node = alternation();
+            if (i < p.length()) {
+                throw error("対応する '(' がない ')' があります");
+            }
+            return node;
+        }
+
+        private Node alternation() {
+            List<Node> nodes = new ArrayList<>();
+            nodes.add(concat());
+            while (i < p.length() && p.charAt(i) == '|') {
+                i++;
+                nodes.add(concat());
+            }
+            return nodes.size() == 1 ? nodes.get(0) : new Alternation(nodes);
+        }
+
+        private Node concat() {
+            List<Node> nodes = new ArrayList<>();
+            while (i < p.length() && p.charAt(i) != '|' && p.charAt(i) != ')') {
+                nodes.add(quantified(atom()));
+            }
+            return nodes.size() == 1 ? nodes.get(0) : new Concat(nodes);
+        }
+
+        private Node quantified(Node atom) {
+            if (i >= p.length()) {
+                return atom;
+            }
+            int min;
+            int max;
+            switch (p.charAt(i)) {
+                case '*' -> { min = 0; max = -1; i++; }
+                case '+' -> { min = 1; max = -1; i++; }
+                case '?' -> { min = 0; max = 1; i++; }
+                case '{' -> {
+                    i++;
+                    min = number();
+                    max = min;
+                    if (peek(',')) {
+                        i++;
+                        max = peek('}') ? -1 : number();
+                    }
+                    if (!peek('}')) {
+                        throw error("{n,m} の書き方が不正です");
+                    }
+                    i++;
+                    if (max != -1 && max < min) {
+                        throw error("{n,m} の m が n より小さいです");
+                    }
+                }
+                default -> {
+                    return atom;
+                }
+            }
+            if (peek('?')) {
+                // 最短一致: 全体一致の判定では結果が変わらない
+                i++;
+            } else if (peek('+')) {
+                throw error("独占的な量指定子 (*+ など) は使えません");
+            }
+            if (i < p.length() && "*+?{".indexOf(p.charAt(i)) >= 0) {
+                throw error("量指定子が続いています");
+            }
+            return new Repeat(atom, min, max);
+        }
+
+        private int number() {
+            int start = i;
+            while (i < p.length() && Character.isDigit(p.charAt(i)) && i - start < 4) {
+                i++;
+            }
+            if (start == i) {
+                throw error("{n,m} に数字がありません");
+            }
+            int n = Integer.parseInt(p, start, i, 10);
+            if (n > MAX_REPEAT) {
+                throw error("{n,m} の数字は " + MAX_REPEAT + " までです");
+            }
+            return n;
+        }
+
+        private Node atom() {
+            char c = p.charAt(i);
+            switch (c) {
+                case '(' -> {
+                    i++;
+                    if (peek('?')) {
+                        if (i + 1 < p.length() && p.charAt(i + 1) == ':') {
+                            i += 2;
+                        } else {
+                            throw error("(?...) は (?:...) 以外使えません (先読み・フラグなど)");
+                        }
+                    }
+                    Node inner = alternation();
+                    if (!peek(')')) {
+                        throw error("')' が閉じていません");
+                    }
+                    i++;
+                    return inner;
+                }
+                case '[' -> {
+                    i++;
+                    return new Chars(charClass());
+                }
+                case '.' -> {
+                    i++;
+                    return new Chars(complement(LINE_TERMINATORS));
+                }
+                case '^' -> {
+                    i++;
+                    return new Begin();
+                }
+                case '$' -> {
+                    i++;
+                    return new End();
+                }
+                case '\\' -> {
+                    i++;
+                    int[] ranges = escape(false);
+                    return new Chars(ranges);
+                }
+                case '*', '+', '?', '{' -> throw error("量指定子の前に文字がありません");
+                default -> {
+                    int cp = p.codePointAt(i);
+                    i += Character.charCount(cp);
+                    return new Chars(new int[] { cp, cp });
+                }
+            }
+        }
+
+        // [ の次から ] までを読む
+        private int[] charClass() {
+            boolean negate = peek('^');
+            if (negate) {
+                i++;
+            }
+            List<int[]> parts = new ArrayList<>();
+            boolean first = true;
+            while (true) {
+                if (i >= p.length()) {
+                    throw error("文字クラスの ']' が閉じていません");
+                }
+                char c = p.charAt(i);
+                if (c == ']' && !first) {
+                    i++;
+                    break;
+                }
+                first = false;
+                if (c == '[') {
+                    throw error("入れ子の文字クラスは使えません");
+                }
+                if (c == '&' && i + 1 < p.length() && p.charAt(i + 1) == '&') {
+                    throw error("文字クラスの && は使えません");
+                }
+                int[] from = classAtom();
+                // 範囲 a-z ('-' が最後なら文字として扱う)
+                if (peek('-') && i + 1 < p.length() && p.charAt(i + 1) != ']') {
+                    i++;
+                    int[] to = classAtom();
+                    if (!single(from) || !single(to)) {
+                        throw error("文字クラスの範囲に \\d などは使えません");
+                    }
+                    if (to[0] < from[0]) {
+                        throw error("文字クラスの範囲が逆になっています");
+                    }
+                    parts.add(new int[] { from[0], to[0] });
+                } else {
+                    parts.add(from);
+                }
+            }
+            int[] ranges = union(parts);
+            return negate ? complement(ranges) : ranges;
+        }
+
+        private int[] classAtom() {
+            if (peek('\\')) {
+                i++;
+                return escape(true);
+            }
+            int cp = p.codePointAt(i);
+            i += Character.charCount(cp);
+            return new int[] { cp, cp };
+        }
+
+        // \ の次を読む
+        private int[] escape(boolean inClass) {
+            if (i >= p.length()) {
+                throw error("\\ で終わっています");
+            }
+            char c = p.charAt(i++);
+            return switch (c) {
+                case 'd' -> DIGIT;
+                case 'D' -> complement(DIGIT);
+                case 'w' -> WORD;
+                case 'W' -> complement(WORD);
+                case 's' -> union(List.of(SPACE, new int[] { 0x0B, 0x0C }));
+                case 'S' -> complement(union(List.of(SPACE, new int[] { 0x0B, 0x0C })));
+                case 't' -> single('\t');
+                case 'n' -> single('\n');
+                case 'r' -> single('\r');
+                case 'f' -> single('\f');
+                case 'a' -> single(0x07);
+                case 'e' -> single(0x1B);
+                case 'x' -> single(hex(2));
+                case 'u' -> single(hex(4));
+                default -> {
+                    if (Character.isLetterOrDigit(c)) {
+                        // 後方参照 (\1)・境界 (\b)・\p{..}・\Q..\E など
+                        i--;
+                        throw error("\\" + c + " は使えません" + (Character.isDigit(c) ? " (後方参照)" : ""));
+                    }
+                    // 記号はそのままの文字 (\. \( \\ など)
+                    yield single(c);
+                }
+            };
+        }
+
+        private int hex(int digits) {
+            if (i + digits > p.length()) {
+                throw error("16進数が足りません");
+            }
+            try {
+                int v = Integer.parseInt(p, i, i + digits, 16);
+                i += digits;
+                return v;
+            } catch (NumberFormatException e) {
+                throw error("16進数が不正です");
+            }
+        }
+
+        private boolean peek(char c) {
+            return i < p.length() && p.charAt(i) == c;
+        }
+
+        private PatternSyntaxException error(String description) {
+            return new PatternSyntaxException(description, p, Math.min(i, p.length() - 1));
+        }
+    }
+
+    /**
+     * 構文木を命令列にする
+     */
+    private static final class Compiler {
+
+        private final String pattern;
+        private final UnaryOperator<String> fold;
+        int[] op = new int[16];
+        int[] arg = new int[16];
+        int[] arg2 = new int[16];
+        int size;
+        final List<int[]> classes = new ArrayList<>();
+
+        Compiler(String pattern, UnaryOperator<String> fold) {
+            this.pattern = pattern;
+            this.fold = fold;
+        }
+
+        int add(int code, int a, int b) {
+            if (size >= MAX_STATES) {
+                throw new PatternSyntaxException("パターンが大きすぎます (状態数 " + MAX_STATES + " まで)", pattern, -1);
+            }
+            if (size == op.length) {
+                op = Arrays.copyOf(op, size * 2);
+                arg = Arrays.copyOf(arg, size * 2);
+                arg2 = Arrays.copyOf(arg2, size * 2);
+            }
+            op[size] = code;
+            arg[size] = a;
+            arg2[size] = b;
+            return size++;
+        }
+
+        void emit(Node node) {
+            switch (node) {
+                case Chars ch -> {
+                    classes.add(fold == null ? ch.ranges() : fold(ch.ranges()));
+                    add(CLASS, classes.size() - 1, 0);
+                }
+                case Concat cat -> cat.nodes().forEach(this::emit);
+                case Alternation alt -> {
+                    // SPLIT L1, next; L1: a; JMP end; next: SPLIT L2, ... ; 最後: z
+                    List<Integer> jumps = new ArrayList<>();
+                    List<Node> nodes = alt.nodes();
+                    for (int k = 0; k < nodes.size() - 1; k++) {
+                        int split = add(SPLIT, size + 1, 0);
+                        emit(nodes.get(k));
+                        jumps.add(add(JMP, 0, 0));
+                        arg2[split] = size;
+                    }
+                    emit(nodes.get(nodes.size() - 1));
+                    for (int j : jumps) {
+                        arg[j] = size;
+                    }
+                }
+                case Repeat rep -> {
+                    for (int k = 0; k < rep.min(); k++) {
+                        emit(rep.node());
+                    }
+                    if (rep.max() == -1) {
+                        // L: SPLIT body, out; body; JMP L
+                        int split = add(SPLIT, size + 1, 0);
+                        emit(rep.node());
+                        add(JMP, split, 0);
+                        arg2[split] = size;
+                    } else {
+                        // 省略できる分: SPLIT body, out; body; SPLIT body, out; body; ...
+                        List<Integer> splits = new ArrayList<>();
+                        for (int k = rep.min(); k < rep.max(); k++) {
+                            splits.add(add(SPLIT, size + 1, 0));
+                            emit(rep.node());
+                        }
+                        for (int s : splits) {
+                            arg2[s] = size;
+                        }
+                    }
+                }
+                case Begin b -> add(BOL, 0, 0);
+                case End e -> add(EOL, 0, 0);
+            }
+        }
+
+        // 文字クラスに、1文字ずつそろえた文字を足す (大きすぎるクラスはそのまま)
+        private int[] fold(int[] ranges) {
+            int count = 0;
+            for (int k = 0; k < ranges.length; k += 2) {
+                count += ranges[k + 1] - ranges[k] + 1;
+                if (count > MAX_FOLD) {
+                    return ranges;
+                }
+            }
+            List<int[]> parts = new ArrayList<>();
+            parts.add(ranges);
+            for (int k = 0; k < ranges.length; k += 2) {
+                for (int cp = ranges[k]; cp <= ranges[k + 1]; cp++) {
+                    String folded = fold.apply(Character.toString(cp));
+                    if (folded != null && !folded.isEmpty() && folded.codePointCount(0, folded.length()) == 1) {
+                        parts.add(single(folded.codePointAt(0)));
+                    }
+                }
+            }
+            return union(parts);
+        }
+    }
+
+    // ========== 文字クラスの集合演算 ==========
+
+    private static int[] single(int cp) {
+        return new int[] { cp, cp };
+    }
+
+    private static boolean single(int[] ranges) {
+        return ranges.length == 2 && ranges[0] == ranges[1];
+    }
+
+    // 範囲をまとめて、ソート・重なりをくっつける
+    private static int[] union(List<int[]> parts) {
+        List<int[]> pairs = new ArrayList<>();
+        for (int[] part : parts) {
+            for (int k = 0; k < part.length; k += 2) {
+                pairs.add(new int[] { part[k], part[k + 1] });
+            }
+        }
+        pairs.sort((a, b) -> Integer.compare(a[0], b[0]));
+        int[] out = new int[pairs.size() * 2];
+        int n = 0;
+        for (int[] r : pairs) {
+            if (n > 0 && r[0] <= out[n - 1] + 1) {
+                out[n - 1] = Math.max(out[n - 1], r[1]);
+            } else {
+                out[n++] = r[0];
+                out[n++] = r[1];
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    // 否定 (全Unicodeから引く)
+    private static int[] complement(int[] ranges) {
+        int[] sorted = union(List.of(ranges));
+        int[] out = new int[sorted.length + 2];
+        int n = 0;
+        int next = 0;
+        for (int k = 0; k < sorted.length; k += 2) {
+            if (sorted[k] > next) {
+                out[n++] = next;
+                out[n++] = sorted[k] - 1;
+            }
+            next = sorted[k + 1] + 1;
+        }
+        if (next <= Character.MAX_CODE_POINT) {
+            out[n++] = next;
+            out[n++] = Character.MAX_CODE_POINT;
+        }
+        return Arrays.copyOf(out, n);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.solvingriddles.model;
+
+import java.util.Arrays;
+
+/**
+ * クリア済みの問題IDを持つビットマップ (不変データ)
+ * 問題ID n がクリア済みなら n ビット目が立つ。問題IDは小さい連番なので、
+ * 数十問でも数バイトに収まる (そのまま Cookie に入れて持ち歩けるサイズ)。
+ * Cookie は1つ4KBまでなので、記録できるのは ID 0 〜 MAX_ID の問題だけ。
+ * それより大きいIDがあるパックは、読み込んだ時に警告を出して、検索のクリア状況の絞り込みも使えなくする
+ * (RiddleIndex.tracksProgress)。
+ */
+public final class Progress {
+
+    // 扱える問題IDの上限 (これより大きいIDは記録しない = Cookieが大きくなりすぎないように。ビットマップで512バイト)
+    public static final int MAX_ID = 4095;
+
+    public static final Progress EMPTY = new Progress(new long[0]);
+
+    private final long[] words;
+
+    private Progress(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * 64ビットずつの配列から作る (末尾の0は切り詰める)
+     * @param words ビットマップ (words[0] の bit0 が ID 0)
+     * @return 進捗
+     */
+    public static Progress ofWords(long[] words) {
+        int n = words.length;
+        while (n > 0 && words[n - 1] == 0) {
+            n--;
+        }
+        if (n == 0) {
+            return EMPTY;
+        }
+        return new Progress(Arrays.copyOf(words, n));
+    }
+
+    /**
+     * 進捗に記録できる問題IDか
+     * @param id 問題ID
+     * @return 0 〜 MAX_ID ならtrue
+     */
+    public static boolean isTrackable(Integer id) {
+        return id != null && id >= 0 && id <= MAX_ID;
+    }
+
+    /**
+     * クリア済みかどうか (画面から ${progress.isCleared(r.id)} で呼ぶ)
+     * @param id 問題ID
+     * @return クリア済みならtrue
+     */
+    public boolean isCleared(Integer id) {
+        if (id == null || id < 0) {
+            return false;
+        }
+        int w = id >>> 6;
+        return w < words.length && (words[w] & (1L << id)) != 0;
+    }
+
+    /**
+     * クリア済みを1つ足した進捗を返す (自分自身は変わらない)
+     * @param id 問題ID
+     * @return 新しい進捗 (記録できないIDや既にクリア済みなら自分自身)
+     */
+    public Progress with(Integer id) {
+        if (!isTrackable(id) || isCleared(id)) {
+            return this;
+        }
+        int w = id >>> 6;
+        long[] next = Arrays.copyOf(words, Math.max(words.length, w + 1));
+        next[w] |= 1L << id;
+        return new Progress(next);
+    }
+
+    /**
+     * クリア済みの数
+     * @return 数
+     */
+    public int count() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * 64ビット単位の長さ (エンコード用)
+     * @return 配列の長さ
+     */
+    public int wordCount() {
+        return words.length;
+    }
+
+    /**
+     * 64ビット単位の値 (エンコード用)
+     * @param index 何番目か
+     * @return ビット列
+     */
+    public long word(int index) {
+        return words[index];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Progress other && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        return "Progress" + Arrays.toString(words);
+    }
+}
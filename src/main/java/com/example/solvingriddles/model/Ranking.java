@@ -0,0 +1,15 @@
+package com.example.solvingriddles.model;
+
+import java.util.List;
+
+/**
+ * ランキングの表示・JSON用のデータ
+ * @param mode モード (HACKER / CASUAL)
+ * @param period 集計期間 (all / daily / weekly)
+ * @param entries 上位のプレイヤー (順位順)
+ */
+public record Ranking(
+    String mode,
+    String period,
+    List<RankingEntry> entries
+) {}
@@ -0,0 +1,15 @@
+package com.example.solvingriddles.model;
+
+/**
+ * ランキングの1行分
+ * @param rank 順位 (1始まり)
+ * @param player プレイヤー名
+ * @param score スコア (クリアした問題の難易度の合計)
+ * @param solved クリアした問題の数
+ */
+public record RankingEntry(
+    int rank,
+    String player,
+    long score,
+    int solved
+) {}
@@ -0,0 +1,49 @@
+package com.example.solvingriddles.model;
+
+/**
+ * ランキングの集計期間
+ * 日間・週間は日本時間で区切る (週は月曜始まり)。
+ */
+public enum RankingPeriod {
+    ALL_TIME("all", "ALL TIME"),
+    DAILY("daily", "DAILY"),
+    WEEKLY("weekly", "WEEKLY");
+
+    private final String key;
+    private final String label;
+
+    RankingPeriod(String key, String label) {
+        this.key = key;
+        this.label = label;
+    }
+
+    /**
+     * URLのパラメータで使う名前 (all / daily / weekly)
+     * @return 名前
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * 画面に出す名前
+     * @return 表示名
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * パラメータの値から期間を決める (知らない値なら ALL_TIME)
+     * @param key パラメータの値
+     * @return 集計期間
+     */
+    public static RankingPeriod of(String key) {
+        for (RankingPeriod period : values()) {
+            if (period.key.equalsIgnoreCase(key)) {
+                return period;
+            }
+        }
+        return ALL_TIME;
+    }
+}
@@ -27,44 +27,66 @@ public record Riddle(
     String coords,
     Integer nextId
 ) {
+    // ここで最大レベルを定義する
+    public static final int MAX_LEVEL = 5;
+
+    // レベルごとの星 (0 〜 MAX_LEVEL)。毎回 repeat で作らずに、ここから引く
+    private static final String[] DIFFICULTY_ICONS = new String[MAX_LEVEL + 1];
+    static {
+        for (int lvl = 0; lvl <= MAX_LEVEL; lvl++) {
+            DIFFICULTY_ICONS[lvl] = ("★".repeat(lvl) + "☆".repeat(MAX_LEVEL - lvl)).intern();
+        }
+    }
+
     /**
      * レベルの数字を星に変換するメソッド
      * HTMLからは ${r.difficultyIcon} で呼べるで
      * @return 難易度を星5つで表現した文字列 (例: "★★★☆☆")
      */
-    // ここで最大レベルを定義する
-    public static final int MAX_LEVEL = 5;
     public String difficultyIcon() {
-        int lvl = 0;
-        if (level == null){
-            // nullなら1扱いで
-            lvl = 1;
-        } else {
-            lvl = level;    
-        }
+        return difficultyIcon(level);
+    }
 
-        if (lvl > MAX_LEVEL) {
-            // 最大値を超えたら最大値に補正
-            lvl = MAX_LEVEL;
-        }
-        
-        // Java 11以上なら repeat が使える
-        return "★".repeat(lvl) + "☆".repeat(MAX_LEVEL - lvl);
+    /**
+     * レベルの数字を星に変換する (一覧用の RiddleSummary を作る時にも使う)
+     * @param level 難易度レベル (nullなら1扱い、範囲外は 0 〜 MAX_LEVEL に補正)
+     * @return 難易度を星5つで表現した文字列 (毎回同じインスタンス)
+     */
+    public static String difficultyIcon(Integer level) {
+        // nullなら1扱いで
+        int lvl = level == null ? 1 : level;
+        // 最大値を超えたら最大値に補正
+        return DIFFICULTY_ICONS[Math.max(0, Math.min(lvl, MAX_LEVEL))];
+    }
+
+    /**
+     * options は RiddleOptions に包んでおく (シャッフルした並びを使い回すため)
+     */
+    public Riddle {
+        options = RiddleOptions.of(options);
     }
 
     /**
-     * オプションリストのコピーを作成し、シャッフルして返す
+     * シャッフルした選択肢を返す (並びはランダムに選ぶ)
      * View側でランダム表示したい時に使用
-     * @return シャッフルされた新しいリスト
+     * @return シャッフルされたリスト (元のリストとは別物、変更不可)
+     */
+    public List<RiddleOption> getShuffledOptions() {
+        return getShuffledOptions(null);
+    }
+
+    /**
+     * 指定した番号の並びでシャッフルした選択肢を返す
+     * HTMLからは ${riddle.getShuffledOptions(shuffle)} で呼べる。
+     * 番号はコントローラが RiddleOptions.variantFor で決める (同じ番号なら同じ並び)。
+     * @param variant 並びの番号 (null ならランダム)
+     * @return シャッフルされたリスト (元のリストとは別物、変更不可)
      */
-    public java.util.List<RiddleOption> getShuffledOptions() {
+    public List<RiddleOption> getShuffledOptions(Integer variant) {
         if (options == null) {
             return java.util.Collections.emptyList();
         }
-        // text, role を持つ RiddleOption のリストをコピー
-        java.util.List<RiddleOption> copy = new java.util.ArrayList<>(options);
-        // シャッフル実行
-        java.util.Collections.shuffle(copy);
-        return copy;
+        int v = variant != null ? variant : java.util.concurrent.ThreadLocalRandom.current().nextInt(RiddleOptions.VARIANTS);
+        return ((RiddleOptions) options).shuffled(v);
     }
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.example.solvingriddles.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 問題の選択肢リスト (不変)
+ * Riddle に入る options は全部これに包まれる。中身は普通の List として使える。
+ * シャッフルした並びは問題ごとに VARIANTS 通りだけ初回に作っておいて、あとは使い回す。
+ * どの並びも元の並び (sort 問題なら正解の並び) にはならない。
+ * 表示のたびにリストをコピーしたり、1つの Random をみんなで取り合ったりせんで済む。
+ */
+public final class RiddleOptions extends AbstractList<RiddleOption> implements RandomAccess {
+
+    // 1問あたりに用意しておく並びの数 (2の累乗にしておく)
+    public static final int VARIANTS = 8;
+
+    private final RiddleOption[] items;
+
+    // シャッフル済みの並び (初めて使う時に作る)
+    // 同時に作っても結果は同じで、中身は不変リストなのでロックはいらん
+    private List<List<RiddleOption>> variants;
+
+    private RiddleOptions(RiddleOption[] items) {
+        this.items = items;
+    }
+
+    /**
+     * 選択肢リストを包む
+     * @param options 選択肢 (null なら null のまま)
+     * @return 包んだリスト (もう包んであればそのまま)
+     */
+    public static List<RiddleOption> of(List<RiddleOption> options) {
+        if (options == null || options instanceof RiddleOptions) {
+            return options;
+        }
+        return new RiddleOptions(options.toArray(new RiddleOption[0]));
+    }
+
+    @Override
+    public RiddleOption get(int index) {
+        return items[index];
+    }
+
+    @Override
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * シャッフルした並びを返す
+     * 同じ番号なら何回呼んでも (別のサーバーでも) 同じ並びになる。
+     * @param variant 何番目の並びか (VARIANTS で割った余りを使う)
+     * @return シャッフルされた不変リスト
+     */
+    public List<RiddleOption> shuffled(int variant) {
+        List<List<RiddleOption>> v = variants;
+        if (v == null) {
+            v = permute();
+            variants = v;
+        }
+        return v.get(Math.floorMod(variant, VARIANTS));
+    }
+
+    /**
+     * 並びの番号を決める
+     * プレイヤー名があれば名前と問題IDから決めるので、リロードしても同じ並びになる。
+     * 名前がなければ (初めての人は) ランダム。
+     * @param player プレイヤー名 (なければ null)
+     * @param riddleId 問題ID
+     * @return 並びの番号 (0 〜 VARIANTS-1)
+     */
+    public static int variantFor(String player, int riddleId) {
+        if (player == null) {
+            return ThreadLocalRandom.current().nextInt(VARIANTS);
+        }
+        // String.hashCode は仕様で決まっているので、サーバーが変わっても同じ番号になる
+        long h = player.hashCode() * 31L + riddleId;
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return (int) ((h ^ (h >>> 33)) & (VARIANTS - 1));
+    }
+
+    // 中身から種を決めて、VARIANTS 通りの並びを作る (Fisher-Yates)
+    // sort 問題は元の並びが正解なので、元と同じ並びが出たら引き直す
+    private List<List<RiddleOption>> permute() {
+        SplittableRandom random = new SplittableRandom(Arrays.hashCode(items));
+        // 選択肢が全部同じ (か1個以下) なら、どう並べても元と同じなので引き直さない
+        boolean movable = Arrays.stream(items).distinct().count() > 1;
+        @SuppressWarnings("unchecked")
+        List<RiddleOption>[] lists = new List[VARIANTS];
+        for (int v = 0; v < VARIANTS; v++) {
+            RiddleOption[] copy;
+            do {
+                copy = shuffle(random);
+            } while (movable && Arrays.equals(copy, items));
+            lists[v] = Collections.unmodifiableList(Arrays.asList(copy));
+        }
+        return List.of(lists);
+    }
+
+    private RiddleOption[] shuffle(SplittableRandom random) {
+        RiddleOption[] copy = items.clone();
+        for (int i = copy.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            RiddleOption tmp = copy[i];
+            copy[i] = copy[j];
+            copy[j] = tmp;
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.solvingriddles.model;
+
+import java.util.List;
+
+/**
+ * 一覧画面の1ページ分 (カーソル式のページ送り用)
+ * ページの境目は「登録順で何件目から」で表す。問題IDで表すと、IDのない問題や同じIDが2つある
+ * パックで次のページが引けなかったり、前に戻ってぐるぐる回ったりするので、位置にしている。
+ * (読んでいる途中でパックが差し替わったら、足された・消された分だけずれることはある)
+ * @param riddles このページの問題の要約 (登録順・コピーなし)
+ * @param total パック全体の件数
+ * @param from このページの最初の問題の位置 (0 始まり)
+ * @param next 次のページを引く時に from に渡す位置 (最後のページなら null)
+ */
+public record RiddlePage(
+    List<RiddleSummary> riddles,
+    int total,
+    int from,
+    Integer next
+) {
+
+    /**
+     * 最初のページか
+     * @return 最初のページならtrue
+     */
+    public boolean isFirst() {
+        return from == 0;
+    }
+
+    /**
+     * 次のページがあるか
+     * @return あればtrue
+     */
+    public boolean hasNext() {
+        return next != null;
+    }
+}
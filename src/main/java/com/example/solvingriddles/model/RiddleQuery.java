@@ -0,0 +1,55 @@
+package com.example.solvingriddles.model;
+
+import java.util.Set;
+
+/**
+ * 問題の検索条件 (不変データ)
+ * 指定しなかった条件 (空のキーワード・空の集合・null) は絞り込まない。
+ * 同じ項目の中で複数選んだら OR、項目どうしは AND (例: レベル1か2 で、種類が click)。
+ * @param keyword 問題文に含まれる文字列 (表記ゆれは AnswerNormalizer でそろえてから探す)
+ * @param levels 難易度レベル
+ * @param types 問題の種類 (text / click / image-map など)
+ * @param cleared クリア済みだけなら true、未クリアだけなら false、両方なら null
+ * @param page ページ番号 (0 始まり)
+ * @param size 1ページの件数 (1〜MAX_SIZE)
+ */
+public record RiddleQuery(
+    String keyword,
+    Set<Integer> levels,
+    Set<String> types,
+    Boolean cleared,
+    int page,
+    int size
+) {
+
+    // 1ページの件数の既定値と上限
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    /**
+     * 範囲外の値はここで直しておく (null は空に、ページ番号・件数は範囲内に)
+     */
+    public RiddleQuery {
+        keyword = keyword == null ? "" : keyword.strip();
+        levels = levels == null ? Set.of() : Set.copyOf(levels);
+        types = types == null ? Set.of() : Set.copyOf(types);
+        page = Math.max(page, 0);
+        size = size <= 0 ? DEFAULT_SIZE : Math.min(size, MAX_SIZE);
+    }
+
+    /**
+     * 条件なし (全件の1ページ目)
+     * @return 検索条件
+     */
+    public static RiddleQuery all() {
+        return new RiddleQuery(null, null, null, null, 0, DEFAULT_SIZE);
+    }
+
+    /**
+     * キーワードで絞り込むか
+     * @return キーワードがあればtrue
+     */
+    public boolean hasKeyword() {
+        return !keyword.isEmpty();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.solvingriddles.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 問題の検索結果の1ページ分 (画面・JSON用)
+ * 絞り込みの候補ごとの件数は「その項目以外の条件」で数える
+ * (レベルを1つ選んでも、ほかのレベルに切り替えたら何件になるかが分かるように)。
+ * @param mode モード
+ * @param total 条件に合う件数 (全ページ分)
+ * @param page ページ番号 (0 始まり)
+ * @param size 1ページの件数
+ * @param riddles このページの問題の要約 (登録順)
+ * @param levels レベル -> 件数 (レベル順)
+ * @param types 種類 -> 件数 (名前順)
+ * @param clearedFacet クリア状況で絞り込めるか (進捗に記録できない大きいIDがあるパックでは false。その時は絞り込まない)
+ */
+public record RiddleSearchResult(
+    String mode,
+    int total,
+    int page,
+    int size,
+    List<RiddleSummary> riddles,
+    Map<Integer, Integer> levels,
+    Map<String, Integer> types,
+    boolean clearedFacet
+) {
+
+    /**
+     * ページ数 (1件もなくても1ページとする)
+     * @return ページ数
+     */
+    public int pageCount() {
+        return Math.max(1, (total + size - 1) / size);
+    }
+
+    /**
+     * 前のページがあるか
+     * @return あればtrue
+     */
+    public boolean hasPrevious() {
+        return page > 0;
+    }
+
+    /**
+     * 次のページがあるか
+     * @return あればtrue
+     */
+    public boolean hasNext() {
+        return (long) (page + 1) * size < total;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.solvingriddles.model;
+
+/**
+ * 一覧画面用の問題の要約 (不変データ)
+ * 一覧に出すものだけを持つ。正解・ヒント・選択肢は入れないので、一覧の画面に漏れることはない。
+ * 問題データを読み込んだ時に1回だけ作って、一覧を表示するたびに使い回す。
+ * @param id 問題ID
+ * @param level 難易度レベル
+ * @param difficultyIcon 難易度の星 (例: "★★★☆☆")
+ * @param type 問題の種類
+ * @param title 見出し (問題文の1行目を TITLE_LENGTH 文字までにしたもの)
+ */
+public record RiddleSummary(
+    Integer id,
+    Integer level,
+    String difficultyIcon,
+    String type,
+    String title
+) {
+
+    // 見出しの最大文字数 (これより長い問題文は切って "…" を付ける)
+    public static final int TITLE_LENGTH = 40;
+
+    /**
+     * 問題から要約を作る
+     * @param riddle 問題
+     * @return 要約
+     */
+    public static RiddleSummary of(Riddle riddle) {
+        return new RiddleSummary(riddle.id(), riddle.level(), Riddle.difficultyIcon(riddle.level()),
+                riddle.type(), title(riddle.question()));
+    }
+
+    // 問題文の1行目を見出しにする
+    private static String title(String question) {
+        if (question == null) {
+            return "";
+        }
+        String line = question.strip();
+        int newline = line.indexOf('\n');
+        if (newline >= 0) {
+            line = line.substring(0, newline).strip();
+        }
+        if (line.codePointCount(0, line.length()) <= TITLE_LENGTH) {
+            return line;
+        }
+        return line.substring(0, line.offsetByCodePoints(0, TITLE_LENGTH)) + "…";
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.solvingriddles.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 答え合わせのURLの前に挟んで、来すぎたクライアントを 429 で断るインターセプター
+ * 断る時は本文なしで Retry-After (秒) だけ返す。コントローラも正解判定も動かない。
+ * 1リクエストで何件も判定するまとめて判定API は件数が本文を読むまで分からんので、ここではなくコントローラで数える。
+ * <p>
+ * クライアントは IPアドレスで見分ける。リバースプロキシの後ろで動かす時は
+ * server.forward-headers-strategy を設定して、本当のIPアドレスが getRemoteAddr に入るようにすること。
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiter limiter;
+    private final String scope;
+
+    /**
+     * コンストラクタ
+     * @param limiter 回数制限
+     * @param scope どのモードの制限を使うか (RateLimiter.HACKER など)
+     */
+    public RateLimitInterceptor(RateLimiter limiter, String scope) {
+        this.limiter = limiter;
+        this.scope = scope;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long wait = limiter.tryAcquire(scope, request.getRemoteAddr());
+        if (wait == 0) {
+            return true;
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, RateLimiter.retryAfterSeconds(wait));
+        return false;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.solvingriddles.ratelimit;
+
+import com.example.solvingriddles.metrics.RiddleMetrics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 答え合わせの回数制限 (クライアントごとのトークンバケット)
+ * ログインなしで答え合わせできるので、ボットが総当たりすると正規表現の判定が回りっぱなしになる。
+ * 同じクライアントから短い間に来すぎたら、コントローラを動かす前に 429 で断る (RateLimitInterceptor)。
+ * <ul>
+ *   <li>制限はモード (hacker / casual / api / api-client) ごとに設定できる (rate-limit.&lt;モード&gt;.per-minute, burst)</li>
+ *   <li>api (まとめて判定) はリクエストではなく判定する件数で数える (100件のリクエストはトークン100個)</li>
+ *   <li>api-client はトークンを持った採点ツールや店頭端末のまとめて判定用。人が遊ぶ分とは別に、ずっと多めに取ってある</li>
+ *   <li>バケットは Caffeine に入れるので、数に上限があり、しばらく来ないクライアントの分は勝手に消える</li>
+ *   <li>断った回数はメトリクス (riddle.answer.throttled) に記録する</li>
+ * </ul>
+ * rate-limit.enabled=false で丸ごと無効にできる (負荷試験など)。
+ */
+@Component
+@ConditionalOnProperty(name = "rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimiter {
+
+    // ----- 制限の単位 (メトリクスのタグにも使う) -----
+    public static final String HACKER = "hacker";
+    public static final String CASUAL = "casual";
+    public static final String API = "api";
+    public static final String API_CLIENT = "api-client";
+
+    private static final List<String> SCOPES = List.of(HACKER, CASUAL, API, API_CLIENT);
+
+    /**
+     * 1モード分の制限
+     * @param burst まとめて取れるトークンの数
+     * @param interval トークン1つが貯まるまでの時間 (ナノ秒)
+     * @param tolerance 溜めておける時間 (ナノ秒)
+     * @param buckets クライアント -> バケット
+     */
+    private record Limit(int burst, long interval, long tolerance, Cache<String, TokenBucket> buckets) {}
+
+    private final Map<String, Limit> limits;
+    private final ObjectProvider<RiddleMetrics> metrics;
+    private final LongSupplier clock;
+
+    /**
+     * コンストラクタ
+     * モードごとの制限は rate-limit.&lt;モード&gt;.per-minute (1分あたり) と burst (まとめて送れる回数) で決める。
+     * @param env 設定
+     * @param metrics メトリクス (なければ記録しない)
+     */
+    @Autowired
+    public RateLimiter(Environment env, ObjectProvider<RiddleMetrics> metrics) {
+        this(env, metrics, System::nanoTime);
+    }
+
+    /**
+     * 時計を差し替えられるコンストラクタ (テスト用)
+     * @param env 設定
+     * @param metrics メトリクス
+     * @param clock 今の時刻 (ナノ秒)
+     */
+    RateLimiter(Environment env, ObjectProvider<RiddleMetrics> metrics, LongSupplier clock) {
+        long maxClients = env.getProperty("rate-limit.max-clients", Long.class, 100_000L);
+        Map<String, Limit> map = new HashMap<>();
+        for (String scope : SCOPES) {
+            int perMinute = env.getProperty("rate-limit." + scope + ".per-minute", Integer.class,
+                    API_CLIENT.equals(scope) ? 6_000 : 60);
+            int burst = env.getProperty("rate-limit." + scope + ".burst", Integer.class,
+                    switch (scope) {
+                        case API -> 100;
+                        case API_CLIENT -> 1_000;
+                        default -> 20;
+                    });
+            if (perMinute <= 0 || burst <= 0) {
+                throw new IllegalArgumentException("rate-limit." + scope + " の per-minute と burst は1以上にしてください");
+            }
+            long interval = TimeUnit.MINUTES.toNanos(1) / perMinute;
+            long tolerance = interval * burst;
+            Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+                    .maximumSize(maxClients)
+                    // 満タンに戻るまで来なかったバケットは、消して作り直しても同じ
+                    .expireAfterAccess(Duration.ofNanos(tolerance))
+                    .build();
+            map.put(scope, new Limit(burst, interval, tolerance, buckets));
+        }
+        this.limits = Map.copyOf(map);
+        this.metrics = metrics;
+        this.clock = clock;
+    }
+
+    /**
+     * 1回分の答え合わせを通してええか聞く
+     * @param scope モード (hacker / casual / api / api-client)
+     * @param client クライアント (IPアドレス。api-client はトークン)
+     * @return 通してええなら 0、ダメなら次に通せるまでの時間 (ナノ秒)
+     */
+    public long tryAcquire(String scope, String client) {
+        return tryAcquire(scope, client, 1);
+    }
+
+    /**
+     * 何件分かの答え合わせをまとめて通してええか聞く (まとめて判定API用。足りなければ1件も通さない)
+     * @param scope モード (hacker / casual / api / api-client)
+     * @param client クライアント (IPアドレス。api-client はトークン)
+     * @param permits 判定する件数 (maxPermits 以下)
+     * @return 通してええなら 0、ダメなら全部通せるまでの時間 (ナノ秒)
+     * @throws IllegalArgumentException 件数が maxPermits を超えている場合 (いくら待っても通せない)
+     */
+    public long tryAcquire(String scope, String client, int permits) {
+        Limit limit = limits.get(scope);
+        if (limit == null) {
+            return 0;
+        }
+        if (permits > limit.burst()) {
+            throw new IllegalArgumentException("まとめて取れるのは " + limit.burst() + " 件までです: " + permits);
+        }
+        long now = clock.getAsLong();
+        TokenBucket bucket = limit.buckets().get(client == null ? "" : client, k -> new TokenBucket(now));
+        long wait = bucket.tryAcquire(now, limit.interval(), limit.tolerance(), permits);
+        if (wait > 0) {
+            metrics.ifAvailable(m -> m.recordThrottled(scope));
+        }
+        return wait;
+    }
+
+    /**
+     * 1回でまとめて取れる件数 (burst)
+     * @param scope モード (hacker / casual / api / api-client)
+     * @return 件数 (制限のないモードなら Integer.MAX_VALUE)
+     */
+    public int maxPermits(String scope) {
+        Limit limit = limits.get(scope);
+        return limit == null ? Integer.MAX_VALUE : limit.burst();
+    }
+
+    /**
+     * 429 の Retry-After に入れる秒数
+     * @param wait 次に通せるまでの時間 (ナノ秒)
+     * @return 秒数 (切り上げ。0秒だとすぐ来てまた断られるので最低1秒)
+     */
+    public static String retryAfterSeconds(long wait) {
+        return Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999L)));
+    }
+}
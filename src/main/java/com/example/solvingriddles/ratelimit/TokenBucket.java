@@ -0,0 +1,58 @@
+package com.example.solvingriddles.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 1クライアント分のトークンバケット (ロックなし)
+ * トークンの残り数を数える代わりに「次にバケットが空っぽになる予定の時刻」を1つの long で持つ (GCRA)。
+ * 1回通すたびにその時刻を interval だけ先に進めて、今より burst 回分以上先になっていたら断る。
+ * 状態が long 1つなので、CAS だけで更新できる (synchronized なし)。
+ */
+final class TokenBucket {
+
+    // 理論上の到着時刻 (System.nanoTime 基準)
+    private final AtomicLong tat;
+
+    /**
+     * 満タンのバケットを作る
+     * @param now 今の時刻 (ナノ秒)
+     */
+    TokenBucket(long now) {
+        this.tat = new AtomicLong(now);
+    }
+
+    /**
+     * トークンを1つ取る
+     * @param now 今の時刻 (ナノ秒)
+     * @param interval トークン1つが貯まるまでの時間 (ナノ秒)
+     * @param tolerance 溜めておける時間 (interval × burst)
+     * @return 通してええなら 0、ダメなら次に通せるまでの時間 (ナノ秒)
+     */
+    long tryAcquire(long now, long interval, long tolerance) {
+        return tryAcquire(now, interval, tolerance, 1);
+    }
+
+    /**
+     * トークンをまとめて取る (足りなければ1つも取らない)
+     * @param now 今の時刻 (ナノ秒)
+     * @param interval トークン1つが貯まるまでの時間 (ナノ秒)
+     * @param tolerance 溜めておける時間 (interval × burst)
+     * @param permits 取る数 (burst 以下)
+     * @return 通してええなら 0、ダメなら全部そろうまでの時間 (ナノ秒)
+     */
+    long tryAcquire(long now, long interval, long tolerance, int permits) {
+        while (true) {
+            long current = tat.get();
+            // しばらく来なかったクライアントは満タンに戻っている (過去の時刻は今に揃える)
+            long next = Math.max(current, now) + interval * permits;
+            long ahead = next - now;
+            if (ahead > tolerance) {
+                return ahead - tolerance;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+            // 他のスレッドと同時に取りに来た時だけやり直す
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.solvingriddles.repository;
+
+import com.example.solvingriddles.model.Riddle;
+import com.example.solvingriddles.model.RiddleSummary;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ある時点でメモリに載っている問題パックの問題データ (不変スナップショット)
+ * 問題リストと索引をひとまとめにしておき、リロード時はまるごと差し替える。
+ * 読む側はロック不要で、半分だけ読み込まれたモードを見ることもない。
+ * パックは最初にアクセスされた時に載って、メモリの上限を超えたら使われていないものから降ろされる
+ * (RiddlePackRegistry 参照)。載せる・降ろすだけなら中身は変わらんので版番号は進めない。
+ */
+public final class RiddleCatalog {
+
+    static final RiddleCatalog EMPTY = new RiddleCatalog(0, Map.of(), Map.of());
+
+    // 差し替えのたびに増える版番号
+    private final long version;
+    // "HACKER" -> [...], "CASUAL" -> [...]
+    private final Map<String, List<Riddle>> riddleMap;
+    // "HACKER" -> 索引
+    private final Map<String, RiddleIndex> indexMap;
+
+    private RiddleCatalog(long version, Map<String, List<Riddle>> riddleMap, Map<String, RiddleIndex> indexMap) {
+        this.version = version;
+        this.riddleMap = riddleMap;
+        this.indexMap = indexMap;
+    }
+
+    /**
+     * 1モード分だけ入れ替えた新しいスナップショットを作る (自分自身は変更しない)
+     * 問題リストは索引の中身をそのまま見せる (コピーしない)
+     * @param mode モード
+     * @param index 新しい索引
+     * @return 版番号を1つ進めた新しいスナップショット
+     */
+    RiddleCatalog with(String mode, RiddleIndex index) {
+        return put(mode, index, version + 1);
+    }
+
+    /**
+     * 読み込んだパックを載せた新しいスナップショットを作る (版番号はそのまま)
+     * 降ろしたパックを同じ中身で読み直した時用
+     * @param mode モード
+     * @param index 読み込んだ索引
+     * @return 新しいスナップショット
+     */
+    RiddleCatalog withLoaded(String mode, RiddleIndex index) {
+        return put(mode, index, version);
+    }
+
+    /**
+     * 1モード分を降ろした新しいスナップショットを作る
+     * @param mode モード
+     * @param changed 中身が変わった (読み込み元が差し替わった) なら true。版番号を進める
+     * @return 新しいスナップショット
+     */
+    RiddleCatalog without(String mode, boolean changed) {
+        Map<String, List<Riddle>> newRiddles = new HashMap<>(riddleMap);
+        Map<String, RiddleIndex> newIndexes = new HashMap<>(indexMap);
+        newRiddles.remove(mode);
+        newIndexes.remove(mode);
+        return new RiddleCatalog(changed ? version + 1 : version, Map.copyOf(newRiddles), Map.copyOf(newIndexes));
+    }
+
+    private RiddleCatalog put(String mode, RiddleIndex index, long newVersion) {
+        Map<String, List<Riddle>> newRiddles = new HashMap<>(riddleMap);
+        Map<String, RiddleIndex> newIndexes = new HashMap<>(indexMap);
+        newRiddles.put(mode, index.asList());
+        newIndexes.put(mode, index);
+        return new RiddleCatalog(newVersion, Map.copyOf(newRiddles), Map.copyOf(newIndexes));
+    }
+
+    /**
+     * 版番号
+     * @return 差し替えのたびに増える番号
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * メモリに載っているモード一覧
+     * @return モード名のリスト
+     */
+    public List<String> modes() {
+        return List.copyOf(riddleMap.keySet());
+    }
+
+    /**
+     * モードの全問題
+     * @param mode モード
+     * @return 問題リスト (未登録なら空)
+     */
+    public List<Riddle> findAll(String mode) {
+        return mode == null ? Collections.emptyList() : riddleMap.getOrDefault(mode, Collections.emptyList());
+    }
+
+    /**
+     * モードの全問題の要約 (一覧画面用)
+     * @param mode モード
+     * @return 要約リスト (未登録なら空)
+     */
+    public List<RiddleSummary> summaries(String mode) {
+        return index(mode).summaries();
+    }
+
+    /**
+     * モードの索引 (未登録のモードなら空の索引)
+     * @param mode モード
+     * @return 索引
+     */
+    RiddleIndex index(String mode) {
+        // Map.copyOf のMapは null を渡すと落ちるので先に弾く
+        return mode == null ? RiddleIndex.EMPTY_INDEX : indexMap.getOrDefault(mode, RiddleIndex.EMPTY_INDEX);
+    }
+
+    /**
+     * メモリに載っているモードの索引
+     * @param mode モード
+     * @return 索引 (載っていなければ null)
+     */
+    RiddleIndex loaded(String mode) {
+        return mode == null ? null : indexMap.get(mode);
+    }
+
+    /**
+     * 載っている全パックの見積もりサイズの合計
+     * @return バイト数
+     */
+    long estimatedBytes() {
+        long total = 0;
+        for (RiddleIndex index : indexMap.values()) {
+            total += index.estimatedBytes();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,407 @@
+package com.example.solvingriddles.repository;
+
+import com.example.solvingriddles.model.AnswerKey;
+import com.example.solvingriddles.model.AnswerMatcher;
+import com.example.solvingriddles.model.Progress;
+import com.example.solvingriddles.model.Riddle;
+import com.example.solvingriddles.model.RiddleOption;
+import com.example.solvingriddles.model.RiddlePage;
+import com.example.solvingriddles.model.RiddleQuery;
+import com.example.solvingriddles.model.RiddleSearchResult;
+import com.example.solvingriddles.model.RiddleSummary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 1モード分の ID -> 問題 の索引 (不変・スレッドセーフ)
+ * findById のたびにリストを全件なめる (O(n)) のをやめて、O(1) で引けるようにする。
+ * <ul>
+ *   <li>IDが詰まって並んでいる場合: ID をそのまま添字にする配列 (dense)</li>
+ *   <li>IDが飛び飛びの場合: int をキーにしたオープンアドレス法のハッシュ表</li>
+ * </ul>
+ * どちらも int のまま扱うので Integer のボクシングは発生しない。
+ */
+final class RiddleIndex {
+
+    // 空きスロットの印 (オープンアドレス法用)
+    private static final int EMPTY = -1;
+
+    // IDの範囲が件数のこの倍数以内なら配列にする (それ以上スカスカならハッシュ表)
+    private static final int DENSE_FACTOR = 2;
+
+    // 1問あたりの大体の大きさ (Riddle・要約・判定器のオブジェクトと、索引の配列の分。文字列の中身は別に数える)
+    private static final int RIDDLE_OVERHEAD = 256;
+    // 選択肢1つあたりの大体の大きさ (RiddleOption のオブジェクトの分)
+    private static final int OPTION_OVERHEAD = 48;
+
+    static final RiddleIndex EMPTY_INDEX = new RiddleIndex(List.of());
+
+    // 登録順の問題と判定器 (スロット番号で引く)
+    private final Riddle[] riddles;
+    private final AnswerMatcher[] matchers;
+    // 一覧画面用の要約 (登録順)
+    private final List<RiddleSummary> summaries;
+
+    // dense の場合: slots[id - minId] = スロット番号
+    // hashed の場合: keys[h] = ID, slots[h] = スロット番号
+    private final boolean dense;
+    private final int minId;
+    private final int[] keys;
+    private final int[] slots;
+    private final int mask;
+    // メモリに載せた時の大体の大きさ (バイト)
+    private final long estimatedBytes;
+    // 全部の問題IDが進捗 (Progress) に記録できる範囲に入っているか
+    private final boolean tracksProgress;
+    // 検索用の索引 (最初に検索された時に作る。一覧を見るだけのパックには作らん)
+    private volatile RiddleSearchIndex searchIndex;
+
+    /**
+     * 問題リストから索引を作る
+     * IDが重複していたら先に出てきた方を優先する (findFirst と同じ動き)
+     * @param source 問題リスト
+     */
+    RiddleIndex(List<Riddle> source) {
+        this(new Builder().addAll(source));
+    }
+
+    /**
+     * Builder に溜めた問題から索引を作る
+     * @param b 問題を追加し終わった Builder
+     */
+    private RiddleIndex(Builder b) {
+        int n = b.size;
+        // 配列は Builder のものを切り詰めて引き継ぐ (全件コピーは1回だけ)
+        this.riddles = Arrays.copyOf(b.riddles, n);
+        this.matchers = Arrays.copyOf(b.matchers, n);
+        RiddleSummary[] s = new RiddleSummary[n];
+        for (int i = 0; i < n; i++) {
+            s[i] = RiddleSummary.of(riddles[i]);
+        }
+        this.summaries = List.of(s);
+        long bytes = 0;
+        for (Riddle r : riddles) {
+            bytes += estimate(r);
+        }
+        this.estimatedBytes = bytes;
+        int min = b.minId;
+        int max = b.maxId;
+        this.tracksProgress = min > max || (Progress.isTrackable(min) && Progress.isTrackable(max));
+
+        long span = (min > max) ? 0 : (long) max - min + 1;
+        if (span <= (long) n * DENSE_FACTOR + 16) {
+            // ----- 配列 (dense) -----
+            this.dense = true;
+            this.minId = (min > max) ? 0 : min;
+            this.keys = null;
+            this.mask = 0;
+            this.slots = new int[(int) span];
+            Arrays.fill(slots, EMPTY);
+            for (int i = 0; i < n; i++) {
+                Integer id = riddles[i].id();
+                if (id != null && slots[id - minId] == EMPTY) {
+                    slots[id - minId] = i;
+                }
+            }
+        } else {
+            // ----- オープンアドレス法 (線形探索) -----
+            this.dense = false;
+            this.minId = 0;
+            int capacity = Integer.highestOneBit(Math.max(n, 1) * 2 - 1) << 1;
+            this.keys = new int[capacity];
+            this.slots = new int[capacity];
+            this.mask = capacity - 1;
+            Arrays.fill(slots, EMPTY);
+            for (int i = 0; i < n; i++) {
+                Integer id = riddles[i].id();
+                if (id == null) {
+                    continue;
+                }
+                int h = hash(id) & mask;
+                while (slots[h] != EMPTY && keys[h] != id) {
+                    h = (h + 1) & mask;
+                }
+                if (slots[h] == EMPTY) {
+                    keys[h] = id;
+                    slots[h] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * IDからスロット番号を探す
+     * @param id 問題ID
+     * @return スロット番号 (なければ -1)
+     */
+    private int slotOf(int id) {
+        if (dense) {
+            long offset = (long) id - minId;
+            if (offset < 0 || offset >= slots.length) {
+                return EMPTY;
+            }
+            return slots[(int) offset];
+        }
+        int h = hash(id) & mask;
+        while (slots[h] != EMPTY) {
+            if (keys[h] == id) {
+                return slots[h];
+            }
+            h = (h + 1) & mask;
+        }
+        return EMPTY;
+    }
+
+    /**
+     * IDで問題を引く
+     * @param id 問題ID
+     * @return 問題 (なければ null)
+     */
+    Riddle get(int id) {
+        int slot = slotOf(id);
+        return slot == EMPTY ? null : riddles[slot];
+    }
+
+    /**
+     * IDで正解判定器を引く
+     * @param id 問題ID
+     * @return 判定器 (なければ null)
+     */
+    AnswerMatcher matcher(int id) {
+        int slot = slotOf(id);
+        return slot == EMPTY ? null : matchers[slot];
+    }
+
+    /**
+     * IDで問題と正解判定器をまとめて引く (同じ版のものが必ずそろう)
+     * @param id 問題ID
+     * @return 答え合わせ用のデータ (なければ null)
+     */
+    AnswerKey answerKey(int id) {
+        int slot = slotOf(id);
+        return slot == EMPTY ? null : new AnswerKey(riddles[slot], matchers[slot]);
+    }
+
+    /**
+     * 登録されている問題数
+     * @return 件数
+     */
+    int size() {
+        return riddles.length;
+    }
+
+    /**
+     * 全部の問題のクリア状況を進捗 (Cookie) に記録できるか
+     * false なら Progress.MAX_ID より大きい (か負の) IDの問題があって、その問題はいつまでも未クリアに見える。
+     * @return 記録できればtrue
+     */
+    boolean tracksProgress() {
+        return tracksProgress;
+    }
+
+    /**
+     * 一覧画面の1ページ分 (カーソル式)
+     * カーソルはスロット番号 (登録順の位置) なので、そこから limit 件を切り出すだけ (コピーはしない)。
+     * IDのない問題や同じIDの問題があっても、次のカーソルは必ず先に進む。
+     * 範囲外の位置が来たら最初のページを返す (パックが小さくなった後で古いリンクを踏んだ時など)。
+     * @param from このページの最初の位置 (0 始まり)
+     * @param limit 1ページの件数
+     * @return ページ
+     */
+    RiddlePage page(int from, int limit) {
+        int n = riddles.length;
+        int start = from < 0 || from >= n ? 0 : from;
+        int to = (int) Math.min((long) start + Math.max(limit, 1), n);
+        return new RiddlePage(summaries.subList(start, to), n, start, to < n ? to : null);
+    }
+
+    /**
+     * メモリに載せた時の大体の大きさ (メモリの上限を超えたパックを降ろす時の目安)
+     * 文字列は1文字2バイトで数えるので、ASCII だけの問題は実際より大きめに出る。
+     * 検索用の索引を作った後はその分も足す。
+     * @return バイト数
+     */
+    long estimatedBytes() {
+        RiddleSearchIndex search = searchIndex;
+        return search == null ? estimatedBytes : estimatedBytes + search.estimatedBytes();
+    }
+
+    /**
+     * 検索用の索引 (なければここで作る。索引は不変なので、作るのも1回だけでええ)
+     * @return 検索用の索引
+     */
+    RiddleSearchIndex searchIndex() {
+        RiddleSearchIndex search = searchIndex;
+        if (search == null) {
+            synchronized (this) {
+                search = searchIndex;
+                if (search == null) {
+                    search = new RiddleSearchIndex(riddles);
+                    searchIndex = search;
+                }
+            }
+        }
+        return search;
+    }
+
+    /**
+     * 条件に合う問題を探して、1ページ分の要約を返す
+     * 条件ごとのスロットの集合を AND するだけなので、件数が増えても集合の演算の分しか時間は増えない。
+     * 進捗に記録できないIDがあるパックでは、クリア状況では絞り込まない (結果の clearedFacet が false になる)。
+     * @param mode モード (結果に入れるだけ)
+     * @param query 検索条件
+     * @param progress クリア状況 (クリア済みで絞り込む時に使う)
+     * @return 検索結果
+     */
+    RiddleSearchResult search(String mode, RiddleQuery query, Progress progress) {
+        RiddleSearchIndex search = searchIndex();
+        SlotBitmap base = search.keyword(query.keyword());
+        if (query.cleared() != null && tracksProgress) {
+            SlotBitmap cleared = clearedSlots(progress);
+            base = query.cleared() ? base.and(cleared) : base.andNot(cleared);
+        }
+        SlotBitmap byLevel = search.anyOf(search.levels(), query.levels());
+        SlotBitmap byType = search.anyOf(search.types(), query.types());
+        // 候補ごとの件数は、その項目以外の条件で数える
+        SlotBitmap withLevel = base.and(byLevel);
+        SlotBitmap withType = base.and(byType);
+        SlotBitmap hits = withLevel.and(byType);
+
+        Map<Integer, Integer> levelCounts = new LinkedHashMap<>();
+        search.levels().forEach((level, slots) -> levelCounts.put(level, withType.andCardinality(slots)));
+        Map<String, Integer> typeCounts = new LinkedHashMap<>();
+        search.types().forEach((type, slots) -> typeCounts.put(type, withLevel.andCardinality(slots)));
+
+        List<RiddleSummary> page = new ArrayList<>(query.size());
+        long skip = (long) query.page() * query.size();
+        if (skip < hits.cardinality()) {
+            int slot = hits.next(0);
+            for (long i = 0; i < skip; i++) {
+                slot = hits.next(slot + 1);
+            }
+            for (; slot >= 0 && page.size() < query.size(); slot = hits.next(slot + 1)) {
+                page.add(summaries.get(slot));
+            }
+        }
+        return new RiddleSearchResult(mode, hits.cardinality(), query.page(), query.size(),
+                Collections.unmodifiableList(page),
+                Collections.unmodifiableMap(levelCounts), Collections.unmodifiableMap(typeCounts), tracksProgress);
+    }
+
+    // クリア済みの問題のスロットの集合 (進捗に入るIDは Progress.MAX_ID までなので、多くても4096件)
+    private SlotBitmap clearedSlots(Progress progress) {
+        int[] cleared = new int[progress.count()];
+        int n = 0;
+        for (int w = 0; w < progress.wordCount(); w++) {
+            long word = progress.word(w);
+            while (word != 0) {
+                int slot = slotOf((w << 6) + Long.numberOfTrailingZeros(word));
+                if (slot != EMPTY) {
+                    cleared[n++] = slot;
+                }
+                word &= word - 1;
+            }
+        }
+        Arrays.sort(cleared, 0, n);
+        return SlotBitmap.ofSorted(riddles.length, cleared, n);
+    }
+
+    /**
+     * 登録順の問題リスト (変更不可・コピーなし)
+     * @return 問題リスト
+     */
+    List<Riddle> asList() {
+        return Collections.unmodifiableList(Arrays.asList(riddles));
+    }
+
+    /**
+     * 一覧画面用の要約 (登録順・変更不可・コピーなし)
+     * @return 要約リスト
+     */
+    List<RiddleSummary> summaries() {
+        return summaries;
+    }
+
+    // 1問分の大きさの見積もり (文字列は中身の分を足す。要約の見出しは問題文と同じくらいとみなす)
+    private static long estimate(Riddle r) {
+        long bytes = RIDDLE_OVERHEAD
+                + 2L * (chars(r.question()) * 2 + chars(r.answer()) + chars(r.hint())
+                        + chars(r.imageUrl()) + chars(r.coords()));
+        if (r.options() != null) {
+            for (RiddleOption o : r.options()) {
+                bytes += OPTION_OVERHEAD + (o == null ? 0 : 2L * (chars(o.text()) + chars(o.role())));
+            }
+        }
+        return bytes;
+    }
+
+    private static int chars(String s) {
+        return s == null ? 0 : s.length();
+    }
+
+    // 連番IDが同じバケットに固まらないように混ぜる
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 問題を1件ずつ追加して索引を作るためのクラス
+     * JSONを1件読むたびに add() すれば、全件のリストを別に持たずに済む。
+     * (スレッドセーフではないので、読み込みスレッドの中だけで使うこと)
+     */
+    static final class Builder {
+
+        private Riddle[] riddles = new Riddle[16];
+        private AnswerMatcher[] matchers = new AnswerMatcher[16];
+        private int size;
+        private int minId = Integer.MAX_VALUE;
+        private int maxId = Integer.MIN_VALUE;
+
+        /**
+         * 問題を1件追加する (正解判定器もここでコンパイルする)
+         * @param r 問題
+         * @return 自分自身
+         */
+        Builder add(Riddle r) {
+            if (size == riddles.length) {
+                int newLength = riddles.length + (riddles.length >> 1);
+                riddles = Arrays.copyOf(riddles, newLength);
+                matchers = Arrays.copyOf(matchers, newLength);
+            }
+            riddles[size] = r;
+            matchers[size] = AnswerMatcher.of(r.answer());
+            size++;
+            if (r.id() != null) {
+                minId = Math.min(minId, r.id());
+                maxId = Math.max(maxId, r.id());
+            }
+            return this;
+        }
+
+        /**
+         * 問題をまとめて追加する
+         * @param source 問題リスト
+         * @return 自分自身
+         */
+        Builder addAll(List<Riddle> source) {
+            for (Riddle r : source) {
+                add(r);
+            }
+            return this;
+        }
+
+        /**
+         * 索引を作る
+         * @return 不変の索引
+         */
+        RiddleIndex build() {
+            return new RiddleIndex(this);
+        }
+    }
+}
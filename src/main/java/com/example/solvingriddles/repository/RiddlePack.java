@@ -0,0 +1,84 @@
+package com.example.solvingriddles.repository;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * 問題パック1つ分の情報 (不変データ)
+ * 中身 (問題) は持たず、「どこから読むか」と「どの画面で遊ぶか」だけを持つ。
+ * 中身は最初にアクセスされた時に RiddlePackRegistry が読み込む。
+ * @param mode モード (パックの名前。URL・Cookie・ランキングのキーにもなる。例: "HACKER")
+ * @param style 遊ぶ画面 ("hacker" / "casual")
+ * @param classpath クラスパス上のパス (外部ファイルの時は null)
+ * @param file 外部ファイル (クラスパスの時は null)
+ * @param preload 起動時に読み込んでおくかどうか
+ */
+public record RiddlePack(
+    String mode,
+    String style,
+    String classpath,
+    Path file,
+    boolean preload
+) {
+
+    // 外部ディレクトリのパックのファイル名の決まり (<モード>_riddles.json)
+    static final String FILE_SUFFIX = "_riddles.json";
+
+    /**
+     * 同じモード・画面のまま、読み込み元を外部ファイルに差し替えたものを作る
+     * @param file 外部ファイル
+     * @return 新しいパック情報
+     */
+    RiddlePack withFile(Path file) {
+        return new RiddlePack(mode, style, null, file, preload);
+    }
+
+    /**
+     * 読み込み元の表示用 (ログ用)
+     * @return クラスパスのパス、またはファイルのパス
+     */
+    String source() {
+        return file != null ? file.toString() : "classpath:" + classpath;
+    }
+
+    /**
+     * モードから外部ディレクトリでのファイル名を作る
+     * @param mode モード (例: "HACKER")
+     * @return ファイル名 (例: "hacker_riddles.json")
+     */
+    static String fileName(String mode) {
+        return mode.toLowerCase(Locale.ROOT) + FILE_SUFFIX;
+    }
+
+    /**
+     * 外部ディレクトリのファイル名からモードを取り出す
+     * @param fileName ファイル名 (例: "halloween_riddles.json")
+     * @return モード (例: "HALLOWEEN")。決まりに合わない名前なら null
+     */
+    static String modeOf(String fileName) {
+        if (fileName == null || !fileName.endsWith(FILE_SUFFIX) || fileName.length() == FILE_SUFFIX.length()) {
+            return null;
+        }
+        String mode = fileName.substring(0, fileName.length() - FILE_SUFFIX.length()).toUpperCase(Locale.ROOT);
+        return isValidMode(mode) ? mode : null;
+    }
+
+    /**
+     * モードとして使える名前かどうか
+     * URL・Cookieの名前・メトリクスのタグに入るので、大文字の英数字とアンダースコアだけ (32文字まで)
+     * @param mode モード
+     * @return 使えるならtrue
+     */
+    static boolean isValidMode(String mode) {
+        if (mode == null || mode.isEmpty() || mode.length() > 32) {
+            return false;
+        }
+        for (int i = 0; i < mode.length(); i++) {
+            char c = mode.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
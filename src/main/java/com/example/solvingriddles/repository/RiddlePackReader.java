@@ -0,0 +1,111 @@
+package com.example.solvingriddles.repository;
+
+import com.example.solvingriddles.model.Riddle;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 問題パック (JSON配列) をストリーミングで読み込むクラス
+ * readValue(List) のように全件のリストを作ってから索引に詰め直すのではなく、
+ * JsonParser で配列の要素を1件ずつ読み、そのまま索引の Builder に追加する。
+ * 読み込み中に余分に持つのは「今読んでいる1件」だけになる。
+ */
+final class RiddlePackReader {
+
+    private final ObjectMapper objectMapper;
+    // Riddle 用の ObjectReader (作る時に Jackson がクラスを調べるので、初めて JSON を読む時に作る)
+    // スナップショットから起動した時は作らずに済む。同時に作っても中身は同じなのでロックはいらん
+    private volatile ObjectReader riddleReader;
+
+    /**
+     * コンストラクタ
+     * @param objectMapper JSONの変換に使う ObjectMapper
+     */
+    RiddlePackReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * クラスパス上のパックを読み込む
+     * @param path クラスパス上のパス (例: "data/hacker_riddles.json")
+     * @return 索引 (ファイルがなければ null)
+     * @throws IOException 読み込みに失敗した場合
+     */
+    RiddleIndex readClasspath(String path) throws IOException {
+        ClassPathResource resource = new ClassPathResource(path);
+        if (!resource.exists()) {
+            return null;
+        }
+        try (InputStream is = resource.getInputStream()) {
+            return read(is);
+        }
+    }
+
+    /**
+     * ファイルをメモリマップして読み込む
+     * ヒープにファイル全体を読み込まず、OSのページキャッシュから直接パースする。
+     * (2GBを超えるファイルはマップできないので普通のストリームで読む)
+     * @param file パックのファイル
+     * @return 索引
+     * @throws IOException 読み込みに失敗した場合
+     */
+    RiddleIndex readFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                try (InputStream is = Files.newInputStream(file)) {
+                    return read(is);
+                }
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return read(new ByteBufferBackedInputStream(buffer));
+        }
+    }
+
+    /**
+     * JSON配列を1件ずつ読んで索引を作る
+     * @param in JSONの入力
+     * @return 索引
+     * @throws IOException 読み込みに失敗した場合、またはJSONが配列でない場合
+     */
+    RiddleIndex read(InputStream in) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw MismatchedInputException.from(parser, Riddle[].class, "問題パックはJSON配列である必要があります");
+            }
+
+            RiddleIndex.Builder builder = new RiddleIndex.Builder();
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                // 1件分だけ Riddle にして、すぐ索引に入れる
+                builder.add(riddleReader().readValue(parser));
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw MismatchedInputException.from(parser, Riddle.class, "配列の中に問題(JSONオブジェクト)以外の値があります");
+            }
+            return builder.build();
+        }
+    }
+
+    private ObjectReader riddleReader() {
+        ObjectReader reader = riddleReader;
+        if (reader == null) {
+            reader = objectMapper.readerFor(Riddle.class);
+            riddleReader = reader;
+        }
+        return reader;
+    }
+}
@@ -0,0 +1,341 @@
+package com.example.solvingriddles.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * 問題パックの登録簿 (RiddleRepository の中だけで使う)
+ * <ul>
+ *   <li>登録: パック情報 (どこから読むか・どの画面か) だけを覚える。中身はまだ読まない</li>
+ *   <li>読み込み: 最初にアクセスされた時に読む。同時に何本来ても読むのは1回だけ (後の人は待つ)</li>
+ *   <li>降ろす: 載っているパックの見積もりサイズの合計が上限を超えたら、一番長く使われていないものから降ろす</li>
+ * </ul>
+ * 読む側は今まで通り RiddleCatalog を1回読むだけ (載っていればロックも待ちもない)。
+ * 降ろしたパックは次にアクセスされた時にまた読む (スナップショットがあれば mmap で読めるので軽い)。
+ * 読めなかったパックは載せない (空のまま覚えたりはしない)。ただし読み直すのは、ファイルが変わった時
+ * (更新日時が変わった・監視から登録し直された時) か、FAILURE_BACKOFF たった後だけ。
+ * 壊れたパックのURLを叩かれるたびにファイルを読んでパースし直すことはない。
+ */
+final class RiddlePackRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(RiddlePackRegistry.class);
+
+    // 読めなかったパックを、ファイルが変わらなくても読み直すまでの時間
+    static final Duration FAILURE_BACKOFF = Duration.ofSeconds(30);
+
+    /**
+     * 読めなかったパックの記録
+     * @param pack 読もうとしたパック情報
+     * @param modified その時のファイルの更新日時 (クラスパスのパックは null)
+     * @param failedAt 失敗した時刻 (System.nanoTime)
+     */
+    private record Failure(RiddlePack pack, FileTime modified, long failedAt) {}
+
+    // パックの中身を読む処理 (失敗しても例外は投げず、null を返すこと)
+    private final Function<RiddlePack, RiddleIndex> loader;
+    // 載せておくパックの見積もりサイズの合計の上限 (0 以下なら上限なし)
+    private final long memoryBudget;
+    // 読めなかったパックを読み直すまでの時間 (ナノ秒)
+    private final long failureBackoff;
+
+    // モード -> パック情報 (登録順・不変。登録はまれなので丸ごと差し替える)
+    private volatile Map<String, RiddlePack> packs = Map.of();
+    // 画面 -> 既定のパック (その画面で最初に登録されたもの)
+    private volatile Map<String, String> primaryModes = Map.of();
+
+    // 今メモリに載っているパックの中身
+    private final AtomicReference<RiddleCatalog> catalog = new AtomicReference<>(RiddleCatalog.EMPTY);
+    // 読み込み中のパック (同じパックを2回読まんための目印)
+    private final ConcurrentHashMap<String, CompletableFuture<RiddleIndex>> loading = new ConcurrentHashMap<>();
+    // モード -> 最後に使われた時刻 (System.nanoTime)
+    private final ConcurrentHashMap<String, AtomicLong> lastAccess = new ConcurrentHashMap<>();
+    // モード -> 読めなかった時の記録 (同じファイルのままなら読み直さない)
+    private final ConcurrentHashMap<String, Failure> failures = new ConcurrentHashMap<>();
+
+    // 読み込んだ回数・降ろした回数 (メトリクス用)
+    private final AtomicLong loadCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * コンストラクタ
+     * @param loader パックの中身を読む処理
+     * @param memoryBudget 載せておくパックの合計サイズの上限 (バイト。0 以下なら上限なし)
+     */
+    RiddlePackRegistry(Function<RiddlePack, RiddleIndex> loader, long memoryBudget) {
+        this(loader, memoryBudget, FAILURE_BACKOFF);
+    }
+
+    /**
+     * コンストラクタ (読み直すまでの時間を変えられる。テスト用)
+     * @param loader パックの中身を読む処理
+     * @param memoryBudget 載せておくパックの合計サイズの上限 (バイト。0 以下なら上限なし)
+     * @param failureBackoff 読めなかったパックを読み直すまでの時間
+     */
+    RiddlePackRegistry(Function<RiddlePack, RiddleIndex> loader, long memoryBudget, Duration failureBackoff) {
+        this.loader = loader;
+        this.memoryBudget = memoryBudget;
+        this.failureBackoff = failureBackoff.toNanos();
+    }
+
+    /**
+     * パックを登録する (中身は読まない)
+     * 同じモードで読み込み元が違うパックが登録済みなら入れ替えて、載っている古い中身は降ろす (版番号が進む)。
+     * 読めなかった記録は忘れる (ファイルが変わったと監視から言われた時もここを通るので、次のアクセスで読み直す)。
+     * @param pack パック情報
+     */
+    synchronized void register(RiddlePack pack) {
+        failures.remove(pack.mode());
+        RiddlePack old = packs.get(pack.mode());
+        if (pack.equals(old)) {
+            return;
+        }
+        putPack(pack);
+        if (old != null) {
+            // 古い読み込み元の中身が載っていたら捨てる (次のアクセスで新しい方を読む)
+            catalog.updateAndGet(c -> c.loaded(pack.mode()) == null ? c : c.without(pack.mode(), true));
+        }
+    }
+
+    /**
+     * 読み込み済みの中身でパックを差し替える (外部ファイルのリロード用)
+     * @param pack パック情報
+     * @param index 検証済みの索引
+     * @return 差し替え後の版番号
+     */
+    long replace(RiddlePack pack, RiddleIndex index) {
+        long version;
+        synchronized (this) {
+            putPack(pack);
+            version = catalog.updateAndGet(c -> c.with(pack.mode(), index)).version();
+            failures.remove(pack.mode());
+        }
+        touch(pack.mode());
+        evictIfNeeded(pack.mode());
+        return version;
+    }
+
+    private void putPack(RiddlePack pack) {
+        Map<String, RiddlePack> copy = new LinkedHashMap<>(packs);
+        copy.put(pack.mode(), pack);
+        Map<String, String> primary = new LinkedHashMap<>();
+        for (RiddlePack p : copy.values()) {
+            primary.putIfAbsent(p.style(), p.mode());
+        }
+        // primaryModes を先に入れ替えても、packs にないモードは引かれないので順番は気にせんでええ
+        primaryModes = Collections.unmodifiableMap(primary);
+        packs = Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * モードの索引を取得する (載っていなければここで読み込む)
+     * @param mode モード
+     * @return 索引 (登録されていないモードなら空の索引)
+     */
+    RiddleIndex index(String mode) {
+        RiddleIndex index = catalog.get().loaded(mode);
+        if (index == null) {
+            RiddlePack pack = mode == null ? null : packs.get(mode);
+            if (pack == null || stillBroken(pack)) {
+                return RiddleIndex.EMPTY_INDEX;
+            }
+            index = load(pack);
+        }
+        touch(mode);
+        return index;
+    }
+
+    /**
+     * パックを読み込んで載せる (single-flight)
+     * 最初に来たスレッドだけが読み、同じパックを待っている他のスレッドはその結果を受け取る。
+     * 読めなかった時は載せずに空の索引を返し、失敗を覚えておく
+     * (デプロイ中で書きかけだった時なども、書き終わって更新日時が変われば次のアクセスで読み直せる)。
+     * @param pack パック情報
+     * @return 索引
+     */
+    private RiddleIndex load(RiddlePack pack) {
+        String mode = pack.mode();
+        CompletableFuture<RiddleIndex> mine = new CompletableFuture<>();
+        CompletableFuture<RiddleIndex> running = loading.putIfAbsent(mode, mine);
+        if (running != null) {
+            return running.join();
+        }
+        try {
+            // 目印を立てる前に、他のスレッドが読み終わって載せているかもしれん
+            RiddleIndex index = catalog.get().loaded(mode);
+            if (index == null) {
+                long start = System.nanoTime();
+                // 読む前の更新日時を覚える (読んでいる途中で書き換わったら、次のアクセスで読み直す)
+                FileTime modified = modified(pack);
+                RiddleIndex loaded = loader.apply(pack);
+                if (loaded == null) {
+                    failures.put(mode, new Failure(pack, modified, System.nanoTime()));
+                    mine.complete(RiddleIndex.EMPTY_INDEX);
+                    return RiddleIndex.EMPTY_INDEX;
+                }
+                failures.remove(mode);
+                // 読んでいる間に読み込み元が差し替わっていたら、古い中身は載せない (返すだけ)
+                catalog.updateAndGet(c -> c.loaded(mode) != null || packs.get(mode) != pack
+                        ? c : c.withLoaded(mode, loaded));
+                loadCount.incrementAndGet();
+                log.info("問題パックを読み込みました: mode={}, {}件, 約{}KB, {}ms", mode, loaded.size(),
+                        loaded.estimatedBytes() / 1024, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                touch(mode);
+                evictIfNeeded(mode);
+                index = loaded;
+            }
+            mine.complete(index);
+            return index;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(mode, mine);
+        }
+    }
+
+    /**
+     * 前に読めなかったパックがそのままか (読み直しても同じ失敗をするだけか)
+     * @param pack パック情報
+     * @return 同じパック・同じ更新日時で、FAILURE_BACKOFF もたっていなければtrue
+     */
+    private boolean stillBroken(RiddlePack pack) {
+        Failure failure = failures.get(pack.mode());
+        if (failure == null) {
+            return false;
+        }
+        if (!failure.pack().equals(pack) || System.nanoTime() - failure.failedAt() >= failureBackoff
+                || !Objects.equals(failure.modified(), modified(pack))) {
+            failures.remove(pack.mode(), failure);
+            return false;
+        }
+        return true;
+    }
+
+    // 外部ファイルの更新日時 (クラスパスのパック・読めない時は null)
+    private static FileTime modified(RiddlePack pack) {
+        if (pack.file() == null) {
+            return null;
+        }
+        try {
+            return Files.getLastModifiedTime(pack.file());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void touch(String mode) {
+        AtomicLong last = lastAccess.get(mode);
+        if (last == null) {
+            last = lastAccess.computeIfAbsent(mode, k -> new AtomicLong());
+        }
+        last.set(System.nanoTime());
+    }
+
+    /**
+     * 上限を超えていたら、一番長く使われていないパックから降ろす
+     * @param keep 降ろさないパック (今読み込んだ・使っているもの)
+     */
+    synchronized void evictIfNeeded(String keep) {
+        if (memoryBudget <= 0) {
+            return;
+        }
+        RiddleCatalog current = catalog.get();
+        while (current.estimatedBytes() > memoryBudget) {
+            String coldest = null;
+            long oldest = Long.MAX_VALUE;
+            for (String mode : current.modes()) {
+                AtomicLong last = lastAccess.get(mode);
+                long t = last == null ? Long.MIN_VALUE : last.get();
+                if (!mode.equals(keep) && (coldest == null || t < oldest)) {
+                    coldest = mode;
+                    oldest = t;
+                }
+            }
+            if (coldest == null) {
+                // 残っているのは今使っているパックだけ (1つで上限を超えていても降ろさない)
+                return;
+            }
+            String evicted = coldest;
+            RiddleIndex index = current.loaded(evicted);
+            // 降ろすだけで中身は変わらんので版番号は進めない
+            current = catalog.updateAndGet(c -> c.loaded(evicted) == index ? c.without(evicted, false) : c);
+            evictionCount.incrementAndGet();
+            log.info("使われていない問題パックを降ろしました: mode={}, 約{}KB", evicted, index.estimatedBytes() / 1024);
+        }
+    }
+
+    /**
+     * 今メモリに載っているパックの中身
+     * @return スナップショット
+     */
+    RiddleCatalog catalog() {
+        return catalog.get();
+    }
+
+    /**
+     * 登録されているパック (登録順)
+     * @return パック情報のリスト
+     */
+    List<RiddlePack> packs() {
+        return List.copyOf(packs.values());
+    }
+
+    /**
+     * モードのパック情報
+     * @param mode モード
+     * @return パック情報 (登録されていなければ null)
+     */
+    RiddlePack pack(String mode) {
+        return mode == null ? null : packs.get(mode);
+    }
+
+    /**
+     * 画面の既定のパック (その画面で最初に登録されたもの)
+     * @param style 画面
+     * @return モード (その画面のパックがなければ null)
+     */
+    String primaryMode(String style) {
+        return style == null ? null : primaryModes.get(style);
+    }
+
+    /**
+     * パックの中身が今メモリに載っているか
+     * @param mode モード
+     * @return 載っていればtrue
+     */
+    boolean isResident(String mode) {
+        return catalog.get().loaded(mode) != null;
+    }
+
+    /**
+     * パックを読み込んだ回数 (降ろした後の読み直しも数える)
+     * @return 回数
+     */
+    long loadCount() {
+        return loadCount.get();
+    }
+
+    /**
+     * パックを降ろした回数
+     * @return 回数
+     */
+    long evictionCount() {
+        return evictionCount.get();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.solvingriddles.repository;
+
+import com.example.solvingriddles.model.AnswerMatcher;
+import com.example.solvingriddles.model.Riddle;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 問題パックの中身をチェックするクラス
+ * リロードで壊れたデータを公開してしまわないよう、差し替え前に必ず通す。
+ * (RiddleRepositoryTest のデータ整合性チェックと同じルール)
+ */
+final class RiddlePackValidator {
+
+    private RiddlePackValidator() {}
+
+    /**
+     * 問題リストがルール通りか検証する
+     * @param riddles 問題リスト
+     * @throws IllegalArgumentException ルール違反があった場合
+     */
+    static void validate(List<Riddle> riddles) {
+        if (riddles == null || riddles.isEmpty()) {
+            throw new IllegalArgumentException("問題が1件もありません");
+        }
+
+        Set<Integer> ids = new HashSet<>();
+        for (Riddle r : riddles) {
+            if (r == null || r.id() == null) {
+                throw new IllegalArgumentException("IDのない問題があります");
+            }
+            if (!ids.add(r.id())) {
+                throw new IllegalArgumentException("IDが重複しています: " + r.id());
+            }
+            if (r.question() == null || r.type() == null) {
+                throw new IllegalArgumentException("ID:" + r.id() + " の question/type がnullです");
+            }
+            if (!"story".equals(r.type()) && r.answer() == null) {
+                throw new IllegalArgumentException("ID:" + r.id() + " は問題なのに正解(answer)がありません");
+            }
+            if ("image-map".equals(r.type()) && r.coords() == null) {
+                throw new IllegalArgumentException("ID:" + r.id() + " は image-map なのに coords がありません");
+            }
+            try {
+                AnswerMatcher.of(r.answer());
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("ID:" + r.id() + " の正規表現が不正です: " + e.getDescription(), e);
+            }
+        }
+
+        // nextId のリンク切れチェック (全IDが揃ってからやる)
+        for (Riddle r : riddles) {
+            if (r.nextId() != null && !ids.contains(r.nextId())) {
+                throw new IllegalArgumentException("ID:" + r.id() + " の nextId:" + r.nextId() + " が存在しません");
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.solvingriddles.repository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 外部ディレクトリの問題パックを監視して、変更があればリロードするクラス
+ * application.properties に riddles.pack-dir を設定した時だけ有効になる。
+ * <ul>
+ *   <li>起動時: ディレクトリにあるパック (packs.json と &lt;モード&gt;_riddles.json) を登録し、
+ *       同じモードのクラスパスのパックを上書き</li>
+ *   <li>実行中: WatchService で変更を検知し、バックグラウンドスレッドで読み直し</li>
+ * </ul>
+ * メモリに載っているパックはその場で読み直して差し替える。載っていないパックは登録だけして、
+ * 最初にアクセスされた時に読む (RiddlePackRegistry 参照)。
+ * 読み直しに失敗した場合は今のデータのまま動き続ける (失敗回数だけ数える)。
+ * リロードの回数・時間はメトリクス (riddle.pack.*) としても公開する。
+ */
+@Component
+@ConditionalOnProperty(name = "riddles.pack-dir")
+public class RiddlePackWatcher implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(RiddlePackWatcher.class);
+
+    // エディタの保存は何回かに分けてイベントが来るので、少し待ってまとめて読む
+    private static final long DEBOUNCE_MILLIS = 200;
+
+    private final RiddleRepository repository;
+    private final Path packDir;
+
+    // リロードの成功/失敗回数と、直近のリロードにかかった時間
+    private final AtomicLong reloadCount = new AtomicLong();
+    private final AtomicLong failedReloadCount = new AtomicLong();
+    private final AtomicLong lastReloadMillis = new AtomicLong();
+
+    private WatchService watchService;
+    private Thread watchThread;
+
+    /**
+     * コンストラクタ
+     * @param repository 差し替え先の保管庫
+     * @param packDir 監視するディレクトリ
+     */
+    public RiddlePackWatcher(RiddleRepository repository, @Value("${riddles.pack-dir}") String packDir) {
+        this.repository = repository;
+        this.packDir = Path.of(packDir);
+    }
+
+    /**
+     * 起動時に外部パックを読み込み、監視スレッドを開始する
+     * @throws IOException 監視の登録に失敗した場合
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (!Files.isDirectory(packDir)) {
+            log.warn("問題パックのディレクトリが見つかりません。監視しません: {}", packDir);
+            return;
+        }
+
+        refresh(null);
+
+        watchService = FileSystems.getDefault().newWatchService();
+        packDir.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+
+        watchThread = Thread.ofPlatform()
+                .name("riddle-pack-watcher")
+                .daemon(true)
+                .start(this::watchLoop);
+        log.info("問題パックの監視を開始しました: {}", packDir);
+    }
+
+    /**
+     * 監視を止める
+     * @throws IOException WatchService のクローズに失敗した場合
+     */
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            // take() で待っているスレッドは ClosedWatchServiceException で抜ける
+            watchService.close();
+        }
+    }
+
+    /**
+     * 監視ループ (バックグラウンドスレッドで動く)
+     */
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Set<String> changed = new HashSet<>();
+                boolean overflow = collect(key, changed);
+
+                // 連続で来るイベントをまとめる
+                TimeUnit.MILLISECONDS.sleep(DEBOUNCE_MILLIS);
+                WatchKey more;
+                while ((more = watchService.poll()) != null) {
+                    overflow |= collect(more, changed);
+                }
+
+                // 一覧が変わった・取りこぼした時は全部、それ以外は変わったファイルのパックだけ
+                refresh(overflow || changed.contains(RiddleRepository.MANIFEST) ? null : changed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // stop() が呼ばれた
+        }
+    }
+
+    /**
+     * WatchKey に溜まったイベントから変更されたファイル名を集める
+     * @param key 監視キー
+     * @param changed 変更されたファイル名の入れ物
+     * @return イベントの取りこぼし(OVERFLOW)があればtrue
+     */
+    private boolean collect(WatchKey key, Set<String> changed) {
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+            } else if (event.context() instanceof Path name) {
+                changed.add(name.toString());
+            }
+        }
+        key.reset();
+        return overflow;
+    }
+
+    /**
+     * ディレクトリのパックを探して、登録または読み直しをする
+     * @param changed 変更されたファイル名 (null なら見つかったパック全部)
+     */
+    private void refresh(Set<String> changed) {
+        List<RiddlePack> packs;
+        try {
+            packs = repository.discover(packDir);
+        } catch (IOException e) {
+            log.warn("問題パックのディレクトリを読めませんでした: {}, {}", packDir, e.getMessage());
+            return;
+        }
+        for (RiddlePack pack : packs) {
+            if (changed != null && !changed.contains(pack.file().getFileName().toString())) {
+                continue;
+            }
+            if (repository.isResident(pack.mode()) || pack.preload()) {
+                reloadPack(pack);
+            } else {
+                // 載っていないパックは登録だけ (読むのは最初にアクセスされた時)
+                repository.register(pack);
+                log.info("問題パックを登録しました: mode={}, style={}, {}", pack.mode(), pack.style(), pack.file());
+            }
+        }
+    }
+
+    /**
+     * 1モード分を読み直して差し替える (失敗しても例外は外に出さない)
+     * @param pack パック情報
+     */
+    private void reloadPack(RiddlePack pack) {
+        long start = System.nanoTime();
+        try {
+            long version = repository.reload(pack);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            lastReloadMillis.set(elapsed);
+            reloadCount.incrementAndGet();
+            log.info("問題パックをリロードしました: mode={}, version={}, {}ms", pack.mode(), version, elapsed);
+        } catch (IOException | RuntimeException e) {
+            failedReloadCount.incrementAndGet();
+            log.warn("問題パックのリロードに失敗しました。前のデータのまま続行します: mode={}, {}", pack.mode(), e.getMessage());
+        }
+    }
+
+    /**
+     * リロードの回数・時間・今の版番号をメトリクスとして登録する
+     * (Spring Boot が MeterBinder のBeanを見つけて自動で呼ぶ)
+     * @param registry 登録先
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("riddle.pack.reloads", reloadCount, AtomicLong::get)
+                .description("問題パックのリロード回数")
+                .tag("outcome", "success")
+                .register(registry);
+        FunctionCounter.builder("riddle.pack.reloads", failedReloadCount, AtomicLong::get)
+                .description("問題パックのリロード回数")
+                .tag("outcome", "failure")
+                .register(registry);
+        TimeGauge.builder("riddle.pack.reload.last", lastReloadMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("直近のリロードにかかった時間")
+                .register(registry);
+        Gauge.builder("riddle.catalog.version", repository, r -> r.snapshot().version())
+                .description("公開中のスナップショットの版番号")
+                .register(registry);
+    }
+
+    /**
+     * リロードに成功した回数
+     * @return 回数
+     */
+    public long getReloadCount() {
+        return reloadCount.get();
+    }
+
+    /**
+     * リロードに失敗した回数
+     * @return 回数
+     */
+    public long getFailedReloadCount() {
+        return failedReloadCount.get();
+    }
+
+    /**
+     * 直近のリロードにかかった時間
+     * @return ミリ秒
+     */
+    public long getLastReloadMillis() {
+        return lastReloadMillis.get();
+    }
+}
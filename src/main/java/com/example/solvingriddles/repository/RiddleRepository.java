@@ -1,65 +1,487 @@
 package com.example.solvingriddles.repository;
 
+import com.example.solvingriddles.config.PrivateDirectory;
+import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.model.AnswerKey;
+import com.example.solvingriddles.model.AnswerMatcher;
+import com.example.solvingriddles.model.Progress;
 import com.example.solvingriddles.model.Riddle;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.example.solvingriddles.model.RiddlePage;
+import com.example.solvingriddles.model.RiddleQuery;
+import com.example.solvingriddles.model.RiddleSearchResult;
+import com.example.solvingriddles.model.RiddleSummary;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Repository;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Collections;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.regex.PatternSyntaxException;
+import java.util.zip.CRC32C;
 
 @Repository
-public class RiddleRepository {
+public class RiddleRepository implements MeterBinder {
 
+    // 同梱のパックの一覧 (モード・画面・ファイル名・起動時に読むか)
+    // 外部ディレクトリにも同じ形の packs.json を置ける
+    public static final String MANIFEST = "packs.json";
+
+    // クラスパス上のパック置き場
+    private static final String CLASSPATH_DIR = "data/";
+
+    // バイナリのスナップショットのファイル名の後ろ (<モード>.snapshot。パックごとに1ファイル)
+    static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    // クラスパスのパックのチェックサムを取る時に1回に読む大きさ
+    private static final int CHECKSUM_BUFFER = 64 * 1024;
+
+    // パックの一覧に書ける画面
+    private static final Set<String> STYLES = Set.of(AppConst.STYLE_HACKER, AppConst.STYLE_CASUAL);
+
+    private static final Logger log = LoggerFactory.getLogger(RiddleRepository.class);
+
+    // パックの一覧を読む
     private final ObjectMapper objectMapper;
-    
-    // "HACKER" -> [...], "CASUAL" -> [...] のように管理
-    private final Map<String, List<Riddle>> riddleMap = new ConcurrentHashMap<>();
+
+    // 問題パックを1件ずつ読み込む
+    private final RiddlePackReader packReader;
+
+    // スナップショットの置き場所 (null ならスナップショットを使わず毎回JSONを読む)
+    private final Path snapshotDir;
+
+    // 登録されたパックと、今メモリに載っている問題データ
+    // 読む側は今まで通り不変のスナップショットを1回読むだけ (ロック不要)
+    private final RiddlePackRegistry registry;
 
     /**
-     * コンストラクタ
+     * コンストラクタ (スナップショットを使わない・メモリの上限なし。テスト・ベンチマーク用)
      * @param objectMapper
      */
     public RiddleRepository(ObjectMapper objectMapper) {
+        this(objectMapper, (Path) null, 0);
+    }
+
+    /**
+     * コンストラクタ (メモリの上限なし)
+     * @param objectMapper
+     * @param snapshotDir スナップショットを置くフォルダ (空なら一時フォルダの下の、このプロセスしか読み書きできないフォルダ)
+     */
+    public RiddleRepository(ObjectMapper objectMapper, String snapshotDir) {
+        this(objectMapper, snapshotDir, 0);
+    }
+
+    /**
+     * コンストラクタ
+     * @param objectMapper
+     * @param snapshotDir スナップショットを置くフォルダ (空なら一時フォルダの下の、このプロセスしか読み書きできないフォルダ)
+     * @param memoryBudget 載せておくパックの合計サイズの上限 (バイト。0 以下なら上限なし)
+     */
+    @Autowired
+    public RiddleRepository(ObjectMapper objectMapper, @Value("${riddles.snapshot-dir:}") String snapshotDir,
+                            @Value("${riddles.memory-budget:67108864}") long memoryBudget) {
+        this(objectMapper, PrivateDirectory.of(snapshotDir, "solvingriddles-snapshot"), memoryBudget);
+    }
+
+    private RiddleRepository(ObjectMapper objectMapper, Path snapshotDir, long memoryBudget) {
         this.objectMapper = objectMapper;
+        this.packReader = new RiddlePackReader(objectMapper);
+        this.snapshotDir = snapshotDir;
+        this.registry = new RiddlePackRegistry(this::load, memoryBudget);
     }
 
     /**
-     * アプリ起動時にJSONファイルを読み込む
+     * アプリ起動時に同梱のパックを登録する
+     * 中身を読むのは preload のパックだけ。ほかは最初にアクセスされた時に読む。
      */
     @PostConstruct
     public void init() {
-        // ファイル名は後で実際に作る名前に合わせてな！
-        riddleMap.put("HACKER", loadJson("data/hacker_riddles.json"));
-        riddleMap.put("CASUAL", loadJson("data/casual_riddles.json"));
+        List<RiddlePack> bundled = readManifest(readSource(CLASSPATH_DIR + MANIFEST), null);
+        for (RiddlePack pack : bundled) {
+            registry.register(pack);
+        }
+        for (RiddlePack pack : bundled) {
+            if (pack.preload()) {
+                registry.index(pack.mode());
+            }
+        }
+    }
+
+    /**
+     * パックの一覧 (JSON配列) を読む
+     * 1件ずつ確かめて、おかしいものは飛ばす (ログだけ出す)
+     * @param json 一覧の中身 (null なら空)
+     * @param dir 外部ディレクトリ (クラスパスの一覧なら null)
+     * @return パック情報のリスト (書かれている順)
+     */
+    private List<RiddlePack> readManifest(byte[] json, Path dir) {
+        List<RiddlePack> packs = new ArrayList<>();
+        if (json == null) {
+            return packs;
+        }
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(json);
+        } catch (IOException e) {
+            log.warn("パックの一覧を読めませんでした: {}", e.getMessage());
+            return packs;
+        }
+        for (JsonNode entry : root) {
+            String mode = entry.path("mode").asText("").toUpperCase(Locale.ROOT);
+            String style = entry.path("style").asText("");
+            String file = entry.path("file").asText(RiddlePack.fileName(mode));
+            boolean preload = entry.path("preload").asBoolean(false);
+            if (!RiddlePack.isValidMode(mode) || !STYLES.contains(style)
+                    || file.isEmpty() || file.contains("/") || file.contains("\\")) {
+                log.warn("パックの一覧のこの行は使えません。飛ばします: {}", entry);
+                continue;
+            }
+            packs.add(dir == null
+                    ? new RiddlePack(mode, style, CLASSPATH_DIR + file, null, preload)
+                    : new RiddlePack(mode, style, null, dir.resolve(file), preload));
+        }
+        return packs;
+    }
+
+    /**
+     * 外部ディレクトリにあるパックを探す (登録はしない)
+     * <ul>
+     *   <li>packs.json があれば、そこに書いてあるパック</li>
+     *   <li>それ以外の &lt;モード&gt;_riddles.json (画面は登録済みのパックのものを引き継ぐ。新しいモードは hacker)</li>
+     * </ul>
+     * @param dir 外部ディレクトリ
+     * @return パック情報のリスト
+     * @throws IOException ディレクトリを読めない場合
+     */
+    public List<RiddlePack> discover(Path dir) throws IOException {
+        Path manifest = dir.resolve(MANIFEST);
+        Map<String, RiddlePack> found = new LinkedHashMap<>();
+        if (Files.isRegularFile(manifest)) {
+            for (RiddlePack pack : readManifest(Files.readAllBytes(manifest), dir)) {
+                found.put(pack.mode(), pack);
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + RiddlePack.FILE_SUFFIX)) {
+            for (Path file : files) {
+                String mode = RiddlePack.modeOf(file.getFileName().toString());
+                if (mode == null || found.containsKey(mode)) {
+                    continue;
+                }
+                RiddlePack known = registry.pack(mode);
+                found.put(mode, known != null
+                        ? known.withFile(file)
+                        : new RiddlePack(mode, AppConst.STYLE_HACKER, null, file, false));
+            }
+        }
+        return List.copyOf(found.values());
     }
 
     /**
-     * JSONファイルを読み込んでRiddleリストを返す
-     * @param path
-     * @return
+     * パックを登録する (中身は最初にアクセスされた時に読む)
+     * 同じモードが登録済みなら読み込み元を差し替える。
+     * @param pack パック情報
      */
-    private List<Riddle> loadJson(String path) {
+    public void register(RiddlePack pack) {
+        registry.register(pack);
+    }
+
+    /**
+     * 1パック分の中身を読む (RiddlePackRegistry から、最初にアクセスされた時に呼ばれる)
+     * 同じ中身のスナップショットがあれば、そっちをメモリマップして読む (Jackson を通さない)。
+     * なければJSONを読んで、次に読む時用にスナップショットを書き出す。
+     * JSONはチェックサムを取る時もパースする時も流しながら読むだけで、丸ごとヒープに載せることはない。
+     * 失敗しても例外は投げず、ログを出して null を返す (アプリを落とさない。登録簿は載せずに、ファイルが変わったら読み直す)。
+     * @param pack パック情報
+     * @return 索引 (読めなかった時は null)
+     */
+    private RiddleIndex load(RiddlePack pack) {
+        Path snapshotFile = snapshotDir == null ? null : snapshotDir.resolve(pack.mode() + SNAPSHOT_SUFFIX);
         try {
-            ClassPathResource resource = new ClassPathResource(path);
-            if (!resource.exists()) {
-                System.out.println("⚠️ ファイルが見つかりません: " + path);
-                return Collections.emptyList();
+            long checksum = snapshotFile == null ? 0 : checksum(pack);
+            RiddleIndex index = snapshotFile == null ? null : loadSnapshot(snapshotFile, pack.mode(), checksum);
+            if (index == null) {
+                // 索引づくりと正規表現のコンパイルはここで一回だけ済ませる
+                index = loadJson(pack);
+                if (snapshotFile != null) {
+                    saveSnapshot(snapshotFile, checksum, pack.mode(), index);
+                }
             }
-            InputStream is = resource.getInputStream();
-            return objectMapper.readValue(is, new TypeReference<List<Riddle>>() {});
+            warnIfUntracked(pack, index);
+            return index;
+        } catch (IOException | RuntimeException e) {
+            // エラーログ出して空リストで続行（アプリを落とさない）
+            log.warn("問題パックを読めませんでした: {}, {}", pack.source(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * クラスパスのJSONファイルをそのまま読む (パックの一覧用。小さいファイルだけ)
+     * @param path クラスパス上のパス
+     * @return 中身 (ファイルがない・読めない時は null)
+     */
+    private byte[] readSource(String path) {
+        ClassPathResource resource = new ClassPathResource(path);
+        if (!resource.exists()) {
+            log.warn("ファイルが見つかりません: {}", path);
+            return null;
+        }
+        try {
+            return resource.getContentAsByteArray();
         } catch (IOException e) {
             // エラーログ出して空リストで続行（アプリを落とさない）
-            e.printStackTrace();
-            return Collections.emptyList();
+            log.warn("ファイルを読めませんでした: {}", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * JSONを読み込んで索引を返す
+     * 外部ファイルはメモリマップ、クラスパスはストリームで1件ずつパースしてそのまま索引に入れる (リロードと同じ読み方)
+     * 外部ファイルはリロードの時と同じルールで検証する
+     * @param pack パック情報
+     * @return 索引
+     * @throws IOException 読めない場合
+     * @throws IllegalArgumentException 中身がルール違反の場合
+     */
+    private RiddleIndex loadJson(RiddlePack pack) throws IOException {
+        if (pack.file() == null) {
+            RiddleIndex index = packReader.readClasspath(pack.classpath());
+            if (index == null) {
+                throw new FileNotFoundException("ファイルが見つかりません: " + pack.classpath());
+            }
+            return index;
         }
+        RiddleIndex index = packReader.readFile(pack.file());
+        RiddlePackValidator.validate(index.asList());
+        return index;
+    }
+
+    /**
+     * スナップショットを読む
+     * @param snapshotFile スナップショットのファイル
+     * @param mode モード
+     * @param checksum 今のJSONのチェックサム
+     * @return 索引 (ない・古い・壊れている時は null)
+     */
+    private RiddleIndex loadSnapshot(Path snapshotFile, String mode, long checksum) {
+        // チェックサムは壊れていないかを見るだけなので、他のユーザーが置いたファイルは中身を見ずに捨てる
+        if (Files.exists(snapshotFile) && !PrivateDirectory.isOwned(snapshotFile)) {
+            log.warn("スナップショットの持ち主がこのプロセスのユーザーではないので使いません。JSONを読みます: {}", snapshotFile);
+            return null;
+        }
+        try {
+            Map<String, RiddleIndex> indexes = RiddleSnapshot.read(snapshotFile, checksum);
+            if (indexes != null && indexes.size() == 1 && indexes.containsKey(mode)) {
+                log.info("問題データをスナップショットから読み込みました: {}", snapshotFile);
+                return indexes.get(mode);
+            }
+        } catch (IOException e) {
+            log.warn("スナップショットを読めませんでした。JSONを読みます: {}", snapshotFile, e);
+        }
+        return null;
+    }
+
+    /**
+     * 次に読む時用にスナップショットを書き出す (失敗しても続ける)
+     * @param snapshotFile スナップショットのファイル
+     * @param checksum JSONのチェックサム
+     * @param mode モード
+     * @param index 索引
+     */
+    private void saveSnapshot(Path snapshotFile, long checksum, String mode, RiddleIndex index) {
+        try {
+            RiddleSnapshot.write(snapshotFile, checksum, Map.of(mode, index.asList()));
+            log.info("問題データのスナップショットを書き出しました: {}", snapshotFile);
+        } catch (IOException e) {
+            log.warn("スナップショットを書き出せませんでした: {}", snapshotFile, e);
+        }
+    }
+
+    /**
+     * パックのJSONのチェックサム (スナップショットが今のJSONから作ったものか確かめる用)
+     * 外部ファイルはメモリマップしてそのまま計算し、クラスパスは少しずつ読みながら計算する。
+     * @param pack パック情報
+     * @return チェックサム
+     * @throws IOException 読めない場合
+     */
+    private static long checksum(RiddlePack pack) throws IOException {
+        if (pack.file() != null) {
+            return checksum(pack.mode(), pack.file());
+        }
+        try (InputStream in = new ClassPathResource(pack.classpath()).getInputStream()) {
+            return checksum(pack.mode(), in);
+        }
+    }
+
+    /**
+     * ファイルのチェックサム (メモリマップしてヒープにコピーせずに計算する)
+     * @param mode モード
+     * @param file JSONファイル
+     * @return チェックサム (checksum(String, InputStream) と同じ値)
+     * @throws IOException 読めない場合
+     */
+    static long checksum(String mode, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                // 2GBを超えるファイルはマップできないので普通のストリームで読む
+                try (InputStream in = Files.newInputStream(file)) {
+                    return checksum(mode, in);
+                }
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(mode.getBytes(StandardCharsets.UTF_8));
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            return finish(crc, size);
+        }
+    }
+
+    /**
+     * 流しながらチェックサムを計算する (持つのは CHECKSUM_BUFFER 分だけ)
+     * 上位32ビットが長さ、下位32ビットがモード名・中身・長さをつないだ CRC32C
+     * @param mode モード
+     * @param in JSONの入力
+     * @return チェックサム
+     * @throws IOException 読めない場合
+     */
+    static long checksum(String mode, InputStream in) throws IOException {
+        CRC32C crc = new CRC32C();
+        crc.update(mode.getBytes(StandardCharsets.UTF_8));
+        byte[] buffer = new byte[CHECKSUM_BUFFER];
+        long total = 0;
+        int n;
+        while ((n = in.read(buffer)) >= 0) {
+            crc.update(buffer, 0, n);
+            total += n;
+        }
+        return finish(crc, total);
+    }
+
+    // 長さは読み終わるまで分からんので最後につなぐ
+    private static long finish(CRC32C crc, long total) {
+        crc.update(ByteBuffer.allocate(8).putLong(total).flip());
+        return (total << 32) | crc.getValue();
+    }
+
+    /**
+     * 外部ファイルから1モード分を読み直して差し替える
+     * 登録済みのモードなら画面はそのまま引き継ぐ (新しいモードは hacker の画面)。
+     * @param mode モード
+     * @param file 問題パックのJSONファイル
+     * @return 差し替え後のスナップショットの版番号
+     * @throws IOException 読み込みに失敗した場合
+     * @throws IllegalArgumentException 中身がルール違反の場合
+     */
+    public long reload(String mode, Path file) throws IOException {
+        RiddlePack known = registry.pack(mode);
+        return reload(known != null ? known.withFile(file)
+                : new RiddlePack(mode, AppConst.STYLE_HACKER, null, file, false));
+    }
+
+    /**
+     * 外部ファイルのパックを読み直して差し替える
+     * ファイルはメモリマップして1件ずつ読み込む。
+     * 読み込み・検証・索引づくりが全部成功した時だけ公開する。
+     * 失敗した場合は例外を投げ、今のスナップショットはそのまま残る。
+     * @param pack パック情報 (外部ファイルのもの)
+     * @return 差し替え後のスナップショットの版番号
+     * @throws IOException 読み込みに失敗した場合
+     * @throws IllegalArgumentException 中身がルール違反の場合
+     */
+    public long reload(RiddlePack pack) throws IOException {
+        if (!RiddlePack.isValidMode(pack.mode()) || pack.file() == null) {
+            throw new IllegalArgumentException("パックの指定が不正です: " + pack);
+        }
+        RiddleIndex index;
+        try {
+            index = packReader.readFile(pack.file());
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("正規表現が不正です: " + e.getDescription(), e);
+        }
+        RiddlePackValidator.validate(index.asList());
+        warnIfUntracked(pack, index);
+        return registry.replace(pack, index);
+    }
+
+    /**
+     * クリア状況を記録できないIDがあるパックなら警告を出す (読み込みは続ける)
+     * @param pack パック情報
+     * @param index 索引
+     */
+    private static void warnIfUntracked(RiddlePack pack, RiddleIndex index) {
+        if (!index.tracksProgress()) {
+            log.warn("問題IDが 0〜{} の範囲外の問題があります。その問題のクリア状況は記録されず、検索のクリア状況の絞り込みも使えません: {}",
+                    Progress.MAX_ID, pack.source());
+        }
+    }
+
+    /**
+     * 今メモリに載っているパックのスナップショットを取得
+     * 複数の問い合わせで同じ版を見たい時に使う (載っていないパックは入っていない)
+     * @return スナップショット
+     */
+    public RiddleCatalog snapshot() {
+        return registry.catalog();
+    }
+
+    /**
+     * 登録されているパック (登録順)
+     * @return パック情報のリスト
+     */
+    public List<RiddlePack> packs() {
+        return registry.packs();
+    }
+
+    /**
+     * モードのパック情報を取得
+     * @param mode モード
+     * @return 1件または空
+     */
+    public Optional<RiddlePack> findPack(String mode) {
+        return Optional.ofNullable(registry.pack(mode));
+    }
+
+    /**
+     * 画面の既定のパック (その画面で最初に登録されたもの)
+     * @param style 画面 ("hacker" / "casual")
+     * @return モード (その画面のパックがなければ空)
+     */
+    public Optional<String> primaryMode(String style) {
+        return Optional.ofNullable(registry.primaryMode(style));
+    }
+
+    /**
+     * パックの中身が今メモリに載っているか
+     * @param mode モード
+     * @return 載っていればtrue
+     */
+    public boolean isResident(String mode) {
+        return registry.isResident(mode);
     }
 
     /**
@@ -67,7 +489,38 @@ public class RiddleRepository {
      * @return 謎解きリスト
      */
     public List<Riddle> findAll(String mode) {
-        return riddleMap.getOrDefault(mode, Collections.emptyList());
+        return registry.index(mode).asList();
+    }
+
+    /**
+     * モードを指定して全件の要約を取得 (一覧画面用)
+     * @return 要約リスト
+     */
+    public List<RiddleSummary> findSummaries(String mode) {
+        return registry.index(mode).summaries();
+    }
+
+    /**
+     * モードを指定して一覧の1ページ分を取得 (カーソル式)
+     * @param mode モード
+     * @param from ページの最初の位置 (登録順で0 始まり)
+     * @param limit 1ページの件数
+     * @return ページ (知らないモードなら0件)
+     */
+    public RiddlePage findPage(String mode, int from, int limit) {
+        return registry.index(mode).page(from, limit);
+    }
+
+    /**
+     * モードを指定して検索 (一覧画面の絞り込み用)
+     * 検索用の索引はパックの中身ごとに作るので、リロードしたら新しい中身で作り直される。
+     * @param mode モード
+     * @param query 検索条件
+     * @param progress クリア状況 (クリア済みで絞り込まないなら Progress.EMPTY でええ)
+     * @return 検索結果 (知らないモードなら0件)
+     */
+    public RiddleSearchResult search(String mode, RiddleQuery query, Progress progress) {
+        return registry.index(mode).search(mode, query, progress);
     }
 
     /**
@@ -75,8 +528,54 @@ public class RiddleRepository {
      * @return 1件または空
      */
     public Optional<Riddle> findById(String mode, Integer id) {
-        return findAll(mode).stream()
-                .filter(r -> r.id().equals(id))
-                .findFirst();
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(registry.index(mode).get(id));
+    }
+
+    /**
+     * モードとIDで正解判定器を検索
+     * @return 1件または空
+     */
+    public Optional<AnswerMatcher> findMatcher(String mode, Integer id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(registry.index(mode).matcher(id));
+    }
+
+    /**
+     * モードとIDで、問題と正解判定器をまとめて検索
+     * 索引を1回だけ引くので、リロードの途中でも問題と判定器の版がずれない。
+     * @return 1件または空
+     */
+    public Optional<AnswerKey> findAnswerKey(String mode, Integer id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(registry.index(mode).answerKey(id));
+    }
+
+    /**
+     * 載っているパックの数・サイズと、読み込み・降ろした回数をメトリクスとして登録する
+     * (Spring Boot が MeterBinder のBeanを見つけて自動で呼ぶ)
+     * @param meterRegistry 登録先
+     */
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("riddle.pack.resident", registry, r -> r.catalog().modes().size())
+                .description("メモリに載っている問題パックの数")
+                .register(meterRegistry);
+        Gauge.builder("riddle.pack.resident.bytes", registry, r -> r.catalog().estimatedBytes())
+                .description("メモリに載っている問題パックの見積もりサイズの合計")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("riddle.pack.loads", registry, RiddlePackRegistry::loadCount)
+                .description("問題パックを読み込んだ回数")
+                .register(meterRegistry);
+        FunctionCounter.builder("riddle.pack.evictions", registry, RiddlePackRegistry::evictionCount)
+                .description("メモリの上限を超えて問題パックを降ろした回数")
+                .register(meterRegistry);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,349 @@
+package com.example.solvingriddles.repository;
+
+import com.example.solvingriddles.model.AnswerNormalizer;
+import com.example.solvingriddles.model.Riddle;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 1モード分の検索用の索引 (不変・スレッドセーフ)
+ * RiddleIndex のスロット番号の集合 (SlotBitmap) で持っておき、検索は集合の AND / OR だけで済ませる。
+ * <ul>
+ *   <li>レベル・種類: 値ごとにスロットの集合</li>
+ *   <li>キーワード: 問題文の文字 n-gram (1文字と2文字) ごとにスロットの集合 (転置索引)</li>
+ * </ul>
+ * 日本語は単語の区切りが分からんので、形態素解析はせずに文字で区切る。
+ * 2文字ずつ見ればどんな言葉でも引けて、辞書もいらん (「暗号」なら "暗号" の1つ、「パスワード」なら "ぱす" "すわ" … の AND)。
+ * 2文字の並びが全部そろっていても、その順に続いているとは限らんので、3文字以上のキーワードは最後に問題文で確かめる。
+ */
+final class RiddleSearchIndex {
+
+    // 1件あたりの大体の大きさ (レベル・種類の集合と、n-gram の表の分)
+    private static final int GRAM_OVERHEAD = 48;
+
+    // 全体の件数
+    private final int size;
+    // 全スロット (条件なしの時)
+    private final SlotBitmap all;
+    // レベル -> スロットの集合 (レベル順)
+    private final Map<Integer, SlotBitmap> levels;
+    // 種類 -> スロットの集合 (名前順)
+    private final Map<String, SlotBitmap> types;
+    // n-gram -> スロットの集合
+    private final GramTable grams;
+    // 表記ゆれをそろえた問題文 (スロット番号で引く。3文字以上のキーワードの確かめ用)
+    private final String[] texts;
+    private final long estimatedBytes;
+
+    /**
+     * 問題から索引を作る
+     * @param riddles 登録順の問題 (添字がスロット番号)
+     */
+    RiddleSearchIndex(Riddle[] riddles) {
+        int n = riddles.length;
+        this.size = n;
+        this.all = SlotBitmap.all(n);
+        this.texts = new String[n];
+
+        Map<Integer, IntList> levelSlots = new TreeMap<>();
+        Map<String, IntList> typeSlots = new TreeMap<>();
+        GramTable.Builder gramBuilder = new GramTable.Builder();
+        long bytes = 0;
+        for (int slot = 0; slot < n; slot++) {
+            Riddle r = riddles[slot];
+            if (r.level() != null) {
+                levelSlots.computeIfAbsent(r.level(), k -> new IntList()).add(slot);
+            }
+            if (r.type() != null) {
+                typeSlots.computeIfAbsent(r.type(), k -> new IntList()).add(slot);
+            }
+            String text = AnswerNormalizer.normalize(r.question());
+            texts[slot] = text;
+            if (text != null) {
+                gramBuilder.addText(slot, text);
+                if (text != r.question()) {
+                    // そろえて別の文字列になった時だけ増える
+                    bytes += 40 + 2L * text.length();
+                }
+            }
+        }
+        this.levels = toBitmaps(levelSlots, n);
+        this.types = toBitmaps(typeSlots, n);
+        this.grams = gramBuilder.build(n);
+
+        bytes += (long) GRAM_OVERHEAD * n + all.estimatedBytes() + grams.estimatedBytes();
+        for (SlotBitmap b : levels.values()) {
+            bytes += b.estimatedBytes();
+        }
+        for (SlotBitmap b : types.values()) {
+            bytes += b.estimatedBytes();
+        }
+        this.estimatedBytes = bytes;
+    }
+
+    private static <K> Map<K, SlotBitmap> toBitmaps(Map<K, IntList> source, int n) {
+        Map<K, SlotBitmap> result = new TreeMap<>();
+        source.forEach((k, list) -> result.put(k, SlotBitmap.ofSorted(n, list.values, list.size)));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * 全スロットの集合
+     * @return 集合
+     */
+    SlotBitmap all() {
+        return all;
+    }
+
+    /**
+     * レベルごとのスロットの集合
+     * @return レベル -> 集合 (レベル順・変更不可)
+     */
+    Map<Integer, SlotBitmap> levels() {
+        return levels;
+    }
+
+    /**
+     * 種類ごとのスロットの集合
+     * @return 種類 -> 集合 (名前順・変更不可)
+     */
+    Map<String, SlotBitmap> types() {
+        return types;
+    }
+
+    /**
+     * 選んだ値のどれかに当てはまるスロットの集合 (OR)
+     * @param facet levels() か types()
+     * @param values 選んだ値 (空なら絞り込まない = 全スロット)
+     * @return 集合
+     */
+    <K> SlotBitmap anyOf(Map<K, SlotBitmap> facet, Collection<K> values) {
+        if (values.isEmpty()) {
+            return all;
+        }
+        SlotBitmap result = SlotBitmap.empty(size);
+        for (K value : values) {
+            SlotBitmap b = facet.get(value);
+            if (b != null) {
+                result = result.or(b);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 問題文にキーワードを含むスロットの集合
+     * @param keyword キーワード (そろえる前のもの)
+     * @return 集合 (キーワードが空なら全スロット)
+     */
+    SlotBitmap keyword(String keyword) {
+        String k = AnswerNormalizer.normalize(keyword);
+        if (k == null || k.isEmpty()) {
+            return all;
+        }
+        if (k.length() == 1) {
+            return grams.get(GramTable.unigram(k.charAt(0)), size);
+        }
+        // 2文字の並びごとの集合を、件数の少ない順に AND していく (早く小さくなるように)
+        SlotBitmap[] postings = new SlotBitmap[k.length() - 1];
+        for (int i = 0; i < postings.length; i++) {
+            SlotBitmap p = grams.get(GramTable.bigram(k.charAt(i), k.charAt(i + 1)), size);
+            if (p.cardinality() == 0) {
+                return p;
+            }
+            postings[i] = p;
+        }
+        Arrays.sort(postings, (a, b) -> Integer.compare(a.cardinality(), b.cardinality()));
+        SlotBitmap candidates = postings[0];
+        for (int i = 1; i < postings.length && candidates.cardinality() > 0; i++) {
+            candidates = candidates.and(postings[i]);
+        }
+        if (k.length() == 2 || candidates.cardinality() == 0) {
+            // 2文字なら並びが1つだけなので確かめるまでもない
+            return candidates;
+        }
+        int[] verified = new int[candidates.cardinality()];
+        int count = 0;
+        for (int slot = candidates.next(0); slot >= 0; slot = candidates.next(slot + 1)) {
+            if (texts[slot].contains(k)) {
+                verified[count++] = slot;
+            }
+        }
+        return SlotBitmap.ofSorted(size, verified, count);
+    }
+
+    /**
+     * メモリに載せた時の大体の大きさ
+     * @return バイト数
+     */
+    long estimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * 伸びる int 配列 (索引を作る間だけ使う。ボクシングせずにスロット番号を溜める)
+     */
+    private static final class IntList {
+
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + (size >> 1));
+            }
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * n-gram -> スロットの集合 の表 (int をキーにしたオープンアドレス法)
+     * キーは1文字なら文字コードそのまま、2文字なら (1文字目 << 16 | 2文字目)。
+     * 1文字目が NUL の2文字と1文字のキーがぶつかるので、NUL は索引に入れない (問題文に出てくることはない)。
+     */
+    private static final class GramTable {
+
+        private final int[] keys;
+        private final SlotBitmap[] postings;
+        private final int mask;
+
+        private GramTable(int[] keys, SlotBitmap[] postings) {
+            this.keys = keys;
+            this.postings = postings;
+            this.mask = keys.length - 1;
+        }
+
+        static int unigram(char c) {
+            return c;
+        }
+
+        static int bigram(char c1, char c2) {
+            return (c1 << 16) | c2;
+        }
+
+        /**
+         * n-gram のスロットの集合
+         * @param key unigram() か bigram() で作ったキー
+         * @param size 全体の件数
+         * @return 集合 (出てこない n-gram なら空)
+         */
+        SlotBitmap get(int key, int size) {
+            int h = hash(key) & mask;
+            while (postings[h] != null) {
+                if (keys[h] == key) {
+                    return postings[h];
+                }
+                h = (h + 1) & mask;
+            }
+            return SlotBitmap.empty(size);
+        }
+
+        long estimatedBytes() {
+            long bytes = 8L * keys.length;
+            for (SlotBitmap p : postings) {
+                if (p != null) {
+                    bytes += p.estimatedBytes();
+                }
+            }
+            return bytes;
+        }
+
+        private static int hash(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        /**
+         * 問題文を1件ずつ足して表を作る
+         */
+        static final class Builder {
+
+            // n-gram -> 番号 (lists の添字) のオープンアドレス法の表 (1文字ごとに引くので Integer にはしない)
+            private int[] keys = new int[256];
+            private int[] ids = filled(256);
+            private int count;
+            private IntList[] lists = new IntList[128];
+
+            private static int[] filled(int length) {
+                int[] a = new int[length];
+                Arrays.fill(a, -1);
+                return a;
+            }
+
+            void addText(int slot, String text) {
+                for (int i = 0; i < text.length(); i++) {
+                    char c = text.charAt(i);
+                    if (c == 0) {
+                        continue;
+                    }
+                    add(unigram(c), slot);
+                    if (i + 1 < text.length() && text.charAt(i + 1) != 0) {
+                        add(bigram(c, text.charAt(i + 1)), slot);
+                    }
+                }
+            }
+
+            private void add(int key, int slot) {
+                int mask = keys.length - 1;
+                int h = hash(key) & mask;
+                while (ids[h] >= 0 && keys[h] != key) {
+                    h = (h + 1) & mask;
+                }
+                IntList list;
+                if (ids[h] < 0) {
+                    if (count == lists.length) {
+                        lists = Arrays.copyOf(lists, count * 2);
+                    }
+                    list = new IntList();
+                    lists[count] = list;
+                    keys[h] = key;
+                    ids[h] = count++;
+                    if (count * 2 > keys.length) {
+                        grow();
+                    }
+                } else {
+                    list = lists[ids[h]];
+                }
+                // 同じ問題文に何回出てきても1回だけ (スロット番号は昇順に来るので末尾だけ見ればええ)
+                if (list.size == 0 || list.values[list.size - 1] != slot) {
+                    list.add(slot);
+                }
+            }
+
+            // 半分埋まったら倍にする
+            private void grow() {
+                int[] oldKeys = keys;
+                int[] oldIds = ids;
+                keys = new int[oldKeys.length * 2];
+                ids = filled(oldKeys.length * 2);
+                int mask = keys.length - 1;
+                for (int i = 0; i < oldKeys.length; i++) {
+                    if (oldIds[i] >= 0) {
+                        int h = hash(oldKeys[i]) & mask;
+                        while (ids[h] >= 0) {
+                            h = (h + 1) & mask;
+                        }
+                        keys[h] = oldKeys[i];
+                        ids[h] = oldIds[i];
+                    }
+                }
+            }
+
+            GramTable build(int size) {
+                // 作る時の表と同じ並びのまま、番号の代わりにスロットの集合を入れる
+                SlotBitmap[] postings = new SlotBitmap[keys.length];
+                for (int h = 0; h < keys.length; h++) {
+                    if (ids[h] >= 0) {
+                        IntList list = lists[ids[h]];
+                        postings[h] = SlotBitmap.ofSorted(size, list.values, list.size);
+                    }
+                }
+                return new GramTable(keys, postings);
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.solvingriddles.repository;
+
+import com.example.solvingriddles.model.Riddle;
+import com.example.solvingriddles.model.RiddleOption;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * 全モード分の問題データをまとめたバイナリのスナップショット
+ * JSON は Jackson がリフレクションで1件ずつ Riddle を組み立てるので、起動のたびにそれなりに時間がかかる。
+ * 初回起動時に読み込んだ結果をこの形式で書き出しておき、次からはメモリマップして読むだけにする。
+ * <pre>
+ * ヘッダー: MAGIC(int) VERSION(int) JSONのチェックサム(long) 本体の長さ(int) 本体のCRC32C(int)
+ * 本体    : 文字列表 (件数, [UTF-8の長さ, バイト列]...)
+ *           モード数, [モード名, 件数, 問題...]...
+ * 問題    : id level nextId (int, null は NULL_INT)
+ *           question answer hint type imageUrl coords (文字列表の番号, null は -1)
+ *           選択肢の数 (null は -1), [text role]...
+ * </pre>
+ * 同じ文字列 ("text" や "target" など) は文字列表に1回だけ入れるので、読み込んだ後も1つのインスタンスを共有する。
+ * 索引と正解判定器はファイルに入れず、読み込んだ問題から RiddleIndex.Builder で作り直す
+ * (どちらもリフレクションなしの O(n) で、中身の作りが変わってもファイル形式に影響しない)。
+ * JSON のチェックサム・本体のCRC・版番号のどれかが合わなければ読まずに null を返し、呼び出し側は JSON を読む。
+ */
+final class RiddleSnapshot {
+
+    // "RSNP"
+    static final int MAGIC = 0x52534E50;
+    // 形式を変えたら上げる (古いファイルは読まずに作り直す)
+    static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final int NULL_STRING = -1;
+
+    private RiddleSnapshot() {
+    }
+
+    /**
+     * スナップショットを書き出す
+     * 一時ファイルに書いてから置き換えるので、書きかけのファイルを読むことはない。
+     * @param file 書き出し先
+     * @param sourceChecksum 元のJSONのチェックサム
+     * @param packs モード -> 問題リスト
+     * @throws IOException 書き込みに失敗した場合
+     */
+    static void write(Path file, long sourceChecksum, Map<String, List<Riddle>> packs) throws IOException {
+        byte[] body = encode(packs);
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putLong(sourceChecksum)
+                .putInt(body.length)
+                .putInt((int) crc.getValue())
+                .flip();
+
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                channel.write(new ByteBuffer[] { header, ByteBuffer.wrap(body) });
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * スナップショットをメモリマップして読み込む
+     * @param file スナップショットのファイル
+     * @param sourceChecksum 今のJSONのチェックサム
+     * @return モード -> 索引 (ファイルがない・古い・壊れている時は null)
+     * @throws IOException 読み込みに失敗した場合
+     */
+    static Map<String, RiddleIndex> read(Path file, long sourceChecksum) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != sourceChecksum) {
+                return null;
+            }
+            int length = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            if (length != buffer.remaining()) {
+                return null;
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice());
+            if ((int) crc.getValue() != expectedCrc) {
+                return null;
+            }
+            return decode(buffer);
+        } catch (BufferUnderflowException | IllegalArgumentException
+                 | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            // CRC は合っているのに中身が読めない = 別の版で書かれたもの。作り直させる
+            return null;
+        }
+    }
+
+    // ========== 書き出し ==========
+
+    private static byte[] encode(Map<String, List<Riddle>> packs) {
+        StringTable strings = new StringTable();
+        // 先に全部の文字列を表に入れて、番号を決める
+        for (Map.Entry<String, List<Riddle>> pack : packs.entrySet()) {
+            strings.add(pack.getKey());
+            for (Riddle r : pack.getValue()) {
+                strings.add(r.question());
+                strings.add(r.answer());
+                strings.add(r.hint());
+                strings.add(r.type());
+                strings.add(r.imageUrl());
+                strings.add(r.coords());
+                if (r.options() != null) {
+                    for (RiddleOption o : r.options()) {
+                        strings.add(o.text());
+                        strings.add(o.role());
+                    }
+                }
+            }
+        }
+
+        Output out = new Output();
+        out.putInt(strings.list.size());
+        for (String s : strings.list) {
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            out.putInt(utf8.length);
+            out.put(utf8);
+        }
+        out.putInt(packs.size());
+        for (Map.Entry<String, List<Riddle>> pack : packs.entrySet()) {
+            out.putInt(strings.indexOf(pack.getKey()));
+            out.putInt(pack.getValue().size());
+            for (Riddle r : pack.getValue()) {
+                out.putInt(orNull(r.id()));
+                out.putInt(orNull(r.level()));
+                out.putInt(orNull(r.nextId()));
+                out.putInt(strings.indexOf(r.question()));
+                out.putInt(strings.indexOf(r.answer()));
+                out.putInt(strings.indexOf(r.hint()));
+                out.putInt(strings.indexOf(r.type()));
+                out.putInt(strings.indexOf(r.imageUrl()));
+                out.putInt(strings.indexOf(r.coords()));
+                if (r.options() == null) {
+                    out.putInt(-1);
+                } else {
+                    out.putInt(r.options().size());
+                    for (RiddleOption o : r.options()) {
+                        out.putInt(strings.indexOf(o.text()));
+                        out.putInt(strings.indexOf(o.role()));
+                    }
+                }
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static int orNull(Integer value) {
+        return value == null ? NULL_INT : value;
+    }
+
+    // ========== 読み込み ==========
+
+    private static Map<String, RiddleIndex> decode(ByteBuffer in) {
+        String[] strings = new String[in.getInt()];
+        byte[] scratch = new byte[64];
+        for (int i = 0; i < strings.length; i++) {
+            int len = in.getInt();
+            if (scratch.length < len) {
+                scratch = new byte[Math.max(len, scratch.length * 2)];
+            }
+            in.get(scratch, 0, len);
+            strings[i] = new String(scratch, 0, len, StandardCharsets.UTF_8);
+        }
+
+        int modes = in.getInt();
+        Map<String, RiddleIndex> packs = new LinkedHashMap<>();
+        for (int m = 0; m < modes; m++) {
+            String mode = string(strings, in.getInt());
+            int count = in.getInt();
+            RiddleIndex.Builder builder = new RiddleIndex.Builder();
+            for (int k = 0; k < count; k++) {
+                Integer id = integer(in.getInt());
+                Integer level = integer(in.getInt());
+                Integer nextId = integer(in.getInt());
+                String question = string(strings, in.getInt());
+                String answer = string(strings, in.getInt());
+                String hint = string(strings, in.getInt());
+                String type = string(strings, in.getInt());
+                String imageUrl = string(strings, in.getInt());
+                String coords = string(strings, in.getInt());
+                int optionCount = in.getInt();
+                List<RiddleOption> options = null;
+                if (optionCount >= 0) {
+                    options = new ArrayList<>(optionCount);
+                    for (int o = 0; o < optionCount; o++) {
+                        options.add(new RiddleOption(string(strings, in.getInt()), string(strings, in.getInt())));
+                    }
+                }
+                builder.add(new Riddle(id, question, answer, hint, type, options, level, imageUrl, coords, nextId));
+            }
+            packs.put(mode, builder.build());
+        }
+        if (in.hasRemaining()) {
+            throw new IllegalArgumentException("スナップショットの末尾に余分なデータがあります");
+        }
+        return packs;
+    }
+
+    private static Integer integer(int value) {
+        return value == NULL_INT ? null : value;
+    }
+
+    private static String string(String[] strings, int index) {
+        return index == NULL_STRING ? null : strings[index];
+    }
+
+    /**
+     * 文字列表 (同じ文字列には同じ番号)
+     */
+    private static final class StringTable {
+        final List<String> list = new ArrayList<>();
+        final Map<String, Integer> ids = new HashMap<>();
+
+        void add(String s) {
+            if (s != null) {
+                ids.computeIfAbsent(s, k -> {
+                    list.add(k);
+                    return list.size() - 1;
+                });
+            }
+        }
+
+        int indexOf(String s) {
+            return s == null ? NULL_STRING : ids.get(s);
+        }
+    }
+
+    /**
+     * 伸びるバイト列 (ByteBuffer と同じビッグエンディアン)
+     */
+    private static final class Output {
+        private byte[] buf = new byte[4096];
+        private int size;
+
+        void putInt(int v) {
+            ensure(4);
+            buf[size++] = (byte) (v >>> 24);
+            buf[size++] = (byte) (v >>> 16);
+            buf[size++] = (byte) (v >>> 8);
+            buf[size++] = (byte) v;
+        }
+
+        void put(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, size, bytes.length);
+            size += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, size);
+        }
+
+        private void ensure(int n) {
+            if (size + n > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + n));
+            }
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.solvingriddles.repository;
+
+import java.util.Arrays;
+
+/**
+ * 索引のスロット番号 (0 〜 件数-1) の集合 (不変・スレッドセーフ)
+ * 検索の絞り込み (レベル・種類・キーワード) の AND / OR をまとめて速く計算するためのもの。
+ * 中身の量で持ち方を変えて、まばらでもぎっしりでも小さく収める (Roaring Bitmap と同じ考え方):
+ * <ul>
+ *   <li>まばら: 並べたスロット番号の int 配列 (1件4バイト)</li>
+ *   <li>ぎっしり: 1スロット1ビットの long 配列 (件数に関係なく 全体/8 バイト)</li>
+ * </ul>
+ * 件数が全体の 1/32 でちょうど同じ大きさになるので、そこで切り替える。
+ * 同じ索引から作ったもの (全体の件数が同じもの) 同士でしか演算しないこと。
+ */
+final class SlotBitmap {
+
+    // 件数が 全体 / ARRAY_RATIO 以下なら int 配列で持つ (int は32ビットなので、この比で大きさが同じになる)
+    private static final int ARRAY_RATIO = 32;
+
+    // 全体の件数 (スロット番号はこれ未満)
+    private final int universe;
+    // まばらな時: 昇順のスロット番号 (ぎっしりの時は null)
+    private final int[] slots;
+    // ぎっしりな時: words[i] の bit j が スロット i*64+j (まばらな時は null)
+    private final long[] words;
+    private final int cardinality;
+
+    private SlotBitmap(int universe, int[] slots, long[] words, int cardinality) {
+        this.universe = universe;
+        this.slots = slots;
+        this.words = words;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * 空の集合
+     * @param universe 全体の件数
+     * @return 空の集合
+     */
+    static SlotBitmap empty(int universe) {
+        return new SlotBitmap(universe, new int[0], null, 0);
+    }
+
+    /**
+     * 全スロットの集合
+     * @param universe 全体の件数
+     * @return 0 〜 universe-1 の全部が入った集合
+     */
+    static SlotBitmap all(int universe) {
+        long[] w = new long[wordCount(universe)];
+        Arrays.fill(w, -1L);
+        if ((universe & 63) != 0) {
+            w[w.length - 1] = (1L << universe) - 1;
+        }
+        return fromWords(universe, w);
+    }
+
+    /**
+     * 昇順のスロット番号から作る (重複なし)
+     * @param universe 全体の件数
+     * @param sorted 昇順のスロット番号 (先頭 count 件だけ使う。配列はそのまま持つことがあるので後から書き換えないこと)
+     * @param count 件数
+     * @return 集合
+     */
+    static SlotBitmap ofSorted(int universe, int[] sorted, int count) {
+        if (isSparse(universe, count)) {
+            return new SlotBitmap(universe, count == sorted.length ? sorted : Arrays.copyOf(sorted, count), null, count);
+        }
+        long[] w = new long[wordCount(universe)];
+        for (int i = 0; i < count; i++) {
+            int s = sorted[i];
+            w[s >>> 6] |= 1L << s;
+        }
+        return new SlotBitmap(universe, null, w, count);
+    }
+
+    // ビット列から作る (まばらなら int 配列に直す)
+    private static SlotBitmap fromWords(int universe, long[] w) {
+        int count = 0;
+        for (long word : w) {
+            count += Long.bitCount(word);
+        }
+        if (!isSparse(universe, count)) {
+            return new SlotBitmap(universe, null, w, count);
+        }
+        int[] s = new int[count];
+        int n = 0;
+        for (int i = 0; i < w.length; i++) {
+            long word = w[i];
+            while (word != 0) {
+                s[n++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return new SlotBitmap(universe, s, null, count);
+    }
+
+    private static boolean isSparse(int universe, int count) {
+        return (long) count * ARRAY_RATIO <= universe;
+    }
+
+    private static int wordCount(int universe) {
+        return (universe + 63) >>> 6;
+    }
+
+    /**
+     * スロットが入っているか
+     * @param slot スロット番号
+     * @return 入っていればtrue
+     */
+    boolean contains(int slot) {
+        if (slot < 0 || slot >= universe) {
+            return false;
+        }
+        if (words != null) {
+            return (words[slot >>> 6] & (1L << slot)) != 0;
+        }
+        return Arrays.binarySearch(slots, 0, cardinality, slot) >= 0;
+    }
+
+    /**
+     * 入っているスロットの数
+     * @return 件数
+     */
+    int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * 共通部分 (AND)
+     * 片方がまばらなら、少ない方を1件ずつ相手に聞くだけで済む。
+     * @param other 相手
+     * @return 両方に入っているスロットの集合
+     */
+    SlotBitmap and(SlotBitmap other) {
+        if (words != null && other.words != null) {
+            long[] w = new long[words.length];
+            for (int i = 0; i < w.length; i++) {
+                w[i] = words[i] & other.words[i];
+            }
+            return fromWords(universe, w);
+        }
+        SlotBitmap small = smaller(this, other);
+        SlotBitmap large = small == this ? other : this;
+        int[] s = new int[small.cardinality];
+        int n = 0;
+        for (int i = 0; i < small.cardinality; i++) {
+            if (large.contains(small.slots[i])) {
+                s[n++] = small.slots[i];
+            }
+        }
+        return new SlotBitmap(universe, n == s.length ? s : Arrays.copyOf(s, n), null, n);
+    }
+
+    /**
+     * 共通部分の件数 (集合は作らない。絞り込みの候補ごとの件数を出す用)
+     * @param other 相手
+     * @return 両方に入っているスロットの数
+     */
+    int andCardinality(SlotBitmap other) {
+        if (words != null && other.words != null) {
+            int count = 0;
+            for (int i = 0; i < words.length; i++) {
+                count += Long.bitCount(words[i] & other.words[i]);
+            }
+            return count;
+        }
+        SlotBitmap small = smaller(this, other);
+        SlotBitmap large = small == this ? other : this;
+        int count = 0;
+        for (int i = 0; i < small.cardinality; i++) {
+            if (large.contains(small.slots[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 和集合 (OR)
+     * @param other 相手
+     * @return どちらかに入っているスロットの集合
+     */
+    SlotBitmap or(SlotBitmap other) {
+        if (other.cardinality == 0) {
+            return this;
+        }
+        if (cardinality == 0) {
+            return other;
+        }
+        if (words == null && other.words == null && isSparse(universe, cardinality + other.cardinality)) {
+            // どちらも並んだ配列なので、マージするだけ
+            int[] s = new int[cardinality + other.cardinality];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < cardinality && j < other.cardinality) {
+                int a = slots[i];
+                int b = other.slots[j];
+                s[n++] = Math.min(a, b);
+                if (a <= b) {
+                    i++;
+                }
+                if (b <= a) {
+                    j++;
+                }
+            }
+            while (i < cardinality) {
+                s[n++] = slots[i++];
+            }
+            while (j < other.cardinality) {
+                s[n++] = other.slots[j++];
+            }
+            return new SlotBitmap(universe, n == s.length ? s : Arrays.copyOf(s, n), null, n);
+        }
+        long[] w = toWords();
+        other.orInto(w);
+        return fromWords(universe, w);
+    }
+
+    /**
+     * 差集合 (AND NOT)
+     * @param other 除くスロットの集合
+     * @return 自分に入っていて相手に入っていないスロットの集合
+     */
+    SlotBitmap andNot(SlotBitmap other) {
+        if (other.cardinality == 0 || cardinality == 0) {
+            return this;
+        }
+        if (words == null) {
+            int[] s = new int[cardinality];
+            int n = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (!other.contains(slots[i])) {
+                    s[n++] = slots[i];
+                }
+            }
+            return new SlotBitmap(universe, Arrays.copyOf(s, n), null, n);
+        }
+        long[] w = words.clone();
+        if (other.words != null) {
+            for (int i = 0; i < w.length; i++) {
+                w[i] &= ~other.words[i];
+            }
+        } else {
+            for (int i = 0; i < other.cardinality; i++) {
+                int s = other.slots[i];
+                w[s >>> 6] &= ~(1L << s);
+            }
+        }
+        return fromWords(universe, w);
+    }
+
+    /**
+     * from 以上で一番小さいスロット番号 (順番に取り出す用)
+     * @param from ここから探す
+     * @return スロット番号 (もうなければ -1)
+     */
+    int next(int from) {
+        if (from < 0) {
+            from = 0;
+        }
+        if (from >= universe) {
+            return -1;
+        }
+        if (words == null) {
+            int i = Arrays.binarySearch(slots, 0, cardinality, from);
+            if (i < 0) {
+                i = -i - 1;
+            }
+            return i < cardinality ? slots[i] : -1;
+        }
+        int w = from >>> 6;
+        long word = words[w] & (-1L << from);
+        while (word == 0) {
+            if (++w == words.length) {
+                return -1;
+            }
+            word = words[w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * 大体の大きさ (バイト)
+     * @return バイト数
+     */
+    long estimatedBytes() {
+        return 32 + (words != null ? 8L * words.length : 4L * slots.length);
+    }
+
+    /**
+     * まばらな時の持ち方 (int 配列) になっているか (テスト用)
+     * @return int 配列ならtrue
+     */
+    boolean isArray() {
+        return words == null;
+    }
+
+    // 1件ずつなめる方 (int 配列の方。どちらも配列なら件数が少ない方)
+    private static SlotBitmap smaller(SlotBitmap a, SlotBitmap b) {
+        if (a.words != null) {
+            return b;
+        }
+        return b.words == null && b.cardinality < a.cardinality ? b : a;
+    }
+
+    // ビット列にしたコピー
+    private long[] toWords() {
+        if (words != null) {
+            return words.clone();
+        }
+        long[] w = new long[wordCount(universe)];
+        orInto(w);
+        return w;
+    }
+
+    // 自分のスロットを w に足す
+    private void orInto(long[] w) {
+        if (words != null) {
+            for (int i = 0; i < w.length; i++) {
+                w[i] |= words[i];
+            }
+            return;
+        }
+        for (int i = 0; i < cardinality; i++) {
+            int s = slots[i];
+            w[s >>> 6] |= 1L << s;
+        }
+    }
+}
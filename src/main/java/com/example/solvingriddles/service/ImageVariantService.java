@@ -0,0 +1,315 @@
+package com.example.solvingriddles.service;
+
+import com.example.solvingriddles.config.PrivateDirectory;
+import com.example.solvingriddles.constant.UrlConst;
+import com.example.solvingriddles.model.ImageSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 問題画像の縮小版を作って配るサービス
+ * 元の画像 (static/images/*.png) はPCの大きい画面向けなので、スマホには縮小版を返す。
+ * <ul>
+ *   <li>縮小版は最初に頼まれた時に1回だけ作り、ローカルディスクに置いておく (再起動しても使い回す)</li>
+ *   <li>同じ縮小版を同時に頼まれても、作るのは1回だけ (後から来た方は出来上がりを待つ)</li>
+ *   <li>作ったファイルがディスクから消されていたら、次に頼まれた時に作り直す</li>
+ *   <li>形式は Accept ヘッダーと、このJVMで書ける形式から選ぶ (WebP などは ImageIO のプラグインがあれば使う)</li>
+ *   <li>透明のない画像は JPEG に変換する (写真やスクショは PNG よりずっと小さくなる)</li>
+ * </ul>
+ * URLには元画像のハッシュが入るので、画像を差し替えたらURLも変わる (ずっとキャッシュしてええ)。
+ */
+@Service
+public class ImageVariantService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantService.class);
+
+    // 作る縮小版の幅 (画面の .container が600pxなので、その 0.5倍 / 1倍 / 1.5倍 / 2倍)
+    public static final List<Integer> WIDTHS = List.of(300, 600, 900, 1200);
+
+    // 画像マップの coords はこの表示幅で書いてある (画像がこれより小さい時は元の幅)
+    public static final int LAYOUT_WIDTH = 600;
+
+    private static final String SIZES = "(max-width: " + LAYOUT_WIDTH + "px) 100vw, " + LAYOUT_WIDTH + "px";
+    private static final String STATIC_IMAGES = "static/images/";
+    private static final String IMAGE_PREFIX = "/images/";
+    private static final Pattern SAFE_NAME = Pattern.compile("[A-Za-z0-9_-]+\\.(png|jpg|jpeg)");
+    private static final float JPEG_QUALITY = 0.82f;
+
+    // 選ぶ順番 (先頭ほど小さい)。JPEG は透明のない画像だけ
+    private static final List<MediaType> PREFERRED = List.of(
+        MediaType.parseMediaType("image/avif"),
+        MediaType.parseMediaType("image/webp"),
+        MediaType.IMAGE_JPEG,
+        MediaType.IMAGE_PNG
+    );
+
+    /**
+     * 元画像の情報
+     * @param name ファイル名
+     * @param hash 中身のハッシュ (URLに入れる)
+     * @param width 幅
+     * @param height 高さ
+     * @param alpha 透明があるか
+     */
+    record Original(String name, String hash, int width, int height, boolean alpha) {}
+
+    /**
+     * 作った縮小版
+     * @param file ディスク上のファイル
+     * @param contentType 形式
+     */
+    public record Variant(Path file, MediaType contentType) {}
+
+    private final Path cacheDir;
+    // 画像URL -> 元画像の情報 (見つからない画像は Optional.empty)
+    private final Map<String, Optional<Original>> originals = new ConcurrentHashMap<>();
+    // 作っている途中・作り終わった縮小版 (同じものを2回作らないように)
+    private final Map<String, CompletableFuture<Variant>> variants = new ConcurrentHashMap<>();
+
+    /**
+     * コンストラクタ
+     * @param cacheDir 縮小版を置くフォルダ (空なら一時フォルダの下の、このプロセスしか読み書きできないフォルダ)
+     */
+    public ImageVariantService(@Value("${images.variant-dir:}") String cacheDir) {
+        this.cacheDir = PrivateDirectory.of(cacheDir, "solvingriddles-images");
+    }
+
+    /**
+     * 画面に出す img タグ用の情報を作る
+     * @param imageUrl 問題の画像URL (例: /images/level5.png)
+     * @return 出し分け情報 (画像がない・知らない画像なら null)
+     */
+    public ImageSet describe(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(IMAGE_PREFIX)) {
+            return null;
+        }
+        Optional<Original> found = original(imageUrl.substring(IMAGE_PREFIX.length()));
+        if (found.isEmpty()) {
+            return null;
+        }
+        Original o = found.get();
+        int baseWidth = Math.min(o.width(), LAYOUT_WIDTH);
+
+        StringJoiner srcset = new StringJoiner(", ");
+        String src = imageUrl;
+        for (int width : WIDTHS) {
+            if (width >= o.width()) {
+                break; // 拡大はしない
+            }
+            String url = variantUrl(o, width);
+            srcset.add(url + " " + width + "w");
+            if (width == baseWidth) {
+                src = url;
+            }
+        }
+        if (srcset.length() == 0) {
+            return new ImageSet(imageUrl, null, null, baseWidth);
+        }
+        // 元画像も一番大きい候補として入れておく
+        srcset.add(imageUrl + " " + o.width() + "w");
+        return new ImageSet(src, srcset.toString(), SIZES, baseWidth);
+    }
+
+    /**
+     * 縮小版を取得する (なければ作る)
+     * @param hash URLに入っている元画像のハッシュ
+     * @param width 幅 (WIDTHS のどれか)
+     * @param name 元画像のファイル名
+     * @param accept ブラウザが受け取れる形式 (Accept ヘッダー)
+     * @return 縮小版 (知らない画像・幅・古いハッシュなら empty)
+     */
+    public Optional<Variant> variant(String hash, int width, String name, List<MediaType> accept) {
+        if (!WIDTHS.contains(width)) {
+            return Optional.empty();
+        }
+        Optional<Original> found = original(name);
+        if (found.isEmpty() || !found.get().hash().equals(hash) || width >= found.get().width()) {
+            return Optional.empty();
+        }
+        Original o = found.get();
+        MediaType type = chooseType(o, accept);
+        String key = o.hash() + "-" + width + "." + type.getSubtype();
+
+        CompletableFuture<Variant> mine = new CompletableFuture<>();
+        CompletableFuture<Variant> existing;
+        while ((existing = variants.putIfAbsent(key, mine)) != null) {
+            Variant made = existing.join();
+            if (Files.exists(made.file())) {
+                return Optional.of(made);
+            }
+            // 作った後にディスクから消されていたら (掃除・容量不足など)、覚えたのを捨てて作り直す
+            log.warn("縮小版のファイルがなくなっています。作り直します: {}", made.file());
+            variants.remove(key, existing);
+        }
+        try {
+            mine.complete(create(o, width, type, baseName(o.name()) + "-" + key));
+        } catch (IOException | RuntimeException e) {
+            // 失敗したものは覚えない (次のリクエストでもう一回試す)
+            variants.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e instanceof IOException io ? new UncheckedIOException(io) : (RuntimeException) e;
+        }
+        return Optional.of(mine.join());
+    }
+
+    /**
+     * 縮小版のURL
+     */
+    static String variantUrl(Original o, int width) {
+        return UrlConst.IMAGE_VARIANT + "/" + o.hash() + "/" + width + "/" + o.name();
+    }
+
+    // Accept と、書き込める形式から一番小さくなりそうなものを選ぶ
+    static MediaType chooseType(Original o, List<MediaType> accept) {
+        for (MediaType type : PREFERRED) {
+            if (type.equals(MediaType.IMAGE_JPEG) && o.alpha()) {
+                continue; // JPEG は透明を持てない
+            }
+            if (accepts(accept, type) && ImageIO.getImageWritersByMIMEType(type.toString()).hasNext()) {
+                return type;
+            }
+        }
+        return MediaType.IMAGE_PNG;
+    }
+
+    private static boolean accepts(List<MediaType> accept, MediaType type) {
+        if (accept == null || accept.isEmpty()) {
+            return true;
+        }
+        for (MediaType a : accept) {
+            if (a.includes(type) && a.getQualityValue() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 元画像の情報を読む (1回読んだら覚えておく)
+    private Optional<Original> original(String name) {
+        if (name == null || !SAFE_NAME.matcher(name).matches()) {
+            return Optional.empty();
+        }
+        return originals.computeIfAbsent(name, n -> {
+            ClassPathResource resource = new ClassPathResource(STATIC_IMAGES + n);
+            if (!resource.exists()) {
+                return Optional.empty();
+            }
+            try (InputStream in = resource.getInputStream()) {
+                byte[] bytes = in.readAllBytes();
+                BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+                if (image == null) {
+                    return Optional.empty();
+                }
+                String hash = DigestUtils.md5DigestAsHex(bytes).substring(0, 8);
+                return Optional.of(new Original(n, hash, image.getWidth(), image.getHeight(),
+                        image.getColorModel().hasAlpha()));
+            } catch (IOException e) {
+                log.warn("画像を読めません: {}", n, e);
+                return Optional.empty();
+            }
+        });
+    }
+
+    // 縮小版を作ってディスクに置く (前回の起動で作ったものがあればそれを使う)
+    private Variant create(Original o, int width, MediaType type, String fileName) throws IOException {
+        Path file = cacheDir.resolve(fileName);
+        // 他のユーザーが置いたファイルは使わずに作り直す (そのまま画像として配ってしまうので)
+        if (Files.exists(file) && PrivateDirectory.isOwned(file)) {
+            return new Variant(file, type);
+        }
+        BufferedImage source;
+        try (InputStream in = new ClassPathResource(STATIC_IMAGES + o.name()).getInputStream()) {
+            source = ImageIO.read(in);
+        }
+        int height = Math.max(1, Math.round((float) o.height() * width / o.width()));
+        BufferedImage resized = resize(source, width, height, o.alpha());
+
+        Files.createDirectories(cacheDir);
+        // 書きかけのファイルを読まれないように、一時ファイルに書いてから名前を変える
+        Path tmp = Files.createTempFile(cacheDir, fileName, ".tmp");
+        try {
+            write(resized, type, tmp);
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        log.info("縮小版を作りました: {} ({} bytes)", file.getFileName(), Files.size(file));
+        return new Variant(file, type);
+    }
+
+    // 半分ずつ縮めてから最後に目的の大きさにする (一気に縮めるとギザギザになるため)
+    static BufferedImage resize(BufferedImage source, int width, int height, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(width, w / 2);
+            h = Math.max(height, h / 2);
+            BufferedImage next = new BufferedImage(w, h, type);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (w != width || h != height);
+        return current;
+    }
+
+    private static void write(BufferedImage image, MediaType type, Path file) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByMIMEType(type.toString());
+        if (!writers.hasNext()) {
+            throw new IOException("書き込めない形式です: " + type);
+        }
+        ImageWriter writer = writers.next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (MediaType.IMAGE_JPEG.equals(type)) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static String baseName(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? name : name.substring(0, dot);
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.solvingriddles.service;
+
+import com.example.solvingriddles.model.Progress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * 進捗 (Progress) を署名付きの短い文字列に変換するクラス
+ * サーバーにセッションを持たずに、Cookie だけで「どこまで解いたか」を覚えておくために使う。
+ * <pre>
+ * [版番号 1バイト][ビットマップ (末尾の0を切り詰め)][HMAC-SHA256 の先頭12バイト]  → Base64URL
+ * </pre>
+ * 署名にはモード名も混ぜるので、ハッカーモードの進捗をカジュアルモードに貼り付けても通らない。
+ * 改ざん・壊れた値・知らない版番号は、すべて「進捗なし」として扱う (エラーにはしない)。
+ * 鍵 (progress.secret) がないと再起動のたびに全員の進捗が黙って消えるので、
+ * dev / test プロファイル以外では鍵なしで起動させない。
+ */
+@Component
+public class ProgressCodec {
+
+    private static final Logger log = LoggerFactory.getLogger(ProgressCodec.class);
+
+    // 鍵なし (起動ごとのランダムな鍵) で起動してよいプロファイル
+    static final String[] RANDOM_SECRET_PROFILES = {"dev", "test"};
+
+    public static final byte VERSION = 1;
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 12;
+    private static final int MAX_BITMAP_BYTES = (Progress.MAX_ID >>> 3) + 1;
+    // これより長い値は、デコードする前に捨てる
+    private static final int MAX_TOKEN_LENGTH = (1 + MAX_BITMAP_BYTES + MAC_LENGTH) * 4 / 3 + 4;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    // 鍵を設定済みの Mac。Mac はスレッドセーフではないので、スレッドごとに clone() して使い回す
+    // (仮想スレッドの場合はリクエストごとに1回 clone することになる)
+    private final Mac prototype;
+    private final ThreadLocal<Signer> signers = ThreadLocal.withInitial(this::newSigner);
+
+    /**
+     * コンストラクタ (アプリから使う)
+     * @param secret 署名の鍵
+     * @param environment 有効なプロファイルを見る
+     * @throws IllegalStateException 鍵が空で、dev / test プロファイルでもない時
+     */
+    @Autowired
+    public ProgressCodec(@Value("${progress.secret:}") String secret, Environment environment) {
+        this(requireSecret(secret, environment));
+    }
+
+    /**
+     * コンストラクタ
+     * @param secret 署名の鍵 (空ならランダムな鍵を作る。その場合、再起動すると進捗は読めなくなる)
+     */
+    public ProgressCodec(String secret) {
+        byte[] key;
+        if (secret == null || secret.isBlank()) {
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            log.warn("progress.secret が未設定のため、ランダムな鍵を使います (再起動すると進捗がリセットされます)");
+        } else {
+            key = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            prototype = Mac.getInstance(ALGORITHM);
+            prototype.init(new SecretKeySpec(key, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("進捗の署名を初期化できません", e);
+        }
+    }
+
+    // 本番で鍵を渡し忘れたら、進捗が消えたまま動き続けるより起動に失敗した方がええ
+    private static String requireSecret(String secret, Environment environment) {
+        if ((secret == null || secret.isBlank()) && !environment.matchesProfiles(RANDOM_SECRET_PROFILES)) {
+            throw new IllegalStateException("progress.secret が未設定です。環境変数 PROGRESS_SECRET などで固定の鍵を渡してください"
+                    + " (手元で試すだけなら dev プロファイルで起動すればランダムな鍵を使います)");
+        }
+        return secret;
+    }
+
+    /**
+     * 進捗を文字列にする
+     * @param mode モード (署名に混ぜる)
+     * @param progress 進捗
+     * @return Cookieに入れられる文字列
+     */
+    public String encode(String mode, Progress progress) {
+        int bitmapBytes = bitmapLength(progress);
+        byte[] buf = new byte[1 + bitmapBytes + MAC_LENGTH];
+        buf[0] = VERSION;
+        for (int i = 0; i < bitmapBytes; i++) {
+            buf[1 + i] = (byte) (progress.word(i >>> 3) >>> ((i & 7) << 3));
+        }
+        sign(mode, buf, 1 + bitmapBytes);
+        return ENCODER.encodeToString(buf);
+    }
+
+    /**
+     * 文字列から進捗を読み取る
+     * @param mode モード (署名の確認に使う)
+     * @param token Cookieの値 (null 可)
+     * @return 進捗 (値がない・壊れている・署名が合わない時は Progress.EMPTY)
+     */
+    public Progress decode(String mode, String token) {
+        if (token == null || token.isEmpty() || token.length() > MAX_TOKEN_LENGTH) {
+            return Progress.EMPTY;
+        }
+        byte[] buf;
+        try {
+            buf = DECODER.decode(token);
+        } catch (IllegalArgumentException e) {
+            return Progress.EMPTY;
+        }
+        int bitmapBytes = buf.length - 1 - MAC_LENGTH;
+        if (bitmapBytes < 0 || buf[0] != VERSION || !verify(mode, buf, 1 + bitmapBytes)) {
+            return Progress.EMPTY;
+        }
+
+        long[] words = new long[(bitmapBytes + 7) >>> 3];
+        for (int i = 0; i < bitmapBytes; i++) {
+            words[i >>> 3] |= (buf[1 + i] & 0xFFL) << ((i & 7) << 3);
+        }
+        return Progress.ofWords(words);
+    }
+
+    // ビットマップを何バイトで表せるか (末尾の0バイトは書かない)
+    private static int bitmapLength(Progress progress) {
+        int n = progress.wordCount();
+        if (n == 0) {
+            return 0;
+        }
+        long last = progress.word(n - 1);
+        return ((n - 1) << 3) + ((64 - Long.numberOfLeadingZeros(last) + 7) >>> 3);
+    }
+
+    // buf[0, length) の署名を buf[length, length+MAC_LENGTH) に書き込む
+    private void sign(String mode, byte[] buf, int length) {
+        byte[] mac = signers.get().mac(mode, buf, length);
+        System.arraycopy(mac, 0, buf, length, MAC_LENGTH);
+    }
+
+    // 署名が合っているか (比較にかかる時間が中身で変わらないように全バイト比べる)
+    private boolean verify(String mode, byte[] buf, int length) {
+        byte[] mac = signers.get().mac(mode, buf, length);
+        int diff = 0;
+        for (int i = 0; i < MAC_LENGTH; i++) {
+            diff |= mac[i] ^ buf[length + i];
+        }
+        return diff == 0;
+    }
+
+    private Signer newSigner() {
+        try {
+            return new Signer((Mac) prototype.clone());
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * スレッドごとの Mac と、結果を書き込む作業用の配列
+     */
+    private static final class Signer {
+        private final Mac mac;
+        private final byte[] out;
+
+        Signer(Mac mac) {
+            this.mac = mac;
+            this.out = new byte[mac.getMacLength()];
+        }
+
+        byte[] mac(String mode, byte[] buf, int length) {
+            // モード名は ASCII なので1文字ずつ入れる (getBytes で配列を作らない)
+            for (int i = 0; i < mode.length(); i++) {
+                mac.update((byte) mode.charAt(i));
+            }
+            mac.update((byte) 0);
+            mac.update(buf, 0, length);
+            try {
+                mac.doFinal(out, 0);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+            return out;
+        }
+    }
+}
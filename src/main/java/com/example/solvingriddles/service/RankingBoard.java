@@ -0,0 +1,209 @@
+package com.example.solvingriddles.service;
+
+import com.example.solvingriddles.model.RankingEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 1つのランキング (モード × 期間) を持つクラス
+ * <ul>
+ *   <li>プレイヤーごとのスコア: ConcurrentHashMap (更新はそのプレイヤーの中だけでロック)</li>
+ *   <li>順位: ConcurrentSkipListSet (スコアの高い順に並んだまま、ロックなしで先頭から読める)</li>
+ *   <li>クリア総数: LongAdder (同時に大量に足しても1か所に集中しない)</li>
+ * </ul>
+ * ボード全体をロックする場所はないので、別々のプレイヤーの回答は並列に処理される。
+ */
+final class RankingBoard {
+
+    /**
+     * 並び順: スコアの高い順 → 先にそのスコアに着いた順 → 先に登録された順
+     * (スキップリストの探索で何十回も呼ばれるので、名前の文字列比較はしない)
+     */
+    private static final Comparator<Standing> ORDER = (a, b) -> {
+        if (a.score() != b.score()) {
+            return a.score() > b.score() ? -1 : 1;
+        }
+        if (a.reachedAt() != b.reachedAt()) {
+            return a.reachedAt() < b.reachedAt() ? -1 : 1;
+        }
+        return Long.compare(a.seq(), b.seq());
+    };
+
+    private final int maxPlayers;
+    private final ConcurrentHashMap<String, PlayerScore> players = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Standing> standings = new ConcurrentSkipListSet<>(ORDER);
+    private final LongAdder totalSolves = new LongAdder();
+    // 同点・同時刻の時の並び順に使う通し番号 (新しいプレイヤーが来た時だけ進む)
+    private final AtomicLong nextSeq = new AtomicLong();
+
+    /**
+     * コンストラクタ
+     * @param maxPlayers 記録するプレイヤー数の上限 (でたらめな名前を大量に送られても増え続けないように)
+     */
+    RankingBoard(int maxPlayers) {
+        this.maxPlayers = maxPlayers;
+    }
+
+    /**
+     * クリアを記録する
+     * 同じプレイヤーが同じ問題をもう一度クリアしても、スコアは増えない。
+     * @param player プレイヤー名
+     * @param riddleId クリアした問題のID
+     * @param points 加算するスコア
+     * @param now クリアした時刻 (エポックミリ秒)
+     * @return スコアが増えたらtrue
+     */
+    boolean record(String player, int riddleId, int points, long now) {
+        PlayerScore score = players.get(player);
+        if (score == null) {
+            if (players.size() >= maxPlayers) {
+                return false;
+            }
+            score = players.computeIfAbsent(player, p -> new PlayerScore(nextSeq.getAndIncrement()));
+        }
+        // 1人分の更新だけをロックする。順位表は「新しい順位を入れてから古い順位を消す」ので、
+        // 読む側は一瞬だけ同じ人が2回見えることがある (top() で重複を飛ばす)
+        synchronized (score) {
+            if (!score.addSolved(riddleId)) {
+                return false;
+            }
+            Standing previous = score.standing;
+            score.score += points;
+            Standing next = new Standing(player, score.score, now, score.seq, score.solvedCount);
+            score.standing = next;
+            standings.add(next);
+            if (previous != null) {
+                standings.remove(previous);
+            }
+        }
+        totalSolves.increment();
+        return true;
+    }
+
+    /**
+     * 上位N人を取り出す
+     * スキップリストの先頭から読むだけなので、プレイヤーが何人いても N に比例した時間で終わる。
+     * @param limit 取り出す人数
+     * @return 上位のプレイヤー (順位順)
+     */
+    List<RankingEntry> top(int limit) {
+        List<RankingEntry> entries = new ArrayList<>(Math.min(limit, 16));
+        Set<String> seen = new HashSet<>();
+        for (Standing s : standings) {
+            if (entries.size() >= limit) {
+                break;
+            }
+            if (seen.add(s.player())) {
+                entries.add(new RankingEntry(entries.size() + 1, s.player(), s.score(), s.solved()));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * プレイヤーの今のスコア
+     * @param player プレイヤー名
+     * @return スコア (記録がなければ0)
+     */
+    long scoreOf(String player) {
+        PlayerScore score = players.get(player);
+        if (score == null) {
+            return 0;
+        }
+        synchronized (score) {
+            return score.score;
+        }
+    }
+
+    /**
+     * 記録されているプレイヤー数
+     * @return 人数
+     */
+    int playerCount() {
+        return players.size();
+    }
+
+    /**
+     * 記録したクリアの総数 (重複は除く)
+     * @return 回数
+     */
+    long totalSolves() {
+        return totalSolves.sum();
+    }
+
+    /**
+     * 順位表に入れる1人分の値 (更新のたびに作り直す)
+     */
+    private record Standing(String player, long score, long reachedAt, long seq, int solved) {}
+
+    /**
+     * プレイヤー1人分の記録 (フィールドはこのオブジェクトのロックの中でだけ触る)
+     * クリア済みの問題IDは int の配列にオープンアドレス法で入れる。
+     * Set&lt;Integer&gt; だと1件あたり数十バイトになるので、プレイヤーが多い時にメモリとGCが重くなる。
+     */
+    private static final class PlayerScore {
+        private static final int FREE = Integer.MIN_VALUE;
+
+        private final long seq;
+        private int[] solved = newTable(8);
+        private int solvedCount;
+        private long score;
+        private Standing standing;
+
+        PlayerScore(long seq) {
+            this.seq = seq;
+        }
+
+        /**
+         * クリア済みに追加する
+         * @return 初めてのクリアならtrue
+         */
+        boolean addSolved(int riddleId) {
+            if (riddleId == FREE) {
+                return false;
+            }
+            if ((solvedCount + 1) * 2 > solved.length) {
+                int[] old = solved;
+                solved = newTable(old.length * 2);
+                for (int id : old) {
+                    if (id != FREE) {
+                        insert(solved, id);
+                    }
+                }
+            }
+            if (!insert(solved, riddleId)) {
+                return false;
+            }
+            solvedCount++;
+            return true;
+        }
+
+        private static boolean insert(int[] table, int id) {
+            int mask = table.length - 1;
+            int i = (id * 0x9E3779B9) >>> 16 & mask;
+            while (table[i] != FREE) {
+                if (table[i] == id) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            table[i] = id;
+            return true;
+        }
+
+        private static int[] newTable(int size) {
+            int[] table = new int[size];
+            Arrays.fill(table, FREE);
+            return table;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.solvingriddles.service;
+
+import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.model.Ranking;
+import com.example.solvingriddles.model.RankingPeriod;
+import com.example.solvingriddles.model.Riddle;
+import com.example.solvingriddles.repository.RiddleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * ランキングを管理するサービス
+ * RiddleService の正解判定で「正解」になった回答を受け取り、モードごとに
+ * 全期間・日間・週間のランキングへ記録する。
+ * <p>
+ * 日間・週間は「今の期間のボード」だけを持ち、日付(週)が変わったら新しいボードに差し替える。
+ * 差し替えは AtomicReference の比較交換だけで行うので、ここにもグローバルなロックはない。
+ * (再起動するとランキングは消える。保存はDB導入の時に考える)
+ */
+@Service
+public class RankingService {
+
+    // 上位何人まで返すか (画面・APIともに)
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 100;
+
+    private final Clock clock;
+    private final int maxPlayers;
+    // 記録してええモード (登録されている問題パック)
+    private final Predicate<String> knownMode;
+    // モード -> ランキング (パックが増えても、最初の正解が来た時に作る)
+    private final Map<String, ModeRanking> rankings = new ConcurrentHashMap<>();
+
+    /**
+     * コンストラクタ (Springから呼ばれる)
+     * @param maxPlayers 1つのボードに記録するプレイヤー数の上限
+     * @param repository 登録されている問題パックを調べる
+     */
+    @Autowired
+    public RankingService(@Value("${ranking.max-players:100000}") int maxPlayers, RiddleRepository repository) {
+        this(Clock.system(ZoneId.of("Asia/Tokyo")), maxPlayers, mode -> repository.findPack(mode).isPresent());
+    }
+
+    /**
+     * コンストラクタ (同梱のパックだけ記録する。テスト用)
+     * @param maxPlayers 1つのボードに記録するプレイヤー数の上限
+     */
+    public RankingService(int maxPlayers) {
+        this(Clock.system(ZoneId.of("Asia/Tokyo")), maxPlayers);
+    }
+
+    /**
+     * コンストラクタ (テストで時計を差し替える用。同梱のパックだけ記録する)
+     * @param clock 日付の区切りに使う時計 (タイムゾーンもこの時計のものを使う)
+     * @param maxPlayers 1つのボードに記録するプレイヤー数の上限
+     */
+    RankingService(Clock clock, int maxPlayers) {
+        this(clock, maxPlayers, Set.of(AppConst.MODE_HACKER, AppConst.MODE_CASUAL)::contains);
+    }
+
+    private RankingService(Clock clock, int maxPlayers, Predicate<String> knownMode) {
+        this.clock = clock;
+        this.maxPlayers = maxPlayers;
+        this.knownMode = knownMode;
+    }
+
+    /**
+     * 正解を記録する
+     * スコアは問題の難易度 (level) の分だけ増える。同じ問題を何回解いても1回分。
+     * 知らないモードは記録しない (ボードはそのモードで最初に正解した時に作る)
+     * @param mode モード
+     * @param player プレイヤー名 (null なら記録しない)
+     * @param riddle 正解した問題
+     */
+    public void recordSolve(String mode, String player, Riddle riddle) {
+        if (mode == null || player == null || riddle == null || riddle.id() == null || !knownMode.test(mode)) {
+            return;
+        }
+        ModeRanking ranking = rankings.get(mode);
+        if (ranking == null) {
+            ranking = rankings.computeIfAbsent(mode, k -> new ModeRanking());
+        }
+        int points = riddle.level() == null ? 1 : Math.max(riddle.level(), 1);
+        long now = clock.millis();
+        for (RankingPeriod period : RankingPeriod.values()) {
+            ranking.board(period).record(player, riddle.id(), points, now);
+        }
+    }
+
+    /**
+     * 上位のプレイヤーを取り出す
+     * @param mode モード
+     * @param period 集計期間
+     * @param limit 人数 (1〜MAX_LIMIT に丸める)
+     * @return ランキング (知らないモード・まだ誰も正解していないモードなら空)
+     */
+    public Ranking top(String mode, RankingPeriod period, int limit) {
+        ModeRanking ranking = mode == null ? null : rankings.get(mode);
+        if (ranking == null) {
+            return new Ranking(mode, period.getKey(), List.of());
+        }
+        int n = Math.clamp(limit, 1, MAX_LIMIT);
+        return new Ranking(mode, period.getKey(), ranking.board(period).top(n));
+    }
+
+    /**
+     * プレイヤーのスコアを取り出す
+     * @param mode モード
+     * @param period 集計期間
+     * @param player プレイヤー名
+     * @return スコア (記録がなければ0)
+     */
+    public long scoreOf(String mode, RankingPeriod period, String player) {
+        ModeRanking ranking = mode == null ? null : rankings.get(mode);
+        if (ranking == null || player == null) {
+            return 0;
+        }
+        return ranking.board(period).scoreOf(player);
+    }
+
+    // 期間の通し番号 (日間: エポック日、週間: その週の月曜のエポック日)
+    private long periodKey(RankingPeriod period) {
+        LocalDate today = LocalDate.now(clock);
+        return switch (period) {
+            case ALL_TIME -> 0;
+            case DAILY -> today.toEpochDay();
+            case WEEKLY -> today.toEpochDay() - (today.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue());
+        };
+    }
+
+    /**
+     * ある期間のボード
+     */
+    private record Bucket(long key, RankingBoard board) {}
+
+    /**
+     * 1モード分のランキング (期間ごとのボード)
+     */
+    private final class ModeRanking {
+        private final Map<RankingPeriod, AtomicReference<Bucket>> buckets = new EnumMap<>(RankingPeriod.class);
+
+        ModeRanking() {
+            for (RankingPeriod period : RankingPeriod.values()) {
+                buckets.put(period, new AtomicReference<>(new Bucket(periodKey(period), new RankingBoard(maxPlayers))));
+            }
+        }
+
+        /**
+         * 今の期間のボードを返す (期間が変わっていたら新しいボードに差し替える)
+         */
+        RankingBoard board(RankingPeriod period) {
+            AtomicReference<Bucket> ref = buckets.get(period);
+            long key = periodKey(period);
+            Bucket bucket = ref.get();
+            while (bucket.key() != key) {
+                Bucket next = new Bucket(key, new RankingBoard(maxPlayers));
+                if (ref.compareAndSet(bucket, next)) {
+                    return next.board();
+                }
+                bucket = ref.get();
+            }
+            return bucket.board();
+        }
+    }
+}
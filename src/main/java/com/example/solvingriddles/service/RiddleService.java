@@ -1,50 +1,137 @@
 package com.example.solvingriddles.service;
 
+import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.metrics.RiddleMetrics;
+import com.example.solvingriddles.model.AnswerCheck;
+import com.example.solvingriddles.model.AnswerKey;
+import com.example.solvingriddles.model.AnswerMatcher;
+import com.example.solvingriddles.model.AnswerResult;
+import com.example.solvingriddles.model.Progress;
 import com.example.solvingriddles.model.Riddle;
+import com.example.solvingriddles.model.RiddlePage;
+import com.example.solvingriddles.model.RiddleQuery;
+import com.example.solvingriddles.model.RiddleSearchResult;
+import com.example.solvingriddles.model.RiddleSummary;
+import com.example.solvingriddles.repository.RiddlePack;
 import com.example.solvingriddles.repository.RiddleRepository;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 @Service // ← これ忘れたらただの普通のクラスやから注意な！
 public class RiddleService {
 
+    // この件数以上なら並列で判定する (少ない時は並列化の手間の方が大きい)
+    // まとめて判定APIの1回の上限 (api.answers.max-batch) より小さくしておくこと
+    public static final int PARALLEL_THRESHOLD = 256;
+
     private final RiddleRepository repository;
+    private final RiddleMetrics metrics;
+    private final RankingService rankingService;
 
     /**
      * コンストラクタ
      * @param repository 謎解きデータの保管庫
+     * @param metrics 判定・検索の時間と結果を記録するメトリクス
+     * @param rankingService 正解をランキングに記録するサービス
      */
-    public RiddleService(RiddleRepository repository) {
+    public RiddleService(RiddleRepository repository, RiddleMetrics metrics, RankingService rankingService) {
         this.repository = repository;
+        this.metrics = metrics;
+        this.rankingService = rankingService;
     }
 
     /**
-     * 正解かどうかを判定する
+     * 正解かどうかを判定する (ランキングには記録しない)
      * @param id 問題ID
      * @param answer ユーザーの回答
      * @return 正解ならtrue
      */
     public boolean checkAnswer(String mode, Integer id, String answer) {
-        // 1. IDで正解データを取り出す
-        Optional<Riddle> riddleOpt = repository.findById(mode, id);
+        return checkAnswer(mode, id, answer, null);
+    }
+
+    /**
+     * 正解かどうかを判定し、正解ならプレイヤーのランキングに記録する
+     * @param id 問題ID
+     * @param answer ユーザーの回答
+     * @param player プレイヤー名 (null ならランキングに記録しない)
+     * @return 正解ならtrue
+     */
+    public boolean checkAnswer(String mode, Integer id, String answer, String player) {
+        return judge(mode, id, answer, player) == AnswerResult.CORRECT;
+    }
+
+    /**
+     * まとめて正解判定する (JSON API 用。ランキングには記録しない)
+     * 件数が多い時は、CPUのコア数ぶん並列で判定する。
+     * @param checks 判定したい (モード, ID, 回答) のリスト
+     * @return 入力と同じ順番の判定結果
+     */
+    public List<AnswerResult> checkAnswers(List<AnswerCheck> checks) {
+        AnswerResult[] results = new AnswerResult[checks.size()];
+        IntStream indexes = IntStream.range(0, results.length);
+        // 判定はどれも独立していて、書き込み先も別々の添字なので、そのまま並列にできる
+        // (1コアだと切り替えの手間で逆に遅くなるので、順番に判定する)
+        boolean parallel = results.length >= PARALLEL_THRESHOLD && Runtime.getRuntime().availableProcessors() > 1;
+        if (parallel) {
+            indexes = indexes.parallel();
+        }
+        metrics.recordBatch(results.length, parallel);
+        indexes.forEach(i -> {
+            AnswerCheck check = checks.get(i);
+            results[i] = check == null
+                    ? AnswerResult.UNKNOWN
+                    : judge(check.mode(), check.id(), check.answer(), null);
+        });
+        return Arrays.asList(results);
+    }
+
+    /**
+     * 1件分の正解判定 (メトリクスとランキングへの記録もここで行う)
+     * @param mode モード
+     * @param id 問題ID
+     * @param answer ユーザーの回答
+     * @param player プレイヤー名 (null ならランキングに記録しない)
+     * @return 判定結果
+     */
+    private AnswerResult judge(String mode, Integer id, String answer, String player) {
+        long start = System.nanoTime();
 
-        // 2. データがない場合（ありえへんけど）は false
-        if (riddleOpt.isEmpty()) {
-            return false;
+        // 1. IDで問題と判定器をまとめて取り出す (正規表現は起動時にコンパイル済み)
+        //    別々に引くとリロードを挟んだ時に版がずれるので、索引を引くのは1回だけ
+        Optional<AnswerKey> keyOpt = repository.findAnswerKey(mode, id);
+
+        // 2. データがない場合（ボットがでたらめなIDを送ってきた時など）は UNKNOWN
+        if (keyOpt.isEmpty()) {
+            metrics.recordCheck(mode, null, RiddleMetrics.NONE, RiddleMetrics.UNKNOWN, System.nanoTime() - start);
+            return AnswerResult.UNKNOWN;
         }
 
-        // 3. 正解と比較 (大文字小文字は無視する)
-        String correctAnswer = riddleOpt.get().answer();
+        // 3. 正解と比較 (書き出し済みの正規表現なら HashSet を1回引くだけ、それ以外は正規表現か完全一致)
+        Riddle riddle = keyOpt.get().riddle();
+        AnswerMatcher matcher = keyOpt.get().matcher();
+        boolean correct = matcher.matches(answer);
+
+        // 4. メトリクス用に問題タイプを添えて記録
+        metrics.recordCheck(mode, riddle.type(),
+                matcher.isLookup() ? RiddleMetrics.PATH_LOOKUP
+                        : matcher.isRegex() ? RiddleMetrics.PATH_REGEX : RiddleMetrics.PATH_EXACT,
+                correct ? RiddleMetrics.OUTCOME_CORRECT : RiddleMetrics.OUTCOME_INCORRECT,
+                System.nanoTime() - start);
 
-        // ケース1: 正解データが '^' で始まってたら「正規表現」として厳格に判定
-        if (correctAnswer.startsWith("^")) {
-            return answer.matches(correctAnswer);
+        // 5. 正解ならランキングへ
+        if (correct) {
+            if (player != null) {
+                rankingService.recordSolve(mode, player, riddle);
+            }
+            return AnswerResult.CORRECT;
         }
-        
-        // ケース2: それ以外は今まで通り「大文字小文字無視」で優しく判定
-        return correctAnswer.equalsIgnoreCase(answer);
+        return AnswerResult.INCORRECT;
     }
 
     /**
@@ -53,7 +140,12 @@ public class RiddleService {
      * @return 問題データのOptional
      */
     public Optional<Riddle> findById(String mode, Integer id) {
-        return repository.findById(mode, id);
+        long start = System.nanoTime();
+        Optional<Riddle> riddle = repository.findById(mode, id);
+        metrics.recordLookup(mode, "findById",
+                riddle.isPresent() ? RiddleMetrics.OUTCOME_FOUND : RiddleMetrics.UNKNOWN,
+                System.nanoTime() - start);
+        return riddle;
     }
 
     /**
@@ -61,6 +153,130 @@ public class RiddleService {
      * @return 全謎解きデータのリスト
      */
     public List<Riddle> findAll(String mode) {
-        return repository.findAll(mode);
+        long start = System.nanoTime();
+        List<Riddle> riddles = repository.findAll(mode);
+        metrics.recordLookup(mode, "findAll",
+                riddles.isEmpty() ? RiddleMetrics.UNKNOWN : RiddleMetrics.OUTCOME_FOUND,
+                System.nanoTime() - start);
+        return riddles;
+    }
+
+    /**
+     * 一覧画面用に、全ての謎解きの要約を取得する
+     * 正解やヒントは入っていないので、そのまま画面に渡してええ。
+     * @param mode モード
+     * @return 要約のリスト (問題データを読み込んだ時に作ったもの)
+     */
+    public List<RiddleSummary> findSummaries(String mode) {
+        long start = System.nanoTime();
+        List<RiddleSummary> summaries = repository.findSummaries(mode);
+        metrics.recordLookup(mode, "findSummaries",
+                summaries.isEmpty() ? RiddleMetrics.UNKNOWN : RiddleMetrics.OUTCOME_FOUND,
+                System.nanoTime() - start);
+        return summaries;
+    }
+
+    /**
+     * 一覧画面用に、要約を1ページ分取得する (件数の多いパックの一覧用)
+     * @param mode モード
+     * @param from ページの最初の位置 (登録順で0 始まり)
+     * @param limit 1ページの件数
+     * @return ページ
+     */
+    public RiddlePage findPage(String mode, int from, int limit) {
+        long start = System.nanoTime();
+        RiddlePage page = repository.findPage(mode, from, limit);
+        metrics.recordLookup(mode, "findPage",
+                page.riddles().isEmpty() ? RiddleMetrics.UNKNOWN : RiddleMetrics.OUTCOME_FOUND,
+                System.nanoTime() - start);
+        return page;
+    }
+
+    /**
+     * 条件に合う問題の要約を1ページ分取得する
+     * @param mode モード
+     * @param query 検索条件
+     * @param progress クリア状況 (クリア済み・未クリアで絞り込む時に使う)
+     * @return 検索結果
+     */
+    public RiddleSearchResult search(String mode, RiddleQuery query, Progress progress) {
+        long start = System.nanoTime();
+        RiddleSearchResult result = repository.search(mode, query, progress);
+        metrics.recordLookup(mode, "search",
+                result.total() == 0 ? RiddleMetrics.UNKNOWN : RiddleMetrics.OUTCOME_FOUND,
+                System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * 画面のリンクの前半 (既定のパックは /hacker、ほかのパックは /hacker/packs/{モード})
+     * 検索画面のようにモードをまたぐ画面から、問題画面へのリンクを作る用。
+     * @param mode モード
+     * @return パスの前半 (知らないモードなら空)
+     */
+    public Optional<String> basePath(String mode) {
+        return repository.findPack(mode).map(p -> {
+            String base = "/" + p.style();
+            return repository.primaryMode(p.style()).filter(mode::equals).isPresent()
+                    ? base : base + "/packs/" + mode;
+        });
+    }
+
+    /**
+     * URLのパック名からモードを決める
+     * 既定のパックは名前なしのURL (/hacker/list など) で遊ぶので、名前つきのURLでは引かない。
+     * (同じページが2つのURLで別々にキャッシュされんように)
+     * @param style 画面 (AppConst.STYLE_HACKER / STYLE_CASUAL)
+     * @param pack URLのパック名 (null なら既定のパック。大文字小文字は区別しない)
+     * @return モード (知らないパック・画面が違うパック・既定のパックを名前で指定した時は空)
+     */
+    public Optional<String> resolveMode(String style, String pack) {
+        Optional<String> primary = repository.primaryMode(style);
+        if (pack == null) {
+            return primary;
+        }
+        String mode = pack.toUpperCase(Locale.ROOT);
+        if (primary.isPresent() && primary.get().equals(mode)) {
+            return Optional.empty();
+        }
+        return repository.findPack(mode)
+                .filter(p -> p.style().equals(style))
+                .map(RiddlePack::mode);
+    }
+
+    /**
+     * 登録されている問題パックのモード (登録順。ランキング・検索画面のモード切り替え用)
+     * @return モードのリスト
+     */
+    public List<String> modes() {
+        return packs().stream().map(RiddlePack::mode).toList();
+    }
+
+    /**
+     * 画面のパラメータのモードを、登録されているモードにそろえる
+     * ランキング・検索画面のようにモードをクエリで受け取る画面用。知らないモードで画面を出さずに、ハッカーモードを見せる。
+     * @param mode パラメータのモード (null 可。大文字小文字は区別しない)
+     * @return 登録されているモード (知らないモード・null なら AppConst.MODE_HACKER)
+     */
+    public String normalizeMode(String mode) {
+        String upper = mode == null ? null : mode.toUpperCase(Locale.ROOT);
+        return upper != null && modes().contains(upper) ? upper : AppConst.MODE_HACKER;
+    }
+
+    /**
+     * 登録されている問題パック (登録順。ランキング・トップ画面用)
+     * @return パック情報のリスト
+     */
+    public List<RiddlePack> packs() {
+        return repository.packs();
+    }
+
+    /**
+     * 問題データの版番号 (リロードするたびに増える)
+     * 描画済みページのキャッシュのキーに使う。データを取り出す前に読んでおくこと。
+     * @return 版番号
+     */
+    public long catalogVersion() {
+        return repository.snapshot().version();
     }
-}
\ No newline at end of file
+}
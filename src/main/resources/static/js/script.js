@@ -196,7 +196,7 @@ document.addEventListener('DOMContentLoaded', function () {
             chargeBar.classList.add('charged-full');
             chargeText.textContent = 'MAX!!';
             hiddenInput.value = 'CHARGE_COMPLETE';
-            setTimeout(() => { quizForm.submit(); }, 500);
+            setTimeout(() => { sendForm(quizForm); }, 500);
         }
     }
 
@@ -311,7 +311,7 @@ document.addEventListener('DOMContentLoaded', function () {
             dualChargeBar.classList.add('charged-full');
             dualChargeText.textContent = 'REBOOT!!';
             realInputDual.value = 'DUAL_CHARGE_COMPLETE';
-            setTimeout(() => { quizFormDual.submit(); }, 600);
+            setTimeout(() => { sendForm(quizFormDual); }, 600);
         }
     }
 
@@ -390,6 +390,96 @@ document.addEventListener('DOMContentLoaded', function () {
             answerInput.value = this.value;
         });
     }
+
+    // ==========================================
+    // 🖼 画像マップ: 座標を今の表示幅に合わせる
+    // ==========================================
+    // coords は data-base-width の幅で書いてある。スマホで縮んだ時や、
+    // srcset で別のサイズの画像が選ばれた時も、クリックできる場所がずれないようにする
+    document.querySelectorAll('img[usemap][data-base-width]').forEach(img => {
+        const map = document.querySelector('map[name="' + img.useMap.replace('#', '') + '"]');
+        const baseWidth = Number(img.dataset.baseWidth);
+        if (!map || !baseWidth) {
+            return;
+        }
+        const areas = map.querySelectorAll('area[data-coords]');
+
+        const scaleCoords = () => {
+            const ratio = img.clientWidth / baseWidth;
+            if (!ratio) {
+                return;
+            }
+            areas.forEach(area => {
+                area.coords = area.dataset.coords
+                    .split(',')
+                    .map(v => Math.round(Number(v) * ratio))
+                    .join(',');
+            });
+        };
+
+        if (img.complete) {
+            scaleCoords();
+        } else {
+            img.addEventListener('load', scaleCoords);
+        }
+        window.addEventListener('resize', scaleCoords);
+    });
+
+    // ==========================================
+    // ⚡ 答え合わせ: ページを移動せずに判定する
+    // ==========================================
+    // data-check-url があるフォームは、判定だけ fetch で聞いて (JSONが返ってくる)、
+    // ページに埋め込んである結果のひな形 (template) に差し替える。
+    // 結果画面へのリダイレクトと描画がなくなるので、1回の回答が1往復で済む。
+    // JS が動かない時や、つながらない・サーバーのエラー (5xx) の時は、今まで通りフォームを送信する。
+    // 回数制限 (429) の時は送り直しても同じく断られるだけなので、Retry-After の秒数だけ待ってもらう。
+    document.querySelectorAll('form[data-check-url]').forEach(form => {
+        // script.js が2回読まれるページもあるので、二重に登録しない
+        if (form.dataset.asyncBound) {
+            return;
+        }
+        form.dataset.asyncBound = 'true';
+
+        form.addEventListener('submit', async (e) => {
+            if (form.dataset.fallback) {
+                return; // 予備の送信はそのまま通す
+            }
+            e.preventDefault();
+
+            const body = new URLSearchParams(new FormData(form));
+            // 押したボタンの値 (選択肢問題) は FormData に入らないので足す
+            if (e.submitter && e.submitter.name) {
+                body.set(e.submitter.name, e.submitter.value);
+            }
+
+            try {
+                const res = await fetch(form.dataset.checkUrl, {
+                    method: 'POST',
+                    headers: { 'Accept': 'application/json' },
+                    body: body,
+                    credentials: 'same-origin'
+                });
+                if (res.status === 429) {
+                    showWait(form, retryAfterSeconds(res));
+                    return;
+                }
+                if (!res.ok && res.status < 500) {
+                    // 送り直しても同じ答えが返ってくるだけ
+                    showNotice(form, '送信できませんでした。ページを読み込み直してください');
+                    return;
+                }
+                if (!res.ok) {
+                    throw new Error('HTTP ' + res.status);
+                }
+                const outcome = await res.json();
+                showResult(outcome.result === 'correct');
+            } catch (err) {
+                // つながらない・サーバーのエラーなら普通に送信する (結果画面へ移動)
+                form.dataset.fallback = 'true';
+                sendForm(form, e.submitter);
+            }
+        });
+    });
 });
 
 /* ==================================================
@@ -402,7 +492,89 @@ document.addEventListener('DOMContentLoaded', function () {
  */
 function submitAnswer(val) {
     document.getElementById('hiddenAnswer').value = val;
-    document.getElementById('quizForm').submit();
+    sendForm(document.getElementById('quizForm'));
+}
+
+/**
+ * フォームを送信する (submit イベントを起こすので、fetch での答え合わせも効く)
+ * form.submit() だとイベントが起きへんので、JS から送る時はこれを使う
+ * @param {HTMLFormElement} form 
+ * @param {HTMLElement} [submitter] 押されたボタン
+ */
+function sendForm(form, submitter) {
+    if (form.requestSubmit) {
+        form.requestSubmit(submitter || undefined);
+    } else {
+        form.submit();
+    }
+}
+
+/**
+ * 429 の Retry-After (秒数か日時) を秒にする
+ * @param {Response} res 
+ * @returns {number} 待つ秒数 (分からなければ 1)
+ */
+function retryAfterSeconds(res) {
+    const value = res.headers.get('Retry-After');
+    if (!value) {
+        return 1;
+    }
+    const seconds = /^\d+$/.test(value.trim()) ? Number(value) : Math.ceil((Date.parse(value) - Date.now()) / 1000);
+    return seconds > 0 ? seconds : 1;
+}
+
+/**
+ * 回数制限で断られた時に、あと何秒待てばええかを数えて表示する
+ * 待っている間に押されても、断られた回答は送り直さない (もう一度押してもらう)
+ * @param {HTMLFormElement} form 
+ * @param {number} seconds 待つ秒数
+ */
+function showWait(form, seconds) {
+    clearInterval(form._waitTimer);
+    let left = seconds;
+    const tick = () => {
+        if (left <= 0) {
+            clearInterval(form._waitTimer);
+            showNotice(form, 'もう一度回答できます');
+            return;
+        }
+        showNotice(form, '回答が多すぎます。' + left + '秒待ってからもう一度送ってください');
+        left--;
+    };
+    tick();
+    form._waitTimer = setInterval(tick, 1000);
+}
+
+/**
+ * フォームの下にお知らせを出す (なければ作る)
+ * @param {HTMLFormElement} form 
+ * @param {string} text 
+ */
+function showNotice(form, text) {
+    let notice = form.querySelector('[data-check-notice]');
+    if (!notice) {
+        notice = document.createElement('p');
+        notice.className = 'hint-text';
+        notice.setAttribute('data-check-notice', '');
+        notice.setAttribute('role', 'status');
+        form.appendChild(notice);
+    }
+    notice.textContent = text;
+}
+
+/**
+ * 答え合わせの結果を表示する
+ * ページに埋め込んである結果のひな形 (template) で、問題の枠ごと差し替える
+ * @param {boolean} correct 正解なら true
+ */
+function showResult(correct) {
+    const template = document.getElementById(correct ? 'result-correct' : 'result-incorrect');
+    const slot = document.querySelector('[data-result-slot]');
+    if (!template || !slot) {
+        return;
+    }
+    slot.replaceWith(template.content.cloneNode(true));
+    window.scrollTo(0, 0);
 }
 
 /**
@@ -442,6 +614,6 @@ function submitSortAnswer() {
 
     if (hiddenInput && sortForm) {
         hiddenInput.value = finalAnswer;
-        sortForm.submit();
+        sendForm(sortForm);
     }
 }
\ No newline at end of file
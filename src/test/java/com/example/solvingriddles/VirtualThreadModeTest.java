@@ -0,0 +1,75 @@
+package com.example.solvingriddles;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 仮想スレッドモード (virtual プロファイル) の確認テスト
+ * 実際に組み込みTomcatを起動して、リクエストと非同期処理が仮想スレッドで動くことを確かめる。
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("virtual")
+class VirtualThreadModeTest {
+
+    private static final String THREAD_HEADER = "X-Virtual-Thread";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    /**
+     * リクエストを処理したスレッドが仮想スレッドかどうかをヘッダーで返すフィルタ (テスト用)
+     */
+    @TestConfiguration
+    static class ThreadProbe {
+        @Bean
+        OncePerRequestFilter threadProbeFilter() {
+            return new OncePerRequestFilter() {
+                @Override
+                protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                                FilterChain chain) throws ServletException, IOException {
+                    response.setHeader(THREAD_HEADER, String.valueOf(Thread.currentThread().isVirtual()));
+                    chain.doFilter(request, response);
+                }
+            };
+        }
+    }
+
+    @Test
+    @DisplayName("コントローラへのリクエストが仮想スレッドで処理されること")
+    void testRequestRunsOnVirtualThread() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/hacker/list", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("true", response.getHeaders().getFirst(THREAD_HEADER));
+    }
+
+    @Test
+    @DisplayName("非同期処理用のExecutorも仮想スレッドを使うこと")
+    void testTaskExecutorUsesVirtualThreads() throws Exception {
+        Future<Boolean> virtual = applicationTaskExecutor.submit(() -> Thread.currentThread().isVirtual());
+
+        assertTrue(virtual.get());
+    }
+}
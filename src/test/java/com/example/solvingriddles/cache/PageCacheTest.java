@@ -0,0 +1,137 @@
+package com.example.solvingriddles.cache;
+
+import com.example.solvingriddles.constant.UrlConst;
+import com.example.solvingriddles.controller.PlayerCookie;
+import com.example.solvingriddles.controller.ProgressCookie;
+import com.example.solvingriddles.model.Progress;
+import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.service.ProgressCodec;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * 描画済みページのキャッシュ (PageCache / PageCacheInterceptor) を検証するテスト
+ * アプリ全体を起動して、ETag・304・クリア状況ごとの出し分け・シャッフルの扱いを確認する。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class PageCacheTest {
+
+    private static final String HACKER_LIST = UrlConst.HACKER_BASE + UrlConst.HACKER_LIST;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProgressCodec progressCodec;
+
+    @Autowired
+    private PageCache pageCache;
+
+    @Test
+    @DisplayName("一覧画面: 同じETagが返り、If-None-Match が合えば304になること")
+    void testNotModified() throws Exception {
+        String etag = mockMvc.perform(get(HACKER_LIST))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-cache")))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.COOKIE)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertTrue(etag.startsWith("\"v"), etag);
+
+        // 2回目はキャッシュから返すが、中身もETagも同じ
+        mockMvc.perform(get(HACKER_LIST))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(containsString("SELECT TARGET")));
+        assertTrue(pageCache.size() > 0);
+
+        mockMvc.perform(get(HACKER_LIST).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("一覧画面: クリア状況が違えば別のページになること")
+    void testPerProgress() throws Exception {
+        String empty = mockMvc.perform(get(HACKER_LIST))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String token = progressCodec.encode(AppConst.MODE_HACKER, Progress.EMPTY.with(1));
+        MvcResult cleared = mockMvc.perform(get(HACKER_LIST).cookie(new Cookie(ProgressCookie.HACKER, token)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("[ HACKED ]")))
+                .andReturn();
+
+        assertNotEquals(empty, cleared.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("問題画面: シャッフルする問題は1つの並びに固定されず、304も並びごとに正しく判定されること")
+    void testShuffledOptions() throws Exception {
+        // HACKER ID:7 は選択肢4つの select 問題
+        String url = UrlConst.HACKER_BASE + UrlConst.HACKER_QUIZ + "/7";
+        Set<String> etags = new HashSet<>();
+        for (int i = 0; i < 64; i++) {
+            etags.add(mockMvc.perform(get(url)).andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG));
+        }
+        assertTrue(etags.size() > 1, "シャッフルの並びが1つに固定されています");
+        assertTrue(etags.size() <= PageKey.SHUFFLE_VARIANTS);
+
+        // 手元の並びと同じ時だけ304、違う並びを選んだ時は本文付きで返す
+        String mine = etags.iterator().next();
+        for (int i = 0; i < 16; i++) {
+            MvcResult result = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, mine)).andReturn();
+            if (result.getResponse().getStatus() == 304) {
+                assertEquals(mine, result.getResponse().getHeader(HttpHeaders.ETAG));
+            } else {
+                assertEquals(200, result.getResponse().getStatus());
+                assertNotEquals(mine, result.getResponse().getHeader(HttpHeaders.ETAG));
+                assertFalse(result.getResponse().getContentAsString().isEmpty());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("問題画面: プレイヤー名があれば、リロードしても同じ並び (同じETag) になること")
+    void testShuffledOptionsPerPlayer() throws Exception {
+        String url = UrlConst.HACKER_BASE + UrlConst.HACKER_QUIZ + "/7";
+        Cookie player = new Cookie(PlayerCookie.NAME, "ALICE");
+        String etag = mockMvc.perform(get(url).cookie(player))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.COOKIE)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        for (int i = 0; i < 8; i++) {
+            mockMvc.perform(get(url).cookie(player))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag));
+        }
+        mockMvc.perform(get(url).cookie(player).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("存在しない問題はキャッシュせず、今まで通り一覧へリダイレクトすること")
+    void testRedirectNotCached() throws Exception {
+        mockMvc.perform(get(UrlConst.HACKER_BASE + UrlConst.HACKER_QUIZ + "/99999"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.solvingriddles.config;
+
+import com.example.solvingriddles.model.Progress;
+import com.example.solvingriddles.model.Riddle;
+import com.example.solvingriddles.model.RiddleOption;
+import com.example.solvingriddles.repository.RiddlePack;
+import com.example.solvingriddles.repository.RiddleRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ネイティブイメージ用のヒント (NativeHints) を検証するテスト
+ * ネイティブイメージを作らなくても、要るファイル・クラスが登録されているかはここで確かめられる。
+ */
+class NativeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeHintsTest() {
+        new NativeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("ファイル: 問題データ・テンプレート・画像が入ること")
+    void testResources() {
+        for (String file : List.of(RiddleRepository.MANIFEST, "hacker_riddles.json", "casual_riddles.json")) {
+            assertTrue(RuntimeHintsPredicates.resource().forResource("data/" + file).test(hints), file);
+        }
+        assertTrue(RuntimeHintsPredicates.resource().forResource("templates/hacker/quiz.html").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("templates/fragments/casual/quiz_types_stairs.html").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("static/images/raspi.png").test(hints));
+    }
+
+    @Test
+    @DisplayName("Jackson: Riddle / RiddleOption を JSON から作れること")
+    void testJsonBinding() throws NoSuchMethodException {
+        for (Class<?> type : new Class<?>[] { Riddle.class, RiddleOption.class }) {
+            Constructor<?> constructor = type.getDeclaredConstructor(
+                    Arrays.stream(type.getRecordComponents()).map(RecordComponent::getType).toArray(Class<?>[]::new));
+            assertTrue(RuntimeHintsPredicates.reflection().onConstructor(constructor).invoke().test(hints), type.getName());
+            assertTrue(RuntimeHintsPredicates.reflection()
+                    .onMethod(type.getRecordComponents()[0].getAccessor()).invoke().test(hints), type.getName());
+        }
+    }
+
+    @Test
+    @DisplayName("テンプレート: SpEL から呼ぶメソッドが登録されていること")
+    void testTemplateModels() throws NoSuchMethodException {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(Riddle.class.getMethod("getShuffledOptions", Integer.class)).invoke().test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(Progress.class.getMethod("isCleared", Integer.class)).invoke().test(hints));
+        // トップ画面の追加パックのカード
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(RiddlePack.class.getMethod("style")).invoke().test(hints));
+    }
+}
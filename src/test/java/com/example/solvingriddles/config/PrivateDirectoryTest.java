@@ -0,0 +1,89 @@
+package com.example.solvingriddles.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * キャッシュ用フォルダ (PrivateDirectory) を検証するテスト
+ * 一時フォルダの下の決まった名前のフォルダを、他のユーザーに先に作られていても使わないことを確認する。
+ * (他のユーザーの持ち物を作るテストは、持ち主を変えられる時 (root で動かした時) だけ)
+ */
+class PrivateDirectoryTest {
+
+    @TempDir
+    Path tmp;
+
+    private static boolean posix(Path path) {
+        return path.getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+
+    // 他のユーザーの持ち物にする (できなければ null)
+    private static UserPrincipal giveAway(Path path) {
+        try {
+            UserPrincipal nobody = path.getFileSystem().getUserPrincipalLookupService().lookupPrincipalByName("nobody");
+            Files.setOwner(path, nobody);
+            return nobody;
+        } catch (IOException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    @Test
+    @DisplayName("既定のフォルダ: 自分しか読み書きできない権限で作り、設定があればそのフォルダを使うこと")
+    void testCreateOwnerOnly() throws IOException {
+        Path dir = PrivateDirectory.of(null, tmp, "cache");
+
+        assertEquals(tmp.resolve("cache"), dir);
+        assertTrue(Files.isDirectory(dir));
+        assertTrue(PrivateDirectory.isOwned(dir));
+        if (posix(dir)) {
+            assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(dir)));
+        }
+
+        Path configured = tmp.resolve("configured");
+        assertEquals(configured, PrivateDirectory.of(configured.toString(), tmp, "cache"));
+        assertTrue(Files.isDirectory(configured));
+    }
+
+    @Test
+    @DisplayName("既定のフォルダ: 誰でも書ける自分のフォルダは、自分しか読み書きできない権限に絞って使うこと")
+    void testTightenOwnDirectory() throws IOException {
+        Path existing = Files.createDirectory(tmp.resolve("cache"));
+        assumeTrue(posix(existing));
+        Files.setPosixFilePermissions(existing, PosixFilePermissions.fromString("rwxrwxrwx"));
+
+        assertEquals(existing, PrivateDirectory.of(null, tmp, "cache"));
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(existing)));
+    }
+
+    @Test
+    @DisplayName("他のユーザー: 先に作られた既定のフォルダは使わず、そのユーザーのファイルも自分の持ち物とみなさないこと")
+    void testForeignOwner() throws IOException {
+        Path planted = Files.createDirectory(tmp.resolve("cache"));
+        Path file = Files.writeString(planted.resolve("HACKER.snapshot"), "planted");
+        assumeTrue(giveAway(planted) != null && giveAway(file) != null, "持ち主を変えられない環境");
+
+        assertFalse(PrivateDirectory.isOwned(file));
+        Path dir = PrivateDirectory.of(null, tmp, "cache");
+        assertNotEquals(planted, dir, "他のユーザーのフォルダを使っています");
+        assertTrue(PrivateDirectory.isOwned(dir));
+        Files.delete(dir);
+    }
+
+    @Test
+    @DisplayName("持ち主: 自分で作ったファイルは自分の持ち物で、ないファイルはそうでないこと")
+    void testIsOwned() throws IOException {
+        assertTrue(PrivateDirectory.isOwned(Files.writeString(tmp.resolve("mine"), "x")));
+        assertFalse(PrivateDirectory.isOwned(tmp.resolve("missing")));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.solvingriddles.config;
+
+import com.example.solvingriddles.constant.UrlConst;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * 静的ファイルの配信 (ハッシュ付きURL・圧縮版・キャッシュ) を検証するテスト
+ * アプリ全体を起動して、テンプレートのリンクから実際のファイルまでたどる。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class StaticAssetsTest {
+
+    private static final Pattern STYLE_LINK = Pattern.compile("/css/style-[0-9a-f]{32}\\.css");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    /**
+     * 画面のHTMLから style.css のハッシュ付きURLを取り出す
+     */
+    private String hashedStyleUrl() throws Exception {
+        String html = mockMvc.perform(get(UrlConst.HACKER_BASE + UrlConst.HACKER_LIST))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Matcher m = STYLE_LINK.matcher(html);
+        assertTrue(m.find(), "CSSのリンクがハッシュ付きになっていません");
+        return m.group();
+    }
+
+    @Test
+    @DisplayName("テンプレートのリンクがハッシュ付きになり、そのURLは1年・immutableでキャッシュされること")
+    void testHashedUrlIsImmutable() throws Exception {
+        mockMvc.perform(get(hashedStyleUrl()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=31536000")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andExpect(content().string(containsString("{")));
+    }
+
+    @Test
+    @DisplayName("gzip を受け付けるブラウザには、ビルド時に作った .gz を返すこと")
+    void testPrecompressed() throws Exception {
+        mockMvc.perform(get(hashedStyleUrl()).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)));
+    }
+
+    @Test
+    @DisplayName("ハッシュなしのURLは毎回確認させ (no-cache)、immutable にはしないこと")
+    void testPlainUrlIsRevalidated() throws Exception {
+        mockMvc.perform(get("/css/style.css"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-cache")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, not(containsString("immutable"))));
+
+        // 中身と合わないハッシュは 404
+        mockMvc.perform(get("/css/style-00000000000000000000000000000000.css"))
+                .andExpect(status().isNotFound());
+    }
+}
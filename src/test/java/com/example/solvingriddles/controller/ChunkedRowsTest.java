@@ -0,0 +1,79 @@
+package com.example.solvingriddles.controller;
+
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 描画しながら送り出す一覧の行 (ChunkedRows) を検証する単体テスト
+ * 送った時点で書き込み済みの行数を記録して、最初の行の前と chunkRows 行ごとに送っていることを確認する。
+ */
+class ChunkedRowsTest {
+
+    /**
+     * flush された時に、それまでに取り出した行数を記録するレスポンス
+     */
+    private static final class RecordingResponse extends MockHttpServletResponse {
+
+        private final List<Integer> flushedAt = new ArrayList<>();
+        private int taken;
+
+        @Override
+        public void flushBuffer() {
+            flushedAt.add(taken);
+            super.flushBuffer();
+        }
+    }
+
+    @Test
+    @DisplayName("最初の行の前と、chunkRows 行ごとに送ること")
+    void testFlushEveryChunk() {
+        RecordingResponse response = new RecordingResponse();
+        List<Integer> rows = IntStream.rangeClosed(1, 7).boxed().toList();
+        ChunkedRows<Integer> chunked = ChunkedRows.of(rows, response, 3);
+
+        List<Integer> seen = new ArrayList<>();
+        for (Integer row : chunked) {
+            seen.add(row);
+            response.taken++;
+        }
+        assertEquals(rows, seen);
+        assertEquals(7, chunked.size());
+        // 0行目の前 (head を送る)、3行書いた後、6行書いた後
+        assertEquals(List.of(0, 3, 6), response.flushedAt);
+        assertTrue(response.isCommitted());
+    }
+
+    @Test
+    @DisplayName("空の一覧なら送らない (ページはいつも通り最後にまとめて送られる)")
+    void testEmpty() {
+        RecordingResponse response = new RecordingResponse();
+        for (Integer ignored : ChunkedRows.<Integer>of(List.of(), response, 3)) {
+            fail();
+        }
+        assertTrue(response.flushedAt.isEmpty());
+    }
+
+    @Test
+    @DisplayName("ブラウザが閉じられて送れない時は、描画を止めるために例外を投げること")
+    void testClientGone() {
+        HttpServletResponseWrapper response = new HttpServletResponseWrapper(new MockHttpServletResponse()) {
+            @Override
+            public void flushBuffer() throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        Iterator<Integer> it = ChunkedRows.of(List.of(1), response, 3).iterator();
+        assertThrows(UncheckedIOException.class, it::next);
+    }
+}
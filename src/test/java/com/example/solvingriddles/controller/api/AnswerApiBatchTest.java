@@ -0,0 +1,63 @@
+package com.example.solvingriddles.controller.api;
+
+import com.example.solvingriddles.constant.UrlConst;
+import com.example.solvingriddles.metrics.RiddleMetrics;
+import com.example.solvingriddles.service.RiddleService;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * まとめて判定API を、既定の設定のままアプリ全体で動かすテスト
+ * 1回で送れる一番大きい件数が、Service の並列判定に届くことを確認する。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "api.answers.tokens=qa-batch")
+class AnswerApiBatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${api.answers.max-batch:1000}")
+    private int maxBatch;
+
+    @Test
+    @DisplayName("まとめて判定: 上限いっぱいの件数を1回で送れて、並列で判定する件数になっていること")
+    void testMaxBatchTakesParallelPath() throws Exception {
+        assertTrue(maxBatch >= RiddleService.PARALLEL_THRESHOLD, "API から並列判定に届きません");
+
+        String one = "{\"mode\":\"HACKER\",\"id\":1,\"answer\":\"a\"}";
+        mockMvc.perform(post(UrlConst.ANSWERS_CHECK_API)
+                        .header(AnswerApiController.TOKEN_HEADER, "qa-batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + String.join(",", Collections.nCopies(maxBatch, one)) + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(maxBatch));
+
+        // 1コアのマシンでは並列にしない (切り替えの手間で遅くなるだけ)
+        String path = Runtime.getRuntime().availableProcessors() > 1
+                ? RiddleMetrics.PATH_PARALLEL : RiddleMetrics.PATH_SEQUENTIAL;
+        DistributionSummary batches = registry.get(RiddleMetrics.BATCH).tag("path", path).summary();
+        assertEquals(1, batches.count());
+        assertEquals(maxBatch, batches.max());
+    }
+}
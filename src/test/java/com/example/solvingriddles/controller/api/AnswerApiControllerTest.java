@@ -0,0 +1,107 @@
+package com.example.solvingriddles.controller.api;
+
+import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.constant.UrlConst;
+import com.example.solvingriddles.model.AnswerCheck;
+import com.example.solvingriddles.model.AnswerResult;
+import com.example.solvingriddles.service.RiddleService;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * 回答のまとめて判定API (AnswerApiController) を検証するテスト
+ * Service層はモック化して、JSONの受け渡しと件数の上限を確認する。
+ */
+@WebMvcTest(AnswerApiController.class)
+@DisabledInAotMode("@MockitoBean はネイティブイメージでは使えない")
+@TestPropertySource(properties = {"api.answers.max-batch=3", "api.answers.tokens=kiosk-1, qa-2"})
+class AnswerApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private RiddleService riddleService;
+
+    @Test
+    @DisplayName("まとめて判定: 入力と同じ順番で結果と件数を返すこと")
+    void testCheck() throws Exception {
+        List<AnswerCheck> checks = List.of(
+            new AnswerCheck(AppConst.MODE_HACKER, 1, "takoyaki"),
+            new AnswerCheck(AppConst.MODE_CASUAL, 2, "いぬ"),
+            new AnswerCheck(AppConst.MODE_HACKER, 999, "???")
+        );
+        when(riddleService.checkAnswers(checks))
+                .thenReturn(List.of(AnswerResult.CORRECT, AnswerResult.INCORRECT, AnswerResult.UNKNOWN));
+
+        mockMvc.perform(post(UrlConst.ANSWERS_CHECK_API)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                            [{"mode":"HACKER","id":1,"answer":"takoyaki"},
+                             {"mode":"CASUAL","id":2,"answer":"いぬ"},
+                             {"mode":"HACKER","id":999,"answer":"???"}]
+                            """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.correct").value(1))
+                .andExpect(jsonPath("$.unknown").value(1))
+                .andExpect(jsonPath("$.results[0]").value("correct"))
+                .andExpect(jsonPath("$.results[1]").value("incorrect"))
+                .andExpect(jsonPath("$.results[2]").value("unknown"));
+    }
+
+    @Test
+    @DisplayName("まとめて判定: 空のリクエストと上限を超えたリクエストは400になること")
+    void testCheckRejected() throws Exception {
+        mockMvc.perform(post(UrlConst.ANSWERS_CHECK_API)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        String one = "{\"mode\":\"HACKER\",\"id\":1,\"answer\":\"a\"}";
+        mockMvc.perform(post(UrlConst.ANSWERS_CHECK_API)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + String.join(",", one, one, one, one) + "]"))
+                .andExpect(status().isBadRequest());
+
+        verify(riddleService, never()).checkAnswers(any());
+    }
+
+    @Test
+    @DisplayName("まとめて判定: 登録したトークンは通し、知らないトークンは判定せずに401になること")
+    void testToken() throws Exception {
+        String body = "[{\"mode\":\"HACKER\",\"id\":1,\"answer\":\"a\"}]";
+        when(riddleService.checkAnswers(any())).thenReturn(List.of(AnswerResult.INCORRECT));
+
+        mockMvc.perform(post(UrlConst.ANSWERS_CHECK_API)
+                        .header(AnswerApiController.TOKEN_HEADER, "qa-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post(UrlConst.ANSWERS_CHECK_API)
+                        .header(AnswerApiController.TOKEN_HEADER, "guess")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isUnauthorized());
+
+        verify(riddleService).checkAnswers(any());
+    }
+}
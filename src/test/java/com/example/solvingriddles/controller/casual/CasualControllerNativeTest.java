@@ -0,0 +1,62 @@
+package com.example.solvingriddles.controller.casual;
+
+import com.example.solvingriddles.constant.UrlConst;
+import com.example.solvingriddles.constant.ViewNames;
+import com.example.solvingriddles.controller.ProgressCookie;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * カジュアルモードを、同梱の問題データとテンプレートで通しで確かめるテスト
+ * CasualControllerTest は Mockito を使うのでネイティブイメージでは動かん。
+ * こっちは nativeTest プロファイルでネイティブのバイナリでも実行する。
+ * 画面は描画済みページのキャッシュから返ることもあるので、HTML の中身で確かめる。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CasualControllerNativeTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("一覧画面とクイズ画面がテンプレートで描画できること")
+    void testListAndQuiz() throws Exception {
+        mockMvc.perform(get(UrlConst.CASUAL_BASE + UrlConst.CASUAL_LIST))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(UrlConst.CASUAL_BASE + UrlConst.CASUAL_QUIZ + "/2")));
+        mockMvc.perform(get(UrlConst.CASUAL_BASE + UrlConst.CASUAL_QUIZ + "/2"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("たいよう")));
+    }
+
+    @Test
+    @DisplayName("答え合わせ: 表記ゆれをそろえて正規表現の正解と比べること")
+    void testCheckAnswer() throws Exception {
+        // "^(おんせん|温泉)$" にカタカナで答えても正解
+        mockMvc.perform(post(UrlConst.CASUAL_BASE + UrlConst.CASUAL_QUIZ_CHECK_API)
+                        .param("id", "1")
+                        .param("answer", "オンセン")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result").value("correct"))
+                .andExpect(cookie().exists(ProgressCookie.CASUAL));
+        mockMvc.perform(post(UrlConst.CASUAL_BASE + UrlConst.CASUAL_QUIZ_CHECK)
+                        .param("id", "1")
+                        .param("answer", "Wrong")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl(UrlConst.CASUAL_BASE + "/result?success=false&id=1"));
+    }
+}
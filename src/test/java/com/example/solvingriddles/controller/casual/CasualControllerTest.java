@@ -3,19 +3,28 @@ package com.example.solvingriddles.controller.casual;
 import com.example.solvingriddles.constant.UrlConst;
 import com.example.solvingriddles.constant.ViewNames;
 import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.controller.PlayerCookie;
+import com.example.solvingriddles.controller.ProgressCookie;
+import com.example.solvingriddles.service.ProgressCodec;
 import com.example.solvingriddles.model.Riddle;
 import com.example.solvingriddles.service.RiddleService;
 
 import java.util.Optional;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.http.MediaType;
+import jakarta.servlet.http.Cookie;
 
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -27,6 +36,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * 主に画面表示の確認を目的とする
  */
 @WebMvcTest(CasualController.class) // ★ここが赤線(未作成)ならOK！
+@DisabledInAotMode("@MockitoBean はネイティブイメージでは使えない")
+@Import(ProgressCodec.class) // 進捗のCookieは本物で読み書きする
 class CasualControllerTest {
 
     @Autowired
@@ -34,6 +45,13 @@ class CasualControllerTest {
 
     @MockitoBean
     private RiddleService riddleService;
+
+    @BeforeEach
+    void setUp() {
+        // /casual/... は既定のパック (CASUAL)
+        when(riddleService.resolveMode(AppConst.STYLE_CASUAL, null)).thenReturn(Optional.of(AppConst.MODE_CASUAL));
+    }
+
     /**
      * カジュアルモードのトップ画面表示テスト
      * GETリクエストで/casual/indexにアクセスし、
@@ -60,13 +78,14 @@ class CasualControllerTest {
     @DisplayName("カジュアルモードのリスト画面が表示され、データが渡されること")
     void testList() throws Exception {
         // 準備: 何もしなくても空リストくらいは返ってくる想定
-        when(riddleService.findAll(AppConst.MODE_CASUAL)).thenReturn(java.util.Collections.emptyList());
+        when(riddleService.findSummaries(AppConst.MODE_CASUAL)).thenReturn(java.util.Collections.emptyList());
 
         // 実行 & 検証
         mockMvc.perform(get(UrlConst.CASUAL_BASE + UrlConst.CASUAL_LIST)) // "/casual/list"
                 .andExpect(status().isOk())
                 .andExpect(view().name(ViewNames.CASUAL_LIST)) // "casual/list"
-                .andExpect(model().attributeExists("riddles")); // "riddles" という箱があるか
+                .andExpect(model().attributeExists("riddles")) // "riddles" という箱があるか
+                .andExpect(model().attributeExists("progress")); // Cookieがなくても空の進捗が入る
     }
 
     /**
@@ -103,16 +122,18 @@ class CasualControllerTest {
     void testCheckAnswerCorrect() throws Exception {
         // 準備: ID 1 の問題に対し "正解" を渡すと true が返るようにモック
         // ※ checkAnswerメソッドが Service にある前提やで！
-        when(riddleService.checkAnswer(AppConst.MODE_CASUAL, 1, "正解")).thenReturn(true);
+        when(riddleService.checkAnswer(AppConst.MODE_CASUAL, 1, "正解", "alice")).thenReturn(true);
 
         // 実行 & 検証
         // POST /casual/quiz/check に id=1, answer="正解" を送信
         mockMvc.perform(post(UrlConst.CASUAL_BASE + UrlConst.CASUAL_QUIZ_CHECK)
                         .param("id", "1")
                         .param("answer", "正解")
+                        .cookie(new Cookie(PlayerCookie.NAME, "alice"))
                         .contentType(MediaType.APPLICATION_FORM_URLENCODED)) // フォーム送信
                 .andExpect(status().is3xxRedirection()) // リダイレクトするはず
-                .andExpect(redirectedUrl(UrlConst.CASUAL_BASE + "/result?success=true&id=1")); // 結果画面へ
+                .andExpect(redirectedUrl(UrlConst.CASUAL_BASE + "/result?success=true&id=1")) // 結果画面へ
+                .andExpect(cookie().exists(ProgressCookie.CASUAL)); // 正解したので進捗が保存される
     }
 
     /**
@@ -146,7 +167,7 @@ class CasualControllerTest {
     @DisplayName("答え合わせ: 間違いなら...リダイレクト先にもIDが含まれること！")
     void testCheckAnswerFailure() throws Exception {
         // 準備: 不正解(false)を返す
-        when(riddleService.checkAnswer("CASUAL", 1, "Wrong")).thenReturn(false);
+        when(riddleService.checkAnswer(eq("CASUAL"), eq(1), eq("Wrong"), anyString())).thenReturn(false);
 
         // 実行
         mockMvc.perform(post(UrlConst.CASUAL_BASE + UrlConst.CASUAL_QUIZ_CHECK)
@@ -158,6 +179,57 @@ class CasualControllerTest {
                 .andExpect(redirectedUrl(UrlConst.CASUAL_BASE + "/result?success=false&id=1"));
     }
 
+    /**
+    * 答え合わせ機能のテスト: fetch 用 (JSON)
+    * 条件: 正解・不正解の答えを送信した場合
+    * 期待値: リダイレクトせずに判定結果のJSONを返し、正解の時だけ進捗を保存すること
+    * @throws Exception
+    */
+    @Test
+    @DisplayName("答え合わせ (fetch): リダイレクトせずに判定結果をJSONで返すこと")
+    void testCheckAnswerAsync() throws Exception {
+        when(riddleService.checkAnswer(AppConst.MODE_CASUAL, 1, "正解", "alice")).thenReturn(true);
+
+        mockMvc.perform(post(UrlConst.CASUAL_BASE + UrlConst.CASUAL_QUIZ_CHECK_API)
+                        .param("id", "1")
+                        .param("answer", "正解")
+                        .cookie(new Cookie(PlayerCookie.NAME, "alice"))
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.result").value("correct"))
+                .andExpect(cookie().exists(ProgressCookie.CASUAL));
+
+        mockMvc.perform(post(UrlConst.CASUAL_BASE + UrlConst.CASUAL_QUIZ_CHECK_API)
+                        .param("id", "1")
+                        .param("answer", "Wrong")
+                        .cookie(new Cookie(PlayerCookie.NAME, "alice"))
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result").value("incorrect"))
+                .andExpect(cookie().doesNotExist(ProgressCookie.CASUAL));
+    }
+
+    /**
+     * クイズ画面表示のテスト: fetch での答え合わせの準備
+     * 期待値: フォームに判定APIのURLがあり、結果のひな形が両方埋め込まれていること
+     * @throws Exception
+     */
+    @Test
+    @DisplayName("クイズ画面: fetch 用の判定URLと、結果のひな形が埋め込まれていること")
+    void testQuizResultTemplates() throws Exception {
+        Riddle mockRiddle = new Riddle(1, "テスト問題", "正解", "ヒント", "text", null, 1, null, null, null);
+        when(riddleService.findById(AppConst.MODE_CASUAL, 1)).thenReturn(Optional.of(mockRiddle));
+
+        mockMvc.perform(get(UrlConst.CASUAL_BASE + UrlConst.CASUAL_QUIZ + "/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(org.hamcrest.Matchers.containsString(
+                        "data-check-url=\"" + UrlConst.CASUAL_BASE + UrlConst.CASUAL_QUIZ_CHECK_API + "\"")))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("<template id=\"result-correct\">")))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("<template id=\"result-incorrect\">")));
+    }
+
     /**
      * クイズ画面表示のテスト: 異常系 (データなし)
      * 条件: 指定したIDの問題が存在しない場合
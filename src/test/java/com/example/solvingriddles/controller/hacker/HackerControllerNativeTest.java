@@ -0,0 +1,71 @@
+package com.example.solvingriddles.controller.hacker;
+
+import com.example.solvingriddles.constant.UrlConst;
+import com.example.solvingriddles.constant.ViewNames;
+import com.example.solvingriddles.controller.ProgressCookie;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * ハッカーモードを、同梱の問題データとテンプレートで通しで確かめるテスト
+ * HackerControllerTest は Service を Mockito でモックするので、ネイティブイメージでは動かん。
+ * こっちはモックを使わんので、nativeTest プロファイルでネイティブのバイナリでも実行する
+ * (JSON の読み込み・テンプレートの描画・正規表現の正解判定のヒントが足りてるかをここで見る)。
+ * 画面は描画済みページのキャッシュから返ることもあるので、View 名ではなく HTML の中身で確かめる。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class HackerControllerNativeTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("一覧画面: 同梱の問題が並ぶこと")
+    void testList() throws Exception {
+        mockMvc.perform(get(UrlConst.HACKER_BASE + UrlConst.HACKER_LIST))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(UrlConst.HACKER_BASE + UrlConst.HACKER_QUIZ + "/10")));
+    }
+
+    @Test
+    @DisplayName("クイズ画面: 選択肢と画像マップの問題がテンプレートで描画できること")
+    void testQuiz() throws Exception {
+        mockMvc.perform(get(UrlConst.HACKER_BASE + UrlConst.HACKER_QUIZ + "/7"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Python")));
+        mockMvc.perform(get(UrlConst.HACKER_BASE + UrlConst.HACKER_QUIZ + "/5"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("srcset=")));
+    }
+
+    @Test
+    @DisplayName("答え合わせ: 正規表現の正解で判定できること")
+    void testCheckRegexAnswer() throws Exception {
+        mockMvc.perform(post(UrlConst.HACKER_BASE + UrlConst.HACKER_QUIZ_CHECK_API)
+                        .param("id", "10")
+                        .param("answer", "takoyaki")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result").value("correct"))
+                .andExpect(cookie().exists(ProgressCookie.HACKER));
+        mockMvc.perform(post(UrlConst.HACKER_BASE + UrlConst.HACKER_QUIZ_CHECK)
+                        .param("id", "10")
+                        .param("answer", "okonomiyaki")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+                .andExpect(status().isOk())
+                .andExpect(view().name(ViewNames.HACKER_RESULT))
+                .andExpect(model().attribute("isSuccess", false));
+    }
+}
@@ -1,22 +1,44 @@
 package com.example.solvingriddles.controller.hacker;
 
 
+import com.example.solvingriddles.cache.PageKey;
+import com.example.solvingriddles.model.ImageSet;
 import com.example.solvingriddles.model.Riddle;
+import com.example.solvingriddles.model.RiddlePage;
+import com.example.solvingriddles.model.RiddleSummary;
 import com.example.solvingriddles.service.RiddleService;
 import com.example.solvingriddles.constant.AppConst;
 import com.example.solvingriddles.constant.UrlConst;
 import com.example.solvingriddles.constant.ViewNames;
+import com.example.solvingriddles.controller.ChunkedRows;
+import com.example.solvingriddles.controller.PlayerCookie;
+import com.example.solvingriddles.controller.ProgressCookie;
+import com.example.solvingriddles.model.Progress;
+import com.example.solvingriddles.service.ImageVariantService;
+import com.example.solvingriddles.service.ProgressCodec;
 
+import jakarta.servlet.http.Cookie;
+
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.http.MediaType;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.matches;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -28,14 +50,28 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * が正しいかを確認する。Service層はモック化 (@MockBean) して切り離す。
  */
 @WebMvcTest(HackerController.class)
+@DisabledInAotMode("@MockitoBean はネイティブイメージでは使えない")
+@Import(ProgressCodec.class) // 進捗のCookieは本物で読み書きする
 class HackerControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ProgressCodec progressCodec;
+
     @MockitoBean
     private RiddleService riddleService;
 
+    @MockitoBean
+    private ImageVariantService imageVariantService;
+
+    @BeforeEach
+    void setUp() {
+        // /hacker/... は既定のパック (HACKER)
+        when(riddleService.resolveMode(AppConst.STYLE_HACKER, null)).thenReturn(Optional.of(AppConst.MODE_HACKER));
+    }
+
     /**
      * クイズ画面表示のテスト: 正常系
      * 条件: 指定したIDの問題が存在する場合
@@ -77,6 +113,30 @@ class HackerControllerTest {
                 .andExpect(redirectedUrl(UrlConst.HACKER_BASE + UrlConst.HACKER_LIST));
     }
 
+    /**
+     * クイズ画面表示のテスト: 画像マップの問題
+     * 条件: 画像の縮小版 (srcset) がある場合
+     * 期待値: img に srcset と座標の基準幅、正解エリアに元の座標が入ること
+     */
+    @Test
+    @DisplayName("クイズ画面: 画像マップの問題は srcset と座標の基準幅を出す")
+    void testHackerQuizImageMap() throws Exception {
+        Riddle mockRiddle = new Riddle(5, "Question", "Answer", "Hint", "image-map", null, 3,
+                "/images/level5.png", "292,145,320,185", null);
+        ImageSet image = new ImageSet("/images/v/1a2b3c4d/600/level5.png",
+                "/images/v/1a2b3c4d/300/level5.png 300w, /images/v/1a2b3c4d/600/level5.png 600w",
+                "(max-width: 600px) 100vw, 600px", 600);
+        when(riddleService.findById(AppConst.MODE_HACKER, 5)).thenReturn(Optional.of(mockRiddle));
+        when(imageVariantService.describe("/images/level5.png")).thenReturn(image);
+
+        mockMvc.perform(get(UrlConst.HACKER_BASE + UrlConst.HACKER_QUIZ + "/5"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("image", image))
+                .andExpect(content().string(containsString("srcset=\"" + image.srcset() + "\"")))
+                .andExpect(content().string(containsString("data-base-width=\"600\"")))
+                .andExpect(content().string(containsString("data-coords=\"292,145,320,185\"")));
+    }
+
     /**
      * 答え合わせのテスト: 正解パターン
      * 条件: Serviceが true (正解) を返す場合
@@ -88,13 +148,15 @@ class HackerControllerTest {
     @DisplayName("答え合わせ: 正解なら成功フラグを渡す")
     void testCheckAnswerSuccess() throws Exception {
         // 準備
-        when(riddleService.checkAnswer(AppConst.MODE_HACKER,1, "Answer")).thenReturn(true);
+        when(riddleService.checkAnswer(AppConst.MODE_HACKER,1, "Answer", "NEO")).thenReturn(true);
 
-        // 実行
+        // 実行 (Cookieのプレイヤー名がそのままServiceに渡ること)
         mockMvc.perform(post(UrlConst.HACKER_BASE + UrlConst.HACKER_QUIZ_CHECK)
                         .param("id", "1")
-                        .param("answer", "Answer"))
+                        .param("answer", "Answer")
+                        .cookie(new Cookie(PlayerCookie.NAME, "NEO")))
                 .andExpect(status().isOk())
+                .andExpect(cookie().exists(ProgressCookie.HACKER))
                 .andExpect(view().name(ViewNames.HACKER_RESULT))
                 .andExpect(model().attribute("isSuccess", true));
     }
@@ -111,18 +173,68 @@ class HackerControllerTest {
     @DisplayName("答え合わせ: 間違いなら失敗フラグを渡す")
     void testCheckAnswerFailure() throws Exception {
         // 準備
-        when(riddleService.checkAnswer(AppConst.MODE_HACKER,1, "Wrong")).thenReturn(false);
+        when(riddleService.checkAnswer(eq(AppConst.MODE_HACKER), eq(1), eq("Wrong"), matches("GUEST-[0-9A-F]{8}"))).thenReturn(false);
 
-        // 実行
+        // 実行 (Cookieがない時はゲスト名 (16進8桁) が付いて、Cookieに保存されること)
         mockMvc.perform(post(UrlConst.HACKER_BASE + UrlConst.HACKER_QUIZ_CHECK)
                         .param("id", "1")
                         .param("answer", "Wrong"))
                 .andExpect(status().isOk())
+                .andExpect(cookie().exists(PlayerCookie.NAME))
+                .andExpect(cookie().doesNotExist(ProgressCookie.HACKER))
                 .andExpect(view().name(ViewNames.HACKER_RESULT))
                 .andExpect(model().attribute("isSuccess", false))
                 .andExpect(model().attribute("resultTitle", "ACCESS DENIED"));
     }
 
+    /**
+     * 答え合わせのテスト: fetch 用 (JSON)
+     * 条件: Serviceが true (正解) を返す場合
+     * 期待値: 画面を描画せずに判定結果のJSONを返し、進捗のCookieも書き込むこと
+     */
+    @Test
+    @DisplayName("答え合わせ (fetch): 判定結果をJSONで返し、Cookieは画面の時と同じく書き込む")
+    void testCheckAsync() throws Exception {
+        when(riddleService.checkAnswer(AppConst.MODE_HACKER, 1, "Answer", "NEO")).thenReturn(true);
+
+        mockMvc.perform(post(UrlConst.HACKER_BASE + UrlConst.HACKER_QUIZ_CHECK_API)
+                        .param("id", "1")
+                        .param("answer", "Answer")
+                        .cookie(new Cookie(PlayerCookie.NAME, "NEO")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.result").value("correct"))
+                .andExpect(cookie().exists(ProgressCookie.HACKER));
+
+        mockMvc.perform(post(UrlConst.HACKER_BASE + UrlConst.HACKER_QUIZ_CHECK_API)
+                        .param("id", "1")
+                        .param("answer", "Wrong"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result").value("incorrect"))
+                .andExpect(cookie().doesNotExist(ProgressCookie.HACKER));
+    }
+
+    /**
+     * クイズ画面表示のテスト: fetch での答え合わせの準備
+     * 期待値: フォームに判定APIのURLがあり、結果のひな形が両方埋め込まれていること
+     */
+    @Test
+    @DisplayName("クイズ画面: fetch 用の判定URLと、結果のひな形が埋め込まれていること")
+    void testHackerQuizResultTemplates() throws Exception {
+        Riddle mockRiddle = new Riddle(1, "Question", "Answer", "Hint", "text", null, 1, null, null, null);
+        when(riddleService.findById(AppConst.MODE_HACKER, 1)).thenReturn(Optional.of(mockRiddle));
+
+        mockMvc.perform(get(UrlConst.HACKER_BASE + UrlConst.HACKER_QUIZ + "/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "data-check-url=\"" + UrlConst.HACKER_BASE + UrlConst.HACKER_QUIZ_CHECK_API + "\"")))
+                .andExpect(content().string(containsString("<template id=\"result-correct\">")))
+                .andExpect(content().string(containsString("<template id=\"result-incorrect\">")))
+                .andExpect(content().string(containsString("ACCESS GRANTED")))
+                .andExpect(content().string(containsString("/hacker/quiz/2")));
+    }
+
     /**
      * 一覧画面のテスト
      * 条件: Serviceが全データを返す場合
@@ -134,13 +246,13 @@ class HackerControllerTest {
     @DisplayName("一覧画面: 全データを取得して表示する")
     void testHackerList() throws Exception {
         // 準備: ダミーのリストを作る
-        List<Riddle> mockHackerList = List.of(
-            new Riddle(1, "Q1", "A", "H", "text", null, 1, null,null,null),
-            new Riddle(2, "Q2", "A", "H", "text", null, 2, null,null,null)
+        List<RiddleSummary> mockHackerList = List.of(
+            RiddleSummary.of(new Riddle(1, "Q1", "A", "H", "text", null, 1, null,null,null)),
+            RiddleSummary.of(new Riddle(2, "Q2", "A", "H", "text", null, 2, null,null,null))
         );
         
-        // findAll() が呼ばれたらダミーリストを返す
-        when(riddleService.findAll(AppConst.MODE_HACKER)).thenReturn(mockHackerList);
+        // findSummaries() が呼ばれたらダミーリストを返す
+        when(riddleService.findSummaries(AppConst.MODE_HACKER)).thenReturn(mockHackerList);
 
         // 実行 & 検証
         mockMvc.perform(get(UrlConst.HACKER_BASE + UrlConst.HACKER_LIST))
@@ -148,4 +260,109 @@ class HackerControllerTest {
                 .andExpect(view().name(ViewNames.HACKER_LIST))
                 .andExpect(model().attribute("riddles", mockHackerList)); // データが渡ってるか？
     }
-}
\ No newline at end of file
+
+    /**
+     * 一覧画面のテスト: 進捗のCookieがある場合
+     * 条件: ID 2 をクリア済みの進捗Cookieを付けてアクセス
+     * 期待値: Modelの "progress" で ID 2 だけがクリア済みになり、画面にも表示されること
+     */
+    @Test
+    @DisplayName("一覧画面: Cookieの進捗からクリア済みの問題に印が付くこと")
+    void testHackerListProgress() throws Exception {
+        List<RiddleSummary> mockHackerList = List.of(
+            RiddleSummary.of(new Riddle(1, "Q1", "A", "H", "text", null, 1, null,null,null)),
+            RiddleSummary.of(new Riddle(2, "Q2", "A", "H", "text", null, 2, null,null,null))
+        );
+        when(riddleService.findSummaries(AppConst.MODE_HACKER)).thenReturn(mockHackerList);
+        String token = progressCodec.encode(AppConst.MODE_HACKER, Progress.EMPTY.with(2));
+
+        mockMvc.perform(get(UrlConst.HACKER_BASE + UrlConst.HACKER_LIST)
+                        .cookie(new Cookie(ProgressCookie.HACKER, token)))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("progress", Progress.EMPTY.with(2)))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("CLEARED: 1 / 2")));
+    }
+
+    /**
+     * 一覧画面のテスト: 1ページに収まらないパック
+     * 条件: 1ページの件数 (既定 200) より多い問題がある場合
+     * 期待値: カーソルで引いた1ページ分だけを描画しながら送り、次のページへのリンクが次のページの最初の位置になること。
+     * 描画しながら送るので、描画済みページのキャッシュには入れないこと
+     */
+    @Test
+    @DisplayName("一覧画面: 件数の多いパックはカーソル式のページに分けて、描画しながら送ること")
+    void testHackerListPaged() throws Exception {
+        List<RiddleSummary> all = new ArrayList<>();
+        for (int i = 1; i <= 250; i++) {
+            all.add(RiddleSummary.of(new Riddle(i, "Q" + i, "A", "H", "text", null, 1, null, null, null)));
+        }
+        when(riddleService.findSummaries(AppConst.MODE_HACKER)).thenReturn(all);
+        when(riddleService.findPage(AppConst.MODE_HACKER, 0, 200))
+                .thenReturn(new RiddlePage(all.subList(0, 200), 250, 0, 200));
+        when(riddleService.findPage(AppConst.MODE_HACKER, 200, 200))
+                .thenReturn(new RiddlePage(all.subList(200, 250), 250, 200, null));
+
+        mockMvc.perform(get(UrlConst.HACKER_BASE + UrlConst.HACKER_LIST))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("riddles", instanceOf(ChunkedRows.class)))
+                .andExpect(model().attributeDoesNotExist(PageKey.ATTR))
+                .andExpect(content().string(containsString("CLEARED: 0 / 250")))
+                .andExpect(content().string(containsString("/hacker/quiz/200\"")))
+                .andExpect(content().string(not(containsString("/hacker/quiz/201\""))))
+                .andExpect(content().string(containsString("href=\"/hacker/list?from=200\"")));
+
+        mockMvc.perform(get(UrlConst.HACKER_BASE + UrlConst.HACKER_LIST).param("from", "200"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("/hacker/quiz/250\"")))
+                .andExpect(content().string(not(containsString("?from="))))
+                .andExpect(content().string(containsString("href=\"/hacker/list\"")));
+    }
+
+    /**
+     * 追加の問題パックのテスト
+     * 条件: /hacker/packs/{pack}/... でアクセス
+     * 期待値: パックのモードでデータを引き、画面のリンクもパックのURLになること。
+     * 進捗のCookieもパックごとに別の名前になること
+     */
+    @Test
+    @DisplayName("追加パック: URLのパック名でモードが決まり、リンクと進捗Cookieもパックごとになること")
+    void testPackRoute() throws Exception {
+        String mode = "HALLOWEEN";
+        String base = UrlConst.HACKER_BASE + "/packs/" + mode;
+        when(riddleService.resolveMode(AppConst.STYLE_HACKER, "halloween")).thenReturn(Optional.of(mode));
+        when(riddleService.findSummaries(mode)).thenReturn(List.of(
+            RiddleSummary.of(new Riddle(7, "Q7", "A", "H", "text", null, 1, null, null, null))));
+        when(riddleService.checkAnswer(mode, 7, "A", "NEO")).thenReturn(true);
+
+        mockMvc.perform(get(UrlConst.HACKER_BASE + "/packs/halloween" + UrlConst.HACKER_LIST))
+                .andExpect(status().isOk())
+                .andExpect(view().name(ViewNames.HACKER_LIST))
+                .andExpect(content().string(containsString("href=\"" + base + "/quiz/7\"")));
+
+        mockMvc.perform(post(UrlConst.HACKER_BASE + "/packs/halloween" + UrlConst.HACKER_QUIZ_CHECK_API)
+                        .param("id", "7")
+                        .param("answer", "A")
+                        .cookie(new Cookie(PlayerCookie.NAME, "NEO")))
+                .andExpect(jsonPath("$.result").value("correct"))
+                .andExpect(cookie().exists(ProgressCookie.nameFor(mode)))
+                .andExpect(cookie().doesNotExist(ProgressCookie.HACKER));
+    }
+
+    /**
+     * 追加の問題パックのテスト: 知らないパック
+     * 期待値: 既定のパックの一覧へリダイレクトし、答え合わせは不正解になること
+     */
+    @Test
+    @DisplayName("追加パック: 知らないパックは既定の一覧へリダイレクトすること")
+    void testUnknownPack() throws Exception {
+        when(riddleService.resolveMode(AppConst.STYLE_HACKER, "nope")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get(UrlConst.HACKER_BASE + "/packs/nope" + UrlConst.HACKER_QUIZ + "/1"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl(UrlConst.HACKER_BASE + UrlConst.HACKER_LIST));
+        mockMvc.perform(post(UrlConst.HACKER_BASE + "/packs/nope" + UrlConst.HACKER_QUIZ_CHECK_API)
+                        .param("id", "1")
+                        .param("answer", "Answer"))
+                .andExpect(jsonPath("$.result").value("incorrect"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.solvingriddles.controller.image;
+
+import com.example.solvingriddles.constant.UrlConst;
+import com.example.solvingriddles.service.ImageVariantService;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * 問題画像の縮小版を返すコントローラ (ImageVariantController) を検証するテスト
+ * Service層はモック化して、ヘッダー (キャッシュ・Vary) と 404 を確認する。
+ */
+@WebMvcTest(ImageVariantController.class)
+@DisabledInAotMode("@MockitoBean はネイティブイメージでは使えない")
+class ImageVariantControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ImageVariantService imageVariantService;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("縮小版: Accept を渡して、1年キャッシュ・Vary: Accept 付きで返すこと")
+    void testVariant() throws Exception {
+        Path file = Files.write(dir.resolve("level5-1a2b3c4d-300.jpeg"), new byte[] { 1, 2, 3 });
+        when(imageVariantService.variant(eq("1a2b3c4d"), eq(300), eq("level5.png"), any()))
+                .thenReturn(Optional.of(new ImageVariantService.Variant(file, MediaType.IMAGE_JPEG)));
+
+        mockMvc.perform(get(UrlConst.IMAGE_VARIANT + "/1a2b3c4d/300/level5.png")
+                        .header(HttpHeaders.ACCEPT, "image/webp,*/*"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+                .andExpect(content().bytes(new byte[] { 1, 2, 3 }))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)));
+    }
+
+    @Test
+    @DisplayName("縮小版: 作れない時は404、壊れた Accept でも落ちないこと")
+    void testNotFound() throws Exception {
+        when(imageVariantService.variant(anyString(), anyInt(), anyString(), eq(List.of())))
+                .thenReturn(Optional.empty());
+
+        mockMvc.perform(get(UrlConst.IMAGE_VARIANT + "/00000000/300/level5.png")
+                        .header(HttpHeaders.ACCEPT, "not a media type"))
+                .andExpect(status().isNotFound());
+    }
+}
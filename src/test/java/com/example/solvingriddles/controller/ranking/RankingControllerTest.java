@@ -0,0 +1,130 @@
+package com.example.solvingriddles.controller.ranking;
+
+import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.constant.UrlConst;
+import com.example.solvingriddles.constant.ViewNames;
+import com.example.solvingriddles.controller.PlayerCookie;
+import com.example.solvingriddles.model.Ranking;
+import com.example.solvingriddles.model.RankingEntry;
+import com.example.solvingriddles.model.RankingPeriod;
+import com.example.solvingriddles.repository.RiddlePack;
+import com.example.solvingriddles.service.RankingService;
+import com.example.solvingriddles.service.RiddleService;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * ランキング画面・ランキングAPIのコントローラ (RankingController) を検証するテスト
+ * Service層はモック化して、パラメータの受け渡しと画面/JSONの中身を確認する。
+ */
+@WebMvcTest(RankingController.class)
+@DisabledInAotMode("@MockitoBean はネイティブイメージでは使えない")
+class RankingControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private RankingService rankingService;
+
+    @MockitoBean
+    private RiddleService riddleService;
+
+    private static final Ranking DAILY = new Ranking(AppConst.MODE_CASUAL, "daily", List.of(
+        new RankingEntry(1, "NEO", 12, 4),
+        new RankingEntry(2, "TRINITY", 9, 3)
+    ));
+
+    @BeforeEach
+    void setUp() {
+        // モードの一覧は登録されている問題パックから作る
+        when(riddleService.packs()).thenReturn(List.of(
+            new RiddlePack(AppConst.MODE_HACKER, AppConst.STYLE_HACKER, "data/hacker_riddles.json", null, true),
+            new RiddlePack(AppConst.MODE_CASUAL, AppConst.STYLE_CASUAL, "data/casual_riddles.json", null, true)
+        ));
+        // モードの一覧とそろえ方は RiddleService の本物を使う (packs() だけ差し替える)
+        when(riddleService.modes()).thenCallRealMethod();
+        when(riddleService.normalizeMode(any())).thenCallRealMethod();
+    }
+
+    @Test
+    @DisplayName("ランキング画面: モードと期間を受け取って上位を表示すること")
+    void testRankingPage() throws Exception {
+        when(rankingService.top(AppConst.MODE_CASUAL, RankingPeriod.DAILY, RankingService.DEFAULT_LIMIT))
+                .thenReturn(DAILY);
+
+        mockMvc.perform(get(UrlConst.RANKING)
+                        .param("mode", "casual")
+                        .param("period", "daily")
+                        .cookie(new Cookie(PlayerCookie.NAME, "NEO")))
+                .andExpect(status().isOk())
+                .andExpect(view().name(ViewNames.RANKING))
+                .andExpect(model().attribute("ranking", DAILY))
+                .andExpect(model().attribute("player", "NEO"))
+                .andExpect(content().string(containsString("TRINITY")));
+    }
+
+    @Test
+    @DisplayName("ランキング画面: 知らないモード・期間は HACKER / 全期間になること")
+    void testRankingPageDefaults() throws Exception {
+        when(rankingService.top(AppConst.MODE_HACKER, RankingPeriod.ALL_TIME, RankingService.DEFAULT_LIMIT))
+                .thenReturn(new Ranking(AppConst.MODE_HACKER, "all", List.of()));
+
+        mockMvc.perform(get(UrlConst.RANKING).param("mode", "???").param("period", "yearly"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("mode", AppConst.MODE_HACKER))
+                .andExpect(model().attribute("period", RankingPeriod.ALL_TIME));
+    }
+
+    @Test
+    @DisplayName("ランキングAPI: JSONで上位を返すこと")
+    void testRankingApi() throws Exception {
+        when(rankingService.top(AppConst.MODE_CASUAL, RankingPeriod.DAILY, 5)).thenReturn(DAILY);
+
+        mockMvc.perform(get(UrlConst.RANKING_API)
+                        .param("mode", "CASUAL")
+                        .param("period", "daily")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.mode").value(AppConst.MODE_CASUAL))
+                .andExpect(jsonPath("$.period").value("daily"))
+                .andExpect(jsonPath("$.entries[0].player").value("NEO"))
+                .andExpect(jsonPath("$.entries[1].rank").value(2));
+    }
+
+    @Test
+    @DisplayName("名前の登録: 使える名前ならCookieに保存し、使えない名前は無視すること")
+    void testRegisterName() throws Exception {
+        mockMvc.perform(post(UrlConst.RANKING_NAME).param("name", " MORPHEUS ").param("mode", "CASUAL"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl(UrlConst.RANKING + "?mode=CASUAL"))
+                .andExpect(cookie().value(PlayerCookie.NAME, "MORPHEUS"));
+
+        mockMvc.perform(post(UrlConst.RANKING_NAME).param("name", "<script>"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(cookie().doesNotExist(PlayerCookie.NAME));
+
+        // ゲスト名 (GUEST- + 16進8桁 = 14文字) はそのまま登録できて、それより長い名前は無視する
+        mockMvc.perform(post(UrlConst.RANKING_NAME).param("name", "GUEST-0123ABCD"))
+                .andExpect(cookie().value(PlayerCookie.NAME, "GUEST-0123ABCD"));
+        mockMvc.perform(post(UrlConst.RANKING_NAME).param("name", "GUEST-0123ABCDE"))
+                .andExpect(cookie().doesNotExist(PlayerCookie.NAME));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.solvingriddles.controller.search;
+
+import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.constant.UrlConst;
+import com.example.solvingriddles.constant.ViewNames;
+import com.example.solvingriddles.model.Progress;
+import com.example.solvingriddles.model.RiddleQuery;
+import com.example.solvingriddles.model.RiddleSearchResult;
+import com.example.solvingriddles.model.RiddleSummary;
+import com.example.solvingriddles.repository.RiddlePack;
+import com.example.solvingriddles.service.ProgressCodec;
+import com.example.solvingriddles.service.RiddleService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * 検索画面・検索APIのコントローラ (SearchController) を検証するテスト
+ * Service層はモック化して、パラメータが検索条件に正しく変換されることと、画面/JSONの中身を確認する。
+ */
+@WebMvcTest(SearchController.class)
+@DisabledInAotMode("@MockitoBean はネイティブイメージでは使えない")
+class SearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private RiddleService riddleService;
+
+    @MockitoBean
+    private ProgressCodec progressCodec;
+
+    private static final RiddleSummary FIRST = new RiddleSummary(3, 2, "★★☆☆☆", "text", "ぱすわーどは逆さまに読め");
+
+    private static RiddleSearchResult result(String mode, int page, int total) {
+        return result(mode, page, total, true);
+    }
+
+    private static RiddleSearchResult result(String mode, int page, int total, boolean clearedFacet) {
+        return new RiddleSearchResult(mode, total, page, RiddleQuery.DEFAULT_SIZE, List.of(FIRST),
+                Map.of(1, 0, 2, total), Map.of("text", total), clearedFacet);
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(riddleService.packs()).thenReturn(List.of(
+            new RiddlePack(AppConst.MODE_HACKER, AppConst.STYLE_HACKER, "data/hacker_riddles.json", null, true),
+            new RiddlePack(AppConst.MODE_CASUAL, AppConst.STYLE_CASUAL, "data/casual_riddles.json", null, true)
+        ));
+        // モードの一覧とそろえ方は RiddleService の本物を使う (packs() だけ差し替える)
+        when(riddleService.modes()).thenCallRealMethod();
+        when(riddleService.normalizeMode(any())).thenCallRealMethod();
+        when(riddleService.basePath(AppConst.MODE_HACKER)).thenReturn(Optional.of(UrlConst.HACKER_BASE));
+        when(progressCodec.decode(any(), any())).thenReturn(Progress.EMPTY);
+    }
+
+    @Test
+    @DisplayName("検索画面: 条件を検索条件に変換して、結果と問題へのリンクとページ送りを表示すること")
+    void testSearchPage() throws Exception {
+        RiddleQuery expected = new RiddleQuery("パス", Set.of(2), Set.of("text"), false, 1, RiddleQuery.DEFAULT_SIZE);
+        when(riddleService.search(eq(AppConst.MODE_HACKER), eq(expected), any())).thenReturn(result(AppConst.MODE_HACKER, 1, 60));
+
+        mockMvc.perform(get(UrlConst.SEARCH)
+                        .param("mode", "hacker")
+                        .param("q", "パス")
+                        .param("level", "2")
+                        .param("type", "text")
+                        .param("cleared", "uncleared")
+                        .param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(view().name(ViewNames.SEARCH))
+                .andExpect(model().attribute("mode", AppConst.MODE_HACKER))
+                .andExpect(content().string(containsString("ぱすわーどは逆さまに読め")))
+                .andExpect(content().string(containsString("/hacker/quiz/3")))
+                .andExpect(content().string(containsString("HIT: 60")))
+                .andExpect(content().string(containsString("page=0")))
+                .andExpect(content().string(containsString("page=2")));
+    }
+
+    @Test
+    @DisplayName("検索API: 知らないモードは HACKER にして、結果をJSONで返すこと")
+    void testSearchApi() throws Exception {
+        RiddleQuery expected = new RiddleQuery(null, null, null, null, 0, 5);
+        when(riddleService.search(eq(AppConst.MODE_HACKER), eq(expected), any())).thenReturn(result(AppConst.MODE_HACKER, 0, 1));
+
+        mockMvc.perform(get(UrlConst.SEARCH_API)
+                        .param("mode", "unknown")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.mode").value(AppConst.MODE_HACKER))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.riddles[0].id").value(3))
+                .andExpect(jsonPath("$.types.text").value(1));
+    }
+
+    @Test
+    @DisplayName("クリア状況: 進捗に記録できないIDがあるパックは、APIでは 400 にして、画面では絞り込みの項目を出さないこと")
+    void testClearedFacetUnavailable() throws Exception {
+        when(riddleService.search(eq(AppConst.MODE_HACKER), any(), any()))
+                .thenReturn(result(AppConst.MODE_HACKER, 0, 1, false));
+
+        mockMvc.perform(get(UrlConst.SEARCH_API).param("cleared", "uncleared"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(UrlConst.SEARCH_API))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.clearedFacet").value(false));
+        mockMvc.perform(get(UrlConst.SEARCH))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString("NOT YET"))))
+                .andExpect(content().string(containsString("クリア状況では絞り込めません")));
+    }
+}
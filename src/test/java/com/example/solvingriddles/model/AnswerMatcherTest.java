@@ -0,0 +1,130 @@
+package com.example.solvingriddles.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 正解判定オブジェクト (AnswerMatcher) を検証する単体テスト
+ * 正規表現/完全一致の振り分けと、nullの扱いを確認する。
+ */
+class AnswerMatcherTest {
+
+    @Test
+    @DisplayName("完全一致: 大文字小文字を無視して判定すること")
+    void testExactIgnoreCase() {
+        AnswerMatcher matcher = AnswerMatcher.of("Answer");
+
+        assertFalse(matcher.isRegex());
+        assertTrue(matcher.matches("Answer"));
+        assertTrue(matcher.matches("answer"));
+        assertTrue(matcher.matches("ANSWER"));
+        assertFalse(matcher.matches("Answers"), "部分一致は不正解");
+    }
+
+    @Test
+    @DisplayName("正規表現: '^' で始まる正解は正規表現で完全一致判定すること")
+    void testRegex() {
+        AnswerMatcher matcher = AnswerMatcher.of("^(おんせん|温泉)$");
+
+        assertTrue(matcher.isRegex());
+        assertTrue(matcher.matches("おんせん"));
+        assertTrue(matcher.matches("温泉"));
+        assertTrue(matcher.matches("オンセン"), "カタカナで答えても正解");
+        assertFalse(matcher.matches("銭湯"));
+        assertFalse(matcher.matches("おんせんたまご"), "部分一致じゃなくて完全一致であること");
+    }
+
+    @Test
+    @DisplayName("書き出し: 選択だけの正規表現は HashSet にして、表記ゆれをそろえて判定すること")
+    void testAlternationLookup() {
+        AnswerMatcher matcher = AnswerMatcher.of("^(でんき|電気)$");
+
+        assertTrue(matcher.isRegex());
+        assertTrue(matcher.isLookup());
+        assertTrue(matcher.matches("でんき"));
+        assertTrue(matcher.matches("電気"));
+        assertTrue(matcher.matches("デンキ"), "カタカナはひらがなにそろえる");
+        assertTrue(matcher.matches("ﾃﾞﾝｷ "), "半角カナと後ろの空白もそろえる");
+        assertFalse(matcher.matches("でんきゅう"));
+    }
+
+    @Test
+    @DisplayName("書き出し: 文字クラスも書き出して、大文字小文字を区別せずに判定すること")
+    void testCharClassLookup() {
+        AnswerMatcher matcher = AnswerMatcher.of("^[Tt]a[ck]oyak[iy]$");
+
+        assertTrue(matcher.isLookup());
+        assertTrue(matcher.matches("Tacoyaky"));
+        assertTrue(matcher.matches("ＴＡＫＯＹＡＫＩ"));
+        assertFalse(matcher.matches("Takoyaku"));
+    }
+
+    @Test
+    @DisplayName("書き出し: * や + がある正規表現も、表記ゆれをそろえて正規表現で判定すること")
+    void testUnboundedStaysRegex() {
+        AnswerMatcher matcher = AnswerMatcher.of("^ho+$");
+
+        assertTrue(matcher.isRegex());
+        assertFalse(matcher.isLookup());
+        assertTrue(matcher.matches("hooo"));
+        assertTrue(matcher.matches("HOOO"), "書き出せなくても大文字小文字はそろえる");
+        assertTrue(matcher.matches("ｈｏｏｏ "));
+        assertFalse(matcher.matches("hoa"));
+
+        AnswerMatcher kana = AnswerMatcher.of("^デンキ+$");
+        assertTrue(kana.matches("でんきき"), "パターンのカタカナもひらがなにそろえて読む");
+        assertTrue(kana.matches("ﾃﾞﾝｷ"));
+    }
+
+    @Test
+    @DisplayName("正規表現: 書き出せるかどうか (回数の上限があるかどうか) で判定のルールが変わらないこと")
+    void testSameRuleBothPaths() {
+        AnswerMatcher bounded = AnswerMatcher.of("^ho{1,3}$");
+        AnswerMatcher unbounded = AnswerMatcher.of("^ho+$");
+
+        assertTrue(bounded.isLookup());
+        assertFalse(unbounded.isLookup());
+        for (String answer : new String[] {"hooo", "HOOO", "ｈｏｏｏ", " hooo", "ho", "h", "hoa"}) {
+            assertEquals(unbounded.matches(answer), bounded.matches(answer), answer);
+        }
+    }
+
+    @Test
+    @DisplayName("完全一致: 全角・前後の空白もそろえて判定すること")
+    void testExactNormalized() {
+        AnswerMatcher matcher = AnswerMatcher.of("Answer");
+
+        assertTrue(matcher.matches("ＡＮＳＷＥＲ"));
+        assertTrue(matcher.matches(" answer "));
+    }
+
+    @Test
+    @DisplayName("長さ制限: 上限より長い回答は見ずに不正解になること")
+    void testTooLongAnswer() {
+        AnswerMatcher regex = AnswerMatcher.of("^a+$");
+        AnswerMatcher exact = AnswerMatcher.of("a".repeat(AnswerMatcher.MAX_ANSWER_LENGTH + 1));
+
+        assertTrue(regex.matches("a".repeat(AnswerMatcher.MAX_ANSWER_LENGTH)));
+        assertFalse(regex.matches("a".repeat(AnswerMatcher.MAX_ANSWER_LENGTH + 1)));
+        assertFalse(exact.matches("a".repeat(AnswerMatcher.MAX_ANSWER_LENGTH + 1)));
+    }
+
+    @Test
+    @DisplayName("読み込み拒否: 線形時間で判定できない正規表現は作る時点でエラーになること")
+    void testUnsafeRegexRejected() {
+        assertThrows(PatternSyntaxException.class, () -> AnswerMatcher.of("^(a+)\\1$"));
+    }
+
+    @Test
+    @DisplayName("null: 正解がnull(story)でも回答がnullでも落ちずに不正解になること")
+    void testNull() {
+        assertFalse(AnswerMatcher.of(null).matches("anything"));
+        assertFalse(AnswerMatcher.of(null).matches(null));
+        assertFalse(AnswerMatcher.of("Answer").matches(null));
+        assertFalse(AnswerMatcher.of("^a$").matches(null));
+    }
+}
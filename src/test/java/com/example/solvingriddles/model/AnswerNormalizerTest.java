@@ -0,0 +1,38 @@
+package com.example.solvingriddles.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 表記ゆれをそろえる処理 (AnswerNormalizer) を検証する単体テスト
+ */
+class AnswerNormalizerTest {
+
+    @Test
+    @DisplayName("カナ: カタカナ・半角カナはひらがなにそろうこと")
+    void testKana() {
+        assertEquals("でんき", AnswerNormalizer.normalize("デンキ"));
+        assertEquals("でんき", AnswerNormalizer.normalize("ﾃﾞﾝｷ"), "半角カナの濁点もくっつくこと");
+        assertEquals("すたーと", AnswerNormalizer.normalize("スタート"), "長音 ー はそのまま");
+        assertEquals("電気", AnswerNormalizer.normalize("電気"), "漢字はそのまま");
+    }
+
+    @Test
+    @DisplayName("英数字: 全角は半角に、大文字は小文字にそろうこと")
+    void testAsciiWidthAndCase() {
+        assertEquals("start", AnswerNormalizer.normalize("START"));
+        assertEquals("start", AnswerNormalizer.normalize("ＳＴＡＲＴ"));
+        assertEquals("qwerty123", AnswerNormalizer.normalize("ＱＷＥＲＴＹ１２３"));
+    }
+
+    @Test
+    @DisplayName("空白: 前後の空白 (全角含む) が取れること")
+    void testStrip() {
+        assertEquals("cut", AnswerNormalizer.normalize("  CUT "));
+        assertEquals("おんせん", AnswerNormalizer.normalize("　オンセン　"));
+        assertEquals("a b", AnswerNormalizer.normalize(" a b "), "間の空白は残ること");
+        assertNull(AnswerNormalizer.normalize(null));
+    }
+}
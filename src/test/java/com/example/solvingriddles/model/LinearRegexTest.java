@@ -0,0 +1,248 @@
+package com.example.solvingriddles.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 線形時間の正規表現エンジン (LinearRegex) を検証する単体テスト
+ * java.util.regex と判定が同じになることと、
+ * バックトラックで爆発するパターンでもすぐ終わることを確認する。
+ */
+class LinearRegexTest {
+
+    // ランダムなパターンを作る時の部品 (どれも java.util.regex と LinearRegex の両方で使える)
+    private static final String[] ATOMS = {
+        "a", "b", "c", ".", "[ab]", "[^a]", "[a-c]", "\\d", "\\w", "\\s", "\\.", "x"
+    };
+    private static final String[] QUANTIFIERS = { "", "", "*", "+", "?", "{2}", "{1,3}", "{0,}", "*?" };
+
+    // ReDoS でおなじみのパターン
+    private static final String[] EVIL = {
+        "^(a+)+$", "^(a*)*$", "^(a|aa)+$", "^(a|a?)+$", "^(.*a){12}$", "^(\\w+\\s?)*$", "^(a|b|ab)*c$"
+    };
+
+    /**
+     * 判定のテスト: 今ある問題の正解パターン
+     * 条件: JSONにある書き方 (文字クラス・選択)
+     * 期待値: 完全一致で判定されること
+     */
+    @Test
+    @DisplayName("判定: JSONにある正解パターンが今まで通り判定できること")
+    void testExistingPatterns() {
+        LinearRegex takoyaki = LinearRegex.compile("^[Tt]a[ck]oyak[iy]$");
+        assertTrue(takoyaki.matches("Takoyaki"));
+        assertTrue(takoyaki.matches("tacoyaky"));
+        assertFalse(takoyaki.matches("TAKOYAKI"));
+        assertFalse(takoyaki.matches("Takoyakii"));
+
+        LinearRegex onsen = LinearRegex.compile("^(おんせん|温泉)$");
+        assertTrue(onsen.matches("おんせん"));
+        assertTrue(onsen.matches("温泉"));
+        assertFalse(onsen.matches("おんせんたまご"));
+        assertFalse(onsen.matches(""));
+    }
+
+    /**
+     * 判定のテスト: ^ と $ が途中にある場合
+     * 条件: "^a$|^b$" や "a^"
+     * 期待値: 入力の先頭・末尾でだけ成り立つこと
+     */
+    @Test
+    @DisplayName("判定: ^ と $ は入力の先頭と末尾でだけ成り立つこと")
+    void testAnchors() {
+        assertTrue(LinearRegex.compile("^a$|^b$").matches("b"));
+        assertFalse(LinearRegex.compile("a^").matches("a"));
+        assertTrue(LinearRegex.compile("^$").matches(""));
+        assertFalse(LinearRegex.compile("^a$").matches("a\n"), "末尾の改行は一致しない (Pattern.matches と同じ)");
+    }
+
+    /**
+     * 書き出しのテスト: 一致する文字列が有限個のパターン
+     * 条件: 選択・文字クラス・{n,m}、* がある・途中に ^ があるパターン
+     * 期待値: 有限なら全部書き出され、無限や上限超えなら null になること
+     */
+    @Test
+    @DisplayName("書き出し: 有限個のパターンは全部書き出し、それ以外は null になること")
+    void testExpand() {
+        assertEquals(Set.of("でんき", "電気", "デンキ"), LinearRegex.expand("^(でんき|電気|デンキ)$", 16));
+        assertEquals(8, LinearRegex.expand("^[Tt]a[ck]oyak[iy]$", 16).size());
+        assertEquals(Set.of("h", "ho", "hoo"), LinearRegex.expand("^ho{0,2}$", 16));
+        assertNull(LinearRegex.expand("^ho*$", 16), "* は無限");
+        assertNull(LinearRegex.expand("^a$|^b$", 16), "途中の ^ $ は書き出さない");
+        assertNull(LinearRegex.expand("^[a-z]{3}$", 16), "上限超え");
+    }
+
+    /**
+     * ファズテスト: 書き出した文字列と判定が一致すること
+     * 条件: 量指定子を {n,m} と ? だけにしたランダムなパターン
+     * 期待値: 書き出せた時は、集合に入っているかどうかと matches の結果が同じになること
+     */
+    @Test
+    @DisplayName("ファズ: 書き出した集合と matches の判定が一致すること")
+    void testFuzzExpandAgreesWithMatches() {
+        SplittableRandom random = new SplittableRandom(7L);
+        for (int n = 0; n < 500; n++) {
+            String regex = "^" + randomPattern(random, 2).replaceAll("\\*\\??|\\+|\\{0,}", "?") + "$";
+            Set<String> words = LinearRegex.expand(regex, 256);
+            if (words == null) {
+                continue;
+            }
+            LinearRegex compiled = LinearRegex.compile(regex);
+            words.forEach(w -> assertTrue(compiled.matches(w), () -> "pattern=" + regex + " word=" + w));
+            for (int k = 0; k < 20; k++) {
+                String input = randomInput(random, random.nextInt(6));
+                assertEquals(compiled.matches(input), words.contains(input), () -> "pattern=" + regex + " input=" + input);
+            }
+        }
+    }
+
+    /**
+     * ファズテスト: ランダムなパターンとランダムな入力
+     * 条件: 部品を組み合わせたパターン 2000個 × 入力 20個
+     * 期待値: java.util.regex と判定が全部同じになること
+     */
+    @Test
+    @DisplayName("ファズ: ランダムなパターンと入力で java.util.regex と同じ判定になること")
+    void testFuzzAgreesWithJavaRegex() {
+        SplittableRandom random = new SplittableRandom(20260418L);
+        for (int n = 0; n < 2_000; n++) {
+            String regex = anchored(random, randomPattern(random, 2));
+            Pattern expected = Pattern.compile(regex);
+            LinearRegex actual = LinearRegex.compile(regex);
+            for (int k = 0; k < 20; k++) {
+                String input = randomInput(random, random.nextInt(8));
+                assertEquals(expected.matcher(input).matches(), actual.matches(input),
+                        () -> "pattern=" + regex + " input=" + input);
+            }
+        }
+    }
+
+    /**
+     * ファズテスト: 攻撃的な入力での処理時間
+     * 条件: バックトラックが爆発するパターンに、最後だけ外れる長い入力 (回答の上限の長さ)
+     * 期待値: どれも一瞬 (合計でも1秒以内) で不正解になること
+     */
+    @Test
+    @DisplayName("ファズ: ReDoS なパターンに攻撃的な入力を渡しても時間が線形で収まること")
+    void testAdversarialInputsAreBounded() {
+        SplittableRandom random = new SplittableRandom(42L);
+        int len = AnswerMatcher.MAX_ANSWER_LENGTH;
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            for (String evil : EVIL) {
+                LinearRegex regex = LinearRegex.compile(evil);
+                assertFalse(regex.matches("a".repeat(len - 1) + "!"), evil);
+                for (int k = 0; k < 50; k++) {
+                    String input = randomInput(random, len - 1) + "!";
+                    assertFalse(regex.matches(input), evil);
+                }
+            }
+        });
+    }
+
+    /**
+     * 処理時間のテスト: 入力の長さを倍にした時
+     * 条件: "^(a+)+$" に 長さ 2000 と 4000 の入力
+     * 期待値: 指数じゃなくて線形に伸びること (4倍以内)
+     */
+    @Test
+    @DisplayName("処理時間: 入力の長さを倍にしても時間がだいたい倍で収まること")
+    void testLinearGrowth() {
+        LinearRegex regex = LinearRegex.compile("^(a+)+$");
+        String shortInput = "a".repeat(2_000) + "!";
+        String longInput = "a".repeat(4_000) + "!";
+        // JIT を温めておく
+        for (int k = 0; k < 50; k++) {
+            regex.matches(shortInput);
+            regex.matches(longInput);
+        }
+        long shortNanos = fastest(regex, shortInput);
+        long longNanos = fastest(regex, longInput);
+
+        assertTrue(longNanos < shortNanos * 4, "short=" + shortNanos + "ns long=" + longNanos + "ns");
+    }
+
+    /**
+     * 読み込み拒否のテスト: 線形で判定できない書き方
+     * 条件: 後方参照・先読み・後読み・独占的な量指定子・フラグなど
+     * 期待値: PatternSyntaxException で弾かれること (読み込み時にエラーになる)
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "^(a)\\1$", "^(?=a)a$", "^(?!b)a$", "^(?<=a)b$", "^a++$", "^(?i)a$", "^\\bword\\b$",
+        "^\\p{L}+$", "^[a[b]]$", "^[a-z&&[^b]]$", "^(?<name>a)$", "^\\Qa\\E$"
+    })
+    @DisplayName("拒否: 線形で判定できない書き方は読み込み時に弾くこと")
+    void testUnsupportedRejected(String regex) {
+        assertThrows(PatternSyntaxException.class, () -> LinearRegex.compile(regex));
+    }
+
+    /**
+     * 読み込み拒否のテスト: 書き方の間違いと大きすぎるパターン
+     * 条件: 閉じていない括弧、{n,m} の展開で状態数が上限を超えるパターン
+     * 期待値: PatternSyntaxException で弾かれること
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "^(a$", "^a)$", "^[ab$", "*a", "^a**$", "^a{3,1}$", "^a{x}$", "^a\\",
+        "^((a{100}){100})$"
+    })
+    @DisplayName("拒否: 書き方の間違いと大きすぎるパターンを弾くこと")
+    void testInvalidRejected(String regex) {
+        assertThrows(PatternSyntaxException.class, () -> LinearRegex.compile(regex));
+    }
+
+    // 何回か測って一番速かった時間
+    private static long fastest(LinearRegex regex, String input) {
+        long best = Long.MAX_VALUE;
+        for (int k = 0; k < 20; k++) {
+            long start = System.nanoTime();
+            regex.matches(input);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    // ^ $ は外側にだけ付ける
+    // (グループの中で空文字に一致する繰り返しは、java.util.regex の方が一致を取りこぼすことがある)
+    private static String anchored(SplittableRandom random, String body) {
+        return (random.nextInt(3) == 0 ? "^" : "") + body + (random.nextInt(3) == 0 ? "$" : "");
+    }
+
+    private static String randomPattern(SplittableRandom random, int depth) {
+        StringBuilder sb = new StringBuilder();
+        int terms = 1 + random.nextInt(3);
+        for (int t = 0; t < terms; t++) {
+            if (depth > 0 && random.nextInt(4) == 0) {
+                sb.append(random.nextBoolean() ? "(" : "(?:");
+                sb.append(randomPattern(random, depth - 1));
+                if (random.nextBoolean()) {
+                    sb.append('|').append(randomPattern(random, depth - 1));
+                }
+                sb.append(')');
+            } else {
+                sb.append(ATOMS[random.nextInt(ATOMS.length)]);
+            }
+            sb.append(QUANTIFIERS[random.nextInt(QUANTIFIERS.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static String randomInput(SplittableRandom random, int length) {
+        String alphabet = "aabbc1 x.\n";
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+}
@@ -5,7 +5,9 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Riddleレコードのロジックを検証する単体テスト
@@ -144,4 +146,77 @@ class RiddleTest {
         assertNotNull(result, "nullの代わりに空リストを返すべき");
         assertTrue(result.isEmpty(), "リストは空であるべき");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("同じ番号を渡せば、何回呼んでも同じ並び (同じリスト) が返ること")
+    void getShuffledOptionsWithVariantIsStable() {
+        List<RiddleOption> options = List.of(
+            new RiddleOption("A", "normal"),
+            new RiddleOption("B", "target"),
+            new RiddleOption("C", "fake"),
+            new RiddleOption("D", "fake"),
+            new RiddleOption("E", "fake")
+        );
+        Riddle riddle = new Riddle(1, "Q", "A", "H", "sort", options, 1, null, null, null);
+        // 同じ中身で作り直した問題 (パックの再読み込み・別のサーバー) でも同じ並びになる
+        Riddle reloaded = new Riddle(1, "Q", "A", "H", "sort", new java.util.ArrayList<>(options), 1, null, null, null);
+
+        Set<List<RiddleOption>> layouts = new HashSet<>();
+        for (int v = 0; v < RiddleOptions.VARIANTS; v++) {
+            List<RiddleOption> shuffled = riddle.getShuffledOptions(v);
+            assertSame(shuffled, riddle.getShuffledOptions(v), "毎回コピーを作らずに使い回すこと");
+            assertEquals(shuffled, reloaded.getShuffledOptions(v));
+            assertTrue(shuffled.containsAll(options));
+            assertThrows(UnsupportedOperationException.class, () -> shuffled.set(0, null), "使い回すので変更できないこと");
+            layouts.add(shuffled);
+        }
+        assertTrue(layouts.size() > 1, "並びが1通りしかありません");
+
+        // 元の options は普通のリストとして使えて、等価性も変わらない
+        assertEquals(options, riddle.options());
+        assertEquals(riddle, reloaded);
+    }
+
+    @Test
+    @DisplayName("シャッフルした並びが元の並び (sort 問題の正解) にならないこと")
+    void getShuffledOptionsNeverOriginalOrder() {
+        List<RiddleOption> two = List.of(new RiddleOption("A", "normal"), new RiddleOption("B", "normal"));
+        List<RiddleOption> same = List.of(new RiddleOption("A", "normal"), new RiddleOption("A", "normal"));
+        assertEquals(List.of(two.get(1), two.get(0)), ((RiddleOptions) RiddleOptions.of(two)).shuffled(0), "2個なら入れ替えるしかない");
+        assertEquals(same, ((RiddleOptions) RiddleOptions.of(same)).shuffled(0), "全部同じなら元のままでも止まらないこと");
+
+        // 数個しかない選択肢だと、種によっては元の並びを引いてしまう
+        for (int n = 2; n <= 6; n++) {
+            for (int seed = 0; seed < 200; seed++) {
+                List<RiddleOption> options = new java.util.ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                    options.add(new RiddleOption("P" + seed + "-" + i, "normal"));
+                }
+                RiddleOptions wrapped = (RiddleOptions) RiddleOptions.of(options);
+                for (int v = 0; v < RiddleOptions.VARIANTS; v++) {
+                    assertNotEquals(options, wrapped.shuffled(v), "元の並びが出ました: n=" + n + " seed=" + seed);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("プレイヤー名と問題IDが同じなら同じ並び番号になること")
+    void variantForIsDeterministicPerPlayer() {
+        int v = RiddleOptions.variantFor("ALICE", 4);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(v, RiddleOptions.variantFor("ALICE", 4));
+        }
+        Set<Integer> variants = new HashSet<>();
+        for (int id = 0; id < 64; id++) {
+            int variant = RiddleOptions.variantFor("ALICE", id);
+            assertTrue(variant >= 0 && variant < RiddleOptions.VARIANTS);
+            variants.add(variant);
+        }
+        assertTrue(variants.size() > 1, "問題が変わっても同じ並び番号に偏っています");
+
+        // 名前がなければランダム (範囲内であること)
+        int guest = RiddleOptions.variantFor(null, 4);
+        assertTrue(guest >= 0 && guest < RiddleOptions.VARIANTS);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.solvingriddles.ratelimit;
+
+import com.example.solvingriddles.constant.UrlConst;
+import com.example.solvingriddles.controller.api.AnswerApiController;
+import com.example.solvingriddles.metrics.RiddleMetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * 答え合わせのURLに回数制限がかかることを検証するテスト
+ * アプリ全体を起動して、制限を超えたら 429 になり、コントローラが動かないことを確認する。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "rate-limit.casual.per-minute=1",
+    "rate-limit.casual.burst=2",
+    "rate-limit.api.per-minute=1",
+    "rate-limit.api.burst=3",
+    "rate-limit.api-client.per-minute=1",
+    "rate-limit.api-client.burst=5",
+    "api.answers.tokens=kiosk-1,kiosk-2"
+})
+class RateLimitInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private static MockHttpServletRequestBuilder casualCheck(String ip) {
+        return post(UrlConst.CASUAL_BASE + UrlConst.CASUAL_QUIZ_CHECK)
+                .param("id", "1")
+                .param("answer", "wrong")
+                .with(request -> {
+                    request.setRemoteAddr(ip);
+                    return request;
+                });
+    }
+
+    @Test
+    @DisplayName("制限を超えた答え合わせは 429 + Retry-After で断り、他のクライアントや画面表示には影響しないこと")
+    void testThrottle() throws Exception {
+        mockMvc.perform(casualCheck("192.0.2.1")).andExpect(status().is3xxRedirection());
+        mockMvc.perform(casualCheck("192.0.2.1")).andExpect(status().is3xxRedirection());
+
+        // 3回目は断る (コントローラは動かないので、リダイレクトもCookieもなし)
+        mockMvc.perform(casualCheck("192.0.2.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "60"))
+                .andExpect(header().doesNotExist(HttpHeaders.SET_COOKIE))
+                .andExpect(content().string(""));
+        assertTrue(registry.get(RiddleMetrics.THROTTLED).tag("scope", RateLimiter.CASUAL).counter().count() >= 1);
+
+        // fetch 用のURLも同じバケットで数える
+        mockMvc.perform(post(UrlConst.CASUAL_BASE + UrlConst.CASUAL_QUIZ_CHECK_API)
+                        .param("id", "1").param("answer", "wrong")
+                        .with(request -> {
+                            request.setRemoteAddr("192.0.2.1");
+                            return request;
+                        }))
+                .andExpect(status().isTooManyRequests());
+
+        // 別のクライアントと、答え合わせ以外の画面は今まで通り
+        mockMvc.perform(casualCheck("192.0.2.2")).andExpect(status().is3xxRedirection());
+        mockMvc.perform(get(UrlConst.CASUAL_BASE + UrlConst.CASUAL_LIST)
+                        .with(request -> {
+                            request.setRemoteAddr("192.0.2.1");
+                            return request;
+                        }))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("まとめて判定API: リクエストではなく判定する件数で数え、burst を超える件数は 400 で断ること")
+    void testBatchCountsTuples() throws Exception {
+        String one = "{\"mode\":\"HACKER\",\"id\":1,\"answer\":\"a\"}";
+
+        // burst (3) を超える件数は、いくら待っても通せないので 400
+        mockMvc.perform(batch("192.0.2.3", one, 4)).andExpect(status().isBadRequest());
+        // 2件 + 1件で3件分のトークンを使い切る
+        mockMvc.perform(batch("192.0.2.3", one, 2)).andExpect(status().isOk());
+        mockMvc.perform(batch("192.0.2.3", one, 1)).andExpect(status().isOk());
+        // リクエスト数ではまだ3回目でも、件数が足りないので断る (1件も判定しない)
+        mockMvc.perform(batch("192.0.2.3", one, 1))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "60"));
+        assertTrue(registry.get(RiddleMetrics.THROTTLED).tag("scope", RateLimiter.API).counter().count() >= 1);
+    }
+
+    @Test
+    @DisplayName("まとめて判定API: トークン付きは IPアドレスではなくトークンごとに、api-client の件数まで数えること")
+    void testBatchTokenBudget() throws Exception {
+        String one = "{\"mode\":\"HACKER\",\"id\":1,\"answer\":\"a\"}";
+
+        // トークンなしなら burst (3) を超える件数でも、api-client の burst (5) までは1回で送れる
+        mockMvc.perform(batch("192.0.2.4", one, 5).header(AnswerApiController.TOKEN_HEADER, "kiosk-1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(batch("192.0.2.4", one, 1).header(AnswerApiController.TOKEN_HEADER, "kiosk-1"))
+                .andExpect(status().isTooManyRequests());
+        assertTrue(registry.get(RiddleMetrics.THROTTLED).tag("scope", RateLimiter.API_CLIENT).counter().count() >= 1);
+
+        // 同じIPアドレスでも、別のトークンとトークンなしは別のバケット
+        mockMvc.perform(batch("192.0.2.4", one, 5).header(AnswerApiController.TOKEN_HEADER, "kiosk-2"))
+                .andExpect(status().isOk());
+        mockMvc.perform(batch("192.0.2.4", one, 3)).andExpect(status().isOk());
+    }
+
+    private static MockHttpServletRequestBuilder batch(String ip, String check, int count) {
+        return post(UrlConst.ANSWERS_CHECK_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + String.join(",", Collections.nCopies(count, check)) + "]")
+                .with(request -> {
+                    request.setRemoteAddr(ip);
+                    return request;
+                });
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.solvingriddles.ratelimit;
+
+import com.example.solvingriddles.metrics.RiddleMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 答え合わせの回数制限 (RateLimiter / TokenBucket) を検証する単体テスト
+ * 時計を差し替えて、まとめて送れる回数・時間で回復すること・クライアントごとに別々なことを確認する。
+ */
+class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private SimpleMeterRegistry registry;
+    private RateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        // hacker: 1分に60回 (1秒に1回貯まる)、まとめて3回まで
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("rate-limit.hacker.per-minute", "60")
+                .withProperty("rate-limit.hacker.burst", "3");
+        registry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("metrics", new RiddleMetrics(registry));
+        limiter = new RateLimiter(env, beans.getBeanProvider(RiddleMetrics.class), now::get);
+    }
+
+    @Test
+    @DisplayName("burst 回まではすぐ通り、それ以上は次に貯まるまでの時間を返すこと")
+    void testBurstThenThrottle() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(RateLimiter.HACKER, "10.0.0.1"), (i + 1) + "回目");
+        }
+        long wait = limiter.tryAcquire(RateLimiter.HACKER, "10.0.0.1");
+        assertEquals(TimeUnit.SECONDS.toNanos(1), wait);
+        assertEquals(1.0, registry.get(RiddleMetrics.THROTTLED).tag("scope", RateLimiter.HACKER).counter().count());
+
+        // 1秒待てば1回だけ通る
+        now.addAndGet(wait);
+        assertEquals(0, limiter.tryAcquire(RateLimiter.HACKER, "10.0.0.1"));
+        assertTrue(limiter.tryAcquire(RateLimiter.HACKER, "10.0.0.1") > 0);
+
+        // しばらく来なければ満タンに戻る (それ以上は貯まらない)
+        now.addAndGet(TimeUnit.MINUTES.toNanos(10));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(RateLimiter.HACKER, "10.0.0.1"));
+        }
+        assertTrue(limiter.tryAcquire(RateLimiter.HACKER, "10.0.0.1") > 0);
+    }
+
+    @Test
+    @DisplayName("クライアントごと・モードごとに別々に数えること")
+    void testIndependentBuckets() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(RateLimiter.HACKER, "10.0.0.1");
+        }
+        assertTrue(limiter.tryAcquire(RateLimiter.HACKER, "10.0.0.1") > 0);
+
+        // 別のクライアントは影響を受けない
+        assertEquals(0, limiter.tryAcquire(RateLimiter.HACKER, "10.0.0.2"));
+        // 同じクライアントでも、別のモード (設定なし = 初期値の burst 20) は影響を受けない
+        for (int i = 0; i < 20; i++) {
+            assertEquals(0, limiter.tryAcquire(RateLimiter.CASUAL, "10.0.0.1"));
+        }
+        assertTrue(limiter.tryAcquire(RateLimiter.CASUAL, "10.0.0.1") > 0);
+        // 知らないモードは制限しない
+        assertEquals(0, limiter.tryAcquire("unknown", "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("同時に取りに来ても、burst 回より多くは通さないこと")
+    void testConcurrentAcquire() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int granted = 0;
+                    for (int i = 0; i < 100; i++) {
+                        if (limiter.tryAcquire(RateLimiter.HACKER, "10.0.0.9") == 0) {
+                            granted++;
+                        }
+                    }
+                    return granted;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> f : results) {
+                total += f.get(10, TimeUnit.SECONDS);
+            }
+            // 時計は止まっているので、通るのはちょうど burst 回
+            assertEquals(3, total);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("まとめて取る時は件数分のトークンを使い、足りなければ1つも取らないこと")
+    void testAcquirePermits() {
+        assertEquals(3, limiter.maxPermits(RateLimiter.HACKER));
+        assertEquals(0, limiter.tryAcquire(RateLimiter.HACKER, "10.0.0.3", 2));
+        // 残りは1つなので2つは取れない (全部そろうまで1秒)
+        assertEquals(TimeUnit.SECONDS.toNanos(1), limiter.tryAcquire(RateLimiter.HACKER, "10.0.0.3", 2));
+        // 取れなかった分は減っていない
+        assertEquals(0, limiter.tryAcquire(RateLimiter.HACKER, "10.0.0.3"));
+        assertTrue(limiter.tryAcquire(RateLimiter.HACKER, "10.0.0.3") > 0);
+        // burst を超える件数は、いくら待っても取れないのでエラー
+        assertThrows(IllegalArgumentException.class, () -> limiter.tryAcquire(RateLimiter.HACKER, "10.0.0.4", 4));
+    }
+
+    @Test
+    @DisplayName("0以下の設定は起動時にエラーにすること")
+    void testInvalidConfig() {
+        MockEnvironment env = new MockEnvironment().withProperty("rate-limit.casual.burst", "0");
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        assertThrows(IllegalArgumentException.class,
+                () -> new RateLimiter(env, beans.getBeanProvider(RiddleMetrics.class), now::get));
+    }
+}
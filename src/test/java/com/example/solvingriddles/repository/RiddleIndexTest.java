@@ -0,0 +1,168 @@
+package com.example.solvingriddles.repository;
+
+import com.example.solvingriddles.model.Riddle;
+import com.example.solvingriddles.model.RiddlePage;
+import com.example.solvingriddles.model.RiddleSummary;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ID索引 (RiddleIndex) を検証する単体テスト
+ * 連番ID (配列) と飛び飛びのID (ハッシュ表) の両方で、
+ * 全件なめる検索と同じ結果になることを確認する。
+ */
+class RiddleIndexTest {
+
+    private static Riddle riddle(Integer id, String answer) {
+        return new Riddle(id, "Q" + id, answer, "H", "text", null, 1, null, null, null);
+    }
+
+    @Test
+    @DisplayName("連番ID: 全IDが引けて、範囲外は null になること")
+    void testDenseIds() {
+        List<Riddle> list = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            list.add(riddle(i, "A" + i));
+        }
+        RiddleIndex index = new RiddleIndex(list);
+
+        assertEquals(100, index.size());
+        for (int i = 1; i <= 100; i++) {
+            assertSame(list.get(i - 1), index.get(i));
+            assertTrue(index.matcher(i).matches("a" + i));
+            assertSame(list.get(i - 1), index.answerKey(i).riddle());
+            assertSame(index.matcher(i), index.answerKey(i).matcher());
+        }
+        assertNull(index.answerKey(101));
+        assertNull(index.get(0));
+        assertNull(index.get(101));
+        assertNull(index.get(-1));
+        assertNull(index.get(Integer.MIN_VALUE));
+        assertNull(index.get(Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("飛び飛びのID: ハッシュ表でも全IDが引けること")
+    void testSparseIds() {
+        List<Riddle> list = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            list.add(riddle(i * 7919 - 500_000, "A"));
+        }
+        list.add(riddle(Integer.MAX_VALUE, "max"));
+        list.add(riddle(Integer.MIN_VALUE, "min"));
+        RiddleIndex index = new RiddleIndex(list);
+
+        for (Riddle r : list) {
+            assertSame(r, index.get(r.id()));
+        }
+        assertNull(index.get(1));
+        assertNull(index.get(7918 - 500_000));
+        assertTrue(index.matcher(Integer.MAX_VALUE).matches("MAX"));
+    }
+
+    @Test
+    @DisplayName("ID重複・null: 先に出てきた方が優先され、IDなしは無視されること")
+    void testDuplicateAndNullIds() {
+        Riddle first = riddle(3, "first");
+        Riddle second = riddle(3, "second");
+        RiddleIndex index = new RiddleIndex(List.of(riddle(null, "x"), first, second));
+
+        assertEquals(3, index.size());
+        assertSame(first, index.get(3));
+        assertTrue(index.matcher(3).matches("first"));
+    }
+
+    @Test
+    @DisplayName("空の索引: 何を引いても null になること")
+    void testEmpty() {
+        assertNull(RiddleIndex.EMPTY_INDEX.get(1));
+        assertNull(RiddleIndex.EMPTY_INDEX.matcher(0));
+        assertEquals(0, RiddleIndex.EMPTY_INDEX.size());
+    }
+
+    @Test
+    @DisplayName("一覧用の要約: 登録順に作られ、正解などは持たず、星は使い回されること")
+    void testSummaries() {
+        Riddle multiLine = new Riddle(2, "  1行目の問題文\n2行目", "secret", "H", "select", null, 3, null, null, null);
+        Riddle longQuestion = new Riddle(1, "あ".repeat(RiddleSummary.TITLE_LENGTH + 5), "A", "H", "text", null, 9, null, null, null);
+        RiddleIndex index = new RiddleIndex(List.of(multiLine, longQuestion, riddle(3, "A")));
+
+        List<RiddleSummary> summaries = index.summaries();
+        assertSame(summaries, index.summaries(), "表示のたびに作り直さないこと");
+        assertEquals(List.of(2, 1, 3), summaries.stream().map(RiddleSummary::id).toList());
+
+        RiddleSummary first = summaries.get(0);
+        assertEquals("1行目の問題文", first.title());
+        assertEquals("select", first.type());
+        assertEquals(3, first.level());
+        assertSame(multiLine.difficultyIcon(), first.difficultyIcon());
+        assertFalse(first.toString().contains("secret"), "要約に正解が入っています");
+
+        // 長すぎる問題文は切る、レベルは最大値に補正する
+        assertEquals("あ".repeat(RiddleSummary.TITLE_LENGTH) + "…", summaries.get(1).title());
+        assertEquals("★★★★★", summaries.get(1).difficultyIcon());
+
+        assertTrue(RiddleIndex.EMPTY_INDEX.summaries().isEmpty());
+    }
+
+    @Test
+    @DisplayName("ページ: 位置から切り出して次の位置を返し、範囲外の位置なら最初のページを返すこと")
+    void testPage() {
+        List<Riddle> list = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            // 飛び飛びのID (ハッシュ表) でも、ページは登録順に並ぶ
+            list.add(riddle(1000 - i * 37, "A"));
+        }
+        RiddleIndex index = new RiddleIndex(list);
+
+        RiddlePage first = index.page(0, 10);
+        assertTrue(first.isFirst());
+        assertEquals(25, first.total());
+        assertEquals(10, first.riddles().size());
+        assertEquals(1000, first.riddles().get(0).id());
+        assertEquals(10, first.next());
+
+        RiddlePage second = index.page(first.next(), 10);
+        assertFalse(second.isFirst());
+        assertEquals(list.get(10).id(), second.riddles().get(0).id());
+
+        RiddlePage last = index.page(second.next(), 10);
+        assertEquals(5, last.riddles().size());
+        assertFalse(last.hasNext());
+
+        RiddlePage outOfRange = index.page(25, 10);
+        assertTrue(outOfRange.isFirst(), "範囲外の位置は最初のページ");
+        assertEquals(1000, outOfRange.riddles().get(0).id());
+        assertTrue(index.page(-1, 10).isFirst());
+        assertTrue(RiddleIndex.EMPTY_INDEX.page(0, 10).riddles().isEmpty());
+    }
+
+    @Test
+    @DisplayName("ページ: IDのない問題や同じIDの問題があっても、途中で止まったり戻ったりせずに全件を1回ずつ返すこと")
+    void testPageNullAndDuplicateIds() {
+        List<Riddle> list = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            // 3件目ごとに ID なし、それ以外は 1, 2 の繰り返し (重複だらけ)
+            list.add(new Riddle(i % 3 == 2 ? null : i % 3 + 1, "Q" + i, "A", "H", "text", null, 1, null, null, null));
+        }
+        RiddleIndex index = new RiddleIndex(list);
+
+        List<String> seen = new ArrayList<>();
+        Integer from = 0;
+        int pages = 0;
+        while (from != null && pages++ < 100) {
+            RiddlePage page = index.page(from, 3);
+            page.riddles().forEach(r -> seen.add(r.title()));
+            // ページの最後の問題は ID なし (null) なので、ID をカーソルにすると止まってしまう
+            assertNull(page.riddles().get(page.riddles().size() - 1).id());
+            from = page.next();
+        }
+        assertEquals(4, pages);
+        assertEquals(list.stream().map(Riddle::question).toList(), seen);
+    }
+}
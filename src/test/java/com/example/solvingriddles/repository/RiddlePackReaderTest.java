@@ -0,0 +1,77 @@
+package com.example.solvingriddles.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ストリーミング読み込み (RiddlePackReader) を検証するテスト
+ * クラスパス・メモリマップの両方から、1件ずつ索引に入ることを確認する。
+ */
+class RiddlePackReaderTest {
+
+    private final RiddlePackReader reader = new RiddlePackReader(new ObjectMapper());
+
+    @Test
+    @DisplayName("クラスパス: 同梱パックを読み込めること")
+    void testReadClasspath() throws IOException {
+        RiddleIndex index = reader.readClasspath("data/hacker_riddles.json");
+
+        assertNotNull(index);
+        assertTrue(index.size() >= 1);
+        assertEquals("click", index.get(4).type());
+        assertEquals(5, index.get(4).options().size());
+        assertTrue(index.matcher(10).isRegex());
+    }
+
+    @Test
+    @DisplayName("クラスパス: ファイルがなければ null を返すこと")
+    void testReadClasspathMissing() throws IOException {
+        assertNull(reader.readClasspath("data/no_such_pack.json"));
+    }
+
+    @Test
+    @DisplayName("メモリマップ: 大きめのパックを1件ずつ読み込めること")
+    void testReadMappedFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("big.json");
+        int count = 20_000;
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write("[");
+            for (int i = 1; i <= count; i++) {
+                if (i > 1) {
+                    w.write(",");
+                }
+                w.write("{\"id\":" + i + ",\"question\":\"問題" + i + "\",\"answer\":\"a" + i
+                        + "\",\"type\":\"text\",\"level\":" + (i % 5 + 1) + "}");
+            }
+            w.write("]");
+        }
+
+        RiddleIndex index = reader.readFile(file);
+
+        assertEquals(count, index.size());
+        assertEquals("問題12345", index.get(12345).question());
+        assertTrue(index.matcher(count).matches("A" + count));
+        assertEquals(count, index.asList().size());
+    }
+
+    @Test
+    @DisplayName("不正な形式: 配列でないJSONは例外になること")
+    void testNotAnArray() {
+        byte[] json = "{\"id\": 1}".getBytes(StandardCharsets.UTF_8);
+        assertThrows(IOException.class, () -> reader.read(new ByteArrayInputStream(json)));
+
+        byte[] mixed = "[{\"id\": 1, \"question\": \"Q\", \"type\": \"text\"}, 42]".getBytes(StandardCharsets.UTF_8);
+        assertThrows(IOException.class, () -> reader.read(new ByteArrayInputStream(mixed)));
+    }
+}
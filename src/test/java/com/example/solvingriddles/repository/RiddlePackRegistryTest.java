@@ -0,0 +1,261 @@
+package com.example.solvingriddles.repository;
+
+import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.model.Riddle;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 問題パックの登録簿 (RiddlePackRegistry) を検証するテスト
+ * 読み込みは数えるだけの偽物に差し替えて、読む回数・降ろす順番・版番号を確認する。
+ */
+class RiddlePackRegistryTest {
+
+    // モードごとに読み込んだ回数
+    private final Map<String, AtomicInteger> loads = new ConcurrentHashMap<>();
+
+    private Function<RiddlePack, RiddleIndex> countingLoader(int riddles) {
+        return pack -> {
+            loads.computeIfAbsent(pack.mode(), k -> new AtomicInteger()).incrementAndGet();
+            return index(pack.mode(), riddles);
+        };
+    }
+
+    private static RiddleIndex index(String question, int riddles) {
+        List<Riddle> list = new ArrayList<>();
+        for (int i = 1; i <= riddles; i++) {
+            list.add(new Riddle(i, question, "A", "H", "text", null, 1, null, null, null));
+        }
+        return new RiddleIndex(list);
+    }
+
+    private static RiddlePack pack(String mode) {
+        return new RiddlePack(mode, AppConst.STYLE_HACKER, "data/" + RiddlePack.fileName(mode), null, false);
+    }
+
+    private int loadsOf(String mode) {
+        AtomicInteger n = loads.get(mode);
+        return n == null ? 0 : n.get();
+    }
+
+    @Test
+    @DisplayName("single-flight: 同時に最初のアクセスが来ても読むのは1回だけで、全員が同じ索引を受け取ること")
+    void testSingleFlight() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RiddlePackRegistry registry = new RiddlePackRegistry(pack -> {
+            loads.computeIfAbsent(pack.mode(), k -> new AtomicInteger()).incrementAndGet();
+            started.countDown();
+            try {
+                // 読み込み中に他のスレッドを来させる
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return index(pack.mode(), 3);
+        }, 0);
+        registry.register(pack("HALLOWEEN"));
+
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<RiddleIndex>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> registry.index("HALLOWEEN")));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            release.countDown();
+
+            RiddleIndex first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<RiddleIndex> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, loadsOf("HALLOWEEN"));
+        assertEquals(1, registry.loadCount());
+        assertTrue(registry.isResident("HALLOWEEN"));
+    }
+
+    @Test
+    @DisplayName("読み込み: 載せても版番号は進まず、知らないモードは読まずに空を返すこと")
+    void testLazyLoad() {
+        RiddlePackRegistry registry = new RiddlePackRegistry(countingLoader(2), 0);
+        registry.register(pack("HALLOWEEN"));
+        assertFalse(registry.isResident("HALLOWEEN"), "登録しただけでは読まないこと");
+
+        long version = registry.catalog().version();
+        assertEquals(2, registry.index("HALLOWEEN").size());
+        registry.index("HALLOWEEN");
+        assertEquals(1, loadsOf("HALLOWEEN"));
+        assertEquals(version, registry.catalog().version());
+
+        assertSame(RiddleIndex.EMPTY_INDEX, registry.index("UNKNOWN"));
+        assertSame(RiddleIndex.EMPTY_INDEX, registry.index(null));
+        assertEquals(0, loadsOf("UNKNOWN"));
+    }
+
+    @Test
+    @DisplayName("読み込み失敗: 読めなかったパックは空のまま載せず、登録し直されるまで読み直さないこと")
+    void testFailedLoadRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+        RiddlePackRegistry registry = new RiddlePackRegistry(pack -> {
+            // 1回目だけ失敗する (デプロイ中でファイルが書きかけだった時など)
+            return attempts.incrementAndGet() == 1 ? null : index(pack.mode(), 2);
+        }, 0);
+        registry.register(pack("HALLOWEEN"));
+
+        assertSame(RiddleIndex.EMPTY_INDEX, registry.index("HALLOWEEN"));
+        assertFalse(registry.isResident("HALLOWEEN"), "失敗した結果は載せないこと");
+        assertEquals(0, registry.loadCount());
+
+        // 何回アクセスされても、変わっていないパックは読み直さない
+        for (int i = 0; i < 10; i++) {
+            assertSame(RiddleIndex.EMPTY_INDEX, registry.index("HALLOWEEN"));
+        }
+        assertEquals(1, attempts.get());
+
+        // 監視から変更を知らされたら (同じパック情報で登録し直し) 読み直す
+        registry.register(pack("HALLOWEEN"));
+        assertEquals(2, registry.index("HALLOWEEN").size());
+        assertTrue(registry.isResident("HALLOWEEN"));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    @DisplayName("読み込み失敗: FAILURE_BACKOFF たったら、変わっていなくても読み直すこと")
+    void testFailedLoadBackoff() {
+        AtomicInteger attempts = new AtomicInteger();
+        RiddlePackRegistry registry = new RiddlePackRegistry(pack -> {
+            attempts.incrementAndGet();
+            return null;
+        }, 0, Duration.ZERO);
+        registry.register(pack("HALLOWEEN"));
+
+        registry.index("HALLOWEEN");
+        registry.index("HALLOWEEN");
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    @DisplayName("読み込み失敗: 壊れたファイルは何回引かれても読み直さず、書き直されたら次のアクセスで読むこと")
+    void testRepositoryRetriesBrokenFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve(RiddlePack.fileName("HALLOWEEN"));
+        Files.writeString(file, "[{\"id\":1,\"question\":\"Q\"");
+        RiddleRepository repository = new RiddleRepository(new ObjectMapper());
+        repository.register(new RiddlePack("HALLOWEEN", AppConst.STYLE_HACKER, null, file, false));
+
+        assertTrue(repository.findAll("HALLOWEEN").isEmpty());
+        assertFalse(repository.isResident("HALLOWEEN"));
+
+        // 中身を直しても更新日時が同じなら (前と同じファイルとみなして) 読まない
+        FileTime broken = Files.getLastModifiedTime(file);
+        Files.writeString(file, "[{\"id\":1,\"question\":\"Q\",\"answer\":\"A\",\"type\":\"text\",\"level\":1}]");
+        Files.setLastModifiedTime(file, broken);
+        assertTrue(repository.findAll("HALLOWEEN").isEmpty());
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(broken.toMillis() + 1_000));
+        assertEquals(1, repository.findAll("HALLOWEEN").size());
+        assertTrue(repository.isResident("HALLOWEEN"));
+    }
+
+    @Test
+    @DisplayName("降ろす: 上限を超えたら一番長く使われていないパックから降ろし、次のアクセスで読み直すこと")
+    void testEviction() {
+        long onePack = index("X", 10).estimatedBytes();
+        // 2つまでなら載る
+        RiddlePackRegistry registry = new RiddlePackRegistry(countingLoader(10), onePack * 2 + onePack / 2);
+        for (String mode : List.of("A", "B", "C")) {
+            registry.register(pack(mode));
+        }
+
+        registry.index("A");
+        registry.index("B");
+        registry.index("A"); // B の方が古くなる
+        long version = registry.catalog().version();
+        registry.index("C");
+
+        assertTrue(registry.isResident("A"));
+        assertFalse(registry.isResident("B"), "一番使われていない B が降ろされること");
+        assertTrue(registry.isResident("C"));
+        assertEquals(1, registry.evictionCount());
+        assertEquals(version, registry.catalog().version(), "降ろしても版番号は進まないこと");
+        assertTrue(registry.catalog().estimatedBytes() <= onePack * 2 + onePack / 2);
+
+        registry.index("B");
+        assertEquals(2, loadsOf("B"), "降ろしたパックは読み直すこと");
+        assertFalse(registry.isResident("A"), "今度は A が一番古い");
+    }
+
+    @Test
+    @DisplayName("降ろす: 1つで上限を超えるパックでも、使っている最中のものは降ろさないこと")
+    void testSinglePackOverBudget() {
+        RiddlePackRegistry registry = new RiddlePackRegistry(countingLoader(10), 1);
+        registry.register(pack("A"));
+
+        assertEquals(10, registry.index("A").size());
+        assertTrue(registry.isResident("A"));
+        assertEquals(0, registry.evictionCount());
+    }
+
+    @Test
+    @DisplayName("登録し直し: 読み込み元が変わったら載っている中身を捨てて版番号を進めること")
+    void testReRegister() {
+        RiddlePackRegistry registry = new RiddlePackRegistry(countingLoader(2), 0);
+        RiddlePack bundled = pack("HACKER");
+        registry.register(bundled);
+        registry.index("HACKER");
+        long version = registry.catalog().version();
+
+        // 同じ情報なら何もしない
+        registry.register(bundled);
+        assertTrue(registry.isResident("HACKER"));
+        assertEquals(version, registry.catalog().version());
+
+        registry.register(bundled.withFile(Path.of("/var/data/riddles/hacker_riddles.json")));
+        assertFalse(registry.isResident("HACKER"));
+        assertTrue(registry.catalog().version() > version);
+        assertNotNull(registry.pack("HACKER").file());
+
+        registry.index("HACKER");
+        assertEquals(2, loadsOf("HACKER"));
+    }
+
+    @Test
+    @DisplayName("既定のパック: 画面ごとに最初に登録されたパックが既定になること")
+    void testPrimaryMode() {
+        RiddlePackRegistry registry = new RiddlePackRegistry(countingLoader(1), 0);
+        registry.register(pack("HACKER"));
+        registry.register(new RiddlePack("CASUAL", AppConst.STYLE_CASUAL, "data/casual_riddles.json", null, true));
+        registry.register(pack("HALLOWEEN"));
+
+        assertEquals("HACKER", registry.primaryMode(AppConst.STYLE_HACKER));
+        assertEquals("CASUAL", registry.primaryMode(AppConst.STYLE_CASUAL));
+        assertNull(registry.primaryMode("other"));
+        assertEquals(List.of("HACKER", "CASUAL", "HALLOWEEN"),
+                registry.packs().stream().map(RiddlePack::mode).toList());
+    }
+}
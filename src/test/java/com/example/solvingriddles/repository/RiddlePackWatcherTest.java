@@ -0,0 +1,128 @@
+package com.example.solvingriddles.repository;
+
+import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.model.Riddle;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 問題パックのホットリロード (RiddlePackWatcher) を検証するテスト
+ * 一時ディレクトリにパックを書き込み、スナップショットが差し替わること、
+ * 壊れたパックでは前のデータが残ることを確認する。
+ */
+class RiddlePackWatcherTest {
+
+    @TempDir
+    Path dir;
+
+    private RiddleRepository repository;
+    private RiddlePackWatcher watcher;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RiddleRepository(new ObjectMapper());
+        repository.init();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (watcher != null) {
+            watcher.stop();
+        }
+    }
+
+    private void writePack(String json) throws Exception {
+        // 一時ファイルに書いてから差し替える (書きかけを読ませない)
+        Path tmp = dir.resolve("hacker.tmp");
+        Files.writeString(tmp, json, StandardCharsets.UTF_8);
+        Files.move(tmp, dir.resolve("hacker_riddles.json"),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String pack(String question) {
+        return "[{\"id\": 1, \"question\": \"" + question + "\", \"answer\": \"a\", \"type\": \"text\", \"level\": 1}]";
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "10秒待ってもリロードされませんでした");
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    @DisplayName("起動時: 外部ディレクトリのパックでクラスパスのパックを上書きすること")
+    void testInitialLoad() throws Exception {
+        writePack(pack("外部Q"));
+        watcher = new RiddlePackWatcher(repository, dir.toString());
+        watcher.start();
+
+        assertEquals("外部Q", repository.findById(AppConst.MODE_HACKER, 1).map(Riddle::question).orElseThrow());
+        assertEquals(1, repository.findAll(AppConst.MODE_HACKER).size());
+        // 置いていないモードはクラスパスのまま
+        assertFalse(repository.findAll(AppConst.MODE_CASUAL).isEmpty());
+        assertEquals(1, watcher.getReloadCount());
+    }
+
+    @Test
+    @DisplayName("実行中: ファイルを書き換えるとスナップショットが差し替わること")
+    void testReloadOnChange() throws Exception {
+        watcher = new RiddlePackWatcher(repository, dir.toString());
+        watcher.start();
+        long before = repository.snapshot().version();
+
+        writePack(pack("更新後Q"));
+
+        await(() -> repository.findById(AppConst.MODE_HACKER, 1)
+                .map(r -> "更新後Q".equals(r.question())).orElse(false));
+        assertTrue(repository.snapshot().version() > before, "版番号が進んでいません");
+        assertTrue(repository.findMatcher(AppConst.MODE_HACKER, 1).orElseThrow().matches("A"));
+    }
+
+    @Test
+    @DisplayName("壊れたパック: リロードに失敗しても前のデータのまま動くこと")
+    void testInvalidPackKeepsOldSnapshot() throws Exception {
+        writePack(pack("正常Q"));
+        watcher = new RiddlePackWatcher(repository, dir.toString());
+        watcher.start();
+        RiddleCatalog good = repository.snapshot();
+
+        // 正規表現が壊れている
+        writePack("[{\"id\": 1, \"question\": \"Q\", \"answer\": \"^(壊れ$\", \"type\": \"text\"}]");
+
+        await(() -> watcher.getFailedReloadCount() >= 1);
+        assertSame(good, repository.snapshot(), "壊れたパックが公開されています");
+        assertEquals("正常Q", repository.findById(AppConst.MODE_HACKER, 1).orElseThrow().question());
+    }
+
+    @Test
+    @DisplayName("新しいパック: 登録だけして、最初のアクセスで読むこと (画面は packs.json で選べる)")
+    void testNewPackIsLazy() throws Exception {
+        Files.writeString(dir.resolve("halloween_riddles.json"), pack("ハロウィンQ"), StandardCharsets.UTF_8);
+        Files.writeString(dir.resolve(RiddleRepository.MANIFEST),
+                "[{\"mode\": \"HALLOWEEN\", \"style\": \"casual\", \"file\": \"halloween_riddles.json\"}]",
+                StandardCharsets.UTF_8);
+        watcher = new RiddlePackWatcher(repository, dir.toString());
+        watcher.start();
+
+        assertEquals(AppConst.STYLE_CASUAL, repository.findPack("HALLOWEEN").orElseThrow().style());
+        assertFalse(repository.isResident("HALLOWEEN"), "起動時には読まないこと");
+        assertEquals("ハロウィンQ", repository.findById("HALLOWEEN", 1).map(Riddle::question).orElseThrow());
+        assertTrue(repository.isResident("HALLOWEEN"));
+        assertEquals(0, watcher.getReloadCount());
+    }
+}
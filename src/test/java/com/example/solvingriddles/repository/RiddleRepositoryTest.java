@@ -1,5 +1,6 @@
 package com.example.solvingriddles.repository;
 
+import com.example.solvingriddles.model.AnswerMatcher;
 import com.example.solvingriddles.model.Riddle;
 import com.example.solvingriddles.model.RiddleOption;
 import com.example.solvingriddles.constant.AppConst;
@@ -196,6 +197,30 @@ class RiddleRepositoryTest {
         assertNotNull(riddle.answer(), "正解が定義されていません");
     }
 
+    /**
+     * 正解判定器の事前コンパイルテスト
+     * 条件: ID=10 (正規表現の正解) と ID=1 (通常の正解)
+     * 検証項目:
+     * 1. 判定器が取得できること
+     * 2. '^' 始まりの正解は正規表現として扱われること
+     * 3. 存在しないIDなら空が返ること
+     */
+    @Test
+    @DisplayName("判定器確認: 読み込み時に正解判定器がコンパイルされていること")
+    void testFindMatcher() {
+        Optional<AnswerMatcher> regex = repository.findMatcher(AppConst.MODE_HACKER, 10);
+        assertTrue(regex.isPresent(), "ID=10の判定器が見つかりません");
+        assertTrue(regex.get().isRegex());
+        assertTrue(regex.get().matches("Takoyaki"));
+
+        Optional<AnswerMatcher> exact = repository.findMatcher(AppConst.MODE_HACKER, 1);
+        assertTrue(exact.isPresent(), "ID=1の判定器が見つかりません");
+        assertFalse(exact.get().isRegex());
+        assertTrue(exact.get().matches("101"));
+
+        assertTrue(repository.findMatcher(AppConst.MODE_HACKER, 999).isEmpty());
+    }
+
     /****************************************
      * Hacker/Casualモードの謎解きデータ読み込みテスト
      ****************************************/
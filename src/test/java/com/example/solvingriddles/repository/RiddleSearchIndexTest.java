@@ -0,0 +1,140 @@
+package com.example.solvingriddles.repository;
+
+import com.example.solvingriddles.model.Progress;
+import com.example.solvingriddles.model.Riddle;
+import com.example.solvingriddles.model.RiddleQuery;
+import com.example.solvingriddles.model.RiddleSearchResult;
+import com.example.solvingriddles.model.RiddleSummary;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 検索 (RiddleIndex.search と RiddleSearchIndex) を検証する単体テスト
+ * 日本語のキーワード・表記ゆれ・絞り込みの組み合わせ・ページ送りが、全件なめた時と同じ結果になることを確認する。
+ */
+class RiddleSearchIndexTest {
+
+    private static Riddle riddle(int id, String question, String type, int level) {
+        return new Riddle(id, question, "A", "H", type, null, level, null, null, null);
+    }
+
+    private static final RiddleIndex INDEX = new RiddleIndex(List.of(
+        riddle(1, "サーバーのパスワードを入力せよ", "text", 1),
+        riddle(2, "画像の中から鍵を探してクリック", "image-map", 2),
+        riddle(3, "ぱすわーどは逆さまに読め", "text", 2),
+        riddle(4, "ボタンを押せ", "click", 3),
+        riddle(5, "ＰＡＳＳＷＯＲＤ is hidden", "text", 3),
+        riddle(6, "スワード・パス", "text", 1)
+    ));
+
+    private static List<Integer> ids(RiddleSearchResult result) {
+        return result.riddles().stream().map(RiddleSummary::id).toList();
+    }
+
+    private static RiddleQuery keyword(String keyword) {
+        return new RiddleQuery(keyword, null, null, null, 0, RiddleQuery.DEFAULT_SIZE);
+    }
+
+    @Test
+    @DisplayName("キーワード: 形態素解析なしで日本語の途中の言葉も引けて、カタカナ/ひらがな・全角/半角の違いは無視すること")
+    void testKeyword() {
+        assertEquals(List.of(1, 3), ids(INDEX.search("HACKER", keyword("パスワード"), Progress.EMPTY)));
+        assertEquals(List.of(1, 3), ids(INDEX.search("HACKER", keyword("ぱすわ"), Progress.EMPTY)));
+        assertEquals(List.of(2), ids(INDEX.search("HACKER", keyword("鍵"), Progress.EMPTY)));
+        assertEquals(List.of(5), ids(INDEX.search("HACKER", keyword("password"), Progress.EMPTY)));
+        assertEquals(List.of(), ids(INDEX.search("HACKER", keyword("存在しない"), Progress.EMPTY)));
+    }
+
+    @Test
+    @DisplayName("キーワード: 2文字の並びが全部あっても、続いていなければ当たらないこと")
+    void testKeywordVerified() {
+        // 「すわーど・ぱす」は "ぱす" "すわ" "わー" "ーど" を全部含むが「ぱすわーど」ではない
+        assertFalse(ids(INDEX.search("HACKER", keyword("ぱすわーど"), Progress.EMPTY)).contains(6));
+    }
+
+    @Test
+    @DisplayName("絞り込み: 同じ項目は OR、項目どうしは AND で、候補ごとの件数はその項目以外の条件で数えること")
+    void testFacets() {
+        RiddleQuery query = new RiddleQuery(null, Set.of(1, 2), Set.of("text"), null, 0, RiddleQuery.DEFAULT_SIZE);
+        RiddleSearchResult result = INDEX.search("HACKER", query, Progress.EMPTY);
+
+        assertEquals(List.of(1, 3, 6), ids(result));
+        assertEquals(3, result.total());
+        // レベルの件数は種類 (text) だけで絞った数
+        assertEquals(Map.of(1, 2, 2, 1, 3, 1), result.levels());
+        // 種類の件数はレベル (1 か 2) だけで絞った数
+        assertEquals(Map.of("text", 3, "image-map", 1, "click", 0), result.types());
+        assertEquals(List.of(1, 2, 3), List.copyOf(result.levels().keySet()), "レベル順に並ぶこと");
+    }
+
+    @Test
+    @DisplayName("クリア状況: クリア済みだけ・未クリアだけで絞り込めること")
+    void testCleared() {
+        Progress progress = Progress.EMPTY.with(1).with(4).with(999);
+        RiddleQuery cleared = new RiddleQuery(null, null, null, true, 0, RiddleQuery.DEFAULT_SIZE);
+        RiddleQuery uncleared = new RiddleQuery(null, null, null, false, 0, RiddleQuery.DEFAULT_SIZE);
+
+        assertEquals(List.of(1, 4), ids(INDEX.search("HACKER", cleared, progress)));
+        assertEquals(List.of(2, 3, 5, 6), ids(INDEX.search("HACKER", uncleared, progress)));
+        assertEquals(List.of(), ids(INDEX.search("HACKER", cleared, Progress.EMPTY)));
+    }
+
+    @Test
+    @DisplayName("クリア状況: ID が MAX_ID (4095) までなら絞り込めて、4096 の問題があるパックでは絞り込まないこと")
+    void testClearedBoundary() {
+        RiddleQuery uncleared = new RiddleQuery(null, null, null, false, 0, RiddleQuery.DEFAULT_SIZE);
+
+        RiddleIndex upToMax = new RiddleIndex(List.of(riddle(1, "Q", "text", 1), riddle(Progress.MAX_ID, "Q", "text", 1)));
+        Progress progress = Progress.EMPTY.with(Progress.MAX_ID);
+        assertTrue(upToMax.tracksProgress());
+        RiddleSearchResult tracked = upToMax.search("HACKER", uncleared, progress);
+        assertTrue(tracked.clearedFacet());
+        assertEquals(List.of(1), ids(tracked), "4095 はクリア済みとして記録できる");
+
+        RiddleIndex beyond = new RiddleIndex(List.of(riddle(1, "Q", "text", 1), riddle(Progress.MAX_ID + 1, "Q", "text", 1)));
+        assertFalse(beyond.tracksProgress());
+        RiddleSearchResult untracked = beyond.search("HACKER", uncleared, progress.with(Progress.MAX_ID + 1));
+        assertFalse(untracked.clearedFacet());
+        assertEquals(List.of(1, Progress.MAX_ID + 1), ids(untracked), "いつまでも未クリアに見える問題で絞り込まない");
+    }
+
+    @Test
+    @DisplayName("ページ送り: 登録順に size 件ずつ返し、範囲外のページは空になること")
+    void testPaging() {
+        List<Riddle> list = new ArrayList<>();
+        for (int i = 1; i <= 95; i++) {
+            list.add(riddle(i, "問題" + i, i % 2 == 0 ? "text" : "click", i % 5 + 1));
+        }
+        RiddleIndex index = new RiddleIndex(list);
+        RiddleQuery query = new RiddleQuery(null, null, Set.of("click"), null, 1, 20);
+        RiddleSearchResult result = index.search("BENCH", query, Progress.EMPTY);
+
+        assertEquals(48, result.total());
+        assertEquals(3, result.pageCount());
+        assertTrue(result.hasPrevious());
+        assertTrue(result.hasNext());
+        assertEquals(41, result.riddles().get(0).id());
+        assertEquals(20, result.riddles().size());
+
+        RiddleSearchResult last = index.search("BENCH", new RiddleQuery(null, null, Set.of("click"), null, 2, 20), Progress.EMPTY);
+        assertEquals(8, last.riddles().size());
+        assertFalse(last.hasNext());
+        assertTrue(index.search("BENCH", new RiddleQuery(null, null, null, null, 99, 20), Progress.EMPTY).riddles().isEmpty());
+    }
+
+    @Test
+    @DisplayName("大きさの見積もり: 検索用の索引を作ったらその分も足すこと")
+    void testEstimatedBytes() {
+        RiddleIndex index = new RiddleIndex(List.of(riddle(1, "あいうえお", "text", 1)));
+        long before = index.estimatedBytes();
+        assertSame(index.searchIndex(), index.searchIndex(), "索引は1回だけ作ること");
+        assertTrue(index.estimatedBytes() > before);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.solvingriddles.repository;
+
+import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.model.Riddle;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * バイナリのスナップショット (RiddleSnapshot) を検証するテスト
+ * 書いて読んだら JSON と同じ中身になることと、古い・壊れたファイルを読まないことを確認する。
+ */
+class RiddleSnapshotTest {
+
+    private static final long CHECKSUM = 0x1234_5678_9ABCL;
+
+    private final RiddlePackReader reader = new RiddlePackReader(new ObjectMapper());
+
+    @Test
+    @DisplayName("往復: 書き出して読み込むと JSON から読んだのと同じ問題・判定器になること")
+    void testRoundTrip(@TempDir Path dir) throws IOException {
+        Map<String, List<Riddle>> packs = bundledPacks();
+        Path file = dir.resolve("riddles" + RiddleRepository.SNAPSHOT_SUFFIX);
+
+        RiddleSnapshot.write(file, CHECKSUM, packs);
+        Map<String, RiddleIndex> loaded = RiddleSnapshot.read(file, CHECKSUM);
+
+        assertNotNull(loaded);
+        assertEquals(packs.keySet(), loaded.keySet());
+        for (String mode : packs.keySet()) {
+            assertEquals(packs.get(mode), loaded.get(mode).asList(), mode);
+        }
+        RiddleIndex hacker = loaded.get(AppConst.MODE_HACKER);
+        assertEquals(5, hacker.get(4).options().size());
+        assertTrue(hacker.matcher(10).isRegex(), "正解判定器も作り直されていること");
+        assertTrue(hacker.matcher(3).matches("cut"));
+        // 同じ文字列は1つのインスタンスを共有する
+        assertSame(hacker.get(1).type(), hacker.get(2).type());
+    }
+
+    @Test
+    @DisplayName("古いファイル: JSON のチェックサムが違えば読まずに null を返すこと")
+    void testStale(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("riddles" + RiddleRepository.SNAPSHOT_SUFFIX);
+        RiddleSnapshot.write(file, CHECKSUM, bundledPacks());
+
+        assertNull(RiddleSnapshot.read(file, CHECKSUM + 1));
+    }
+
+    @Test
+    @DisplayName("壊れたファイル: 本体が1バイトでも違えば null を返すこと")
+    void testCorrupted(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("riddles" + RiddleRepository.SNAPSHOT_SUFFIX);
+        RiddleSnapshot.write(file, CHECKSUM, bundledPacks());
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(file, bytes);
+
+        assertNull(RiddleSnapshot.read(file, CHECKSUM));
+        // 途中で切れたファイルも同じ
+        Files.write(file, Arrays.copyOf(bytes, 10));
+        assertNull(RiddleSnapshot.read(file, CHECKSUM));
+    }
+
+    @Test
+    @DisplayName("ファイルなし: null を返すこと")
+    void testMissing(@TempDir Path dir) throws IOException {
+        assertNull(RiddleSnapshot.read(dir.resolve("none.snapshot"), CHECKSUM));
+    }
+
+    @Test
+    @DisplayName("起動: 1回目は JSON からパックごとに書き出し、2回目はスナップショットから読むこと")
+    void testRepositoryUsesSnapshot(@TempDir Path dir) throws IOException {
+        RiddleRepository first = new RiddleRepository(new ObjectMapper(), dir.toString());
+        first.init();
+        Path file = dir.resolve(AppConst.MODE_HACKER + RiddleRepository.SNAPSHOT_SUFFIX);
+        assertTrue(Files.exists(file), "初回起動で書き出されること");
+        assertTrue(Files.exists(dir.resolve(AppConst.MODE_CASUAL + RiddleRepository.SNAPSHOT_SUFFIX)));
+
+        // 同じチェックサムのまま、1問減らしたスナップショットに差し替える
+        long checksum = ByteBuffer.wrap(Files.readAllBytes(file)).getLong(8);
+        List<Riddle> hacker = new ArrayList<>(bundledPacks().get(AppConst.MODE_HACKER));
+        hacker.remove(hacker.size() - 1);
+        RiddleSnapshot.write(file, checksum, Map.of(AppConst.MODE_HACKER, hacker));
+
+        RiddleRepository second = new RiddleRepository(new ObjectMapper(), dir.toString());
+        second.init();
+        assertEquals(hacker, second.findAll(AppConst.MODE_HACKER), "JSON ではなくスナップショットから読んでいること");
+        assertEquals(first.findAll(AppConst.MODE_CASUAL), second.findAll(AppConst.MODE_CASUAL));
+    }
+
+    @Test
+    @DisplayName("チェックサム: メモリマップで取っても流しながら取っても同じ値で、中身・モードが変われば変わること")
+    void testChecksum(@TempDir Path dir) throws IOException {
+        byte[] json = "[{\"id\":1}]".getBytes(StandardCharsets.UTF_8);
+        Path file = dir.resolve("hacker_riddles.json");
+        Files.write(file, json);
+
+        long mapped = RiddleRepository.checksum(AppConst.MODE_HACKER, file);
+        assertEquals(mapped, RiddleRepository.checksum(AppConst.MODE_HACKER, new ByteArrayInputStream(json)));
+        assertEquals(json.length, mapped >>> 32, "上位32ビットが長さ");
+        assertNotEquals(mapped, RiddleRepository.checksum(AppConst.MODE_CASUAL, file));
+
+        json[json.length - 2] = '2';
+        Files.write(file, json);
+        assertNotEquals(mapped, RiddleRepository.checksum(AppConst.MODE_HACKER, file));
+    }
+
+    private Map<String, List<Riddle>> bundledPacks() throws IOException {
+        Map<String, List<Riddle>> packs = new LinkedHashMap<>();
+        packs.put(AppConst.MODE_HACKER, reader.readClasspath("data/hacker_riddles.json").asList());
+        packs.put(AppConst.MODE_CASUAL, reader.readClasspath("data/casual_riddles.json").asList());
+        return packs;
+    }
+}
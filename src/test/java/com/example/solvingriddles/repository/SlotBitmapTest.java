@@ -0,0 +1,101 @@
+package com.example.solvingriddles.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * スロット番号の集合 (SlotBitmap) を検証する単体テスト
+ * まばら (int 配列) とぎっしり (ビット列) の組み合わせ全部で、java.util.BitSet と同じ結果になることを確認する。
+ */
+class SlotBitmapTest {
+
+    private static final int UNIVERSE = 10_000;
+
+    // 1/density の確率で入った集合を、SlotBitmap と BitSet の両方で作る
+    private static SlotBitmap random(SplittableRandom random, int density, BitSet expected) {
+        int[] slots = new int[UNIVERSE];
+        int n = 0;
+        for (int i = 0; i < UNIVERSE; i++) {
+            if (random.nextInt(density) == 0) {
+                slots[n++] = i;
+                expected.set(i);
+            }
+        }
+        return SlotBitmap.ofSorted(UNIVERSE, slots, n);
+    }
+
+    private static void assertSameSet(BitSet expected, SlotBitmap actual) {
+        assertEquals(expected.cardinality(), actual.cardinality());
+        int slot = actual.next(0);
+        for (int i = expected.nextSetBit(0); i >= 0; i = expected.nextSetBit(i + 1)) {
+            assertEquals(i, slot);
+            assertTrue(actual.contains(i));
+            slot = actual.next(slot + 1);
+        }
+        assertEquals(-1, slot);
+    }
+
+    @Test
+    @DisplayName("持ち方: 件数が全体の1/32以下なら int 配列、それより多ければビット列になること")
+    void testRepresentation() {
+        SplittableRandom random = new SplittableRandom(1);
+        assertTrue(random(random, 100, new BitSet()).isArray());
+        assertFalse(random(random, 2, new BitSet()).isArray());
+        assertFalse(SlotBitmap.all(UNIVERSE).isArray());
+        assertTrue(SlotBitmap.empty(UNIVERSE).isArray());
+        assertEquals(UNIVERSE, SlotBitmap.all(UNIVERSE).cardinality());
+        assertEquals(UNIVERSE - 1, SlotBitmap.all(UNIVERSE).next(UNIVERSE - 1));
+        assertEquals(-1, SlotBitmap.all(UNIVERSE).next(UNIVERSE));
+    }
+
+    @Test
+    @DisplayName("演算: AND / OR / AND NOT と AND の件数が、どの持ち方の組み合わせでも BitSet と同じになること")
+    void testOperations() {
+        SplittableRandom random = new SplittableRandom(42);
+        int[] densities = {1000, 40, 3};
+        for (int da : densities) {
+            for (int db : densities) {
+                BitSet a = new BitSet();
+                BitSet b = new BitSet();
+                SlotBitmap x = random(random, da, a);
+                SlotBitmap y = random(random, db, b);
+
+                BitSet and = (BitSet) a.clone();
+                and.and(b);
+                assertSameSet(and, x.and(y));
+                assertEquals(and.cardinality(), x.andCardinality(y));
+
+                BitSet or = (BitSet) a.clone();
+                or.or(b);
+                assertSameSet(or, x.or(y));
+
+                BitSet andNot = (BitSet) a.clone();
+                andNot.andNot(b);
+                assertSameSet(andNot, x.andNot(y));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("ぎっしり同士の AND でまばらになったら int 配列に直すこと")
+    void testShrinkToArray() {
+        int[] even = new int[UNIVERSE / 2];
+        int[] low = new int[UNIVERSE / 2];
+        for (int i = 0; i < UNIVERSE / 2; i++) {
+            even[i] = i * 2;
+            low[i] = i;
+        }
+        SlotBitmap x = SlotBitmap.ofSorted(UNIVERSE, even, even.length);
+        SlotBitmap y = SlotBitmap.ofSorted(UNIVERSE, new int[]{0, 2, 3, 4}, 4).or(
+                SlotBitmap.ofSorted(UNIVERSE, low, 10));
+        SlotBitmap z = x.and(y);
+        assertTrue(z.isArray());
+        assertEquals(5, z.cardinality()); // 0, 2, 4, 6, 8
+        assertFalse(SlotBitmap.ofSorted(UNIVERSE, low, low.length).isArray());
+    }
+}
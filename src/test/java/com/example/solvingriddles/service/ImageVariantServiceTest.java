@@ -0,0 +1,155 @@
+package com.example.solvingriddles.service;
+
+import com.example.solvingriddles.model.ImageSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 問題画像の縮小版 (ImageVariantService) を検証するテスト
+ * 同梱の画像 (level5.png: 1920x1080, raspi.png: 225x225) で、srcset の中身と縮小版の作成を確認する。
+ */
+class ImageVariantServiceTest {
+
+    private static final Pattern HASH = Pattern.compile("/images/v/([0-9a-f]{8})/");
+
+    @TempDir
+    Path cacheDir;
+
+    private ImageVariantService service() {
+        return new ImageVariantService(cacheDir.toString());
+    }
+
+    private static String hashOf(ImageSet set) {
+        Matcher m = HASH.matcher(set.srcset());
+        assertTrue(m.find(), set.srcset());
+        return m.group(1);
+    }
+
+    @Test
+    @DisplayName("srcset: 元画像より小さい幅だけ並び、src は画面幅 (600px) の縮小版になること")
+    void testDescribe() {
+        ImageSet set = service().describe("/images/level5.png");
+
+        assertNotNull(set);
+        assertEquals(600, set.baseWidth());
+        assertTrue(set.src().matches("/images/v/[0-9a-f]{8}/600/level5\\.png"), set.src());
+        for (String w : List.of(" 300w", " 600w", " 900w", " 1200w", "/images/level5.png 1920w")) {
+            assertTrue(set.srcset().contains(w), set.srcset());
+        }
+        assertNotNull(set.sizes());
+    }
+
+    @Test
+    @DisplayName("srcset: 画面幅より小さい画像は縮小版を作らず、座標の基準は元の幅になること")
+    void testDescribeSmallImage() {
+        ImageSet set = service().describe("/images/raspi.png");
+
+        assertEquals("/images/raspi.png", set.src());
+        assertNull(set.srcset());
+        assertEquals(225, set.baseWidth());
+
+        assertNull(service().describe(null));
+        assertNull(service().describe("/images/nothing.png"));
+        assertNull(service().describe("https://example.com/a.png"));
+    }
+
+    @Test
+    @DisplayName("縮小版: 透明のない画像は指定の幅の JPEG になり、2回目は同じファイルを使うこと")
+    void testVariant() throws Exception {
+        ImageVariantService service = service();
+        String hash = hashOf(service.describe("/images/level5.png"));
+
+        ImageVariantService.Variant v = service.variant(hash, 300, "level5.png",
+                MediaType.parseMediaTypes("image/webp,image/*;q=0.8,*/*;q=0.5")).orElseThrow();
+
+        assertEquals(MediaType.IMAGE_JPEG, v.contentType());
+        BufferedImage image = ImageIO.read(v.file().toFile());
+        assertEquals(300, image.getWidth());
+        assertEquals(169, image.getHeight());
+        assertTrue(Files.size(v.file()) < 275_347 / 5, "縮小版が小さくなっていません");
+
+        assertEquals(v.file(), service.variant(hash, 300, "level5.png", List.of()).orElseThrow().file());
+        // 再起動しても、ディスクにあるものを使う
+        assertEquals(v.file(), service().variant(hash, 300, "level5.png", List.of()).orElseThrow().file());
+    }
+
+    @Test
+    @DisplayName("縮小版: 作った後にファイルが消されても、次に頼まれた時に作り直すこと")
+    void testVariantRecreatedAfterDelete() throws Exception {
+        ImageVariantService service = service();
+        String hash = hashOf(service.describe("/images/level5.png"));
+        ImageVariantService.Variant v = service.variant(hash, 300, "level5.png", List.of()).orElseThrow();
+
+        Files.delete(v.file());
+
+        ImageVariantService.Variant again = service.variant(hash, 300, "level5.png", List.of()).orElseThrow();
+        assertEquals(v.file(), again.file());
+        assertTrue(Files.exists(again.file()), "消えたファイルを返しています");
+        assertEquals(300, ImageIO.read(again.file().toFile()).getWidth());
+    }
+
+    @Test
+    @DisplayName("縮小版: PNG しか受け取れないブラウザには PNG を返すこと")
+    void testVariantNegotiation() throws Exception {
+        ImageVariantService service = service();
+        String hash = hashOf(service.describe("/images/level5.png"));
+
+        ImageVariantService.Variant v = service.variant(hash, 600, "level5.png",
+                List.of(MediaType.IMAGE_PNG)).orElseThrow();
+
+        assertEquals(MediaType.IMAGE_PNG, v.contentType());
+        assertEquals(600, ImageIO.read(v.file().toFile()).getWidth());
+    }
+
+    @Test
+    @DisplayName("縮小版: 知らない幅・古いハッシュ・変なファイル名は作らないこと")
+    void testVariantRejected() {
+        ImageVariantService service = service();
+        String hash = hashOf(service.describe("/images/level5.png"));
+
+        assertEquals(Optional.empty(), service.variant(hash, 301, "level5.png", List.of()));
+        assertEquals(Optional.empty(), service.variant("00000000", 300, "level5.png", List.of()));
+        assertEquals(Optional.empty(), service.variant(hash, 300, "../application.properties", List.of()));
+        assertEquals(Optional.empty(), service.variant(hash, 300, "raspi.png", List.of()));
+    }
+
+    @Test
+    @DisplayName("縮小版: 同時に頼まれても作るのは1回で、みんな同じファイルを受け取ること")
+    void testSingleFlight() throws Exception {
+        ImageVariantService service = service();
+        String hash = hashOf(service.describe("/images/id-13-logo.png"));
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Path>> results = new java.util.ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> service.variant(hash, 900, "id-13-logo.png", List.of()).orElseThrow().file()));
+            }
+            Path first = results.get(0).get();
+            for (Future<Path> f : results) {
+                assertEquals(first, f.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        try (var files = Files.list(cacheDir)) {
+            assertEquals(1, files.count(), "縮小版が1つだけ置かれていること (書きかけのファイルも残らない)");
+        }
+    }
+}
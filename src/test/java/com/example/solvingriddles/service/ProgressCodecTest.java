@@ -0,0 +1,115 @@
+package com.example.solvingriddles.service;
+
+import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.model.Progress;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 進捗の署名付きエンコード (ProgressCodec) を検証するテスト
+ * 往復で値が変わらないこと、サイズが小さいこと、改ざんを弾くことを確認する。
+ */
+class ProgressCodecTest {
+
+    private final ProgressCodec codec = new ProgressCodec("test-secret");
+
+    @Test
+    @DisplayName("往復: エンコードしてデコードすると同じ進捗に戻ること")
+    void testRoundTrip() {
+        Progress progress = Progress.EMPTY.with(1).with(7).with(8).with(63).with(64).with(500);
+
+        String token = codec.encode(AppConst.MODE_HACKER, progress);
+
+        assertEquals(progress, codec.decode(AppConst.MODE_HACKER, token));
+        assertEquals(Progress.EMPTY, codec.decode(AppConst.MODE_HACKER, codec.encode(AppConst.MODE_HACKER, Progress.EMPTY)));
+    }
+
+    @Test
+    @DisplayName("サイズ: 数十問の進捗が数十バイトに収まること")
+    void testCompact() {
+        Progress progress = Progress.EMPTY;
+        for (int id = 1; id <= 40; id++) {
+            progress = progress.with(id);
+        }
+
+        String token = codec.encode(AppConst.MODE_CASUAL, progress);
+
+        // 版番号1 + ビットマップ6 + 署名12 = 19バイト → Base64で26文字
+        assertEquals(19, Base64.getUrlDecoder().decode(token).length);
+        assertTrue(token.length() <= 32, token);
+    }
+
+    @Test
+    @DisplayName("改ざん: ビットを書き換えた値は進捗なしになること")
+    void testTampered() {
+        String token = codec.encode(AppConst.MODE_HACKER, Progress.EMPTY.with(1));
+        byte[] raw = Base64.getUrlDecoder().decode(token);
+        raw[1] |= 0x7E; // ID 1〜6 を全部クリアしたことにする
+        String forged = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+
+        assertEquals(Progress.EMPTY, codec.decode(AppConst.MODE_HACKER, forged));
+    }
+
+    @Test
+    @DisplayName("別の鍵・別のモード・壊れた値は進捗なしになること")
+    void testRejected() {
+        String token = codec.encode(AppConst.MODE_HACKER, Progress.EMPTY.with(3));
+
+        assertEquals(Progress.EMPTY, new ProgressCodec("other-secret").decode(AppConst.MODE_HACKER, token));
+        assertEquals(Progress.EMPTY, codec.decode(AppConst.MODE_CASUAL, token));
+        assertEquals(Progress.EMPTY, codec.decode(AppConst.MODE_HACKER, "!!!not-base64!!!"));
+        assertEquals(Progress.EMPTY, codec.decode(AppConst.MODE_HACKER, "AQ"));
+        assertEquals(Progress.EMPTY, codec.decode(AppConst.MODE_HACKER, "A".repeat(10_000)));
+        assertEquals(Progress.EMPTY, codec.decode(AppConst.MODE_HACKER, null));
+    }
+
+    @Test
+    @DisplayName("進捗: 範囲外のIDは記録されず、クリア済みを足しても変わらないこと")
+    void testProgressBounds() {
+        Progress progress = Progress.EMPTY.with(5);
+
+        assertSame(progress, progress.with(5));
+        assertSame(progress, progress.with(Progress.MAX_ID + 1));
+        assertSame(progress, progress.with(-1));
+        assertSame(progress, progress.with(null));
+        assertTrue(progress.isCleared(5));
+        assertFalse(progress.isCleared(4));
+        assertFalse(progress.isCleared(100_000));
+        assertEquals(1, progress.count());
+    }
+
+    @Test
+    @DisplayName("進捗: MAX_ID (4095) は記録してエンコードの往復もでき、4096 は記録しないこと")
+    void testMaxIdBoundary() {
+        assertTrue(Progress.isTrackable(Progress.MAX_ID));
+        assertFalse(Progress.isTrackable(Progress.MAX_ID + 1));
+
+        Progress last = Progress.EMPTY.with(Progress.MAX_ID);
+        assertTrue(last.isCleared(Progress.MAX_ID));
+        assertEquals(last, codec.decode(AppConst.MODE_HACKER, codec.encode(AppConst.MODE_HACKER, last)));
+        assertSame(last, last.with(Progress.MAX_ID + 1));
+        assertFalse(last.with(Progress.MAX_ID + 1).isCleared(Progress.MAX_ID + 1));
+    }
+
+    @Test
+    @DisplayName("鍵なし: dev / test プロファイル以外では起動に失敗し、dev なら起動ごとの鍵で動くこと")
+    void testSecretRequired() {
+        MockEnvironment prod = new MockEnvironment();
+        assertThrows(IllegalStateException.class, () -> new ProgressCodec("", prod));
+        assertThrows(IllegalStateException.class, () -> new ProgressCodec(null, prod));
+
+        ProgressCodec fixed = new ProgressCodec("test-secret", prod);
+        Progress progress = Progress.EMPTY.with(7);
+        assertEquals(progress, codec.decode(AppConst.MODE_HACKER, fixed.encode(AppConst.MODE_HACKER, progress)));
+
+        MockEnvironment dev = new MockEnvironment();
+        dev.setActiveProfiles("dev");
+        ProgressCodec random = new ProgressCodec("", dev);
+        assertEquals(progress, random.decode(AppConst.MODE_HACKER, random.encode(AppConst.MODE_HACKER, progress)));
+    }
+}
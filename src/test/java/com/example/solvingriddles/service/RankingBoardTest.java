@@ -0,0 +1,150 @@
+package com.example.solvingriddles.service;
+
+import com.example.solvingriddles.model.RankingEntry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ランキングのボード (RankingBoard) を検証するテスト
+ * 並び順・重複クリアの扱いと、大量の同時書き込み・読み込みで壊れないことを確認する。
+ */
+class RankingBoardTest {
+
+    @Test
+    @DisplayName("並び順: スコアの高い順、同点なら先に着いた順になること")
+    void testOrder() {
+        RankingBoard board = new RankingBoard(100);
+        board.record("alice", 1, 3, 1000);
+        board.record("bob", 1, 5, 2000);
+        board.record("carol", 2, 3, 500);
+        board.record("alice", 2, 2, 3000);
+
+        List<RankingEntry> top = board.top(10);
+
+        // alice と bob は5点で同点やけど、bob の方が先に5点に着いた
+        assertEquals(List.of("bob", "alice", "carol"), top.stream().map(RankingEntry::player).toList());
+        assertEquals(new RankingEntry(2, "alice", 5, 2), top.get(1));
+        assertEquals(2, board.top(2).size());
+    }
+
+    @Test
+    @DisplayName("同じ問題: 何回クリアしてもスコアは1回分だけ増えること")
+    void testDuplicateSolve() {
+        RankingBoard board = new RankingBoard(100);
+
+        assertTrue(board.record("alice", 1, 3, 1000));
+        assertFalse(board.record("alice", 1, 3, 2000));
+
+        assertEquals(3, board.scoreOf("alice"));
+        assertEquals(1, board.totalSolves());
+    }
+
+    @Test
+    @DisplayName("人数の上限: 上限を超えた新しいプレイヤーは記録されないこと")
+    void testMaxPlayers() {
+        RankingBoard board = new RankingBoard(2);
+        board.record("alice", 1, 1, 1);
+        board.record("bob", 1, 1, 1);
+
+        assertFalse(board.record("mallory", 1, 1, 1));
+        // 既にいるプレイヤーは続けて記録できる
+        assertTrue(board.record("alice", 2, 1, 2));
+        assertEquals(2, board.playerCount());
+    }
+
+    /**
+     * ストレステスト
+     * 条件: 16スレッドが合計 64,000 回のクリアを同時に記録し、その間も別スレッドが上位を読み続ける
+     * 期待値:
+     * 1. 最終的なスコアが1件も欠けずに正しいこと
+     * 2. 読み込み中も順位に同じ人が2回出たり、順番が崩れたりしないこと
+     */
+    @Test
+    @DisplayName("ストレス: 同時に大量のクリアを記録しても、スコアと順位が壊れないこと")
+    void testConcurrentStress() throws Exception {
+        int threads = 16;
+        int players = 200;
+        int riddlesPerThread = 4_000;
+        RankingBoard board = new RankingBoard(10_000);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<String> readerErrors = new ArrayList<>();
+
+        try {
+            // 読む側: 書き込み中もずっと上位を取り出して中身を確かめる
+            Future<?> reader = executor.submit(() -> {
+                start.await();
+                while (writing.get()) {
+                    List<RankingEntry> top = board.top(20);
+                    Set<String> names = new HashSet<>();
+                    for (int i = 0; i < top.size(); i++) {
+                        RankingEntry e = top.get(i);
+                        if (!names.add(e.player())) {
+                            readerErrors.add("重複: " + e.player());
+                        }
+                        if (e.rank() != i + 1) {
+                            readerErrors.add("順位の番号がずれている: " + e);
+                        }
+                    }
+                }
+                return null;
+            });
+
+            // 書く側: スレッド t は問題ID t*riddlesPerThread+i を、プレイヤー i%players として解く
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < riddlesPerThread; i++) {
+                        int riddleId = thread * riddlesPerThread + i;
+                        board.record("p" + (i % players), riddleId, 1 + (i % players) % 5, System.nanoTime());
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> w : writers) {
+                w.get(30, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            reader.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(readerErrors.isEmpty(), readerErrors.toString());
+        assertEquals((long) threads * riddlesPerThread, board.totalSolves());
+        assertEquals(players, board.playerCount());
+
+        // プレイヤー p は 1 回あたり 1 + p%5 点を、threads * riddlesPerThread / players 回取っている
+        long solvesPerPlayer = (long) threads * riddlesPerThread / players;
+        for (int p = 0; p < players; p++) {
+            assertEquals(solvesPerPlayer * (1 + p % 5), board.scoreOf("p" + p), "p" + p);
+        }
+
+        // 最終的な順位は全員ちょうど1回ずつ、スコアの高い順
+        List<RankingEntry> all = board.top(players);
+        assertEquals(players, all.size());
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).score() >= all.get(i).score());
+        }
+        assertEquals(solvesPerPlayer * 5, all.get(0).score());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.solvingriddles.service;
+
+import com.example.solvingriddles.constant.AppConst;
+import com.example.solvingriddles.model.RankingPeriod;
+import com.example.solvingriddles.model.Riddle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ランキングサービス (RankingService) を検証するテスト
+ * 時計を差し替えて、日間・週間のボードが日付の変わり目で入れ替わることを確認する。
+ */
+class RankingServiceTest {
+
+    private static final ZoneId TOKYO = ZoneId.of("Asia/Tokyo");
+
+    /**
+     * 進められる時計 (テスト用)
+     */
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return TOKYO;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private static Riddle riddle(int id, Integer level) {
+        return new Riddle(id, "Q" + id, "A", null, "text", null, level, null, null, null);
+    }
+
+    @Test
+    @DisplayName("スコア: 難易度の分だけ増え、モードごとに分かれること")
+    void testRecordSolve() {
+        RankingService service = new RankingService(1000);
+
+        service.recordSolve(AppConst.MODE_HACKER, "NEO", riddle(1, 3));
+        service.recordSolve(AppConst.MODE_HACKER, "NEO", riddle(2, null));
+        service.recordSolve(AppConst.MODE_CASUAL, "NEO", riddle(1, 5));
+
+        assertEquals(4, service.scoreOf(AppConst.MODE_HACKER, RankingPeriod.ALL_TIME, "NEO"));
+        assertEquals(5, service.scoreOf(AppConst.MODE_CASUAL, RankingPeriod.DAILY, "NEO"));
+        assertEquals(1, service.top(AppConst.MODE_HACKER, RankingPeriod.WEEKLY, 10).entries().size());
+    }
+
+    @Test
+    @DisplayName("記録しないケース: プレイヤー名なし・知らないモードは無視されること")
+    void testIgnored() {
+        RankingService service = new RankingService(1000);
+
+        service.recordSolve(AppConst.MODE_HACKER, null, riddle(1, 1));
+        service.recordSolve("UNKNOWN", "NEO", riddle(1, 1));
+
+        assertTrue(service.top(AppConst.MODE_HACKER, RankingPeriod.ALL_TIME, 10).entries().isEmpty());
+        assertTrue(service.top("UNKNOWN", RankingPeriod.ALL_TIME, 10).entries().isEmpty());
+    }
+
+    @Test
+    @DisplayName("期間: 日付が変わると日間だけ、週が変わると週間もリセットされること")
+    void testRollingBuckets() {
+        // 2026-10-14 (水) 23:30 JST
+        MutableClock clock = new MutableClock(Instant.parse("2026-10-14T14:30:00Z"));
+        RankingService service = new RankingService(clock, 1000);
+
+        service.recordSolve(AppConst.MODE_HACKER, "NEO", riddle(1, 2));
+
+        // 30分後 → 木曜 0:00 (同じ週)
+        clock.advance(Duration.ofMinutes(30));
+        assertEquals(0, service.scoreOf(AppConst.MODE_HACKER, RankingPeriod.DAILY, "NEO"));
+        assertEquals(2, service.scoreOf(AppConst.MODE_HACKER, RankingPeriod.WEEKLY, "NEO"));
+
+        // 同じ問題でも、新しい日のボードでは1回目として数える
+        service.recordSolve(AppConst.MODE_HACKER, "NEO", riddle(1, 2));
+        assertEquals(2, service.scoreOf(AppConst.MODE_HACKER, RankingPeriod.DAILY, "NEO"));
+        assertEquals(2, service.scoreOf(AppConst.MODE_HACKER, RankingPeriod.WEEKLY, "NEO"));
+
+        // 次の月曜まで進める → 週間もリセット、全期間はそのまま
+        clock.advance(Duration.ofDays(4));
+        assertEquals(0, service.scoreOf(AppConst.MODE_HACKER, RankingPeriod.WEEKLY, "NEO"));
+        assertEquals(2, service.scoreOf(AppConst.MODE_HACKER, RankingPeriod.ALL_TIME, "NEO"));
+    }
+
+    @Test
+    @DisplayName("人数の指定: 1〜100 に丸められること")
+    void testLimitClamp() {
+        RankingService service = new RankingService(1000);
+        for (int i = 0; i < 150; i++) {
+            service.recordSolve(AppConst.MODE_CASUAL, "p" + i, riddle(1, 1));
+        }
+
+        assertEquals(1, service.top(AppConst.MODE_CASUAL, RankingPeriod.ALL_TIME, 0).entries().size());
+        assertEquals(RankingService.MAX_LIMIT,
+                service.top(AppConst.MODE_CASUAL, RankingPeriod.ALL_TIME, 1000).entries().size());
+    }
+}
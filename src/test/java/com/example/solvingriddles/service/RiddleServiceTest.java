@@ -1,21 +1,35 @@
 package com.example.solvingriddles.service;
 
+import com.example.solvingriddles.metrics.RiddleMetrics;
+import com.example.solvingriddles.model.AnswerCheck;
+import com.example.solvingriddles.model.AnswerKey;
+import com.example.solvingriddles.model.AnswerResult;
 import com.example.solvingriddles.model.Riddle;
+import com.example.solvingriddles.model.RiddleSummary;
 import com.example.solvingriddles.model.RiddleOption;
+import com.example.solvingriddles.repository.RiddlePack;
 import com.example.solvingriddles.repository.RiddleRepository;
 import com.example.solvingriddles.constant.AppConst;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -28,6 +42,15 @@ class RiddleServiceTest {
     @Mock
     private RiddleRepository repository;
 
+    // メトリクスは本物をメモリ上で動かして、記録された値も検証する
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private RiddleMetrics metrics = new RiddleMetrics(meterRegistry);
+
+    @Mock
+    private RankingService rankingService;
+
     @InjectMocks
     private RiddleService service;
 
@@ -42,7 +65,7 @@ class RiddleServiceTest {
     void testCheckAnswerCorrect(String mode) {
         // 準備: Optionsはnull
         Riddle mockRiddle = new Riddle(1, "テスト問題", "Answer", "ヒント", "text", null,1, null,null,null);
-        when(repository.findById(mode, 1)).thenReturn(Optional.of(mockRiddle));
+        when(repository.findAnswerKey(mode, 1)).thenReturn(Optional.of(AnswerKey.of(mockRiddle)));
 
         // 実行
         boolean result = service.checkAnswer(mode, 1, "Answer");
@@ -62,7 +85,7 @@ class RiddleServiceTest {
     void testCheckAnswerIncorrect(String mode) {
         // 準備
         Riddle mockRiddle = new Riddle(1, "テスト(hacker/casual両モードで実行)問題", "Answer", "ヒント", "text", null,1, null,null,null);
-        when(repository.findById(mode, 1)).thenReturn(Optional.of(mockRiddle));
+        when(repository.findAnswerKey(mode, 1)).thenReturn(Optional.of(AnswerKey.of(mockRiddle)));
 
         // 実行
         boolean result = service.checkAnswer(mode, 1, "Wrong");
@@ -83,7 +106,7 @@ class RiddleServiceTest {
     void testCheckAnswerIgnoreCase(String mode) {
         // 準備
         Riddle mockRiddle = new Riddle(1, "テスト(hacker/casual両モードで実行)問題", "Answer", "ヒント", "text", null,1, null,null,null);
-        when(repository.findById(mode, 1)).thenReturn(Optional.of(mockRiddle));
+        when(repository.findAnswerKey(mode, 1)).thenReturn(Optional.of(AnswerKey.of(mockRiddle)));
 
         // 実行
         boolean result = service.checkAnswer(mode, 1, "Answer");
@@ -110,7 +133,7 @@ class RiddleServiceTest {
         // 準備: Optionsが入ったRiddleを作る (答えは "found")
         Riddle mockRiddle = new Riddle(4, "クリック問題", "found", "ヒント", "click", options,1, null,null,null);
         
-        when(repository.findById(mode, 4)).thenReturn(Optional.of(mockRiddle));
+        when(repository.findAnswerKey(mode, 4)).thenReturn(Optional.of(AnswerKey.of(mockRiddle)));
 
         // 実行: 正解の "found" を渡す
         boolean result = service.checkAnswer(mode, 4, "found");
@@ -144,6 +167,18 @@ class RiddleServiceTest {
         assertEquals(1, result.get(0).id());
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = { AppConst.MODE_HACKER, AppConst.MODE_CASUAL })
+    @DisplayName("要約の全件取得: RepositoryのfindSummariesをそのまま返すこと")
+    void testFindSummaries(String mode) {
+        List<RiddleSummary> summaries = List.of(
+            RiddleSummary.of(new Riddle(1, "Q", "A", "H", "text", null, 1, null,null,null))
+        );
+        when(repository.findSummaries(mode)).thenReturn(summaries);
+
+        assertSame(summaries, service.findSummaries(mode));
+    }
+
     /**
      * 正規表現の修正確認: Takoyakiの綴りを厳格に判定すること
      * 条件: 正解データが "^[Tt]a[ck]oyak[iy]$" の場合
@@ -159,7 +194,7 @@ class RiddleServiceTest {
         String regex = "^[Tt]a[ck]oyak[iy]$";
         Riddle mockRiddle = new Riddle(99, "タコヤキ問題", regex, "H", "text", null, 1, null,null,null);
         
-        when(repository.findById(mode, 99)).thenReturn(Optional.of(mockRiddle));
+        when(repository.findAnswerKey(mode, 99)).thenReturn(Optional.of(AnswerKey.of(mockRiddle)));
 
         // 検証: 全8パターンが true になるはず！
         // 1. k - i
@@ -214,4 +249,117 @@ class RiddleServiceTest {
         assertFalse("銭湯".matches(regexAnswer), "違う言葉は弾くこと");
         assertFalse("おんせんたまご".matches(regexAnswer), "部分一致じゃなくて完全一致であること(^$)");
     }
-}
\ No newline at end of file
+
+    /**
+     * メトリクスのテスト: 判定結果ごとに回数が記録されること
+     * 条件: 正解1回・不正解1回・存在しないID1回
+     * 期待値: outcome タグごとにカウンタが1ずつ増え、存在しないIDの type は "unknown" になること
+     */
+    @Test
+    @DisplayName("メトリクス: 正解/不正解/存在しないIDがタグ付きで記録されること")
+    void testCheckAnswerMetrics() {
+        Riddle mockRiddle = new Riddle(1, "Q", "^(a|b)$", "H", "text", null, 1, null, null, null);
+        when(repository.findAnswerKey(AppConst.MODE_CASUAL, 1)).thenReturn(Optional.of(AnswerKey.of(mockRiddle)));
+
+        service.checkAnswer(AppConst.MODE_CASUAL, 1, "a");
+        service.checkAnswer(AppConst.MODE_CASUAL, 1, "c");
+        service.checkAnswer(AppConst.MODE_CASUAL, 999, "a");
+
+        assertEquals(1.0, meterRegistry.get(RiddleMetrics.ANSWER_ATTEMPTS)
+                .tags("mode", AppConst.MODE_CASUAL, "type", "text", "outcome", "correct").counter().count());
+        assertEquals(1.0, meterRegistry.get(RiddleMetrics.ANSWER_ATTEMPTS)
+                .tags("mode", AppConst.MODE_CASUAL, "type", "text", "outcome", "incorrect").counter().count());
+        assertEquals(1.0, meterRegistry.get(RiddleMetrics.ANSWER_ATTEMPTS)
+                .tags("mode", AppConst.MODE_CASUAL, "type", "unknown", "outcome", "unknown").counter().count());
+        // 書き出した正規表現の判定 (HashSet の検索) は正解・不正解の2回
+        assertEquals(2, meterRegistry.get(RiddleMetrics.ANSWER_CHECK).tags("path", "lookup").timers()
+                .stream().mapToLong(Timer::count).sum());
+    }
+
+    /**
+     * メトリクスのテスト: タグの値が候補外なら "other" に丸められること
+     * 条件: 知らないモードで問い合わせる
+     * 期待値: mode タグが "other" になること (でたらめな値でメトリクスが増えない)
+     */
+    @Test
+    @DisplayName("メトリクス: 知らないモードはotherに丸められること")
+    void testMetricsCardinality() {
+        service.checkAnswer("../../etc/passwd", 1, "a");
+        service.checkAnswer("RANDOM-" + System.nanoTime(), 2, "b");
+
+        assertEquals(2.0, meterRegistry.get(RiddleMetrics.ANSWER_ATTEMPTS)
+                .tags("mode", "other").counter().count());
+        assertEquals(1, meterRegistry.get(RiddleMetrics.ANSWER_ATTEMPTS).counters().size());
+    }
+
+    /**
+     * ランキング連携のテスト
+     * 条件: プレイヤー名付きで正解・不正解を1回ずつ送る
+     * 期待値: 正解の時だけ、その問題がランキングに記録されること
+     */
+    @Test
+    @DisplayName("ランキング: 正解の時だけ記録されること")
+    void testCheckAnswerRecordsSolve() {
+        Riddle mockRiddle = new Riddle(1, "テスト問題", "Answer", "ヒント", "text", null, 3, null, null, null);
+        when(repository.findAnswerKey(AppConst.MODE_HACKER, 1)).thenReturn(Optional.of(AnswerKey.of(mockRiddle)));
+
+        assertFalse(service.checkAnswer(AppConst.MODE_HACKER, 1, "Wrong", "NEO"));
+        verify(rankingService, never()).recordSolve(any(), any(), any());
+
+        assertTrue(service.checkAnswer(AppConst.MODE_HACKER, 1, "Answer", "NEO"));
+        verify(rankingService).recordSolve(AppConst.MODE_HACKER, "NEO", mockRiddle);
+        // 判定した時と同じ版の問題を記録する (問題だけ別に引き直さない)
+        verify(repository, never()).findById(any(), any());
+    }
+
+    /**
+     * まとめて判定のテスト
+     * 条件: 正解・不正解・存在しない問題・null を混ぜて、並列になる件数まで増やして送る
+     * 期待値: 入力と同じ順番で結果が返り、ランキングには記録されないこと
+     */
+    @Test
+    @DisplayName("まとめて判定: 並列でも入力と同じ順番で結果が返ること")
+    void testCheckAnswers() {
+        Riddle mockRiddle = new Riddle(1, "テスト問題", "Answer", "ヒント", "text", null, 1, null, null, null);
+        when(repository.findAnswerKey(AppConst.MODE_HACKER, 1)).thenReturn(Optional.of(AnswerKey.of(mockRiddle)));
+        when(repository.findAnswerKey(AppConst.MODE_HACKER, 2)).thenReturn(Optional.empty());
+
+        List<AnswerCheck> checks = new ArrayList<>();
+        List<AnswerResult> expected = new ArrayList<>();
+        for (int i = 0; checks.size() < RiddleService.PARALLEL_THRESHOLD * 2; i++) {
+            checks.add(new AnswerCheck(AppConst.MODE_HACKER, 1, "Answer"));
+            expected.add(AnswerResult.CORRECT);
+            checks.add(new AnswerCheck(AppConst.MODE_HACKER, 1, "Wrong" + i));
+            expected.add(AnswerResult.INCORRECT);
+            checks.add(new AnswerCheck(AppConst.MODE_HACKER, 2, "Answer"));
+            expected.add(AnswerResult.UNKNOWN);
+            checks.add(null);
+            expected.add(AnswerResult.UNKNOWN);
+        }
+
+        // 少ない件数 (順番に判定) と多い件数 (並列に判定) の両方
+        assertEquals(expected.subList(0, 4), service.checkAnswers(checks.subList(0, 4)));
+        assertEquals(expected, service.checkAnswers(checks));
+        verify(rankingService, never()).recordSolve(any(), any(), any());
+    }
+
+    /**
+     * モードのそろえ方のテスト (ランキング・検索画面のパラメータ)
+     * 条件: 登録されているモードを小文字で・知らないモード・null で渡す
+     * 期待値: 登録されているモードは大文字にそろえ、それ以外はハッカーモードになること
+     */
+    @Test
+    @DisplayName("モード: 登録されているモードにそろえ、知らないモードはハッカーモードにすること")
+    void testNormalizeMode() {
+        when(repository.packs()).thenReturn(List.of(
+            new RiddlePack(AppConst.MODE_HACKER, AppConst.STYLE_HACKER, "data/hacker_riddles.json", null, true),
+            new RiddlePack("HALLOWEEN", AppConst.STYLE_CASUAL, "packs/halloween.json", null, false)
+        ));
+
+        assertEquals(List.of(AppConst.MODE_HACKER, "HALLOWEEN"), service.modes());
+        assertEquals("HALLOWEEN", service.normalizeMode("halloween"));
+        assertEquals(AppConst.MODE_HACKER, service.normalizeMode(AppConst.MODE_CASUAL));
+        assertEquals(AppConst.MODE_HACKER, service.normalizeMode("../etc"));
+        assertEquals(AppConst.MODE_HACKER, service.normalizeMode(null));
+    }
+}